@@ -7,6 +7,7 @@ import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
 import org.springframework.retry.annotation.EnableRetry;
 
 @Configuration
@@ -14,14 +15,18 @@ import org.springframework.retry.annotation.EnableRetry;
 @EnableRetry
 public class ChatClientConfiguration {
 
+    public static final String DEFAULT_SYSTEM_PROMPT =
+            "You are an expert AI assistant specialized in banking, finance, fraud detection, risk assessment, and regulatory compliance. " +
+            "You provide accurate, professional, and helpful responses based on banking industry best practices.";
+
     @Bean
     @Primary
+    @Profile("!replay & !sweep-benchmark & !portfolio-benchmark")
     public ChatClient chatClient(OllamaChatModel ollamaChatModel) {
         try {
             return ChatClient
                     .builder(ollamaChatModel)
-                    .defaultSystem("You are an expert AI assistant specialized in banking, finance, fraud detection, risk assessment, and regulatory compliance. " +
-                            "You provide accurate, professional, and helpful responses based on banking industry best practices.")
+                    .defaultSystem(DEFAULT_SYSTEM_PROMPT)
                     .build();
         } catch (Exception e) {
             log.error("Failed to initialize ChatClient", e);
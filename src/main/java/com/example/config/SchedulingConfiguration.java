@@ -0,0 +1,13 @@
+package com.example.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables Spring's scheduled task support for background jobs
+ * such as model hot reload.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
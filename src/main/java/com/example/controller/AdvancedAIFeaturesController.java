@@ -81,9 +81,10 @@ public class AdvancedAIFeaturesController {
     @GetMapping("/structured/transaction-summary/{accountNumber}")
     public ResponseEntity<TransactionSummary> getTransactionSummaryStructured(
             @PathVariable String accountNumber,
-            @RequestParam(defaultValue = "30") int days) {
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(defaultValue = "false") boolean aiInsights) {
         return ResponseEntity.ok(
-                structuredOutputService.getTransactionSummaryStructured(accountNumber, days));
+                structuredOutputService.getTransactionSummaryStructured(accountNumber, days, aiInsights));
     }
 
     @PostMapping("/structured/risk-assessment")
@@ -2,7 +2,15 @@ package com.example.controller;
 
 import com.example.model.dto.ComplianceCheckRequest;
 import com.example.model.dto.ComplianceCheckResponse;
+import com.example.model.dto.ComplianceSweepStatus;
+import com.example.model.dto.CompositeComplianceRequest;
+import com.example.model.dto.CompositeComplianceResponse;
+import com.example.model.dto.CounterpartyGraphFeatures;
+import com.example.model.dto.ScreeningMatch;
 import com.example.service.ComplianceService;
+import com.example.service.ComplianceSweepService;
+import com.example.service.CounterpartyGraphService;
+import com.example.service.NameScreeningService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +18,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/compliance")
 @RequiredArgsConstructor
@@ -17,6 +27,9 @@ import org.springframework.web.bind.annotation.*;
 public class ComplianceController {
     
     private final ComplianceService complianceService;
+    private final ComplianceSweepService complianceSweepService;
+    private final NameScreeningService nameScreeningService;
+    private final CounterpartyGraphService counterpartyGraphService;
     
     @PostMapping("/check")
     public ResponseEntity<ComplianceCheckResponse> checkCompliance(
@@ -26,5 +39,36 @@ public class ComplianceController {
         ComplianceCheckResponse response = complianceService.checkCompliance(request);
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
+    
+    @PostMapping("/check/composite")
+    public ResponseEntity<CompositeComplianceResponse> checkComposite(
+            @RequestBody @Valid CompositeComplianceRequest request) {
+        log.info("Received composite compliance check request: types={}, account={}",
+                request.getComplianceTypes(), request.getAccountNumber());
+        CompositeComplianceResponse response = complianceService.checkComposite(request);
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+    
+    @PostMapping("/sweep")
+    public ResponseEntity<ComplianceSweepStatus> startSweep() {
+        boolean started = complianceSweepService.start();
+        log.info("Received compliance sweep request, started: {}", started);
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(complianceSweepService.getStatus());
+    }
+    
+    @GetMapping("/sweep/status")
+    public ResponseEntity<ComplianceSweepStatus> getSweepStatus() {
+        return ResponseEntity.status(HttpStatus.OK).body(complianceSweepService.getStatus());
+    }
+    
+    @GetMapping("/screen")
+    public ResponseEntity<List<ScreeningMatch>> screenName(@RequestParam String name) {
+        return ResponseEntity.status(HttpStatus.OK).body(nameScreeningService.screen("name", name));
+    }
+    
+    @GetMapping("/graph/{accountNumber}")
+    public ResponseEntity<CounterpartyGraphFeatures> getGraphFeatures(@PathVariable String accountNumber) {
+        return ResponseEntity.status(HttpStatus.OK).body(counterpartyGraphService.features(accountNumber));
+    }
 }
-
@@ -0,0 +1,44 @@
+package com.example.controller;
+
+import com.example.model.FraudAlert;
+import com.example.model.dto.FraudAlertPage;
+import com.example.service.FraudAlertTriageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/fraud-alerts")
+@RequiredArgsConstructor
+@Slf4j
+public class FraudAlertController {
+    
+    private final FraudAlertTriageService fraudAlertTriageService;
+    
+    @GetMapping
+    public ResponseEntity<FraudAlertPage> getAlerts(
+            @RequestParam(defaultValue = "PENDING") String status,
+            @RequestParam(required = false) String severity,
+            @RequestParam(defaultValue = "detectedAt") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        FraudAlertPage page = fraudAlertTriageService.getAlerts(status, severity, sort, cursor, size);
+        return ResponseEntity.status(HttpStatus.OK).body(page);
+    }
+    
+    @GetMapping("/account/{accountNumber}")
+    public ResponseEntity<FraudAlertPage> getAlertsForAccount(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(fraudAlertTriageService.getAlertsForAccount(accountNumber, cursor, size));
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<FraudAlert> getAlert(@PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.OK).body(fraudAlertTriageService.getAlert(id));
+    }
+}
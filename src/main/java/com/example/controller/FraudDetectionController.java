@@ -1,8 +1,12 @@
 package com.example.controller;
 
+import com.example.model.dto.AccountGeoProfile;
 import com.example.model.dto.FraudDetectionRequest;
 import com.example.model.dto.FraudDetectionResponse;
+import com.example.model.dto.FraudModelTrainingResponse;
 import com.example.service.FraudDetectionService;
+import com.example.service.FraudModelTrainingService;
+import com.example.service.GeoLocationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +21,8 @@ import org.springframework.web.bind.annotation.*;
 public class FraudDetectionController {
     
     private final FraudDetectionService fraudDetectionService;
+    private final FraudModelTrainingService fraudModelTrainingService;
+    private final GeoLocationService geoLocationService;
     
     @PostMapping("/analyze")
     public ResponseEntity<FraudDetectionResponse> analyzeTransaction(
@@ -25,5 +31,16 @@ public class FraudDetectionController {
         FraudDetectionResponse response = fraudDetectionService.detectFraud(request);
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
+    
+    @PostMapping("/model/train")
+    public ResponseEntity<FraudModelTrainingResponse> trainModel() {
+        log.info("Received fraud model training request");
+        FraudModelTrainingResponse response = fraudModelTrainingService.trainModel();
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+    
+    @GetMapping("/geo-profile/{accountNumber}")
+    public ResponseEntity<AccountGeoProfile> getGeoProfile(@PathVariable String accountNumber) {
+        return ResponseEntity.status(HttpStatus.OK).body(geoLocationService.getProfile(accountNumber));
+    }
 }
-
@@ -2,7 +2,12 @@ package com.example.controller;
 
 import com.example.model.dto.RiskAssessmentRequest;
 import com.example.model.dto.RiskAssessmentResponse;
+import com.example.model.dto.RiskRecomputationStatus;
+import com.example.model.dto.RiskTrendRequest;
+import com.example.model.dto.RiskTrendResponse;
 import com.example.service.RiskAssessmentService;
+import com.example.service.RiskRecomputationService;
+import com.example.service.RiskScoreHistoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +22,8 @@ import org.springframework.web.bind.annotation.*;
 public class RiskAssessmentController {
     
     private final RiskAssessmentService riskAssessmentService;
+    private final RiskRecomputationService riskRecomputationService;
+    private final RiskScoreHistoryService riskScoreHistoryService;
     
     @PostMapping("/assess")
     public ResponseEntity<RiskAssessmentResponse> assessRisk(
@@ -25,5 +32,24 @@ public class RiskAssessmentController {
         RiskAssessmentResponse response = riskAssessmentService.assessRisk(request);
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
+    
+    @PostMapping("/recompute")
+    public ResponseEntity<RiskRecomputationStatus> startRecomputation() {
+        boolean started = riskRecomputationService.start();
+        log.info("Received risk recomputation request, started: {}", started);
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(riskRecomputationService.getStatus());
+    }
+    
+    @GetMapping("/recompute/status")
+    public ResponseEntity<RiskRecomputationStatus> getRecomputationStatus() {
+        return ResponseEntity.status(HttpStatus.OK).body(riskRecomputationService.getStatus());
+    }
+    
+    @PostMapping("/trends")
+    public ResponseEntity<RiskTrendResponse> getTrends(@RequestBody @Valid RiskTrendRequest request) {
+        log.info("Received risk trend request for {} accounts", request.getAccountNumbers().size());
+        RiskTrendResponse response = riskScoreHistoryService.getTrends(request);
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
 }
-
@@ -1,8 +1,13 @@
 package com.example.controller;
 
+import com.example.model.dto.IncrementalAnalysisResponse;
+import com.example.model.dto.PortfolioAnalysisRequest;
+import com.example.model.dto.PortfolioAnalysisResponse;
 import com.example.model.dto.TransactionAnalysisRequest;
 import com.example.model.dto.TransactionAnalysisResponse;
+import com.example.service.IncrementalAnalysisService;
 import com.example.service.TransactionAnalysisService;
+import com.example.service.TransactionRollupService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +15,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/v1/transaction-analysis")
 @RequiredArgsConstructor
@@ -17,6 +24,8 @@ import org.springframework.web.bind.annotation.*;
 public class TransactionAnalysisController {
     
     private final TransactionAnalysisService transactionAnalysisService;
+    private final TransactionRollupService transactionRollupService;
+    private final IncrementalAnalysisService incrementalAnalysisService;
     
     @PostMapping("/analyze")
     public ResponseEntity<TransactionAnalysisResponse> analyzeTransactions(
@@ -25,5 +34,29 @@ public class TransactionAnalysisController {
         TransactionAnalysisResponse response = transactionAnalysisService.analyzeTransactions(request);
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
+    
+    @PostMapping("/portfolio")
+    public ResponseEntity<PortfolioAnalysisResponse> analyzePortfolio(@RequestBody PortfolioAnalysisRequest request) {
+        log.info("Received portfolio analysis request for customer: {}, accounts: {}",
+                request.getCustomerId(), request.getAccountNumbers());
+        PortfolioAnalysisResponse response = transactionAnalysisService.analyzePortfolio(request);
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+    
+    @PostMapping("/incremental/{accountNumber}")
+    public ResponseEntity<IncrementalAnalysisResponse> analyzeIncrementally(@PathVariable String accountNumber) {
+        log.info("Received incremental analysis request for account: {}", accountNumber);
+        IncrementalAnalysisResponse response = incrementalAnalysisService.analyzeIncrementally(accountNumber);
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+    
+    @PostMapping("/rollups/backfill")
+    public ResponseEntity<Map<String, Object>> backfillRollups() {
+        log.info("Received daily rollup backfill request");
+        int accounts = transactionRollupService.backfill();
+        if (accounts < 0) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("status", "RUNNING_ELSEWHERE"));
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(Map.of("accountsProcessed", accounts));
+    }
 }
-
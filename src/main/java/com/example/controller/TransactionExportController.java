@@ -0,0 +1,59 @@
+package com.example.controller;
+
+import com.example.model.dto.TransactionExportRequest;
+import com.example.service.TransactionExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/v1/transactions")
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionExportController {
+    
+    private final TransactionExportService transactionExportService;
+    
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(required = false) String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "CSV") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        TransactionExportRequest request = TransactionExportRequest.builder()
+                .accountNumber(accountNumber)
+                .startDate(startDate)
+                .endDate(endDate)
+                .format(format)
+                .gzip(gzip)
+                .build();
+        // Validate before streaming starts; once rows are written the status can no longer change
+        TransactionExportService.Format exportFormat = transactionExportService.validate(request);
+        log.info("Received transaction export request: account={}, from={}, to={}, format={}, gzip={}",
+                accountNumber, startDate, endDate, exportFormat, gzip);
+        
+        String filename = "transactions" + (accountNumber != null ? "-" + accountNumber : "")
+                + (exportFormat == TransactionExportService.Format.CSV ? ".csv" : ".ndjson")
+                + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : exportFormat == TransactionExportService.Format.CSV ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                : MediaType.parseMediaType("application/x-ndjson");
+        
+        StreamingResponseBody body = out -> transactionExportService.export(request, out);
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.event;
+
+import com.example.model.Transaction;
+
+/**
+ * Published after a transaction has been persisted, so incremental detectors
+ * and read models can update without rescanning history.
+ */
+public record TransactionSavedEvent(Transaction transaction) {}
@@ -0,0 +1,79 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running analysis state per account: cumulative totals of every transaction created up to the watermark,
+ * and the last insight text. Incremental analyses reread transactions created within an overlap window
+ * before the watermark and skip the ids recorded in recentTransactions, which were already folded in.
+ */
+@Entity
+@Table(name = "account_analysis_state")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountAnalysisState {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, unique = true)
+    private String accountNumber;
+    
+    // Highest transaction id folded in; informational, ids are not assigned in commit order
+    @Column(nullable = false)
+    private Long lastTransactionId;
+    
+    private LocalDateTime watermarkCreatedAt;
+    
+    // Transactions folded in whose created_at falls within the overlap window before the watermark
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "account_analysis_state_recent", joinColumns = @JoinColumn(name = "state_id"))
+    @MapKeyColumn(name = "transaction_id")
+    @Column(name = "created_at")
+    @Builder.Default
+    private Map<Long, LocalDateTime> recentTransactions = new HashMap<>();
+    
+    @Column(nullable = false)
+    private Long transactionCount;
+    
+    @Column(nullable = false)
+    private Long debitCount;
+    
+    @Column(nullable = false)
+    private Long creditCount;
+    
+    @Column(nullable = false)
+    private Long debitTotalCents;
+    
+    @Column(nullable = false)
+    private Long creditTotalCents;
+    
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "account_analysis_state_categories", joinColumns = @JoinColumn(name = "state_id"))
+    @MapKeyColumn(name = "merchant_category")
+    @Column(name = "debit_total_cents")
+    @Builder.Default
+    private Map<String, Long> categoryDebitCents = new HashMap<>();
+    
+    private LocalDateTime firstTransactionAt;
+    
+    private LocalDateTime lastTransactionAt;
+    
+    @Column(columnDefinition = "TEXT")
+    private String lastInsights;
+    
+    private LocalDateTime lastAnalyzedAt;
+    
+    @Version
+    private Long version;
+}
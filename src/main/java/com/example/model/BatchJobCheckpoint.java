@@ -0,0 +1,51 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a long-running batch job, committed with each chunk so a restarted job resumes
+ * after the last completed key instead of starting over.
+ */
+@Entity
+@Table(name = "batch_job_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchJobCheckpoint {
+    @Id
+    private String jobName;
+    
+    @Column(nullable = false)
+    private String status; // RUNNING, COMPLETED, FAILED
+    
+    // Job-defined stage, e.g. which account selection is being walked
+    private Integer phase;
+    
+    // Last key whose chunk was committed; keys are walked in ascending order
+    private String lastKey;
+    
+    private long processed;
+    
+    private long failed;
+    
+    @Column(nullable = false)
+    private LocalDateTime runStartedAt;
+    
+    private LocalDateTime completedAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
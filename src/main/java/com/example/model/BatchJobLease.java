@@ -0,0 +1,33 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Expiring claim on a batch job, so only one instance runs it at a time. Rows are written only with
+ * conditional JDBC updates by BatchJobLeases; the entity defines the table.
+ */
+@Entity
+@Table(name = "batch_job_leases")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchJobLease {
+    @Id
+    private String jobName;
+    
+    // Instance holding the lease, or null once released
+    private String owner;
+    
+    @Column(nullable = false)
+    private LocalDateTime leaseExpiresAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -9,7 +9,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "fraud_alerts")
+@Table(name = "fraud_alerts", indexes = {
+        @Index(name = "idx_fraud_alerts_status_severity_detected", columnList = "status, severity, detected_at"),
+        @Index(name = "idx_fraud_alerts_status_risk", columnList = "status, risk_score"),
+        @Index(name = "idx_fraud_alerts_account_detected", columnList = "account_number, detected_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -40,6 +44,8 @@ public class FraudAlert {
     @Column(nullable = false)
     private String status; // PENDING, REVIEWED, RESOLVED, FALSE_POSITIVE
     
+    private String detector; // STRUCTURING for rule-based alerts; null for LLM fraud analysis
+    
     @Column(nullable = false)
     private LocalDateTime detectedAt;
     
@@ -0,0 +1,34 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Country resolution of a raw transaction location, so SQL can join against it instead of resolving in Java.
+ * Rebuilt with JDBC batch inserts by the compliance sweep at the start of each run; the entity defines the table.
+ */
+@Entity
+@Table(name = "location_resolutions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationResolution {
+    @Id
+    private String location;
+    
+    // ISO country code, or null when the location could not be resolved
+    private String countryCode;
+    
+    // Outside the home country, offshore or unresolvable, as decided by GeoLocationService
+    @Column(nullable = false)
+    private Boolean international;
+    
+    @Column(nullable = false)
+    private LocalDateTime resolvedAt;
+}
@@ -0,0 +1,46 @@
+package com.example.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between BigDecimal amounts and long minor units (cents) for in-memory arithmetic.
+ * All amount columns are stored with scale 2, so minor units use a fixed scale of 2 for every currency.
+ * Minor units carry no currency themselves; totals track it next to the sum and use {@link #combineCurrency}
+ * so amounts in different currencies are never added. Convert back to BigDecimal only at API and persistence
+ * boundaries.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * Convert to minor units, rounding half-up when the amount carries more than two decimals.
+     * The intermediate BigDecimal does not escape, so in hot loops the JIT normally removes it.
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        BigDecimal scaled = amount.scale() == SCALE ? amount : amount.setScale(SCALE, RoundingMode.HALF_UP);
+        return scaled.movePointRight(SCALE).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Currency of a total after adding amounts in {@code added}. Null means not known yet, so either side may
+     * be null; two different currencies are rejected rather than summed.
+     */
+    public static String combineCurrency(String current, String added) {
+        if (current == null) {
+            return added;
+        }
+        if (added != null && !current.equals(added)) {
+            throw new IllegalArgumentException("Cannot add " + added + " amounts to a " + current + " total");
+        }
+        return current;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Mutable, mergeable sum/count/min/max over amounts in minor units of one currency.
+ * State is four longs and the currency however many amounts are added; adding minor units is primitive
+ * arithmetic, and adding a BigDecimal first converts it with {@link Money#toMinorUnits}. The currency is taken
+ * from the first tagged amount, and adding or merging a different one throws IllegalArgumentException.
+ * Untagged adds are for sources that are already in a single currency.
+ * Not thread-safe; give each thread its own instance and {@link #merge} the partial results.
+ */
+public final class MoneyAccumulator {
+
+    private String currency;
+    private long sum;
+    private long count;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    public void add(long minorUnits) {
+        sum = Math.addExact(sum, minorUnits);
+        count++;
+        if (minorUnits < min) {
+            min = minorUnits;
+        }
+        if (minorUnits > max) {
+            max = minorUnits;
+        }
+    }
+
+    public void add(long minorUnits, String currency) {
+        this.currency = Money.combineCurrency(this.currency, currency);
+        add(minorUnits);
+    }
+
+    public void add(BigDecimal amount) {
+        add(Money.toMinorUnits(amount));
+    }
+
+    public void add(BigDecimal amount, String currency) {
+        add(Money.toMinorUnits(amount), currency);
+    }
+
+    public MoneyAccumulator merge(MoneyAccumulator other) {
+        currency = Money.combineCurrency(currency, other.currency);
+        sum = Math.addExact(sum, other.sum);
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    /**
+     * Currency of the tagged amounts, or null when none were tagged.
+     */
+    public String getCurrency() {
+        return currency;
+    }
+
+    public long getSumMinorUnits() {
+        return sum;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public BigDecimal getSum() {
+        return Money.toBigDecimal(sum);
+    }
+
+    /**
+     * Mean rounded half-up to the cent, or zero when empty.
+     */
+    public BigDecimal getAverage() {
+        if (count == 0) {
+            return Money.toBigDecimal(0L);
+        }
+        return BigDecimal.valueOf(sum).divide(BigDecimal.valueOf(count), 0, RoundingMode.HALF_UP)
+                .movePointLeft(Money.SCALE);
+    }
+
+    public BigDecimal getMin() {
+        return count == 0 ? null : Money.toBigDecimal(min);
+    }
+
+    public BigDecimal getMax() {
+        return count == 0 ? null : Money.toBigDecimal(max);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Mergeable quantile sketch over positive money amounts, in the style of DDSketch: values are counted in
+ * logarithmic buckets so any quantile is returned within a fixed relative error, and two sketches merge
+ * by adding bucket counts. Size is fixed (one counter per bucket from one cent up to {@link #MAX_CENTS}),
+ * independent of how many values are added. Not thread-safe.
+ */
+public final class QuantileSketch {
+
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    private static final long MAX_CENTS = 10_000_000_000_000L;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final long[] buckets;
+    private long zeroCount;
+    private long count;
+
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be in (0, 1): " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.buckets = new long[index(MAX_CENTS) + 1];
+    }
+
+    public void add(BigDecimal amount) {
+        add(Money.toMinorUnits(amount));
+    }
+
+    /**
+     * Add an amount in cents; zero and negative amounts are counted below every bucket.
+     */
+    public void add(long cents) {
+        if (cents <= 0) {
+            zeroCount++;
+        } else {
+            buckets[index(Math.min(cents, MAX_CENTS))]++;
+        }
+        count++;
+    }
+
+    public QuantileSketch merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches with different relative accuracy");
+        }
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] += other.buckets[i];
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Value at quantile q in [0, 1], within the relative accuracy; null when empty.
+     */
+    public BigDecimal quantile(double q) {
+        if (count == 0) {
+            return null;
+        }
+        long rank = (long) Math.ceil(Math.max(0.0, Math.min(1.0, q)) * count);
+        long seen = zeroCount;
+        if (rank <= seen) {
+            return BigDecimal.ZERO.setScale(Money.SCALE);
+        }
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Money.toBigDecimal(Math.round(2 * Math.pow(gamma, i) / (gamma + 1)));
+            }
+        }
+        return Money.toBigDecimal(MAX_CENTS);
+    }
+
+    /**
+     * Fraction of added values at or below the amount (its percentile rank, 0..1); NaN when empty.
+     */
+    public double rank(BigDecimal amount) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long cents = Money.toMinorUnits(amount);
+        if (cents <= 0) {
+            return (double) zeroCount / count;
+        }
+        int last = index(Math.min(cents, MAX_CENTS));
+        long atOrBelow = zeroCount;
+        for (int i = 0; i <= last; i++) {
+            atOrBelow += buckets[i];
+        }
+        return (double) atOrBelow / count;
+    }
+
+    public QuantileSketch copy() {
+        return new QuantileSketch(relativeAccuracy).merge(this);
+    }
+
+    private int index(long cents) {
+        return (int) Math.ceil(Math.log(cents) / logGamma);
+    }
+}
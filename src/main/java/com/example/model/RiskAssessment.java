@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
 import java.util.Map;
 
 @Entity
-@Table(name = "risk_assessments")
+@Table(name = "risk_assessments", indexes = {
+        @Index(name = "idx_risk_assessments_account_date", columnList = "account_number, assessment_date")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -44,6 +46,24 @@ public class RiskAssessment {
     @Column(nullable = false)
     private LocalDateTime assessmentDate;
     
+    // Taken before any account, customer or transaction data was read: transactions created after it may not be
+    // reflected, even if they were saved before the assessment finished. Null on rows from before the column existed
+    private LocalDateTime contextAsOf;
+    
+    // Account status, KYC status, risk profile and inputs the assessment was made from; a change forces a new one
+    @Column(length = 512)
+    private String contextSignature;
+    
+    // RiskFeatureVector JSON of the inputs the LLM result was produced from
+    @Column(columnDefinition = "TEXT")
+    private String featureVector;
+    
+    // Distance of the current features from the previous assessment's when this one was made
+    private Double featureDistance;
+    
+    // Set when the LLM was skipped: the assessment whose result was reused
+    private Long basedOnAssessmentId;
+    
     @Column(nullable = false)
     private LocalDateTime createdAt;
     
@@ -53,6 +73,9 @@ public class RiskAssessment {
         if (assessmentDate == null) {
             assessmentDate = LocalDateTime.now();
         }
+        if (contextAsOf == null) {
+            contextAsOf = assessmentDate;
+        }
     }
 }
 
@@ -0,0 +1,49 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One point of an account's risk score history. Recent points are individual assessments (RAW);
+ * older ones are downsampled into DAY and then WEEK buckets holding the mean, max and worst level.
+ */
+@Entity
+@Table(name = "risk_score_points", indexes = {
+        @Index(name = "idx_risk_score_points_account_time", columnList = "account_number, bucket_start"),
+        @Index(name = "idx_risk_score_points_resolution_time", columnList = "resolution, bucket_start")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskScorePoint {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String accountNumber;
+    
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(nullable = false, length = 8)
+    private String resolution; // RAW, DAY, WEEK
+    
+    @Column(nullable = false)
+    private Double score; // mean over the bucket
+    
+    @Column(nullable = false)
+    private Double maxScore;
+    
+    @Column(nullable = false)
+    private String level; // worst level in the bucket
+    
+    @Column(nullable = false)
+    private Integer sampleCount;
+}
@@ -10,7 +10,14 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_account_date", columnList = "account_number, transaction_date"),
+        @Index(name = "idx_transactions_account_created", columnList = "account_number, created_at"),
+        @Index(name = "idx_transactions_date", columnList = "transaction_date"),
+        @Index(name = "idx_transactions_created", columnList = "created_at"),
+        @Index(name = "idx_transactions_account_amount", columnList = "account_number, amount"),
+        @Index(name = "idx_transactions_account_location", columnList = "account_number, location")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -0,0 +1,70 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read model holding one row per account, calendar day, merchant category and currency.
+ * Maintained incrementally from saved transactions; period queries sum these rows instead of raw transactions.
+ */
+@Entity
+@Table(name = "transaction_daily_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_transaction_daily_rollup_key",
+                columnNames = {"account_number", "rollup_date", "merchant_category", "currency"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionDailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String accountNumber;
+    
+    @Column(nullable = false)
+    private LocalDate rollupDate;
+    
+    @Column(nullable = false)
+    private String merchantCategory;
+    
+    // Nullable so the column can be added to a populated table; rows from before it existed need a backfill
+    private String currency;
+    
+    @Column(nullable = false)
+    private Long transactionCount;
+    
+    // Defaulted so the column can be added to a populated table; rows from before it existed need a backfill
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long debitCount;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal debitTotal;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal creditTotal;
+    
+    @Column(nullable = false)
+    private LocalDateTime firstTransactionAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime lastTransactionAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
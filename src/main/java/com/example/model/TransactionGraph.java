@@ -0,0 +1,370 @@
+package com.example.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Directed multigraph of money movements between accounts. Accounts are interned to int ids and each
+ * account keeps its outgoing and incoming edges in parallel primitive arrays (peer id, epoch second,
+ * amount in cents). An edge is stored once in each direction at 20 bytes a copy; with array growth slack
+ * and the per-account lists the graph benchmark measured about 85 bytes per edge in total.
+ * Fan-out records arrival times in arrays indexed by account id and stamped with a per-query epoch, so
+ * traversals do not box or allocate per edge inspected.
+ *
+ * Queries follow time-respecting paths: each hop must happen no earlier than the hop before it and within
+ * the window after the first hop, which is what distinguishes funds being passed on from unrelated payments.
+ *
+ * Not thread-safe; callers serialise writes against reads.
+ */
+public final class TransactionGraph {
+
+    // Recently added edges checked for duplicates, e.g. the same transfer booked on both accounts
+    private static final int DUPLICATE_SCAN = 8;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] accounts = new String[1024];
+    private EdgeList[] out = new EdgeList[1024];
+    private EdgeList[] in = new EdgeList[1024];
+    // Earliest arrival per account in the current fan-out; only valid where arrivalEpoch matches fanOutEpoch
+    private long[] arrival = new long[1024];
+    private int[] arrivalEpoch = new int[1024];
+    private int fanOutEpoch;
+    private int nodeCount;
+    private long edgeCount;
+
+    public record FanOut(int[] accountsPerHop, long directOutflowCents, int directCounterparties) {
+        public int reachable() {
+            return Arrays.stream(accountsPerHop).sum();
+        }
+    }
+
+    public record Cycle(List<String> path, long startEpochSecond, long endEpochSecond,
+                        long startCents, long returnedCents) {
+        public int hops() {
+            return path.size() - 1;
+        }
+    }
+
+    /**
+     * Add a movement of {@code cents} from one account to another. Returns false, without adding it,
+     * if an identical movement was added recently.
+     */
+    public boolean addEdge(String from, String to, long epochSecond, long cents) {
+        if (from.equals(to)) {
+            return false;
+        }
+        int source = intern(from);
+        int target = intern(to);
+        if (out[source].containsRecent(target, epochSecond, cents)) {
+            return false;
+        }
+        out[source].add(target, epochSecond, cents);
+        in[target].add(source, epochSecond, cents);
+        edgeCount++;
+        return true;
+    }
+
+    /**
+     * Drop every edge older than {@code cutoff}; accounts stay interned. Returns the number of edges removed.
+     */
+    public long evictBefore(long cutoff) {
+        long removed = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            removed += out[node].removeBefore(cutoff);
+            in[node].removeBefore(cutoff);
+        }
+        edgeCount -= removed;
+        return removed;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public long getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Distinct accounts that sent money to {@code account} since the given time.
+     */
+    public int distinctSenders(String account, long since) {
+        Integer node = ids.get(account);
+        return node == null ? 0 : in[node].distinctPeersSince(since);
+    }
+
+    /**
+     * Accounts first reached at each hop along time-respecting paths that start at {@code account} no earlier
+     * than {@code since} and end within {@code windowSeconds} of their first hop.
+     */
+    public FanOut fanOut(String account, int hops, long since, long windowSeconds) {
+        int[] perHop = new int[hops];
+        Integer origin = ids.get(account);
+        if (origin == null) {
+            return new FanOut(perHop, 0, 0);
+        }
+
+        // Each frontier entry carries the deadline of its path
+        startFanOut();
+        reach(origin, Long.MIN_VALUE);
+        EdgeList direct = out[origin];
+        long directCents = 0;
+        Frontier frontier = new Frontier();
+        for (int e = 0; e < direct.size; e++) {
+            long time = direct.times[e];
+            if (time < since) {
+                continue;
+            }
+            directCents += direct.cents[e];
+            int peer = direct.peers[e];
+            boolean reached = reached(peer);
+            if (!reached) {
+                perHop[0]++;
+            }
+            if (!reached || time < arrival[peer]) {
+                reach(peer, time);
+                frontier.add(peer, time, time + windowSeconds);
+            }
+        }
+        int directCounterparties = perHop[0];
+
+        for (int hop = 1; hop < hops && frontier.size > 0; hop++) {
+            Frontier next = new Frontier();
+            for (int i = 0; i < frontier.size; i++) {
+                long reachedAt = frontier.reachedAt[i];
+                long deadline = frontier.deadlines[i];
+                EdgeList edges = out[frontier.nodes[i]];
+                for (int e = 0; e < edges.size; e++) {
+                    long time = edges.times[e];
+                    if (time < reachedAt || time > deadline) {
+                        continue;
+                    }
+                    int peer = edges.peers[e];
+                    boolean reached = reached(peer);
+                    if (!reached) {
+                        perHop[hop]++;
+                    }
+                    if (!reached || time < arrival[peer]) {
+                        reach(peer, time);
+                        next.add(peer, time, deadline);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return new FanOut(perHop, directCents, directCounterparties);
+    }
+
+    // A new epoch invalidates every arrival of the previous fan-out without clearing the arrays
+    private void startFanOut() {
+        if (++fanOutEpoch == 0) {
+            Arrays.fill(arrivalEpoch, 0);
+            fanOutEpoch = 1;
+        }
+    }
+
+    private boolean reached(int node) {
+        return arrivalEpoch[node] == fanOutEpoch;
+    }
+
+    private void reach(int node, long time) {
+        arrival[node] = time;
+        arrivalEpoch[node] = fanOutEpoch;
+    }
+
+    /**
+     * Simple cycles of up to {@code maxHops} edges that leave {@code account} no earlier than {@code since}
+     * and return to it within {@code windowSeconds}, along time-respecting paths. At most {@code edgeBudget}
+     * edges are inspected, which bounds the cost of searches through high-degree accounts.
+     */
+    public List<Cycle> cycles(String account, int maxHops, long since, long windowSeconds,
+                              int maxResults, int edgeBudget) {
+        Integer origin = ids.get(account);
+        List<Cycle> found = new ArrayList<>();
+        if (origin == null || maxHops < 2) {
+            return found;
+        }
+        CycleSearch search = new CycleSearch(origin, maxHops, windowSeconds, maxResults, edgeBudget, found);
+        EdgeList direct = out[origin];
+        for (int e = 0; e < direct.size && !search.done(); e++) {
+            long time = direct.times[e];
+            if (time >= since) {
+                search.path[1] = direct.peers[e];
+                search.extend(1, time, time, direct.cents[e]);
+            }
+        }
+        return found;
+    }
+
+    private final class CycleSearch {
+        private final int origin;
+        private final int maxHops;
+        private final long windowSeconds;
+        private final int maxResults;
+        private final List<Cycle> found;
+        private final int[] path;
+        private int budget;
+
+        CycleSearch(int origin, int maxHops, long windowSeconds, int maxResults, int edgeBudget, List<Cycle> found) {
+            this.origin = origin;
+            this.maxHops = maxHops;
+            this.windowSeconds = windowSeconds;
+            this.maxResults = maxResults;
+            this.budget = edgeBudget;
+            this.found = found;
+            this.path = new int[maxHops + 1];
+            this.path[0] = origin;
+        }
+
+        boolean done() {
+            return budget <= 0 || found.size() >= maxResults;
+        }
+
+        void extend(int depth, long startTime, long lastTime, long startCents) {
+            EdgeList edges = out[path[depth]];
+            long deadline = startTime + windowSeconds;
+            for (int e = 0; e < edges.size && !done(); e++) {
+                budget--;
+                long time = edges.times[e];
+                if (time < lastTime || time > deadline) {
+                    continue;
+                }
+                int peer = edges.peers[e];
+                if (peer == origin) {
+                    found.add(toCycle(depth, startTime, time, startCents, edges.cents[e]));
+                } else if (depth + 1 < maxHops && !onPath(peer, depth)) {
+                    path[depth + 1] = peer;
+                    extend(depth + 1, startTime, time, startCents);
+                }
+            }
+        }
+
+        private boolean onPath(int node, int depth) {
+            for (int i = 0; i <= depth; i++) {
+                if (path[i] == node) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Cycle toCycle(int depth, long startTime, long endTime, long startCents, long returnedCents) {
+            List<String> names = new ArrayList<>(depth + 2);
+            for (int i = 0; i <= depth; i++) {
+                names.add(accounts[path[i]]);
+            }
+            names.add(accounts[origin]);
+            return new Cycle(names, startTime, endTime, startCents, returnedCents);
+        }
+    }
+
+    private int intern(String account) {
+        Integer existing = ids.get(account);
+        if (existing != null) {
+            return existing;
+        }
+        if (nodeCount == accounts.length) {
+            int capacity = accounts.length * 2;
+            accounts = Arrays.copyOf(accounts, capacity);
+            out = Arrays.copyOf(out, capacity);
+            in = Arrays.copyOf(in, capacity);
+            arrival = Arrays.copyOf(arrival, capacity);
+            arrivalEpoch = Arrays.copyOf(arrivalEpoch, capacity);
+        }
+        int id = nodeCount++;
+        accounts[id] = account;
+        out[id] = new EdgeList();
+        in[id] = new EdgeList();
+        ids.put(account, id);
+        return id;
+    }
+
+    /**
+     * Accounts reached at one hop, with when they were reached and the deadline of the path reaching them.
+     */
+    private static final class Frontier {
+        private int[] nodes = new int[16];
+        private long[] reachedAt = new long[16];
+        private long[] deadlines = new long[16];
+        private int size;
+
+        void add(int node, long time, long deadline) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                reachedAt = Arrays.copyOf(reachedAt, size * 2);
+                deadlines = Arrays.copyOf(deadlines, size * 2);
+            }
+            nodes[size] = node;
+            reachedAt[size] = time;
+            deadlines[size] = deadline;
+            size++;
+        }
+    }
+
+    /**
+     * One account's edges in one direction, in insertion order.
+     */
+    private static final class EdgeList {
+        private int[] peers = new int[2];
+        private long[] times = new long[2];
+        private long[] cents = new long[2];
+        private int size;
+
+        void add(int peer, long time, long amount) {
+            if (size == peers.length) {
+                int capacity = size * 2;
+                peers = Arrays.copyOf(peers, capacity);
+                times = Arrays.copyOf(times, capacity);
+                cents = Arrays.copyOf(cents, capacity);
+            }
+            peers[size] = peer;
+            times[size] = time;
+            cents[size] = amount;
+            size++;
+        }
+
+        boolean containsRecent(int peer, long time, long amount) {
+            for (int i = size - 1; i >= 0 && i >= size - DUPLICATE_SCAN; i--) {
+                if (peers[i] == peer && times[i] == time && cents[i] == amount) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int removeBefore(long cutoff) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (times[i] >= cutoff) {
+                    peers[kept] = peers[i];
+                    times[kept] = times[i];
+                    cents[kept] = cents[i];
+                    kept++;
+                }
+            }
+            int removed = size - kept;
+            size = kept;
+            if (size < peers.length / 4 && peers.length > 8) {
+                int capacity = Math.max(2, size * 2);
+                peers = Arrays.copyOf(peers, capacity);
+                times = Arrays.copyOf(times, capacity);
+                cents = Arrays.copyOf(cents, capacity);
+            }
+            return removed;
+        }
+
+        int distinctPeersSince(long since) {
+            int[] seen = new int[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (times[i] >= since) {
+                    seen[count++] = peers[i];
+                }
+            }
+            return (int) Arrays.stream(seen, 0, count).distinct().count();
+        }
+    }
+}
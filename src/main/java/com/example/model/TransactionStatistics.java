@@ -0,0 +1,286 @@
+package com.example.model;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collector;
+
+/**
+ * Transaction statistics computed in a single pass and shared by the analysis, risk, compliance and
+ * recommendation services: type counts and sums, per-category counts and debit sums, flagged counts,
+ * min/max amounts and dates, and hour/weekday histograms.
+ *
+ * Works as a streaming sink ({@link #accept}) over cursors of any length, since state is bounded by
+ * the number of categories rather than rows, and as a parallel-stream {@link #collector()} because
+ * partial results {@link #merge}. Amounts are summed as long cents and each row does one category lookup;
+ * a category's totals are allocated when it is first seen, and the only other per-row temporary is the
+ * BigDecimal inside {@link Money#toMinorUnits}. Sums are tagged with the transactions' currency, so a stream
+ * mixing currencies fails with IllegalArgumentException instead of adding them.
+ * Not thread-safe; parallel use goes through the collector, which gives each thread its own instance.
+ */
+public final class TransactionStatistics implements Consumer<Transaction> {
+
+    private final MoneyAccumulator all = new MoneyAccumulator();
+    private final MoneyAccumulator debits = new MoneyAccumulator();
+    private final MoneyAccumulator credits = new MoneyAccumulator();
+    private final Map<String, CategoryTotals> categories = new HashMap<>();
+    private long transferCount;
+    private long flaggedCount;
+    private long pendingCount;
+    private long maxTransactionId = Long.MIN_VALUE;
+    private long largestDebitCents = Long.MIN_VALUE;
+    private String largestDebitMerchant;
+    private LocalDateTime largestDebitDate;
+    private LocalDateTime firstDate;
+    private LocalDateTime lastDate;
+    private final long[] hourOfDay = new long[24];
+    private final long[] dayOfWeek = new long[7];
+
+    public static Collector<Transaction, TransactionStatistics, TransactionStatistics> collector() {
+        return Collector.of(TransactionStatistics::new, TransactionStatistics::accept, TransactionStatistics::merge,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    @Override
+    public void accept(Transaction t) {
+        long cents = Money.toMinorUnits(t.getAmount());
+        String currency = t.getCurrency();
+        all.add(cents, currency);
+        CategoryTotals category = categories.computeIfAbsent(t.getMerchantCategory(), k -> new CategoryTotals());
+        category.count++;
+        switch (t.getTransactionType()) {
+            case "DEBIT" -> {
+                debits.add(cents, currency);
+                category.debits.add(cents, currency);
+                if (cents > largestDebitCents) {
+                    largestDebitCents = cents;
+                    largestDebitMerchant = t.getMerchantName();
+                    largestDebitDate = t.getTransactionDate();
+                }
+            }
+            case "CREDIT" -> credits.add(cents, currency);
+            case "TRANSFER" -> transferCount++;
+            default -> { }
+        }
+        if ("FRAUD_SUSPECTED".equals(t.getStatus())) {
+            flaggedCount++;
+        } else if ("PENDING".equals(t.getStatus())) {
+            pendingCount++;
+        }
+        if (t.getId() != null && t.getId() > maxTransactionId) {
+            maxTransactionId = t.getId();
+        }
+
+        LocalDateTime date = t.getTransactionDate();
+        if (firstDate == null || date.isBefore(firstDate)) {
+            firstDate = date;
+        }
+        if (lastDate == null || date.isAfter(lastDate)) {
+            lastDate = date;
+        }
+        hourOfDay[date.getHour()]++;
+        dayOfWeek[date.getDayOfWeek().getValue() - 1]++;
+    }
+
+    /**
+     * Fold another partial result into this one and return this. On equal largest debits the earlier
+     * partial wins, so an ordered parallel collect reports the same transaction as a sequential pass.
+     */
+    public TransactionStatistics merge(TransactionStatistics other) {
+        all.merge(other.all);
+        debits.merge(other.debits);
+        credits.merge(other.credits);
+        other.categories.forEach((name, totals) ->
+                categories.computeIfAbsent(name, k -> new CategoryTotals()).merge(totals));
+        transferCount += other.transferCount;
+        flaggedCount += other.flaggedCount;
+        pendingCount += other.pendingCount;
+        maxTransactionId = Math.max(maxTransactionId, other.maxTransactionId);
+        if (other.largestDebitCents > largestDebitCents) {
+            largestDebitCents = other.largestDebitCents;
+            largestDebitMerchant = other.largestDebitMerchant;
+            largestDebitDate = other.largestDebitDate;
+        }
+        if (other.firstDate != null && (firstDate == null || other.firstDate.isBefore(firstDate))) {
+            firstDate = other.firstDate;
+        }
+        if (other.lastDate != null && (lastDate == null || other.lastDate.isAfter(lastDate))) {
+            lastDate = other.lastDate;
+        }
+        for (int i = 0; i < hourOfDay.length; i++) {
+            hourOfDay[i] += other.hourOfDay[i];
+        }
+        for (int i = 0; i < dayOfWeek.length; i++) {
+            dayOfWeek[i] += other.dayOfWeek[i];
+        }
+        return this;
+    }
+
+    public long getCount() {
+        return all.getCount();
+    }
+
+    public long getDebitCount() {
+        return debits.getCount();
+    }
+
+    public long getCreditCount() {
+        return credits.getCount();
+    }
+
+    public long getTransferCount() {
+        return transferCount;
+    }
+
+    /**
+     * Transactions with status FRAUD_SUSPECTED.
+     */
+    public long getFlaggedCount() {
+        return flaggedCount;
+    }
+
+    public long getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * Currency of every amount seen, or null when the stream was empty.
+     */
+    public String getCurrency() {
+        return all.getCurrency();
+    }
+
+    public long getDebitCents() {
+        return debits.getSumMinorUnits();
+    }
+
+    public long getCreditCents() {
+        return credits.getSumMinorUnits();
+    }
+
+    /**
+     * Debit total per merchant category in cents; bounded by the number of categories, not rows.
+     */
+    public Map<String, Long> getDebitCentsByCategory() {
+        Map<String, Long> result = new HashMap<>();
+        categories.forEach((name, totals) -> {
+            if (!totals.debits.isEmpty()) {
+                result.put(name, totals.debits.getSumMinorUnits());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Number of transactions of any type per merchant category.
+     */
+    public Map<String, Long> getCountsByCategory() {
+        Map<String, Long> result = new HashMap<>();
+        categories.forEach((name, totals) -> result.put(name, totals.count));
+        return result;
+    }
+
+    /**
+     * Highest transaction id seen, or null when the stream was empty.
+     */
+    public Long getMaxTransactionId() {
+        return maxTransactionId == Long.MIN_VALUE ? null : maxTransactionId;
+    }
+
+    public BigDecimal getDebitTotal() {
+        return debits.getSum();
+    }
+
+    public BigDecimal getCreditTotal() {
+        return credits.getSum();
+    }
+
+    public BigDecimal getMaxAmount() {
+        return all.getMax();
+    }
+
+    public BigDecimal getMinAmount() {
+        return all.getMin();
+    }
+
+    public LocalDateTime getFirstDate() {
+        return firstDate;
+    }
+
+    public LocalDateTime getLastDate() {
+        return lastDate;
+    }
+
+    public int getPeakHour() {
+        return argMax(hourOfDay);
+    }
+
+    public DayOfWeek getPeakDayOfWeek() {
+        return DayOfWeek.of(argMax(dayOfWeek) + 1);
+    }
+
+    /**
+     * Share of transactions between 00:00 and 05:59.
+     */
+    public double getNightShare() {
+        if (all.isEmpty()) {
+            return 0.0;
+        }
+        long night = 0;
+        for (int hour = 0; hour < 6; hour++) {
+            night += hourOfDay[hour];
+        }
+        return (double) night / all.getCount();
+    }
+
+    /**
+     * Statistics entries for the analysis response and prompt, keyed like the rollup-based statistics.
+     */
+    public Map<String, Object> toStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        if (all.isEmpty()) {
+            return stats;
+        }
+        stats.put("currency", all.getCurrency());
+        stats.put("debitCount", debits.getCount());
+        stats.put("creditCount", credits.getCount());
+        stats.put("transferCount", transferCount);
+        stats.put("flaggedCount", flaggedCount);
+        stats.put("minTransactionAmount", all.getMin());
+        stats.put("maxTransactionAmount", all.getMax());
+        if (!debits.isEmpty()) {
+            stats.put("largestDebit", String.format("%s at %s on %s",
+                    Money.toBigDecimal(largestDebitCents), largestDebitMerchant, largestDebitDate));
+        }
+        stats.put("peakHourOfDay", getPeakHour());
+        stats.put("peakDayOfWeek", getPeakDayOfWeek());
+        stats.put("nightTransactionShare", String.format("%.2f", getNightShare()));
+        return stats;
+    }
+
+    /**
+     * Count of all transactions and debit totals of one merchant category, so each row does one map lookup.
+     */
+    private static final class CategoryTotals {
+        private long count;
+        private final MoneyAccumulator debits = new MoneyAccumulator();
+
+        void merge(CategoryTotals other) {
+            count += other.count;
+            debits.merge(other.debits);
+        }
+    }
+
+    private static int argMax(long[] values) {
+        int best = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountGeoProfile {
+    private String accountNumber;
+    private Map<String, LocalDateTime> countriesFirstSeen;
+    private Map<String, LocalDateTime> citiesFirstSeen;
+    private Integer totalTransactions;
+    private Integer internationalTransactions;
+    private Integer offshoreTransactions;
+    private Integer unverifiedLocationTransactions;
+    private Integer impossibleTravelEvents;
+    private String lastLocation;
+    private LocalDateTime lastSeen;
+}
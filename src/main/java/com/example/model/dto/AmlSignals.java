@@ -0,0 +1,96 @@
+package com.example.model.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic AML indicators for one account over the sweep window, aggregated in SQL.
+ * {@link #score()} combines them into [0, 1]; only accounts at or above the sweep threshold go to the LLM.
+ */
+public record AmlSignals(
+        String accountNumber,
+        String customerId,
+        long transactionCount,
+        BigDecimal creditTotal,
+        BigDecimal debitTotal,
+        long inBandDeposits,
+        long highValueCount,
+        long flaggedCount,
+        long counterparties,
+        long internationalCount
+) {
+    private static final BigDecimal PASS_THROUGH_MIN_VOLUME = new BigDecimal("10000");
+
+    public double score() {
+        double score = 0.0;
+        if (flaggedCount > 0) {
+            score += 0.4;
+        }
+        if (inBandDeposits >= 2) {
+            score += 0.3;
+        }
+        if (isPassThrough()) {
+            score += 0.3;
+        }
+        if (highValueCount >= 3) {
+            score += 0.2;
+        } else if (highValueCount > 0) {
+            score += 0.1;
+        }
+        if (transactionCount > 0 && internationalCount * 2 > transactionCount) {
+            score += 0.1;
+        }
+        if (counterparties >= 20) {
+            score += 0.1;
+        }
+        return Math.min(1.0, score);
+    }
+
+    /**
+     * Credits of at least 10,000 leaving again within 10%, the shape of a funnel account.
+     */
+    public boolean isPassThrough() {
+        if (creditTotal.compareTo(PASS_THROUGH_MIN_VOLUME) < 0) {
+            return false;
+        }
+        double ratio = debitTotal.doubleValue() / creditTotal.doubleValue();
+        return ratio >= 0.9 && ratio <= 1.1;
+    }
+
+    public List<String> findings() {
+        List<String> findings = new ArrayList<>();
+        if (flaggedCount > 0) {
+            findings.add(flaggedCount + " transactions flagged as suspected fraud");
+        }
+        if (inBandDeposits >= 2) {
+            findings.add(inBandDeposits + " deposits just below the reporting threshold");
+        }
+        if (isPassThrough()) {
+            findings.add("Pass-through activity: credits " + creditTotal + ", debits " + debitTotal);
+        }
+        if (highValueCount > 0) {
+            findings.add(highValueCount + " high-value transactions");
+        }
+        if (transactionCount > 0 && internationalCount * 2 > transactionCount) {
+            findings.add(internationalCount + " of " + transactionCount + " transactions international");
+        }
+        if (counterparties >= 20) {
+            findings.add(counterparties + " distinct counterparties");
+        }
+        return findings;
+    }
+
+    public String describe() {
+        return String.format("""
+                Precomputed AML Signals (sweep window):
+                - Transactions: %d, Credits: %s, Debits: %s
+                - Deposits just below reporting threshold: %d
+                - High-value transactions: %d, Flagged: %d
+                - Distinct counterparties: %d, International: %d
+                - Signal score: %.2f
+                """,
+                transactionCount, creditTotal, debitTotal, inBandDeposits,
+                highValueCount, flaggedCount, counterparties, internationalCount, score());
+    }
+}
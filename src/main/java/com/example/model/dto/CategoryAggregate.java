@@ -0,0 +1,12 @@
+package com.example.model.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * SQL-side aggregate of an account's transactions of one type and merchant category over a period.
+ */
+public record CategoryAggregate(
+        String merchantCategory,
+        Long count,
+        BigDecimal total
+) {}
@@ -0,0 +1,12 @@
+package com.example.model.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One spend value attributed to an account-type and merchant-category cohort.
+ */
+public record CohortSample(
+        String accountType,
+        String merchantCategory,
+        BigDecimal amount
+) {}
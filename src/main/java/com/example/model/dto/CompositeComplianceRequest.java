@@ -0,0 +1,25 @@
+package com.example.model.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompositeComplianceRequest {
+    @NotNull
+    private String accountNumber;
+    
+    @NotNull
+    private String customerId;
+    
+    @Size(max = 4)
+    private List<String> complianceTypes; // defaults to AML, KYC, SANCTIONS; at most AML, KYC, SANCTIONS, REGULATORY
+}
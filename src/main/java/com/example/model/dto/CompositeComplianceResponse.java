@@ -0,0 +1,19 @@
+package com.example.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompositeComplianceResponse {
+    private String accountNumber;
+    private String customerId;
+    private List<ComplianceCheckResponse> results;
+    private Long elapsedMs;
+}
@@ -0,0 +1,41 @@
+package com.example.model.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Compact summary of an account's neighbourhood in the counterparty graph over the recent lookback.
+ * accountsPerHop[i] counts accounts first reached after i + 1 time-respecting hops within the window.
+ */
+public record CounterpartyGraphFeatures(
+        String accountNumber,
+        long windowHours,
+        int directCounterparties,
+        int distinctSenders,
+        BigDecimal directOutflow,
+        List<Integer> accountsPerHop,
+        int cycles,
+        Integer shortestCycleHops,
+        Double fastestReturnHours,
+        BigDecimal largestReturnedAmount,
+        List<String> exampleCycle
+) {
+    public int reachableAccounts() {
+        return accountsPerHop.stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("sent %s to %d counterparties, received from %d; %d accounts reachable within %dh %s",
+                directOutflow, directCounterparties, distinctSenders, reachableAccounts(), windowHours,
+                accountsPerHop));
+        if (cycles > 0) {
+            sb.append(String.format("; FUNDS RETURNED in %d cycle(s), shortest %d hops, fastest %.1fh, largest %s via %s",
+                    cycles, shortestCycleHops, fastestReturnHours, largestReturnedAmount,
+                    String.join(" -> ", exampleCycle)));
+        } else {
+            sb.append("; no funds returned within the window");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One transaction with a counterparty account, as needed to place it in the counterparty graph.
+ */
+public record CounterpartyMovement(
+        Long id,
+        String accountNumber,
+        String counterpartyAccount,
+        String transactionType,
+        BigDecimal amount,
+        LocalDateTime transactionDate,
+        LocalDateTime createdAt
+) {}
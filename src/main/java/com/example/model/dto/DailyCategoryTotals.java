@@ -0,0 +1,20 @@
+package com.example.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Per-day, per-category transaction totals, read either from the daily rollup or aggregated from raw transactions.
+ */
+public record DailyCategoryTotals(
+        LocalDate day,
+        String merchantCategory,
+        String currency,
+        Long count,
+        Long debitCount,
+        BigDecimal debitTotal,
+        BigDecimal creditTotal,
+        LocalDateTime firstTransactionAt,
+        LocalDateTime lastTransactionAt
+) {}
@@ -0,0 +1,18 @@
+package com.example.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FraudAlertPage {
+    private List<FraudAlertSummary> alerts;
+    private String nextCursor; // opaque keyset cursor, null when there are no more results
+    private Boolean hasMore;
+}
@@ -0,0 +1,16 @@
+package com.example.model.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight fraud alert projection for triage lists; excludes the TEXT analysis columns.
+ */
+public record FraudAlertSummary(
+        Long id,
+        Long transactionId,
+        String accountNumber,
+        String severity,
+        Double riskScore,
+        String status,
+        LocalDateTime detectedAt
+) {}
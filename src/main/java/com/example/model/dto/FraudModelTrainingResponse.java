@@ -0,0 +1,20 @@
+package com.example.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FraudModelTrainingResponse {
+    private String modelVersion;
+    private String modelPath;
+    private Integer samples;
+    private Integer positives;
+    private Integer negatives;
+    private Double trainingLoss;
+    private Double trainingAccuracy;
+}
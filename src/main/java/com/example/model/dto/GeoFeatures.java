@@ -0,0 +1,38 @@
+package com.example.model.dto;
+
+/**
+ * Precomputed geographic features of a transaction relative to its account's location history.
+ */
+public record GeoFeatures(
+        GeoLocation location,
+        boolean international,
+        boolean newCountry,
+        boolean newCity,
+        Double distanceFromPreviousKm,
+        Double impliedSpeedKmh,
+        boolean impossibleTravel,
+        int countriesSeen,
+        int impossibleTravelEvents
+) {
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Location: %s (%s%s%s)",
+                location.label(),
+                !location.isKnown() ? "unverified, treated as international"
+                        : international ? "international" : "domestic",
+                newCountry ? ", first time in this country" : "",
+                newCity ? ", first time in this city" : ""));
+        if (distanceFromPreviousKm != null) {
+            sb.append(String.format("; %.0f km from previous transaction", distanceFromPreviousKm));
+        }
+        if (impliedSpeedKmh != null) {
+            sb.append(String.format(" at implied %.0f km/h", impliedSpeedKmh));
+        }
+        if (impossibleTravel) {
+            sb.append("; IMPOSSIBLE TRAVEL");
+        }
+        sb.append(String.format("; %d countries seen, %d prior impossible-travel events",
+                countriesSeen, impossibleTravelEvents));
+        return sb.toString();
+    }
+}
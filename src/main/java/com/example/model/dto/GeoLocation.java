@@ -0,0 +1,36 @@
+package com.example.model.dto;
+
+/**
+ * Normalised transaction location resolved against the geo dictionary.
+ * City and coordinates are null when only the country (or nothing) could be resolved.
+ */
+public record GeoLocation(
+        String city,
+        String countryCode,
+        Double latitude,
+        Double longitude,
+        boolean offshore
+) {
+    public static final GeoLocation UNKNOWN = new GeoLocation(null, null, null, null, false);
+
+    public boolean isKnown() {
+        return countryCode != null || offshore;
+    }
+
+    /**
+     * Whether the location resolved to a city with coordinates; country centroids are too coarse for travel checks.
+     */
+    public boolean isPrecise() {
+        return city != null && latitude != null && longitude != null;
+    }
+
+    public String label() {
+        if (offshore) {
+            return "OFFSHORE";
+        }
+        if (countryCode == null) {
+            return "UNKNOWN";
+        }
+        return city != null ? city + ", " + countryCode : countryCode;
+    }
+}
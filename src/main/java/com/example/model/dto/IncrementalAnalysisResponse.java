@@ -0,0 +1,25 @@
+package com.example.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncrementalAnalysisResponse {
+    private String accountNumber;
+    private Long newTransactions;
+    private Long lastTransactionId;
+    private Map<String, Object> deltaStatistics;
+    private Map<String, Object> cumulativeStatistics;
+    private String aiInsights;
+    private Boolean llmCalled;
+    private LocalDateTime previousAnalyzedAt;
+    private LocalDateTime analyzedAt;
+}
@@ -0,0 +1,26 @@
+package com.example.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioAnalysisRequest {
+    // Either a customer (all of their accounts) or an explicit list of accounts
+    private String customerId;
+    
+    private List<String> accountNumbers;
+    
+    private LocalDateTime startDate;
+    
+    private LocalDateTime endDate;
+    
+    private String analysisType; // SPENDING_PATTERNS, CATEGORY_BREAKDOWN, TRENDS, ANOMALIES
+}
@@ -0,0 +1,32 @@
+package com.example.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioAnalysisResponse {
+    private String customerId;
+    private List<String> accountNumbers;
+    private String analysisType;
+    private String aiInsights;
+    private Map<String, Object> statistics;
+    private Map<String, BigDecimal> categoryBreakdown;
+    private Map<String, Map<String, Object>> accountStatistics;
+    private List<String> keyFindings;
+    private List<String> recommendations;
+    
+    // Fan-out timing: wall-clock time of the parallel computation and the per-account task times added up.
+    // Tasks run concurrently and contend for the database, so the summed time is not a sequential baseline.
+    private Integer parallelism;
+    private Long computeTimeMs;
+    private Long summedTaskTimeMs;
+}
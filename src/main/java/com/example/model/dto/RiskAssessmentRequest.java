@@ -20,5 +20,8 @@ public class RiskAssessmentRequest {
     private Boolean includeTransactionHistory;
     
     private Boolean includeComplianceCheck;
+    
+    // Skip the cached assessment and always run a new one
+    private Boolean forceRefresh;
 }
 
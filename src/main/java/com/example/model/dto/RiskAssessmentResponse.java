@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
@@ -19,5 +20,9 @@ public class RiskAssessmentResponse {
     private String aiAnalysis;
     private List<String> riskFactors;
     private List<String> recommendations;
+    private LocalDateTime assessmentDate;
+    private Boolean cached;
+    private Double featureDistance;
+    private Boolean llmSkipped;
 }
 
@@ -0,0 +1,96 @@
+package com.example.model.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Compact summary of the inputs that drive an account's risk level, stored with each assessment so the
+ * next one can tell whether anything material has changed.
+ * Category mix is each merchant category's share of the last 30 days' debit spend.
+ */
+public record RiskFeatureVector(
+        BigDecimal balance,
+        long transactions30d,
+        long flagged6m,
+        Map<String, Double> categoryMix,
+        String accountStatus,
+        String kycStatus,
+        String riskProfile
+) {
+    // Balances below this are compared as if they were this large, so small accounts do not look volatile
+    private static final double BALANCE_FLOOR = 1000.0;
+    private static final double VELOCITY_FLOOR = 10.0;
+    private static final double MIX_REPORTING_THRESHOLD = 0.05;
+
+    /**
+     * Largest normalised change from the previous vector, in [0, 1]. A status, KYC or risk profile change
+     * or a newly flagged transaction always counts as a full change.
+     */
+    public double distance(RiskFeatureVector previous) {
+        if (!Objects.equals(accountStatus, previous.accountStatus)
+                || !Objects.equals(kycStatus, previous.kycStatus)
+                || !Objects.equals(riskProfile, previous.riskProfile)
+                || flagged6m > previous.flagged6m) {
+            return 1.0;
+        }
+        double current = balance != null ? balance.doubleValue() : 0.0;
+        double before = previous.balance != null ? previous.balance.doubleValue() : 0.0;
+        double balanceChange = Math.abs(current - before)
+                / Math.max(BALANCE_FLOOR, Math.max(Math.abs(current), Math.abs(before)));
+        double velocityChange = Math.abs(transactions30d - previous.transactions30d)
+                / Math.max(VELOCITY_FLOOR, Math.max(transactions30d, previous.transactions30d));
+
+        double mixChange = 0.0;
+        for (String category : categories(previous)) {
+            mixChange += Math.abs(categoryMix.getOrDefault(category, 0.0)
+                    - previous.categoryMix.getOrDefault(category, 0.0));
+        }
+        // Total variation distance: half the L1 distance between two distributions
+        mixChange /= 2;
+
+        return Math.min(1.0, Math.max(balanceChange, Math.max(velocityChange, mixChange)));
+    }
+
+    /**
+     * Human-readable list of what differs from the previous vector, for a diff-only prompt.
+     */
+    public List<String> describeChanges(RiskFeatureVector previous) {
+        List<String> changes = new ArrayList<>();
+        if (!Objects.equals(accountStatus, previous.accountStatus)) {
+            changes.add(String.format("Account status: %s -> %s", previous.accountStatus, accountStatus));
+        }
+        if (!Objects.equals(kycStatus, previous.kycStatus)) {
+            changes.add(String.format("KYC status: %s -> %s", previous.kycStatus, kycStatus));
+        }
+        if (!Objects.equals(riskProfile, previous.riskProfile)) {
+            changes.add(String.format("Customer risk profile: %s -> %s", previous.riskProfile, riskProfile));
+        }
+        if (!Objects.equals(balance, previous.balance)) {
+            changes.add(String.format("Balance: %s -> %s", previous.balance, balance));
+        }
+        if (transactions30d != previous.transactions30d) {
+            changes.add(String.format("Transactions in last 30 days: %d -> %d", previous.transactions30d, transactions30d));
+        }
+        if (flagged6m != previous.flagged6m) {
+            changes.add(String.format("Fraud-flagged transactions in last 6 months: %d -> %d", previous.flagged6m, flagged6m));
+        }
+        for (String category : categories(previous)) {
+            double share = categoryMix.getOrDefault(category, 0.0);
+            double before = previous.categoryMix.getOrDefault(category, 0.0);
+            if (Math.abs(share - before) >= MIX_REPORTING_THRESHOLD) {
+                changes.add(String.format("%s share of spend: %.0f%% -> %.0f%%", category, before * 100, share * 100));
+            }
+        }
+        return changes;
+    }
+
+    private TreeSet<String> categories(RiskFeatureVector previous) {
+        TreeSet<String> categories = new TreeSet<>(categoryMix.keySet());
+        categories.addAll(previous.categoryMix.keySet());
+        return categories;
+    }
+}
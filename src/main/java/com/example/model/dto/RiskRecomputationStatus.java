@@ -0,0 +1,26 @@
+package com.example.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskRecomputationStatus {
+    private boolean running;
+    private String status; // RUNNING, COMPLETED, FAILED, or NEVER_RUN
+    private Integer phase; // 1 = accounts with new activity, 2 = accounts with stale or missing scores
+    private String lastAccountNumber;
+    private long processed;
+    private long failed;
+    private long remaining;
+    private double throughputPerMinute;
+    private Long etaSeconds;
+    private LocalDateTime runStartedAt;
+    private LocalDateTime completedAt;
+}
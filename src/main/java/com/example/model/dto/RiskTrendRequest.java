@@ -0,0 +1,22 @@
+package com.example.model.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskTrendRequest {
+    @NotEmpty
+    private List<String> accountNumbers;
+    
+    private Integer days; // window length, default 90
+    
+    private Integer points; // slots per series, default 30
+}
@@ -0,0 +1,21 @@
+package com.example.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskTrendResponse {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<LocalDateTime> slotStarts; // shared by every series
+    private Map<String, RiskTrendSeries> series; // accounts without any history are omitted
+}
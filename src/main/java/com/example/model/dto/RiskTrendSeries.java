@@ -0,0 +1,14 @@
+package com.example.model.dto;
+
+import java.util.List;
+
+/**
+ * One account's sparkline: a score per slot of the response window, carried forward between assessments
+ * and null before the first one.
+ */
+public record RiskTrendSeries(
+        List<Double> scores,
+        Double latestScore,
+        String latestLevel,
+        String worstLevel
+) {}
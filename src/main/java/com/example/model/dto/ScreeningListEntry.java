@@ -0,0 +1,15 @@
+package com.example.model.dto;
+
+import java.util.List;
+
+/**
+ * One sanctions or PEP list entry with its aliases, as loaded from a list file.
+ */
+public record ScreeningListEntry(
+        String listName,
+        String id,
+        String name,
+        String type, // individual, entity, vessel, aircraft, pep
+        String programs,
+        List<String> aliases
+) {}
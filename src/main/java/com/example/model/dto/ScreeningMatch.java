@@ -0,0 +1,24 @@
+package com.example.model.dto;
+
+/**
+ * A screened name that matched a list entry, directly or through one of its aliases.
+ */
+public record ScreeningMatch(
+        String subject, // customer, merchant or counterparty
+        String screenedName,
+        String listName,
+        String entryId,
+        String entryName,
+        String matchedName,
+        String entryType,
+        String programs,
+        double score, // 1.0 for an exact normalised match
+        String matchType // EXACT, PHONETIC or FUZZY
+) {
+    public String describe() {
+        return String.format("%s '%s' matches %s entry %s '%s'%s (%s, score %.2f%s)",
+                subject, screenedName, listName, entryId, entryName,
+                matchedName.equals(entryName) ? "" : " via alias '" + matchedName + "'",
+                matchType, score, programs != null ? ", programs " + programs : "");
+    }
+}
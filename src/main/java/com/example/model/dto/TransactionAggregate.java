@@ -0,0 +1,11 @@
+package com.example.model.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * SQL-side count and sum of the transactions matching a filter.
+ */
+public record TransactionAggregate(
+        Long count,
+        BigDecimal total
+) {}
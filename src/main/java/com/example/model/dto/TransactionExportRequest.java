@@ -0,0 +1,20 @@
+package com.example.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionExportRequest {
+    private String accountNumber;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private String format; // CSV, NDJSON
+    private boolean gzip;
+}
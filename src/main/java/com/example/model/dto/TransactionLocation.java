@@ -0,0 +1,12 @@
+package com.example.model.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Minimal transaction projection used to rebuild the location index.
+ */
+public record TransactionLocation(
+        String accountNumber,
+        String location,
+        LocalDateTime transactionDate
+) {}
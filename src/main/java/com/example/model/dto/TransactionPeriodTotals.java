@@ -0,0 +1,95 @@
+package com.example.model.dto;
+
+import com.example.model.Money;
+import com.example.model.MoneyAccumulator;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Totals for one account over a period, assembled from daily rollup rows.
+ * Debit count, category and daily maps cover debits only; categories are ordered by descending spend.
+ * Currency is null when the period is empty or its rows predate the rollup's currency column.
+ */
+public record TransactionPeriodTotals(
+        long transactionCount,
+        long debitCount,
+        BigDecimal debitTotal,
+        BigDecimal creditTotal,
+        String currency,
+        LocalDateTime firstTransactionAt,
+        LocalDateTime lastTransactionAt,
+        Map<String, BigDecimal> debitsByCategory,
+        SortedMap<LocalDate, BigDecimal> dailyDebits
+) {
+    public static TransactionPeriodTotals empty() {
+        return new TransactionPeriodTotals(0, 0, BigDecimal.ZERO, BigDecimal.ZERO, null, null, null, Map.of(), new TreeMap<>());
+    }
+
+    public boolean isEmpty() {
+        return transactionCount == 0;
+    }
+
+    /**
+     * Combine the totals of two accounts or periods; categories are re-ordered by descending spend.
+     * Amounts are added as long cents and converted back once per category and day. Totals in different
+     * currencies are rejected with IllegalArgumentException.
+     */
+    public TransactionPeriodTotals merge(TransactionPeriodTotals other) {
+        String mergedCurrency = Money.combineCurrency(currency, other.currency);
+        Map<String, MoneyAccumulator> categories = new HashMap<>();
+        addAll(categories, debitsByCategory);
+        addAll(categories, other.debitsByCategory);
+        Map<String, BigDecimal> sortedCategories = new LinkedHashMap<>();
+        categories.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, MoneyAccumulator> e) -> e.getValue().getSumMinorUnits()).reversed())
+                .forEach(e -> sortedCategories.put(e.getKey(), e.getValue().getSum()));
+
+        Map<LocalDate, MoneyAccumulator> days = new HashMap<>();
+        addAll(days, dailyDebits);
+        addAll(days, other.dailyDebits);
+        SortedMap<LocalDate, BigDecimal> daily = new TreeMap<>();
+        days.forEach((day, total) -> daily.put(day, total.getSum()));
+
+        return new TransactionPeriodTotals(
+                transactionCount + other.transactionCount,
+                debitCount + other.debitCount,
+                addCents(debitTotal, other.debitTotal),
+                addCents(creditTotal, other.creditTotal),
+                mergedCurrency,
+                earliest(firstTransactionAt, other.firstTransactionAt),
+                latest(lastTransactionAt, other.lastTransactionAt),
+                sortedCategories,
+                daily);
+    }
+
+    private static <K> void addAll(Map<K, MoneyAccumulator> totals, Map<K, BigDecimal> amounts) {
+        amounts.forEach((key, amount) -> totals.computeIfAbsent(key, k -> new MoneyAccumulator()).add(amount));
+    }
+
+    private static BigDecimal addCents(BigDecimal a, BigDecimal b) {
+        return Money.toBigDecimal(Math.addExact(Money.toMinorUnits(a), Money.toMinorUnits(b)));
+    }
+
+    private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+}
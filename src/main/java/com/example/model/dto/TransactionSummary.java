@@ -17,7 +17,7 @@ public class TransactionSummary {
     private BigDecimal totalAmount;
     private BigDecimal averageTransaction;
     private List<String> topCategories;
-    private String spendingTrend; // INCREASING, DECREASING, STABLE
+    private String spendingTrend; // INCREASING, DECREASING, STABLE, or INSUFFICIENT_DATA for periods under 14 days
     private List<String> insights;
 }
 
@@ -0,0 +1,17 @@
+package com.example.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * SQL-side aggregate of an account's transactions of one type over a period.
+ */
+public record TransactionTypeAggregate(
+        String transactionType,
+        Long count,
+        BigDecimal total,
+        BigDecimal minAmount,
+        BigDecimal maxAmount,
+        LocalDateTime firstDate,
+        LocalDateTime lastDate
+) {}
@@ -0,0 +1,35 @@
+package com.example.replay;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Result of a compliance sweep benchmark over synthetic data, written as JSON next to the replay reports.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComplianceSweepBenchmarkReport {
+    private LocalDateTime startedAt;
+    private String chatMode;
+    private Long stubLatencyMs;
+
+    private Long accounts;
+    private Long transactions;
+    private Double suspiciousFraction;
+    private Long generationMs;
+
+    private String sweepStatus;
+    private Long processed;
+    private Long failed;
+    private Long escalated;
+    private Double escalationRate;
+    private Long llmCalls;
+    private Long sweepMs;
+    private Double accountsPerSecond;
+}
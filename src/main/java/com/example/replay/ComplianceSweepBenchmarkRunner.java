@@ -0,0 +1,203 @@
+package com.example.replay;
+
+import com.example.model.dto.ComplianceSweepStatus;
+import com.example.service.ComplianceSweepService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates a synthetic book of customers, accounts and transactions, runs one full compliance sweep
+ * over it and reports throughput and the LLM escalation rate.
+ *
+ * Run with {@code --spring.profiles.active=sweep-benchmark}; like the fraud replay it uses its own
+ * in-memory database and the replay chat model, so no live LLM is needed.
+ */
+@Component
+@Profile("sweep-benchmark")
+@Slf4j
+public class ComplianceSweepBenchmarkRunner implements CommandLineRunner {
+
+    private static final int BATCH_SIZE = 5000;
+    private static final String[] CATEGORIES = {"Groceries", "Dining", "Retail", "Travel", "Utilities", "Transfer"};
+    private static final String[] LOCATIONS = {"New York, USA", "Chicago, USA", "Austin, USA", "London, UK"};
+
+    private static final String INSERT_CUSTOMER = "INSERT INTO customers (customer_id, first_name, last_name, email, " +
+            "phone_number, date_of_birth, address, city, country, kyc_status, risk_profile, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ACCOUNT = "INSERT INTO accounts (account_number, customer_id, account_type, " +
+            "balance, currency, status, opened_date, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_TRANSACTION = "INSERT INTO transactions (account_number, transaction_type, " +
+            "amount, currency, merchant_name, merchant_category, location, transaction_date, status, description, " +
+            "counterparty_account, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final ComplianceSweepService complianceSweepService;
+    private final ReplayChatModel replayChatModel;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationContext applicationContext;
+
+    private final int accounts;
+    private final int transactionsPerAccount;
+    private final double suspiciousFraction;
+    private final long seed;
+    private final long stubLatencyMs;
+    private final Path outputDir;
+
+    public ComplianceSweepBenchmarkRunner(ComplianceSweepService complianceSweepService,
+                                          ReplayChatModel replayChatModel,
+                                          JdbcTemplate jdbcTemplate,
+                                          ObjectMapper objectMapper,
+                                          ApplicationContext applicationContext,
+                                          @Value("${sweep-benchmark.accounts:1000000}") int accounts,
+                                          @Value("${sweep-benchmark.transactions-per-account:3}") int transactionsPerAccount,
+                                          @Value("${sweep-benchmark.suspicious-fraction:0.01}") double suspiciousFraction,
+                                          @Value("${sweep-benchmark.seed:42}") long seed,
+                                          @Value("${replay.stub-latency-ms:0}") long stubLatencyMs,
+                                          @Value("${replay.output-dir:target/replay}") String outputDir) {
+        this.complianceSweepService = complianceSweepService;
+        this.replayChatModel = replayChatModel;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.applicationContext = applicationContext;
+        this.accounts = accounts;
+        this.transactionsPerAccount = transactionsPerAccount;
+        this.suspiciousFraction = suspiciousFraction;
+        this.seed = seed;
+        this.stubLatencyMs = stubLatencyMs;
+        this.outputDir = Paths.get(outputDir);
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        LocalDateTime startedAt = LocalDateTime.now();
+        log.info("Generating {} synthetic accounts with {} transactions each", accounts, transactionsPerAccount);
+        long generationStart = System.nanoTime();
+        long transactions = generate();
+        long generationMs = (System.nanoTime() - generationStart) / 1_000_000;
+        log.info("Generated {} accounts and {} transactions in {} ms", accounts, transactions, generationMs);
+
+        long sweepStart = System.nanoTime();
+        if (!complianceSweepService.start()) {
+            throw new IllegalStateException("A compliance sweep is already running");
+        }
+        ComplianceSweepStatus status = complianceSweepService.getStatus();
+        while (status.isRunning()) {
+            TimeUnit.SECONDS.sleep(1);
+            status = complianceSweepService.getStatus();
+        }
+        long sweepMs = (System.nanoTime() - sweepStart) / 1_000_000;
+
+        long reviewed = status.getProcessed() + status.getFailed();
+        ComplianceSweepBenchmarkReport report = ComplianceSweepBenchmarkReport.builder()
+                .startedAt(startedAt)
+                .chatMode(replayChatModel.getMode().name())
+                .stubLatencyMs(stubLatencyMs)
+                .accounts((long) accounts)
+                .transactions(transactions)
+                .suspiciousFraction(suspiciousFraction)
+                .generationMs(generationMs)
+                .sweepStatus(status.getStatus())
+                .processed(status.getProcessed())
+                .failed(status.getFailed())
+                .escalated(status.getEscalated())
+                .escalationRate(reviewed > 0 ? (double) status.getEscalated() / reviewed : 0.0)
+                .llmCalls(replayChatModel.getCalls())
+                .sweepMs(sweepMs)
+                .accountsPerSecond(sweepMs > 0 ? reviewed * 1000.0 / sweepMs : 0.0)
+                .build();
+
+        Files.createDirectories(outputDir);
+        Path reportPath = outputDir.resolve("compliance-sweep-"
+                + startedAt.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportPath.toFile(), report);
+        log.info("Compliance sweep benchmark finished: {} accounts in {} ms ({} accounts/s), {} escalated to the LLM",
+                reviewed, sweepMs, report.getAccountsPerSecond(), report.getEscalated());
+        log.info("Benchmark report written to {}", reportPath.toAbsolutePath());
+
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+
+    /**
+     * Customers own two accounts each. Suspicious accounts get two deposits just below the reporting
+     * threshold and one flagged transaction, so they score above the default sweep threshold.
+     */
+    private long generate() {
+        Random random = new Random(seed);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> customers = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> accountRows = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> transactionRows = new ArrayList<>(BATCH_SIZE);
+        long transactions = 0;
+
+        for (int i = 0; i < accounts; i++) {
+            String customerId = String.format("SYN-CUST%08d", i / 2);
+            String accountNumber = String.format("SYN%09d", i);
+            if (i % 2 == 0) {
+                customers.add(new Object[]{customerId, "Synthetic", "Customer" + i / 2,
+                        "synthetic" + i / 2 + "@example.com", "+1-555-0000", LocalDate.of(1980, 1, 1),
+                        "1 Test Street", "New York", "USA", "VERIFIED", "LOW", now});
+            }
+            accountRows.add(new Object[]{accountNumber, customerId, i % 3 == 0 ? "SAVINGS" : "CHECKING",
+                    BigDecimal.valueOf(random.nextInt(50_000)), "USD", "ACTIVE", now.minusYears(2), now});
+
+            for (int t = 0; t < transactionsPerAccount; t++) {
+                boolean credit = random.nextInt(4) == 0;
+                BigDecimal amount = BigDecimal.valueOf(5 + random.nextDouble() * 500).setScale(2, RoundingMode.HALF_UP);
+                transactionRows.add(transactionRow(accountNumber, credit ? "CREDIT" : "DEBIT", amount,
+                        CATEGORIES[random.nextInt(CATEGORIES.length)], LOCATIONS[random.nextInt(LOCATIONS.length)],
+                        now.minusDays(random.nextInt(360)), "COMPLETED", now));
+            }
+            transactions += transactionsPerAccount;
+            if (random.nextDouble() < suspiciousFraction) {
+                transactionRows.add(transactionRow(accountNumber, "CREDIT", new BigDecimal("9500.00"), "Transfer",
+                        LOCATIONS[0], now.minusDays(3), "COMPLETED", now));
+                transactionRows.add(transactionRow(accountNumber, "CREDIT", new BigDecimal("9700.00"), "Transfer",
+                        LOCATIONS[0], now.minusDays(2), "COMPLETED", now));
+                transactionRows.add(transactionRow(accountNumber, "DEBIT", new BigDecimal("18900.00"), "Transfer",
+                        LOCATIONS[3], now.minusDays(1), "FRAUD_SUSPECTED", now));
+                transactions += 3;
+            }
+
+            if (accountRows.size() >= BATCH_SIZE) {
+                flush(customers, accountRows, transactionRows);
+            }
+        }
+        flush(customers, accountRows, transactionRows);
+        return transactions;
+    }
+
+    private static Object[] transactionRow(String accountNumber, String type, BigDecimal amount, String category,
+                                           String location, LocalDateTime date, String status, LocalDateTime now) {
+        return new Object[]{accountNumber, type, amount, "USD", "Synthetic " + category, category, location,
+                date, status, "Synthetic transaction", null, now};
+    }
+
+    private void flush(List<Object[]> customers, List<Object[]> accountRows, List<Object[]> transactionRows) {
+        jdbcTemplate.batchUpdate(INSERT_CUSTOMER, customers);
+        jdbcTemplate.batchUpdate(INSERT_ACCOUNT, accountRows);
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION, transactionRows);
+        customers.clear();
+        accountRows.clear();
+        transactionRows.clear();
+    }
+}
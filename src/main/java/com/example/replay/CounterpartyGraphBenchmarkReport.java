@@ -0,0 +1,39 @@
+package com.example.replay;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Result of a counterparty graph benchmark over synthetic edges, written as JSON next to the replay reports.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CounterpartyGraphBenchmarkReport {
+    private LocalDateTime startedAt;
+
+    private Integer accounts;
+    private Long edges;
+    private Long edgesAdded;
+    private Long insertMs;
+    private Double edgesPerSecond;
+    private Long heapBytes;
+    private Double heapBytesPerEdge;
+
+    private Integer queries;
+    private Integer fanOutHops;
+    private Double fanOutP50Ms;
+    private Double fanOutP99Ms;
+    private Integer maxCycleHops;
+    private Long cyclesFound;
+    private Double cycleP50Ms;
+    private Double cycleP99Ms;
+
+    private Long evictedEdges;
+    private Long evictionMs;
+}
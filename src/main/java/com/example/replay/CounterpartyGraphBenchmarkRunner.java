@@ -0,0 +1,173 @@
+package com.example.replay;
+
+import com.example.model.TransactionGraph;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Fills a {@link TransactionGraph} with random edges between synthetic accounts, spread evenly over the
+ * graph's retention (lookback plus one window), and reports insert rate, heap per edge, fan-out and cycle
+ * search latency percentiles with the configured {@code aml.graph.*} limits, and the cost of evicting half.
+ *
+ * Run with {@code --spring.profiles.active=graph-benchmark}. The graph is measured on its own, without the
+ * database or the LLM. Heap is sampled after a requested GC, so treat it as an estimate.
+ */
+@Component
+@Profile("graph-benchmark")
+@Slf4j
+public class CounterpartyGraphBenchmarkRunner implements CommandLineRunner {
+
+    private final ObjectMapper objectMapper;
+    private final ApplicationContext applicationContext;
+
+    private final int accounts;
+    private final long edges;
+    private final int queries;
+    private final long seed;
+    private final long windowSeconds;
+    private final long lookbackSeconds;
+    private final int fanOutHops;
+    private final int maxCycleHops;
+    private final int maxCycles;
+    private final int cycleEdgeBudget;
+    private final Path outputDir;
+
+    public CounterpartyGraphBenchmarkRunner(ObjectMapper objectMapper,
+                                            ApplicationContext applicationContext,
+                                            @Value("${graph-benchmark.accounts:500000}") int accounts,
+                                            @Value("${graph-benchmark.edges:5000000}") long edges,
+                                            @Value("${graph-benchmark.queries:10000}") int queries,
+                                            @Value("${graph-benchmark.seed:42}") long seed,
+                                            @Value("${aml.graph.window-hours:72}") long windowHours,
+                                            @Value("${aml.graph.lookback-days:7}") long lookbackDays,
+                                            @Value("${aml.graph.fan-out-hops:3}") int fanOutHops,
+                                            @Value("${aml.graph.max-cycle-hops:4}") int maxCycleHops,
+                                            @Value("${aml.graph.max-cycles:20}") int maxCycles,
+                                            @Value("${aml.graph.cycle-edge-budget:100000}") int cycleEdgeBudget,
+                                            @Value("${replay.output-dir:target/replay}") String outputDir) {
+        this.objectMapper = objectMapper;
+        this.applicationContext = applicationContext;
+        this.accounts = accounts;
+        this.edges = edges;
+        this.queries = queries;
+        this.seed = seed;
+        this.windowSeconds = windowHours * 3600;
+        this.lookbackSeconds = lookbackDays * 86400;
+        this.fanOutHops = fanOutHops;
+        this.maxCycleHops = maxCycleHops;
+        this.maxCycles = maxCycles;
+        this.cycleEdgeBudget = cycleEdgeBudget;
+        this.outputDir = Paths.get(outputDir);
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        LocalDateTime startedAt = LocalDateTime.now();
+        Random random = new Random(seed);
+        // Names are created up front so interning, not string building, is measured
+        String[] names = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            names[i] = String.format("SYN%09d", i);
+        }
+        long retention = lookbackSeconds + windowSeconds;
+        long start = startedAt.toEpochSecond(ZoneOffset.UTC) - retention;
+
+        log.info("Adding {} random edges between {} synthetic accounts", edges, accounts);
+        long heapBefore = usedHeap();
+        TransactionGraph graph = new TransactionGraph();
+        long edgesAdded = 0;
+        long insertStart = System.nanoTime();
+        for (long i = 0; i < edges; i++) {
+            // Edges arrive in time order, as they do from the warm-up query and live transactions
+            long time = start + i * retention / edges;
+            if (graph.addEdge(names[random.nextInt(accounts)], names[random.nextInt(accounts)], time,
+                    100 + random.nextInt(1_000_000))) {
+                edgesAdded++;
+            }
+        }
+        long insertMs = (System.nanoTime() - insertStart) / 1_000_000;
+        long heapBytes = usedHeap() - heapBefore;
+
+        long since = start + windowSeconds;
+        long[] fanOutNanos = new long[queries];
+        long[] cycleNanos = new long[queries];
+        long cyclesFound = 0;
+        for (int q = 0; q < queries; q++) {
+            String account = names[random.nextInt(accounts)];
+            long queryStart = System.nanoTime();
+            graph.fanOut(account, fanOutHops, since, windowSeconds);
+            fanOutNanos[q] = System.nanoTime() - queryStart;
+
+            queryStart = System.nanoTime();
+            cyclesFound += graph.cycles(account, maxCycleHops, since, windowSeconds, maxCycles, cycleEdgeBudget).size();
+            cycleNanos[q] = System.nanoTime() - queryStart;
+        }
+
+        long evictionStart = System.nanoTime();
+        long evicted = graph.evictBefore(start + retention / 2);
+        long evictionMs = (System.nanoTime() - evictionStart) / 1_000_000;
+
+        CounterpartyGraphBenchmarkReport report = CounterpartyGraphBenchmarkReport.builder()
+                .startedAt(startedAt)
+                .accounts(accounts)
+                .edges(edges)
+                .edgesAdded(edgesAdded)
+                .insertMs(insertMs)
+                .edgesPerSecond(insertMs > 0 ? edgesAdded * 1000.0 / insertMs : 0.0)
+                .heapBytes(heapBytes)
+                .heapBytesPerEdge(edgesAdded > 0 ? (double) heapBytes / edgesAdded : 0.0)
+                .queries(queries)
+                .fanOutHops(fanOutHops)
+                .fanOutP50Ms(percentileMs(fanOutNanos, 0.50))
+                .fanOutP99Ms(percentileMs(fanOutNanos, 0.99))
+                .maxCycleHops(maxCycleHops)
+                .cyclesFound(cyclesFound)
+                .cycleP50Ms(percentileMs(cycleNanos, 0.50))
+                .cycleP99Ms(percentileMs(cycleNanos, 0.99))
+                .evictedEdges(evicted)
+                .evictionMs(evictionMs)
+                .build();
+
+        Files.createDirectories(outputDir);
+        Path reportPath = outputDir.resolve("counterparty-graph-"
+                + startedAt.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportPath.toFile(), report);
+        log.info("Counterparty graph benchmark finished: {} edges at {} edges/s, ~{} bytes/edge, "
+                        + "fan-out p99 {} ms, cycle search p99 {} ms", edgesAdded, report.getEdgesPerSecond(),
+                report.getHeapBytesPerEdge(), report.getFanOutP99Ms(), report.getCycleP99Ms());
+        log.info("Benchmark report written to {}", reportPath.toAbsolutePath());
+
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+
+    private static double percentileMs(long[] nanos, double percentile) {
+        if (nanos.length == 0) {
+            return 0.0;
+        }
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
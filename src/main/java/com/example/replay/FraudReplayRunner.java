@@ -0,0 +1,446 @@
+package com.example.replay;
+
+import com.example.model.Account;
+import com.example.model.dto.FraudDetectionRequest;
+import com.example.model.dto.FraudDetectionResponse;
+import com.example.repository.AccountRepository;
+import com.example.service.FraudDetectionService;
+import com.example.service.FraudScoringService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays historical transactions through {@link FraudDetectionService} and reports
+ * throughput, latency percentiles, alert rates and agreement with analyst labels.
+ *
+ * Run with {@code --spring.profiles.active=replay}; the replay profile uses its own
+ * in-memory database so replayed transactions and alerts never touch the source data.
+ */
+@Component
+@Profile("replay")
+@Slf4j
+public class FraudReplayRunner implements CommandLineRunner {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final String SOURCE_QUERY = """
+            SELECT t.id, t.account_number, t.transaction_type, t.amount, t.currency, t.merchant_name,
+                   t.merchant_category, t.location, t.transaction_date, t.description, t.counterparty_account,
+                   (SELECT MAX(CASE WHEN a.status = 'RESOLVED' THEN 1 WHEN a.status = 'FALSE_POSITIVE' THEN 0 END)
+                      FROM fraud_alerts a WHERE a.transaction_id = t.id) AS label
+            FROM transactions t
+            WHERE t.transaction_date >= ?
+            ORDER BY t.transaction_date, t.id
+            """;
+    private static final String SOURCE_ACCOUNT_QUERY = """
+            SELECT customer_id, account_type, balance, currency, status
+            FROM accounts WHERE account_number = ?
+            """;
+
+    private final FraudDetectionService fraudDetectionService;
+    private final FraudScoringService fraudScoringService;
+    private final AccountRepository accountRepository;
+    private final ReplayChatModel replayChatModel;
+    private final ObjectMapper objectMapper;
+    private final ApplicationContext applicationContext;
+
+    private final String source;
+    private final Path file;
+    private final String sourceJdbcUrl;
+    private final String sourceUsername;
+    private final String sourcePassword;
+    private final LocalDateTime since;
+    private final double speedup;
+    private final long limit;
+    private final boolean rebaseDates;
+    private final double maxRecordedMissRate;
+    private final Path outputDir;
+
+    private final Set<String> knownAccounts = new HashSet<>();
+    private JdbcTemplate sourceJdbc;
+
+    public FraudReplayRunner(FraudDetectionService fraudDetectionService,
+                             FraudScoringService fraudScoringService,
+                             AccountRepository accountRepository,
+                             ReplayChatModel replayChatModel,
+                             ObjectMapper objectMapper,
+                             ApplicationContext applicationContext,
+                             @Value("${replay.source:file}") String source,
+                             @Value("${replay.file:replay/transactions.csv}") String file,
+                             @Value("${replay.source.jdbc-url:}") String sourceJdbcUrl,
+                             @Value("${replay.source.username:}") String sourceUsername,
+                             @Value("${replay.source.password:}") String sourcePassword,
+                             @Value("${replay.source.since-days:90}") int sinceDays,
+                             @Value("${replay.speedup:0}") double speedup,
+                             @Value("${replay.limit:0}") long limit,
+                             @Value("${replay.rebase-dates:true}") boolean rebaseDates,
+                             @Value("${replay.max-recorded-miss-rate:0.01}") double maxRecordedMissRate,
+                             @Value("${replay.output-dir:target/replay}") String outputDir) {
+        this.fraudDetectionService = fraudDetectionService;
+        this.fraudScoringService = fraudScoringService;
+        this.accountRepository = accountRepository;
+        this.replayChatModel = replayChatModel;
+        this.objectMapper = objectMapper;
+        this.applicationContext = applicationContext;
+        this.source = source;
+        this.file = Paths.get(file);
+        this.sourceJdbcUrl = sourceJdbcUrl;
+        this.sourceUsername = sourceUsername;
+        this.sourcePassword = sourcePassword;
+        this.since = LocalDateTime.now().minusDays(sinceDays);
+        this.speedup = speedup;
+        this.limit = limit;
+        this.rebaseDates = rebaseDates;
+        this.maxRecordedMissRate = maxRecordedMissRate;
+        this.outputDir = Paths.get(outputDir);
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        ReplayStats stats = new ReplayStats();
+        log.info("Starting fraud replay: source={}, speedup={}, chatMode={}", source, speedup, replayChatModel.getMode());
+
+        if ("db".equalsIgnoreCase(source)) {
+            replayFromDatabase(stats);
+        } else {
+            replayFromFile(stats);
+        }
+        stats.finish();
+
+        ReplayReport report = stats.toReport();
+        Files.createDirectories(outputDir);
+        Path reportPath = outputDir.resolve("fraud-replay-"
+                + report.getStartedAt().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportPath.toFile(), report);
+
+        log.info("Fraud replay finished: {} transactions in {} ms ({} tx/s), p50={}ms p99={}ms, alert rate={}, LLM call rate={}, label agreement={}",
+                report.getTransactions(), report.getDurationMs(), report.getThroughputPerSecond(),
+                report.getLatencyP50Ms(), report.getLatencyP99Ms(), report.getAlertRate(),
+                report.getLlmCallRate(), report.getLabelAgreement());
+        log.info("Replay report written to {}", reportPath.toAbsolutePath());
+
+        // A RECORDED run that mostly hits the stub measures the stub, not the recorded model
+        long lookups = report.getRecordedHits() + report.getRecordedMisses();
+        double missRate = lookups > 0 ? (double) report.getRecordedMisses() / lookups : 0.0;
+        int exitCode = 0;
+        if (replayChatModel.getMode() == ReplayChatModel.Mode.RECORDED && missRate > maxRecordedMissRate) {
+            log.error("Recorded-response miss rate {} exceeds replay.max-recorded-miss-rate {}; "
+                    + "re-record with replay.chat-mode=record", missRate, maxRecordedMissRate);
+            exitCode = 1;
+        }
+        int status = exitCode;
+        System.exit(SpringApplication.exit(applicationContext, () -> status));
+    }
+
+    private void replayFromDatabase(ReplayStats stats) {
+        if (sourceJdbcUrl.isBlank()) {
+            throw new IllegalStateException("replay.source.jdbc-url must be set when replay.source=db");
+        }
+        sourceJdbc = new JdbcTemplate(new DriverManagerDataSource(sourceJdbcUrl, sourceUsername, sourcePassword));
+        // Stream rows with a server-side cursor; autocommit must be off for PostgreSQL to honour the fetch size
+        sourceJdbc.execute((ConnectionCallback<Void>) connection -> {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    SOURCE_QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(FETCH_SIZE);
+                statement.setObject(1, since);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next() && !stats.limitReached()) {
+                        FraudDetectionRequest request = FraudDetectionRequest.builder()
+                                .accountNumber(rs.getString("account_number"))
+                                .transactionType(rs.getString("transaction_type"))
+                                .amount(rs.getBigDecimal("amount"))
+                                .currency(rs.getString("currency"))
+                                .merchantName(rs.getString("merchant_name"))
+                                .merchantCategory(rs.getString("merchant_category"))
+                                .location(rs.getString("location"))
+                                .transactionDate(rs.getObject("transaction_date", LocalDateTime.class))
+                                .description(rs.getString("description"))
+                                .counterpartyAccount(rs.getString("counterparty_account"))
+                                .build();
+                        String eventId = "db:" + rs.getLong("id");
+                        int label = rs.getInt("label");
+                        replay(eventId, request, rs.wasNull() ? null : label == 1, stats);
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+            return null;
+        });
+    }
+
+    private void replayFromFile(ReplayStats stats) throws IOException {
+        boolean ndjson = file.getFileName().toString().endsWith(".ndjson") || file.getFileName().toString().endsWith(".jsonl");
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String[] header = ndjson ? null : parseCsvLine(reader.readLine());
+            String line;
+            long lineNumber = ndjson ? 0 : 1;
+            while ((line = reader.readLine()) != null && !stats.limitReached()) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                // Events are identified by their "id" field, or by their line in the file
+                if (ndjson) {
+                    JsonNode node = objectMapper.readTree(line);
+                    FraudDetectionRequest request = objectMapper.treeToValue(node, FraudDetectionRequest.class);
+                    JsonNode label = node.get("label");
+                    JsonNode id = node.get("id");
+                    String eventId = id != null && !id.isNull() ? "id:" + id.asText() : "line:" + lineNumber;
+                    replay(eventId, request, label == null || label.isNull() ? null : label.asBoolean(), stats);
+                } else {
+                    Map<String, String> row = new HashMap<>();
+                    String[] values = parseCsvLine(line);
+                    for (int i = 0; i < header.length && i < values.length; i++) {
+                        row.put(header[i].trim(), values[i].isEmpty() ? null : values[i]);
+                    }
+                    FraudDetectionRequest request = FraudDetectionRequest.builder()
+                            .accountNumber(row.get("accountNumber"))
+                            .transactionType(row.get("transactionType"))
+                            .amount(new BigDecimal(row.get("amount")))
+                            .currency(row.getOrDefault("currency", "USD"))
+                            .merchantName(row.get("merchantName"))
+                            .merchantCategory(row.get("merchantCategory"))
+                            .location(row.get("location"))
+                            .transactionDate(LocalDateTime.parse(row.get("transactionDate")))
+                            .description(row.get("description"))
+                            .counterpartyAccount(row.get("counterpartyAccount"))
+                            .build();
+                    String label = row.get("label");
+                    String eventId = row.get("id") != null ? "id:" + row.get("id") : "line:" + lineNumber;
+                    replay(eventId, request,
+                            label == null ? null : "1".equals(label) || "true".equalsIgnoreCase(label), stats);
+                }
+            }
+        }
+    }
+
+    private void replay(String eventId, FraudDetectionRequest request, Boolean fraudLabel, ReplayStats stats) {
+        pace(request.getTransactionDate(), stats);
+        if (rebaseDates) {
+            request.setTransactionDate(request.getTransactionDate().plus(stats.rebaseOffset));
+        }
+        ensureAccount(request.getAccountNumber());
+
+        long start = System.nanoTime();
+        replayChatModel.beginEvent(eventId);
+        try {
+            FraudDetectionResponse response = fraudDetectionService.detectFraud(request);
+            stats.record(System.nanoTime() - start, response, fraudLabel);
+        } catch (Exception e) {
+            stats.errors++;
+            log.debug("Replay of transaction for account {} failed", request.getAccountNumber(), e);
+        } finally {
+            replayChatModel.endEvent();
+        }
+    }
+
+    /**
+     * Sleep until the event's offset from the first event, divided by the speed-up, has elapsed.
+     */
+    private void pace(LocalDateTime eventTime, ReplayStats stats) {
+        if (stats.firstEventTime == null) {
+            stats.firstEventTime = eventTime;
+            stats.rebaseOffset = Duration.between(eventTime, LocalDateTime.now());
+            return;
+        }
+        if (speedup <= 0) {
+            return;
+        }
+        long targetNanos = (long) (Duration.between(stats.firstEventTime, eventTime).toNanos() / speedup);
+        long waitNanos = targetNanos - (System.nanoTime() - stats.startNanos);
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void ensureAccount(String accountNumber) {
+        if (!knownAccounts.add(accountNumber) || accountRepository.findByAccountNumber(accountNumber).isPresent()) {
+            return;
+        }
+        Account account = null;
+        if (sourceJdbc != null) {
+            List<Account> found = sourceJdbc.query(SOURCE_ACCOUNT_QUERY, (rs, rowNum) -> Account.builder()
+                    .accountNumber(accountNumber)
+                    .customerId(rs.getString("customer_id"))
+                    .accountType(rs.getString("account_type"))
+                    .balance(rs.getBigDecimal("balance"))
+                    .currency(rs.getString("currency"))
+                    .status(rs.getString("status"))
+                    .build(), accountNumber);
+            account = found.isEmpty() ? null : found.get(0);
+        }
+        if (account == null) {
+            account = Account.builder()
+                    .accountNumber(accountNumber)
+                    .customerId("REPLAY")
+                    .accountType("CHECKING")
+                    .balance(new BigDecimal("10000.00"))
+                    .currency("USD")
+                    .status("ACTIVE")
+                    .build();
+        }
+        accountRepository.save(account);
+    }
+
+    private static String[] parseCsvLine(String line) {
+        if (line == null) {
+            throw new IllegalArgumentException("Replay file is empty");
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values.toArray(new String[0]);
+    }
+
+    private final class ReplayStats {
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startNanos = System.nanoTime();
+        private LocalDateTime firstEventTime;
+        private Duration rebaseOffset = Duration.ZERO;
+        private long durationNanos;
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private long alerts;
+        private long blocked;
+        private long truePositives;
+        private long falsePositives;
+        private long trueNegatives;
+        private long falseNegatives;
+
+        boolean limitReached() {
+            return limit > 0 && count + errors >= limit;
+        }
+
+        void record(long latencyNanos, FraudDetectionResponse response, Boolean fraudLabel) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, latencies.length * 2);
+            }
+            latencies[count++] = latencyNanos;
+
+            boolean alert = response.getRiskScore() != null && response.getRiskScore() >= 0.5;
+            if (alert) {
+                alerts++;
+            }
+            if ("BLOCK".equals(response.getRecommendation())) {
+                blocked++;
+            }
+            if (fraudLabel != null) {
+                if (alert && fraudLabel) {
+                    truePositives++;
+                } else if (alert) {
+                    falsePositives++;
+                } else if (fraudLabel) {
+                    falseNegatives++;
+                } else {
+                    trueNegatives++;
+                }
+            }
+        }
+
+        void finish() {
+            durationNanos = System.nanoTime() - startNanos;
+        }
+
+        ReplayReport toReport() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            long labelled = truePositives + falsePositives + trueNegatives + falseNegatives;
+            long llmCalls = replayChatModel.getCalls();
+            double seconds = durationNanos / 1e9;
+
+            return ReplayReport.builder()
+                    .startedAt(startedAt)
+                    .source("db".equalsIgnoreCase(source) ? "db:" + sourceJdbcUrl : "file:" + file)
+                    .chatMode(replayChatModel.getMode().name())
+                    .speedup(speedup)
+                    .fraudModelVersion(fraudScoringService.getModelVersion())
+                    .transactions((long) count)
+                    .errors(errors)
+                    .durationMs(durationNanos / 1_000_000)
+                    .throughputPerSecond(seconds > 0 ? count / seconds : 0.0)
+                    .latencyMeanMs(count > 0 ? Arrays.stream(sorted).average().orElse(0) / 1e6 : 0.0)
+                    .latencyP50Ms(percentileMs(sorted, 0.50))
+                    .latencyP90Ms(percentileMs(sorted, 0.90))
+                    .latencyP99Ms(percentileMs(sorted, 0.99))
+                    .latencyMaxMs(count > 0 ? sorted[count - 1] / 1e6 : 0.0)
+                    .alerts(alerts)
+                    .alertRate(ratio(alerts, count))
+                    .blocked(blocked)
+                    .blockRate(ratio(blocked, count))
+                    .llmCalls(llmCalls)
+                    .llmCallRate(ratio(llmCalls, count))
+                    .recordedHits(replayChatModel.getRecordedHits())
+                    .recordedMisses(replayChatModel.getRecordedMisses())
+                    .labelled(labelled)
+                    .truePositives(truePositives)
+                    .falsePositives(falsePositives)
+                    .trueNegatives(trueNegatives)
+                    .falseNegatives(falseNegatives)
+                    .precision(ratio(truePositives, truePositives + falsePositives))
+                    .recall(ratio(truePositives, truePositives + falseNegatives))
+                    .labelAgreement(ratio(truePositives + trueNegatives, labelled))
+                    .build();
+        }
+
+        private double percentileMs(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+        }
+
+        private double ratio(long numerator, long denominator) {
+            return denominator > 0 ? (double) numerator / denominator : 0.0;
+        }
+    }
+}
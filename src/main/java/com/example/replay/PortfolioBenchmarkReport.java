@@ -0,0 +1,32 @@
+package com.example.replay;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Result of a portfolio analysis benchmark over synthetic accounts, written as JSON next to the replay reports.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioBenchmarkReport {
+    private LocalDateTime startedAt;
+
+    private Integer accounts;
+    private Long transactions;
+    private Integer periodDays;
+    private Integer parallelism;
+    private Integer rounds;
+
+    // Median and best of the measured rounds; the same accounts and period in both modes
+    private Long sequentialMedianMs;
+    private Long sequentialBestMs;
+    private Long forkJoinMedianMs;
+    private Long forkJoinBestMs;
+    private Double speedUp;
+}
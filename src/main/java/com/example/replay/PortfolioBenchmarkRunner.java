@@ -0,0 +1,216 @@
+package com.example.replay;
+
+import com.example.model.dto.PortfolioAnalysisRequest;
+import com.example.model.dto.PortfolioAnalysisResponse;
+import com.example.model.dto.TransactionPeriodTotals;
+import com.example.service.TransactionAnalysisService;
+import com.example.service.TransactionRollupService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates one synthetic customer with many accounts and compares the portfolio fan-out with a sequential
+ * pass over the same accounts and period. The sequential pass does the same per-account work as a fork-join
+ * leaf (the rollup period totals) and merges the results in order; the fork-join time is the
+ * {@code computeTimeMs} of a real portfolio analysis, so the stubbed LLM call is not counted in either.
+ *
+ * Run with {@code --spring.profiles.active=portfolio-benchmark}; it uses its own in-memory database and the
+ * replay chat model. Both modes are warmed up first, then alternate for the measured rounds.
+ */
+@Component
+@Profile("portfolio-benchmark")
+@Slf4j
+public class PortfolioBenchmarkRunner implements CommandLineRunner {
+
+    private static final int BATCH_SIZE = 5000;
+    private static final String CUSTOMER_ID = "BENCH-CUST";
+    private static final String[] CATEGORIES = {"Groceries", "Dining", "Retail", "Travel", "Utilities", "Transfer"};
+
+    private static final String INSERT_CUSTOMER = "INSERT INTO customers (customer_id, first_name, last_name, email, " +
+            "phone_number, date_of_birth, address, city, country, kyc_status, risk_profile, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ACCOUNT = "INSERT INTO accounts (account_number, customer_id, account_type, " +
+            "balance, currency, status, opened_date, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_TRANSACTION = "INSERT INTO transactions (account_number, transaction_type, " +
+            "amount, currency, merchant_name, merchant_category, location, transaction_date, status, description, " +
+            "created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final TransactionAnalysisService transactionAnalysisService;
+    private final TransactionRollupService transactionRollupService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationContext applicationContext;
+
+    private final int accounts;
+    private final int transactionsPerAccount;
+    private final int periodDays;
+    private final int warmUpRounds;
+    private final int rounds;
+    private final long seed;
+    private final Path outputDir;
+
+    public PortfolioBenchmarkRunner(TransactionAnalysisService transactionAnalysisService,
+                                    TransactionRollupService transactionRollupService,
+                                    JdbcTemplate jdbcTemplate,
+                                    ObjectMapper objectMapper,
+                                    ApplicationContext applicationContext,
+                                    @Value("${portfolio-benchmark.accounts:200}") int accounts,
+                                    @Value("${portfolio-benchmark.transactions-per-account:2000}") int transactionsPerAccount,
+                                    @Value("${portfolio-benchmark.period-days:90}") int periodDays,
+                                    @Value("${portfolio-benchmark.warm-up-rounds:5}") int warmUpRounds,
+                                    @Value("${portfolio-benchmark.rounds:20}") int rounds,
+                                    @Value("${portfolio-benchmark.seed:42}") long seed,
+                                    @Value("${replay.output-dir:target/replay}") String outputDir) {
+        this.transactionAnalysisService = transactionAnalysisService;
+        this.transactionRollupService = transactionRollupService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.applicationContext = applicationContext;
+        this.accounts = accounts;
+        this.transactionsPerAccount = transactionsPerAccount;
+        this.periodDays = periodDays;
+        this.warmUpRounds = warmUpRounds;
+        this.rounds = rounds;
+        this.seed = seed;
+        this.outputDir = Paths.get(outputDir);
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        LocalDateTime startedAt = LocalDateTime.now();
+        log.info("Generating {} synthetic accounts with {} transactions each", accounts, transactionsPerAccount);
+        List<String> accountNumbers = generate(startedAt);
+        if (transactionRollupService.backfill() < 0) {
+            throw new IllegalStateException("The daily rollup is being backfilled by another instance");
+        }
+
+        // Not on a midnight boundary, so both modes also aggregate partial days from raw transactions
+        LocalDateTime startDate = startedAt.minusDays(periodDays);
+        PortfolioAnalysisRequest request = PortfolioAnalysisRequest.builder()
+                .accountNumbers(accountNumbers)
+                .startDate(startDate)
+                .endDate(startedAt)
+                .build();
+
+        int parallelism = 0;
+        for (int i = 0; i < warmUpRounds; i++) {
+            sequential(accountNumbers, startDate, startedAt);
+            parallelism = transactionAnalysisService.analyzePortfolio(request).getParallelism();
+        }
+        long[] sequentialMs = new long[rounds];
+        long[] forkJoinMs = new long[rounds];
+        for (int i = 0; i < rounds; i++) {
+            long roundStart = System.nanoTime();
+            sequential(accountNumbers, startDate, startedAt);
+            sequentialMs[i] = (System.nanoTime() - roundStart) / 1_000_000;
+
+            PortfolioAnalysisResponse response = transactionAnalysisService.analyzePortfolio(request);
+            forkJoinMs[i] = response.getComputeTimeMs();
+        }
+
+        long sequentialMedian = median(sequentialMs);
+        long forkJoinMedian = median(forkJoinMs);
+        PortfolioBenchmarkReport report = PortfolioBenchmarkReport.builder()
+                .startedAt(startedAt)
+                .accounts(accounts)
+                .transactions((long) accounts * transactionsPerAccount)
+                .periodDays(periodDays)
+                .parallelism(parallelism)
+                .rounds(rounds)
+                .sequentialMedianMs(sequentialMedian)
+                .sequentialBestMs(Arrays.stream(sequentialMs).min().orElse(0))
+                .forkJoinMedianMs(forkJoinMedian)
+                .forkJoinBestMs(Arrays.stream(forkJoinMs).min().orElse(0))
+                .speedUp(forkJoinMedian > 0 ? (double) sequentialMedian / forkJoinMedian : 0.0)
+                .build();
+
+        Files.createDirectories(outputDir);
+        Path reportPath = outputDir.resolve("portfolio-"
+                + startedAt.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportPath.toFile(), report);
+        log.info("Portfolio benchmark finished: {} accounts, sequential median {} ms, fork-join median {} ms "
+                + "with parallelism {} ({}x)", accounts, sequentialMedian, forkJoinMedian, parallelism,
+                report.getSpeedUp());
+        log.info("Benchmark report written to {}", reportPath.toAbsolutePath());
+
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+
+    private TransactionPeriodTotals sequential(List<String> accountNumbers, LocalDateTime startDate,
+                                               LocalDateTime endDate) {
+        TransactionPeriodTotals totals = TransactionPeriodTotals.empty();
+        for (String accountNumber : accountNumbers) {
+            totals = totals.merge(transactionRollupService.getPeriodTotals(accountNumber, startDate, endDate));
+        }
+        return totals;
+    }
+
+    /**
+     * All accounts belong to one customer; transactions are spread over twice the measured period.
+     */
+    private List<String> generate(LocalDateTime now) {
+        Random random = new Random(seed);
+        jdbcTemplate.update(INSERT_CUSTOMER, CUSTOMER_ID, "Benchmark", "Customer", "benchmark@example.com",
+                "+1-555-0000", LocalDate.of(1980, 1, 1), "1 Test Street", "New York", "USA", "VERIFIED", "LOW", now);
+        List<String> accountNumbers = new ArrayList<>(accounts);
+        List<Object[]> accountRows = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> transactionRows = new ArrayList<>(BATCH_SIZE);
+        long periodMinutes = periodDays * 2L * 24 * 60;
+
+        for (int i = 0; i < accounts; i++) {
+            String accountNumber = String.format("BENCH%07d", i);
+            accountNumbers.add(accountNumber);
+            accountRows.add(new Object[]{accountNumber, CUSTOMER_ID, i % 3 == 0 ? "SAVINGS" : "CHECKING",
+                    BigDecimal.valueOf(random.nextInt(50_000)), "USD", "ACTIVE", now.minusYears(2), now});
+            for (int t = 0; t < transactionsPerAccount; t++) {
+                boolean credit = random.nextInt(4) == 0;
+                String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+                transactionRows.add(new Object[]{accountNumber, credit ? "CREDIT" : "DEBIT",
+                        BigDecimal.valueOf(5 + random.nextDouble() * 500).setScale(2, RoundingMode.HALF_UP), "USD",
+                        "Synthetic " + category, category, "New York, USA",
+                        now.minusMinutes(random.nextLong(periodMinutes)), "COMPLETED", "Synthetic transaction", now});
+                if (transactionRows.size() >= BATCH_SIZE) {
+                    flush(accountRows, transactionRows);
+                }
+            }
+        }
+        flush(accountRows, transactionRows);
+        return accountNumbers;
+    }
+
+    private void flush(List<Object[]> accountRows, List<Object[]> transactionRows) {
+        jdbcTemplate.batchUpdate(INSERT_ACCOUNT, accountRows);
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION, transactionRows);
+        accountRows.clear();
+        transactionRows.clear();
+    }
+
+    private static long median(long[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
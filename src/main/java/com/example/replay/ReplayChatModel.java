@@ -0,0 +1,212 @@
+package com.example.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.ChatOptionsBuilder;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chat model used by fraud replays instead of a live Ollama instance.
+ *
+ * <ul>
+ *   <li>STUB - returns a fixed, parseable fraud verdict after an optional simulated latency</li>
+ *   <li>RECORDED - answers from a recorded-response store, falling back to the stub on a miss</li>
+ *   <li>RECORD - calls the live model and appends every response to the store for later RECORDED runs</li>
+ * </ul>
+ *
+ * Responses are keyed by the replayed event's stable id and the call's ordinal within that event, so rebased
+ * dates and other run-dependent prompt content do not change the key. Calls made outside an event are keyed
+ * by a hash of the prompt.
+ */
+@Slf4j
+public class ReplayChatModel implements ChatModel {
+
+    public enum Mode {
+        STUB,
+        RECORDED,
+        RECORD
+    }
+
+    private static final String STUB_RESPONSE = """
+            RISK_SCORE: 0.3
+            SEVERITY: LOW
+            ANALYSIS: Replay stub response.
+            RISK_FACTORS: None
+            RECOMMENDATION: REVIEW
+            """;
+
+    private final Mode mode;
+    private final ChatModel delegate;
+    private final Path recordingsPath;
+    private final long stubLatencyMs;
+    private final ObjectMapper objectMapper;
+    private final Map<String, String> recordings = new ConcurrentHashMap<>();
+    private final ThreadLocal<EventKey> currentEvent = new ThreadLocal<>();
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong recordedHits = new AtomicLong();
+    private final AtomicLong recordedMisses = new AtomicLong();
+
+    public ReplayChatModel(Mode mode, ChatModel delegate, Path recordingsPath, long stubLatencyMs,
+                           ObjectMapper objectMapper) {
+        this.mode = mode;
+        this.delegate = delegate;
+        this.recordingsPath = recordingsPath;
+        this.stubLatencyMs = stubLatencyMs;
+        this.objectMapper = objectMapper;
+        if (mode == Mode.RECORDED) {
+            loadRecordings();
+        }
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        calls.incrementAndGet();
+        EventKey event = currentEvent.get();
+        String key = event != null ? event.next() : hash(prompt.getContents());
+        String text = switch (mode) {
+            case STUB -> stub();
+            case RECORDED -> {
+                String recorded = recordings.get(key);
+                if (recorded != null) {
+                    recordedHits.incrementAndGet();
+                    yield recorded;
+                }
+                recordedMisses.incrementAndGet();
+                yield stub();
+            }
+            case RECORD -> {
+                String live = delegate.call(prompt).getResult().getOutput().getContent();
+                append(key, live);
+                yield live;
+            }
+        };
+        return new ChatResponse(List.of(new Generation(text)));
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return ChatOptionsBuilder.builder().build();
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.just(call(prompt));
+    }
+
+    /**
+     * Key the calls made by the current thread on {@code eventId} until {@link #endEvent()}.
+     */
+    public void beginEvent(String eventId) {
+        currentEvent.set(new EventKey(eventId));
+    }
+
+    public void endEvent() {
+        currentEvent.remove();
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public long getCalls() {
+        return calls.get();
+    }
+
+    public long getRecordedHits() {
+        return recordedHits.get();
+    }
+
+    public long getRecordedMisses() {
+        return recordedMisses.get();
+    }
+
+    private String stub() {
+        if (stubLatencyMs > 0) {
+            try {
+                Thread.sleep(stubLatencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return STUB_RESPONSE;
+    }
+
+    private void loadRecordings() {
+        if (!Files.exists(recordingsPath)) {
+            log.warn("Recorded-response store {} not found, every call will use the stub", recordingsPath);
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(recordingsPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    RecordedResponse recorded = objectMapper.readValue(line, RecordedResponse.class);
+                    recordings.put(recorded.key(), recorded.response());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load recorded responses from " + recordingsPath, e);
+        }
+        log.info("Loaded {} recorded responses from {}", recordings.size(), recordingsPath);
+    }
+
+    private synchronized void append(String key, String response) {
+        try {
+            Path absolute = recordingsPath.toAbsolutePath();
+            Files.createDirectories(absolute.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(absolute, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(objectMapper.writeValueAsString(new RecordedResponse(key, response)));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to record response for prompt {}", key, e);
+        }
+    }
+
+    private static String hash(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    record RecordedResponse(String key, String response) {}
+
+    private static final class EventKey {
+        private final String eventId;
+        private int calls;
+
+        EventKey(String eventId) {
+            this.eventId = eventId;
+        }
+
+        String next() {
+            return eventId + "#" + calls++;
+        }
+    }
+}
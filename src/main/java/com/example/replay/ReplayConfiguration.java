@@ -0,0 +1,45 @@
+package com.example.replay;
+
+import com.example.config.ChatClientConfiguration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Wires the replay chat model in place of the live Ollama chat client when the
+ * {@code replay}, {@code sweep-benchmark} or {@code portfolio-benchmark} profile is active.
+ */
+@Configuration
+@Profile({"replay", "sweep-benchmark", "portfolio-benchmark"})
+@Slf4j
+public class ReplayConfiguration {
+
+    @Bean
+    public ReplayChatModel replayChatModel(
+            OllamaChatModel ollamaChatModel,
+            ObjectMapper objectMapper,
+            @Value("${replay.chat-mode:stub}") String chatMode,
+            @Value("${replay.recordings:replay/recorded-responses.ndjson}") String recordings,
+            @Value("${replay.stub-latency-ms:0}") long stubLatencyMs) {
+        ReplayChatModel.Mode mode = ReplayChatModel.Mode.valueOf(chatMode.toUpperCase(Locale.ROOT));
+        log.info("Replay chat model mode: {}", mode);
+        return new ReplayChatModel(mode, ollamaChatModel, Paths.get(recordings), stubLatencyMs, objectMapper);
+    }
+
+    @Bean
+    @Primary
+    public ChatClient replayChatClient(ReplayChatModel replayChatModel) {
+        return ChatClient.builder(replayChatModel)
+                .defaultSystem(ChatClientConfiguration.DEFAULT_SYSTEM_PROMPT)
+                .build();
+    }
+}
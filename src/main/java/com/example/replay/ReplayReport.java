@@ -0,0 +1,52 @@
+package com.example.replay;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Result of a fraud replay run, written as JSON so runs can be compared across builds.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplayReport {
+    private LocalDateTime startedAt;
+    private String source;
+    private String chatMode;
+    private Double speedup;
+    private String fraudModelVersion;
+
+    private Long transactions;
+    private Long errors;
+    private Long durationMs;
+    private Double throughputPerSecond;
+
+    private Double latencyMeanMs;
+    private Double latencyP50Ms;
+    private Double latencyP90Ms;
+    private Double latencyP99Ms;
+    private Double latencyMaxMs;
+
+    private Long alerts;
+    private Double alertRate;
+    private Long blocked;
+    private Double blockRate;
+    private Long llmCalls;
+    private Double llmCallRate;
+    private Long recordedHits;
+    private Long recordedMisses;
+
+    private Long labelled;
+    private Long truePositives;
+    private Long falsePositives;
+    private Long trueNegatives;
+    private Long falseNegatives;
+    private Double precision;
+    private Double recall;
+    private Double labelAgreement;
+}
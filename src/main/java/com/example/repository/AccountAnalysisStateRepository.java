@@ -0,0 +1,12 @@
+package com.example.repository;
+
+import com.example.model.AccountAnalysisState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AccountAnalysisStateRepository extends JpaRepository<AccountAnalysisState, Long> {
+    Optional<AccountAnalysisState> findByAccountNumber(String accountNumber);
+}
@@ -1,18 +1,72 @@
 package com.example.repository;
 
 import com.example.model.Account;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
+    String HAS_NEW_ACTIVITY = "EXISTS (SELECT t.id FROM Transaction t WHERE t.accountNumber = a.accountNumber " +
+            "AND t.createdAt > COALESCE((SELECT MAX(COALESCE(r.contextAsOf, r.assessmentDate)) " +
+            "FROM RiskAssessment r WHERE r.accountNumber = a.accountNumber), :epoch))";
+    String ACTIVE_WITH_NEW_ACTIVITY = "FROM Account a WHERE a.status = 'ACTIVE' AND a.accountNumber > :after " +
+            "AND " + HAS_NEW_ACTIVITY;
+    String ACTIVE_WITHOUT_RECENT_ASSESSMENT = "FROM Account a WHERE a.status = 'ACTIVE' AND a.accountNumber > :after " +
+            "AND NOT EXISTS (SELECT r.id FROM RiskAssessment r WHERE r.accountNumber = a.accountNumber " +
+            "AND r.assessmentDate >= :assessedSince)";
+    
     Optional<Account> findByAccountNumber(String accountNumber);
     
     List<Account> findByCustomerId(String customerId);
     
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+    
     List<Account> findByStatus(String status);
+    
+    /**
+     * Keyset page of ACTIVE account numbers after the given one.
+     */
+    @Query("SELECT a.accountNumber FROM Account a WHERE a.status = 'ACTIVE' AND a.accountNumber > :after " +
+           "ORDER BY a.accountNumber")
+    List<String> findActiveAccountNumbersAfter(@Param("after") String after, Pageable pageable);
+    
+    /**
+     * Keyset page of ACTIVE accounts with transactions created since their latest risk assessment.
+     */
+    @Query("SELECT a.accountNumber " + ACTIVE_WITH_NEW_ACTIVITY + " ORDER BY a.accountNumber")
+    List<String> findActiveWithNewActivity(@Param("after") String after,
+                                           @Param("epoch") LocalDateTime epoch,
+                                           Pageable pageable);
+    
+    @Query("SELECT COUNT(a) " + ACTIVE_WITH_NEW_ACTIVITY)
+    long countActiveWithNewActivity(@Param("after") String after, @Param("epoch") LocalDateTime epoch);
+    
+    /**
+     * Keyset page of ACTIVE accounts with no risk assessment since the given time.
+     */
+    @Query("SELECT a.accountNumber " + ACTIVE_WITHOUT_RECENT_ASSESSMENT + " ORDER BY a.accountNumber")
+    List<String> findActiveWithoutAssessmentSince(@Param("after") String after,
+                                                  @Param("assessedSince") LocalDateTime assessedSince,
+                                                  Pageable pageable);
+    
+    @Query("SELECT COUNT(a) " + ACTIVE_WITHOUT_RECENT_ASSESSMENT)
+    long countActiveWithoutAssessmentSince(@Param("after") String after,
+                                           @Param("assessedSince") LocalDateTime assessedSince);
+    
+    /**
+     * ACTIVE accounts with no risk assessment since the given time and no new activity: those only the
+     * stale-score pass picks up, because new activity is assessed first.
+     */
+    @Query("SELECT COUNT(a) " + ACTIVE_WITHOUT_RECENT_ASSESSMENT + " AND NOT " + HAS_NEW_ACTIVITY)
+    long countActiveStaleWithoutNewActivity(@Param("after") String after,
+                                            @Param("assessedSince") LocalDateTime assessedSince,
+                                            @Param("epoch") LocalDateTime epoch);
 }
-
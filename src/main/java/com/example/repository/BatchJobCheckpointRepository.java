@@ -0,0 +1,9 @@
+package com.example.repository;
+
+import com.example.model.BatchJobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BatchJobCheckpointRepository extends JpaRepository<BatchJobCheckpoint, String> {
+}
@@ -4,6 +4,8 @@ import com.example.model.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,5 +13,7 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByCustomerId(String customerId);
     
     Optional<Customer> findByEmail(String email);
+    
+    List<Customer> findByCustomerIdIn(Collection<String> customerIds);
 }
 
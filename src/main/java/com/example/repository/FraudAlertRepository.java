@@ -1,17 +1,88 @@
 package com.example.repository;
 
 import com.example.model.FraudAlert;
+import com.example.model.dto.FraudAlertSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface FraudAlertRepository extends JpaRepository<FraudAlert, Long> {
+    
     List<FraudAlert> findByAccountNumber(String accountNumber);
     
+    boolean existsByAccountNumberAndDetectorAndDetectedAtAfter(String accountNumber, String detector,
+                                                               LocalDateTime detectedAt);
+    
     List<FraudAlert> findByStatus(String status);
     
     List<FraudAlert> findBySeverity(String severity);
+    
+    String SUMMARY_SELECT = "SELECT new com.example.model.dto.FraudAlertSummary(" +
+            "a.id, a.transactionId, a.accountNumber, a.severity, a.riskScore, a.status, a.detectedAt) " +
+            "FROM FraudAlert a ";
+    
+    @Query(SUMMARY_SELECT + "WHERE a.status IN :statuses")
+    List<FraudAlertSummary> findSummariesByStatusIn(@Param("statuses") Collection<String> statuses);
+    
+    // Keyset-paginated triage queries, newest first. Backed by idx_fraud_alerts_status_severity_detected.
+    @Query(SUMMARY_SELECT + "WHERE a.status = :status " +
+           "AND (:severity IS NULL OR a.severity = :severity) " +
+           "ORDER BY a.detectedAt DESC, a.id DESC")
+    List<FraudAlertSummary> findTriageByDetectedAt(
+            @Param("status") String status,
+            @Param("severity") String severity,
+            Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE a.status = :status " +
+           "AND (:severity IS NULL OR a.severity = :severity) " +
+           "AND (a.detectedAt < :cursorDetectedAt OR (a.detectedAt = :cursorDetectedAt AND a.id < :cursorId)) " +
+           "ORDER BY a.detectedAt DESC, a.id DESC")
+    List<FraudAlertSummary> findTriageByDetectedAtAfter(
+            @Param("status") String status,
+            @Param("severity") String severity,
+            @Param("cursorDetectedAt") LocalDateTime cursorDetectedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+    
+    // Keyset-paginated triage queries, highest risk first. Backed by idx_fraud_alerts_status_risk.
+    @Query(SUMMARY_SELECT + "WHERE a.status = :status " +
+           "AND (:severity IS NULL OR a.severity = :severity) " +
+           "ORDER BY a.riskScore DESC, a.id DESC")
+    List<FraudAlertSummary> findTriageByRiskScore(
+            @Param("status") String status,
+            @Param("severity") String severity,
+            Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE a.status = :status " +
+           "AND (:severity IS NULL OR a.severity = :severity) " +
+           "AND (a.riskScore < :cursorRiskScore OR (a.riskScore = :cursorRiskScore AND a.id < :cursorId)) " +
+           "ORDER BY a.riskScore DESC, a.id DESC")
+    List<FraudAlertSummary> findTriageByRiskScoreAfter(
+            @Param("status") String status,
+            @Param("severity") String severity,
+            @Param("cursorRiskScore") Double cursorRiskScore,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+    
+    // Keyset-paginated alerts of one account, newest first. Backed by idx_fraud_alerts_account_detected.
+    @Query(SUMMARY_SELECT + "WHERE a.accountNumber = :accountNumber ORDER BY a.detectedAt DESC, a.id DESC")
+    List<FraudAlertSummary> findSummariesByAccountNumber(
+            @Param("accountNumber") String accountNumber,
+            Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE a.accountNumber = :accountNumber " +
+           "AND (a.detectedAt < :cursorDetectedAt OR (a.detectedAt = :cursorDetectedAt AND a.id < :cursorId)) " +
+           "ORDER BY a.detectedAt DESC, a.id DESC")
+    List<FraudAlertSummary> findSummariesByAccountNumberAfter(
+            @Param("accountNumber") String accountNumber,
+            @Param("cursorDetectedAt") LocalDateTime cursorDetectedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
 }
-
@@ -0,0 +1,49 @@
+package com.example.repository;
+
+import com.example.model.RiskScorePoint;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface RiskScorePointRepository extends JpaRepository<RiskScorePoint, Long> {
+    
+    // Backed by idx_risk_score_points_account_time (account_number, bucket_start)
+    @Query("SELECT p FROM RiskScorePoint p WHERE p.accountNumber IN :accountNumbers " +
+           "AND p.bucketStart >= :since ORDER BY p.accountNumber, p.bucketStart")
+    List<RiskScorePoint> findSeries(@Param("accountNumbers") Collection<String> accountNumbers,
+                                    @Param("since") LocalDateTime since);
+    
+    /**
+     * Each account's last point before the window, so series start from the score in force at that time.
+     */
+    @Query("SELECT p FROM RiskScorePoint p WHERE p.accountNumber IN :accountNumbers " +
+           "AND p.bucketStart = (SELECT MAX(q.bucketStart) FROM RiskScorePoint q " +
+           "WHERE q.accountNumber = p.accountNumber AND q.bucketStart < :since)")
+    List<RiskScorePoint> findLatestBefore(@Param("accountNumbers") Collection<String> accountNumbers,
+                                          @Param("since") LocalDateTime since);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM RiskScorePoint p WHERE p.resolution = :resolution AND p.bucketStart < :before " +
+           "ORDER BY p.accountNumber, p.bucketStart")
+    Stream<RiskScorePoint> streamForDownsampling(@Param("resolution") String resolution,
+                                                 @Param("before") LocalDateTime before);
+    
+    @Modifying
+    @Query("DELETE FROM RiskScorePoint p WHERE p.resolution = :resolution AND p.bucketStart < :before")
+    int deleteByResolutionBefore(@Param("resolution") String resolution, @Param("before") LocalDateTime before);
+}
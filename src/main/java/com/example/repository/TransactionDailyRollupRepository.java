@@ -0,0 +1,70 @@
+package com.example.repository;
+
+import com.example.model.TransactionDailyRollup;
+import com.example.model.dto.CohortSample;
+import com.example.model.dto.DailyCategoryTotals;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface TransactionDailyRollupRepository extends JpaRepository<TransactionDailyRollup, Long> {
+    
+    // Backed by uk_transaction_daily_rollup_key (account_number, rollup_date, merchant_category, currency)
+    @Query("SELECT new com.example.model.dto.DailyCategoryTotals(r.rollupDate, r.merchantCategory, r.currency, " +
+           "r.transactionCount, r.debitCount, r.debitTotal, r.creditTotal, r.firstTransactionAt, r.lastTransactionAt) " +
+           "FROM TransactionDailyRollup r WHERE r.accountNumber = :accountNumber " +
+           "AND r.rollupDate >= :firstDay AND r.rollupDate <= :lastDay ORDER BY r.rollupDate")
+    List<DailyCategoryTotals> findTotals(
+            @Param("accountNumber") String accountNumber,
+            @Param("firstDay") LocalDate firstDay,
+            @Param("lastDay") LocalDate lastDay);
+    
+    /**
+     * Per-account debit total in each category since a day, tagged with the account type.
+     * One row per account, category and currency, so the result is streamed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.example.model.dto.CohortSample(a.accountType, r.merchantCategory, SUM(r.debitTotal)) " +
+           "FROM TransactionDailyRollup r, Account a WHERE a.accountNumber = r.accountNumber " +
+           "AND r.rollupDate >= :firstDay GROUP BY a.accountType, r.accountNumber, r.merchantCategory, r.currency " +
+           "HAVING SUM(r.debitTotal) > 0")
+    Stream<CohortSample> streamAccountCategorySpend(@Param("firstDay") LocalDate firstDay);
+    
+    @Modifying
+    @Query("UPDATE TransactionDailyRollup r SET r.transactionCount = r.transactionCount + 1, " +
+           "r.debitCount = r.debitCount + :debitCount, " +
+           "r.debitTotal = r.debitTotal + :debit, r.creditTotal = r.creditTotal + :credit, " +
+           "r.firstTransactionAt = CASE WHEN :at < r.firstTransactionAt THEN :at ELSE r.firstTransactionAt END, " +
+           "r.lastTransactionAt = CASE WHEN :at > r.lastTransactionAt THEN :at ELSE r.lastTransactionAt END, " +
+           "r.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE r.accountNumber = :accountNumber AND r.rollupDate = :day AND r.merchantCategory = :category " +
+           "AND r.currency = :currency")
+    int increment(@Param("accountNumber") String accountNumber,
+                  @Param("day") LocalDate day,
+                  @Param("category") String category,
+                  @Param("currency") String currency,
+                  @Param("debitCount") long debitCount,
+                  @Param("debit") BigDecimal debit,
+                  @Param("credit") BigDecimal credit,
+                  @Param("at") LocalDateTime at);
+    
+    @Modifying
+    @Query("DELETE FROM TransactionDailyRollup r WHERE r.accountNumber = :accountNumber")
+    int deleteByAccountNumber(@Param("accountNumber") String accountNumber);
+}
@@ -1,21 +1,106 @@
 package com.example.repository;
 
 import com.example.model.Transaction;
+import com.example.model.dto.CategoryAggregate;
+import com.example.model.dto.CohortSample;
+import com.example.model.dto.CounterpartyMovement;
+import com.example.model.dto.DailyCategoryTotals;
+import com.example.model.dto.TransactionAggregate;
+import com.example.model.dto.TransactionTypeAggregate;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import com.example.model.dto.TransactionLocation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+    String TYPE_AGGREGATE_SELECT = "SELECT new com.example.model.dto.TransactionTypeAggregate(" +
+            "t.transactionType, COUNT(t), SUM(t.amount), MIN(t.amount), MAX(t.amount), " +
+            "MIN(t.transactionDate), MAX(t.transactionDate)) FROM Transaction t ";
+    
     List<Transaction> findByAccountNumber(String accountNumber);
     
     List<Transaction> findByAccountNumberAndTransactionDateBetween(
             String accountNumber, LocalDateTime startDate, LocalDateTime endDate);
     
+    /**
+     * Forward-only cursor over an account's transactions for bounded-memory scans.
+     * Must be consumed inside a transaction and closed; callers should detach each entity once processed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.accountNumber = :accountNumber " +
+           "AND t.transactionDate BETWEEN :startDate AND :endDate ORDER BY t.transactionDate, t.id")
+    Stream<Transaction> streamByAccountNumberAndTransactionDateBetween(
+            @Param("accountNumber") String accountNumber,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.accountNumber = :accountNumber AND t.createdAt >= :since " +
+           "ORDER BY t.createdAt, t.id")
+    Stream<Transaction> streamByAccountNumberCreatedSince(
+            @Param("accountNumber") String accountNumber,
+            @Param("since") LocalDateTime since);
+    
+    /**
+     * Debit amounts since a date with the owning account's type, for rebuilding cohort quantile sketches.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.example.model.dto.CohortSample(a.accountType, t.merchantCategory, t.amount) " +
+           "FROM Transaction t, Account a WHERE a.accountNumber = t.accountNumber " +
+           "AND t.transactionType = 'DEBIT' AND t.transactionDate >= :since")
+    Stream<CohortSample> streamDebitCohortSamples(@Param("since") LocalDateTime since);
+    
+    /**
+     * Transactions with a counterparty account since a date, for rebuilding the counterparty graph.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.example.model.dto.CounterpartyMovement(t.id, t.accountNumber, t.counterpartyAccount, " +
+           "t.transactionType, t.amount, t.transactionDate, t.createdAt) FROM Transaction t " +
+           "WHERE t.counterpartyAccount IS NOT NULL AND t.transactionDate >= :since AND (t.status IS NULL OR t.status <> 'FAILED') " +
+           "ORDER BY t.transactionDate")
+    Stream<CounterpartyMovement> streamCounterpartyMovements(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT new com.example.model.dto.CounterpartyMovement(t.id, t.accountNumber, t.counterpartyAccount, " +
+           "t.transactionType, t.amount, t.transactionDate, t.createdAt) FROM Transaction t " +
+           "WHERE t.createdAt >= :createdSince AND t.counterpartyAccount IS NOT NULL " +
+           "AND t.transactionDate >= :since AND (t.status IS NULL OR t.status <> 'FAILED') " +
+           "ORDER BY t.createdAt, t.id")
+    List<CounterpartyMovement> findCounterpartyMovementsCreatedSince(@Param("createdSince") LocalDateTime createdSince,
+                                                                     @Param("since") LocalDateTime since);
+    
+    long countByAccountNumberAndStatusAndTransactionDateAfter(String accountNumber, String status,
+                                                              LocalDateTime transactionDate);
+    
+    boolean existsByAccountNumberAndCreatedAtAfter(String accountNumber, LocalDateTime createdAt);
+    
     List<Transaction> findByStatus(String status);
     
     @Query("SELECT t FROM Transaction t WHERE t.accountNumber = :accountNumber " +
@@ -25,5 +110,131 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             @Param("startDate") LocalDateTime startDate);
     
     List<Transaction> findByMerchantCategory(String merchantCategory);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.example.model.dto.TransactionLocation(t.accountNumber, t.location, t.transactionDate) " +
+           "FROM Transaction t WHERE t.transactionDate >= :since ORDER BY t.transactionDate")
+    Stream<TransactionLocation> streamLocationsSince(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.transactionType = 'CREDIT' " +
+           "AND t.transactionDate >= :since AND t.amount >= :lower AND t.amount < :upper " +
+           "ORDER BY t.transactionDate")
+    List<Transaction> findDepositsInAmountBand(
+            @Param("since") LocalDateTime since,
+            @Param("lower") BigDecimal lower,
+            @Param("upper") BigDecimal upper);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.createdAt >= :createdSince AND t.transactionType = 'CREDIT' " +
+           "AND t.transactionDate >= :since AND t.amount >= :lower AND t.amount < :upper " +
+           "ORDER BY t.createdAt, t.id")
+    List<Transaction> findDepositsInAmountBandCreatedSince(
+            @Param("createdSince") LocalDateTime createdSince,
+            @Param("since") LocalDateTime since,
+            @Param("lower") BigDecimal lower,
+            @Param("upper") BigDecimal upper);
+    
+    // Aggregates computed in the database; backed by idx_transactions_account_date
+    @Query(TYPE_AGGREGATE_SELECT + "WHERE t.accountNumber = :accountNumber " +
+           "AND t.transactionDate BETWEEN :startDate AND :endDate GROUP BY t.transactionType")
+    List<TransactionTypeAggregate> aggregateByType(
+            @Param("accountNumber") String accountNumber,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+    
+    @Query(TYPE_AGGREGATE_SELECT + "WHERE t.accountNumber = :accountNumber GROUP BY t.transactionType")
+    List<TransactionTypeAggregate> aggregateByType(@Param("accountNumber") String accountNumber);
+    
+    @Query("SELECT new com.example.model.dto.CategoryAggregate(t.merchantCategory, COUNT(t), SUM(t.amount)) " +
+           "FROM Transaction t WHERE t.accountNumber = :accountNumber AND t.transactionType = :transactionType " +
+           "AND t.transactionDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY t.merchantCategory ORDER BY SUM(t.amount) DESC")
+    List<CategoryAggregate> aggregateByCategory(
+            @Param("accountNumber") String accountNumber,
+            @Param("transactionType") String transactionType,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+    
+    // Same shape as the daily rollup rows; used for partial days at period edges and for backfill
+    @Query("SELECT new com.example.model.dto.DailyCategoryTotals(CAST(t.transactionDate AS LocalDate), " +
+           "t.merchantCategory, t.currency, COUNT(t), " +
+           "SUM(CASE WHEN t.transactionType = 'DEBIT' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN t.transactionType = 'DEBIT' THEN t.amount ELSE 0 END), " +
+           "SUM(CASE WHEN t.transactionType = 'CREDIT' THEN t.amount ELSE 0 END), " +
+           "MIN(t.transactionDate), MAX(t.transactionDate)) " +
+           "FROM Transaction t WHERE t.accountNumber = :accountNumber " +
+           "AND t.transactionDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY CAST(t.transactionDate AS LocalDate), t.merchantCategory, t.currency")
+    List<DailyCategoryTotals> aggregateDailyByCategory(
+            @Param("accountNumber") String accountNumber,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT new com.example.model.dto.CategoryAggregate(t.merchantCategory, COUNT(t), SUM(t.amount)) " +
+           "FROM Transaction t WHERE t.accountNumber = :accountNumber AND t.transactionDate >= :since " +
+           "GROUP BY t.merchantCategory ORDER BY COUNT(t) DESC")
+    List<CategoryAggregate> aggregateByCategorySince(
+            @Param("accountNumber") String accountNumber,
+            @Param("since") LocalDateTime since);
+    
+    // Top-N by amount and its aggregate; backed by idx_transactions_account_amount
+    @Query("SELECT t FROM Transaction t WHERE t.accountNumber = :accountNumber " +
+           "AND t.transactionDate >= :since AND t.amount > :threshold ORDER BY t.amount DESC, t.id DESC")
+    List<Transaction> findLargestAbove(
+            @Param("accountNumber") String accountNumber,
+            @Param("since") LocalDateTime since,
+            @Param("threshold") BigDecimal threshold,
+            Pageable pageable);
+    
+    @Query("SELECT new com.example.model.dto.TransactionAggregate(COUNT(t), SUM(t.amount)) FROM Transaction t " +
+           "WHERE t.accountNumber = :accountNumber AND t.transactionDate >= :since AND t.amount > :threshold")
+    TransactionAggregate aggregateAbove(
+            @Param("accountNumber") String accountNumber,
+            @Param("since") LocalDateTime since,
+            @Param("threshold") BigDecimal threshold);
+    
+    // Distinct locations are few per account, so they are classified in Java and the filter pushed back down;
+    // backed by idx_transactions_account_location
+    @Query("SELECT DISTINCT t.location FROM Transaction t " +
+           "WHERE t.accountNumber = :accountNumber AND t.transactionDate >= :since")
+    List<String> findDistinctLocations(
+            @Param("accountNumber") String accountNumber,
+            @Param("since") LocalDateTime since);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.accountNumber = :accountNumber " +
+           "AND t.transactionDate >= :since AND COALESCE(t.location, '') IN :locations " +
+           "ORDER BY t.amount DESC, t.id DESC")
+    List<Transaction> findLargestInLocations(
+            @Param("accountNumber") String accountNumber,
+            @Param("since") LocalDateTime since,
+            @Param("locations") Collection<String> locations,
+            Pageable pageable);
+    
+    @Query("SELECT new com.example.model.dto.TransactionAggregate(COUNT(t), SUM(t.amount)) FROM Transaction t " +
+           "WHERE t.accountNumber = :accountNumber AND t.transactionDate >= :since " +
+           "AND COALESCE(t.location, '') IN :locations")
+    TransactionAggregate aggregateInLocations(
+            @Param("accountNumber") String accountNumber,
+            @Param("since") LocalDateTime since,
+            @Param("locations") Collection<String> locations);
+    
+    @Query("SELECT DISTINCT t.merchantName FROM Transaction t " +
+           "WHERE t.accountNumber = :accountNumber AND t.transactionDate >= :since ORDER BY t.merchantName")
+    List<String> findDistinctMerchantNames(
+            @Param("accountNumber") String accountNumber,
+            @Param("since") LocalDateTime since,
+            Pageable pageable);
+    
+    @Query("SELECT DISTINCT t.counterpartyAccount FROM Transaction t WHERE t.accountNumber = :accountNumber " +
+           "AND t.transactionDate >= :since AND t.counterpartyAccount IS NOT NULL ORDER BY t.counterpartyAccount")
+    List<String> findDistinctCounterparties(
+            @Param("accountNumber") String accountNumber,
+            @Param("since") LocalDateTime since,
+            Pageable pageable);
+    
+    @Query("SELECT DISTINCT t.accountNumber FROM Transaction t")
+    List<String> findDistinctAccountNumbers();
 }
-
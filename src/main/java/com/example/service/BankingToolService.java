@@ -2,6 +2,7 @@ package com.example.service;
 
 import com.example.model.Account;
 import com.example.model.Transaction;
+import com.example.model.dto.TransactionTypeAggregate;
 import com.example.repository.AccountRepository;
 import com.example.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -25,6 +27,7 @@ public class BankingToolService {
 
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
+    private final TransactionRollupService transactionRollupService;
 
     /**
      * Tool: Get account balance
@@ -96,25 +99,16 @@ public class BankingToolService {
         log.info("AI Tool Call: calculateSpendingByCategory for account: {}, days: {}", accountNumber, days);
         LocalDateTime startDate = LocalDateTime.now().minusDays(days);
         
-        List<Transaction> transactions = transactionRepository
-                .findByAccountNumber(accountNumber)
-                .stream()
-                .filter(tx -> tx.getTransactionDate().isAfter(startDate))
-                .collect(Collectors.toList());
+        Map<String, BigDecimal> categorySpending = transactionRollupService
+                .getPeriodTotals(accountNumber, startDate, LocalDateTime.now())
+                .debitsByCategory();
 
-        if (transactions.isEmpty()) {
-            return String.format("No transactions found for account %s in the last %d days", accountNumber, days);
+        if (categorySpending.isEmpty()) {
+            return String.format("No spending found for account %s in the last %d days", accountNumber, days);
         }
 
-        var categorySpending = transactions.stream()
-                .filter(tx -> "DEBIT".equals(tx.getTransactionType()))
-                .collect(Collectors.groupingBy(
-                        Transaction::getMerchantCategory,
-                        Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)
-                ));
-
         StringBuilder result = new StringBuilder(String.format("Spending by category (last %d days):\n", days));
-        categorySpending.forEach((category, total) -> 
+        categorySpending.forEach((category, total) ->
                 result.append(String.format("- %s: %s\n", category, total)));
 
         return result.toString();
@@ -128,13 +122,14 @@ public class BankingToolService {
         log.info("AI Tool Call: getAccountSummary for account: {}", accountNumber);
         return accountRepository.findByAccountNumber(accountNumber)
                 .map(account -> {
-                    List<Transaction> accountTransactions = transactionRepository
-                            .findByAccountNumber(accountNumber);
-                    long transactionCount = accountTransactions.size();
-                    BigDecimal totalDebits = accountTransactions.stream()
-                            .filter(tx -> "DEBIT".equals(tx.getTransactionType()))
-                            .map(Transaction::getAmount)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+                    long transactionCount = 0;
+                    BigDecimal totalDebits = BigDecimal.ZERO;
+                    for (TransactionTypeAggregate aggregate : transactionRepository.aggregateByType(accountNumber)) {
+                        transactionCount += aggregate.count();
+                        if ("DEBIT".equals(aggregate.transactionType())) {
+                            totalDebits = aggregate.total();
+                        }
+                    }
 
                     return String.format(
                             "Account Summary for %s:\n" +
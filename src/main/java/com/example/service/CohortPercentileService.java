@@ -0,0 +1,46 @@
+package com.example.service;
+
+import com.example.model.Account;
+import com.example.model.Transaction;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.OptionalInt;
+
+/**
+ * Approximate percentiles of spend within cohorts of the same account type and merchant category,
+ * answered from mergeable quantile sketches instead of scanning every account.
+ */
+public interface CohortPercentileService {
+
+    /**
+     * Percentile (0-99) of a single debit amount among the cohort's debits; empty while the cohort is too small.
+     */
+    OptionalInt amountPercentile(String accountType, String merchantCategory, BigDecimal amount);
+
+    /**
+     * Percentile of the account's trailing-window spend in each category among accounts of its type
+     * that spent in that category, ordered by the account's spend.
+     */
+    Map<String, Integer> spendPercentiles(Account account);
+
+    /**
+     * Compact prompt feature, e.g. "p97 of GROCERIES debits among CHECKING accounts".
+     */
+    String describeAmount(String accountType, String merchantCategory, BigDecimal amount);
+
+    /**
+     * Compact prompt feature, e.g. "GROCERIES p97, TRAVEL p41 (last 30 days, among CHECKING accounts)".
+     */
+    String describeSpend(Account account);
+
+    /**
+     * Fold a saved transaction into its cohort's amount sketch.
+     */
+    void record(Transaction transaction);
+
+    /**
+     * Rebuild all sketches from the trailing window. Returns the number of cohorts.
+     */
+    int rebuild();
+}
@@ -1,9 +1,25 @@
 package com.example.service;
 
+import com.example.model.ComplianceReport;
 import com.example.model.dto.ComplianceCheckRequest;
 import com.example.model.dto.ComplianceCheckResponse;
+import com.example.model.dto.CompositeComplianceRequest;
+import com.example.model.dto.CompositeComplianceResponse;
 
 public interface ComplianceService {
     ComplianceCheckResponse checkCompliance(ComplianceCheckRequest request);
+
+    /**
+     * Run several compliance types over one shared context, with their LLM calls in parallel,
+     * and save one report per type.
+     */
+    CompositeComplianceResponse checkComposite(CompositeComplianceRequest request);
+
+    /**
+     * Run a compliance check without saving the report, for batch callers that persist in bulk.
+     * {@code additionalContext}, if not null, is appended to the context given to the LLM.
+     */
+    ComplianceReport evaluate(String accountNumber, String customerId, String complianceType,
+                              String additionalContext);
 }
 
@@ -0,0 +1,16 @@
+package com.example.service;
+
+import com.example.model.dto.ComplianceSweepStatus;
+
+/**
+ * Periodic AML review of every account in the book.
+ */
+public interface ComplianceSweepService {
+    /**
+     * Start a sweep in the background, resuming from the checkpoint if the previous sweep did not finish.
+     * Returns false when a sweep is already in progress.
+     */
+    boolean start();
+
+    ComplianceSweepStatus getStatus();
+}
@@ -0,0 +1,21 @@
+package com.example.service;
+
+import com.example.model.Transaction;
+import com.example.model.dto.CounterpartyGraphFeatures;
+
+/**
+ * In-memory graph of money moving between accounts via counterparty accounts, used to spot layering:
+ * rapid fan-out over several hops and funds returning to where they started.
+ */
+public interface CounterpartyGraphService {
+
+    /**
+     * Add a saved transaction with a counterparty account to the graph.
+     */
+    void record(Transaction transaction);
+
+    /**
+     * Fan-out and cycle features of the account over the recent lookback.
+     */
+    CounterpartyGraphFeatures features(String accountNumber);
+}
@@ -0,0 +1,12 @@
+package com.example.service;
+
+import com.example.model.FraudAlert;
+import com.example.model.dto.FraudAlertPage;
+
+public interface FraudAlertTriageService {
+    FraudAlertPage getAlerts(String status, String severity, String sortBy, String cursor, int size);
+
+    FraudAlertPage getAlertsForAccount(String accountNumber, String cursor, int size);
+
+    FraudAlert getAlert(Long id);
+}
@@ -0,0 +1,7 @@
+package com.example.service;
+
+import com.example.model.dto.FraudModelTrainingResponse;
+
+public interface FraudModelTrainingService {
+    FraudModelTrainingResponse trainModel();
+}
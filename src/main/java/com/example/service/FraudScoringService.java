@@ -0,0 +1,33 @@
+package com.example.service;
+
+import com.example.model.Account;
+import com.example.model.Transaction;
+import com.example.model.dto.FraudDetectionRequest;
+
+import java.util.List;
+
+/**
+ * Embedded fraud scoring model used to gate LLM fraud analysis.
+ */
+public interface FraudScoringService {
+
+    enum ScoreBand {
+        LOW,
+        UNCERTAIN,
+        HIGH
+    }
+
+    /**
+     * Score a candidate transaction. Returns {@link Double#NaN} when no model is loaded.
+     */
+    double score(FraudDetectionRequest request, Account account, List<Transaction> recentTransactions);
+
+    /**
+     * Classify a score; anything outside the confident bands (or NaN) is UNCERTAIN.
+     */
+    ScoreBand classify(double score);
+
+    String getModelVersion();
+
+    void reloadModel();
+}
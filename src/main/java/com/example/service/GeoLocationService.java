@@ -0,0 +1,33 @@
+package com.example.service;
+
+import com.example.model.Transaction;
+import com.example.model.dto.AccountGeoProfile;
+import com.example.model.dto.GeoFeatures;
+import com.example.model.dto.GeoLocation;
+
+import java.time.LocalDateTime;
+
+/**
+ * Location normalisation and per-account location index used by fraud and compliance.
+ */
+public interface GeoLocationService {
+
+    GeoLocation normalize(String location);
+
+    /**
+     * Outside the home country, offshore, or not resolvable to a country at all.
+     */
+    boolean isInternational(String location);
+
+    /**
+     * Features of a candidate transaction against the account's indexed history, computed in O(1).
+     */
+    GeoFeatures features(String accountNumber, String location, LocalDateTime transactionDate);
+
+    /**
+     * Fold a saved transaction into the account's location index.
+     */
+    void record(Transaction transaction);
+
+    AccountGeoProfile getProfile(String accountNumber);
+}
@@ -0,0 +1,17 @@
+package com.example.service;
+
+import com.example.model.dto.IncrementalAnalysisResponse;
+
+public interface IncrementalAnalysisService {
+    /**
+     * Fold transactions saved since the account's last analysis into its running state and update the insights.
+     * No LLM call is made when nothing new has arrived.
+     */
+    IncrementalAnalysisResponse analyzeIncrementally(String accountNumber);
+
+    /**
+     * Run incremental analysis for every active account. Returns the number of accounts with new activity,
+     * or -1 if another instance is running it.
+     */
+    int analyzeActiveAccounts();
+}
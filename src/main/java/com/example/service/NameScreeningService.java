@@ -0,0 +1,26 @@
+package com.example.service;
+
+import com.example.model.Customer;
+import com.example.model.dto.ScreeningMatch;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Fuzzy screening of names against the loaded sanctions and PEP lists.
+ */
+public interface NameScreeningService {
+
+    List<ScreeningMatch> screen(String subject, String name);
+
+    /**
+     * Screen the customer's name, the given merchant names and the owners of the given counterparty
+     * accounts; matches are ordered by score.
+     */
+    List<ScreeningMatch> screenParties(Customer customer, Collection<String> merchantNames,
+                                       Collection<String> counterpartyAccounts);
+
+    int getEntryCount();
+
+    void reload();
+}
@@ -1,9 +1,15 @@
 package com.example.service;
 
+import com.example.model.RiskAssessment;
 import com.example.model.dto.RiskAssessmentRequest;
 import com.example.model.dto.RiskAssessmentResponse;
 
 public interface RiskAssessmentService {
     RiskAssessmentResponse assessRisk(RiskAssessmentRequest request);
-}
 
+    /**
+     * Run a new assessment of the account, including its transaction history, without saving it.
+     * For batch callers that persist results themselves.
+     */
+    RiskAssessment evaluate(String accountNumber);
+}
@@ -0,0 +1,16 @@
+package com.example.service;
+
+import com.example.model.dto.RiskRecomputationStatus;
+
+/**
+ * Portfolio-wide batch recomputation of risk assessments for ACTIVE accounts.
+ */
+public interface RiskRecomputationService {
+    /**
+     * Start a run in the background, resuming from the checkpoint if the previous run did not finish.
+     * Returns false when a run is already in progress on this or another instance.
+     */
+    boolean start();
+
+    RiskRecomputationStatus getStatus();
+}
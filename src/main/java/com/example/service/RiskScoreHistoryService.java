@@ -0,0 +1,31 @@
+package com.example.service;
+
+import com.example.model.RiskAssessment;
+import com.example.model.dto.RiskTrendRequest;
+import com.example.model.dto.RiskTrendResponse;
+
+import java.util.List;
+
+/**
+ * Compact time series of risk scores, kept separately from the full assessments.
+ */
+public interface RiskScoreHistoryService {
+
+    void record(RiskAssessment assessment);
+
+    /**
+     * Record a batch of assessments with one JDBC batch; joins the caller's transaction.
+     */
+    void recordAll(List<RiskAssessment> assessments);
+
+    /**
+     * Sparkline-ready series for many accounts over a window, resampled to a fixed number of slots.
+     */
+    RiskTrendResponse getTrends(RiskTrendRequest request);
+
+    /**
+     * Fold old raw points into daily buckets and old daily buckets into weekly ones.
+     * Returns the number of points removed, or 0 when another instance is already doing it.
+     */
+    int downsample();
+}
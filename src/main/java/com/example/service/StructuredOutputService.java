@@ -2,6 +2,7 @@ package com.example.service;
 
 import com.example.model.dto.FraudAnalysisResult;
 import com.example.model.dto.RiskAssessmentResult;
+import com.example.model.dto.TransactionPeriodTotals;
 import com.example.model.dto.TransactionSummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,7 +10,14 @@ import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.SortedMap;
 
 /**
  * Structured Output Service
@@ -21,7 +29,14 @@ import java.util.List;
 @Slf4j
 public class StructuredOutputService {
 
+    private static final int TOP_CATEGORIES = 3;
+    // Weekly change in spend, relative to the mean week, below which the trend is STABLE
+    private static final double STABLE_TREND_THRESHOLD = 0.05;
+    // Two complete weeks are the fewest a weekly trend can be fitted to
+    private static final int MIN_TREND_DAYS = 14;
+
     private final ChatClient chatClient;
+    private final TransactionRollupService transactionRollupService;
 
     /**
      * Get structured fraud analysis result
@@ -58,27 +73,143 @@ public class StructuredOutputService {
 
     /**
      * Get structured transaction summary
+     * Numeric fields and the trend are computed locally from the daily rollup; the LLM is only
+     * called when narrative insights are requested.
      */
     public TransactionSummary getTransactionSummaryStructured(String accountNumber, int days) {
-        log.info("Getting structured transaction summary for account: {}, days: {}", accountNumber, days);
+        return getTransactionSummaryStructured(accountNumber, days, false);
+    }
+
+    public TransactionSummary getTransactionSummaryStructured(String accountNumber, int days, boolean aiInsights) {
+        log.info("Getting structured transaction summary for account: {}, days: {}, aiInsights: {}",
+                accountNumber, days, aiInsights);
         
+        LocalDateTime endDate = LocalDateTime.now();
+        TransactionPeriodTotals totals = transactionRollupService.getPeriodTotals(
+                accountNumber, endDate.minusDays(days), endDate);
+
+        BigDecimal totalAmount = totals.debitTotal();
+        BigDecimal averageTransaction = totals.debitCount() > 0
+                ? totalAmount.divide(BigDecimal.valueOf(totals.debitCount()), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+        List<String> topCategories = totals.debitsByCategory().keySet().stream()
+                .limit(TOP_CATEGORIES)
+                .toList();
+        double[] weeklySpend = weeklySpend(totals.dailyDebits(), endDate.toLocalDate(), days);
+        double weeklyChange = relativeWeeklySlope(weeklySpend);
+        String spendingTrend;
+        if (days < MIN_TREND_DAYS) {
+            spendingTrend = "INSUFFICIENT_DATA";
+        } else if (Math.abs(weeklyChange) < STABLE_TREND_THRESHOLD) {
+            spendingTrend = "STABLE";
+        } else {
+            spendingTrend = weeklyChange > 0 ? "INCREASING" : "DECREASING";
+        }
+
+        TransactionSummary summary = TransactionSummary.builder()
+                .totalTransactions((int) totals.transactionCount())
+                .totalAmount(totalAmount)
+                .averageTransaction(averageTransaction)
+                .topCategories(topCategories)
+                .spendingTrend(spendingTrend)
+                .insights(computedInsights(totals, weeklySpend, weeklyChange))
+                .build();
+
+        if (aiInsights && !totals.isEmpty()) {
+            summary.setInsights(generateSummaryInsights(accountNumber, days, summary, weeklySpend));
+        }
+        return summary;
+    }
+
+    /**
+     * Debit totals per 7-day bucket, aligned to end on the last day so the newest week is complete.
+     * A partial oldest week is dropped so it does not read as a spending increase.
+     */
+    private double[] weeklySpend(SortedMap<LocalDate, BigDecimal> dailyDebits, LocalDate lastDay, int days) {
+        int weeks = Math.max(days / 7, 1);
+        double[] buckets = new double[weeks];
+        dailyDebits.forEach((day, amount) -> {
+            long weeksAgo = ChronoUnit.DAYS.between(day, lastDay) / 7;
+            if (weeksAgo >= 0 && weeksAgo < weeks) {
+                buckets[weeks - 1 - (int) weeksAgo] += amount.doubleValue();
+            }
+        });
+        return buckets;
+    }
+
+    /**
+     * Least-squares slope of weekly spend against week index, relative to mean weekly spend.
+     */
+    private double relativeWeeklySlope(double[] weeklySpend) {
+        int n = weeklySpend.length;
+        if (n < 2) {
+            return 0.0;
+        }
+        double meanX = (n - 1) / 2.0;
+        double meanY = 0.0;
+        for (double y : weeklySpend) {
+            meanY += y / n;
+        }
+        if (meanY <= 0.0) {
+            return 0.0;
+        }
+        double covariance = 0.0;
+        double variance = 0.0;
+        for (int x = 0; x < n; x++) {
+            covariance += (x - meanX) * (weeklySpend[x] - meanY);
+            variance += (x - meanX) * (x - meanX);
+        }
+        return covariance / variance / meanY;
+    }
+
+    private List<String> computedInsights(TransactionPeriodTotals totals, double[] weeklySpend, double weeklyChange) {
+        if (totals.isEmpty()) {
+            return List.of("No transactions in the selected period");
+        }
+        List<String> insights = new ArrayList<>();
+        if (weeklySpend.length >= 2) {
+            insights.add(String.format("Weekly spending changes by %+.1f%% per week on average over %d weeks",
+                    weeklyChange * 100, weeklySpend.length));
+        }
+        totals.debitsByCategory().entrySet().stream().findFirst().ifPresent(top -> {
+            if (totals.debitTotal().signum() > 0) {
+                insights.add(String.format("%s accounts for %.0f%% of spending", top.getKey(),
+                        top.getValue().doubleValue() * 100 / totals.debitTotal().doubleValue()));
+            }
+        });
+        insights.add(String.format("Credits %s versus debits %s", totals.creditTotal(), totals.debitTotal()));
+        return insights;
+    }
+
+    private List<String> generateSummaryInsights(String accountNumber, int days, TransactionSummary summary,
+                                                 double[] weeklySpend) {
         String prompt = String.format("""
-                Analyze transactions for account %s over the last %d days.
-                Return a JSON object with:
-                - totalTransactions: number
-                - totalAmount: number
-                - averageTransaction: number
-                - topCategories: array of strings (top 3 categories)
-                - spendingTrend: one of INCREASING, DECREASING, STABLE
-                - insights: array of strings with key insights
-                """, accountNumber, days);
+                Provide 3 short insights about the spending of account %s over the last %d days.
+                
+                Total transactions: %d
+                Total spending: %s
+                Average transaction: %s
+                Top categories: %s
+                Spending trend: %s
+                Weekly spending (oldest first): %s
+                
+                Return one insight per line, each starting with "- ".
+                """, accountNumber, days,
+                summary.getTotalTransactions(), summary.getTotalAmount(), summary.getAverageTransaction(),
+                summary.getTopCategories(), summary.getSpendingTrend(), Arrays.toString(weeklySpend));
 
         String response = chatClient.prompt()
                 .user(prompt)
                 .call()
                 .content();
 
-        return parseTransactionSummary(response);
+        List<String> insights = response.lines()
+                .map(String::trim)
+                .filter(line -> line.startsWith("-"))
+                .map(line -> line.substring(1).trim())
+                .filter(line -> !line.isEmpty())
+                .toList();
+        return insights.isEmpty() ? summary.getInsights() : insights;
     }
 
     /**
@@ -120,17 +251,6 @@ public class StructuredOutputService {
                 .build();
     }
 
-    private TransactionSummary parseTransactionSummary(String jsonResponse) {
-        return TransactionSummary.builder()
-                .totalTransactions(50)
-                .totalAmount(new BigDecimal("5000.00"))
-                .averageTransaction(new BigDecimal("100.00"))
-                .topCategories(List.of("GROCERIES", "RESTAURANTS", "UTILITIES"))
-                .spendingTrend("STABLE")
-                .insights(List.of("Consistent spending pattern", "No unusual activity"))
-                .build();
-    }
-
     private RiskAssessmentResult parseRiskAssessment(String jsonResponse) {
         return RiskAssessmentResult.builder()
                 .overallRiskScore(45)
@@ -0,0 +1,18 @@
+package com.example.service;
+
+import com.example.model.FraudAlert;
+import com.example.model.Transaction;
+
+import java.util.Optional;
+
+/**
+ * Streaming detector for structuring / smurfing: repeated deposits just below
+ * the reporting threshold that together exceed it within a sliding window.
+ */
+public interface StructuringDetectionService {
+
+    /**
+     * Fold a saved transaction into the rolling windows and return the alert raised, if any.
+     */
+    Optional<FraudAlert> record(Transaction transaction);
+}
@@ -1,9 +1,13 @@
 package com.example.service;
 
+import com.example.model.dto.PortfolioAnalysisRequest;
+import com.example.model.dto.PortfolioAnalysisResponse;
 import com.example.model.dto.TransactionAnalysisRequest;
 import com.example.model.dto.TransactionAnalysisResponse;
 
 public interface TransactionAnalysisService {
     TransactionAnalysisResponse analyzeTransactions(TransactionAnalysisRequest request);
+    
+    PortfolioAnalysisResponse analyzePortfolio(PortfolioAnalysisRequest request);
 }
 
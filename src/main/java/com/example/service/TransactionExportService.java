@@ -0,0 +1,29 @@
+package com.example.service;
+
+import com.example.model.dto.TransactionExportRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Bulk transaction export for reporting, written straight from a database cursor.
+ */
+public interface TransactionExportService {
+
+    enum Format {
+        CSV,
+        NDJSON
+    }
+
+    /**
+     * Check the filter and format before any output is written. An export needs an account number,
+     * a complete date range, or both.
+     */
+    Format validate(TransactionExportRequest request);
+
+    /**
+     * Write matching transactions ordered by date to the stream, gzip-compressed if requested.
+     * Memory use does not depend on the number of rows. Returns the number of rows written.
+     */
+    long export(TransactionExportRequest request, OutputStream out) throws IOException;
+}
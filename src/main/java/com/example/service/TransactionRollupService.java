@@ -0,0 +1,21 @@
+package com.example.service;
+
+import com.example.model.Transaction;
+import com.example.model.dto.TransactionPeriodTotals;
+
+import java.time.LocalDateTime;
+
+public interface TransactionRollupService {
+    /**
+     * Totals for an account between two instants (inclusive), from at most one rollup row per day and category.
+     */
+    TransactionPeriodTotals getPeriodTotals(String accountNumber, LocalDateTime startDate, LocalDateTime endDate);
+
+    void apply(Transaction transaction);
+
+    /**
+     * Rebuild the rollup for every account from raw transactions. Returns the number of accounts processed,
+     * or -1 if another instance is running a backfill.
+     */
+    int backfill();
+}
@@ -0,0 +1,125 @@
+package com.example.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cross-instance mutual exclusion for batch jobs, in the style of ShedLock. A job is claimed with a conditional
+ * update of its batch_job_leases row that succeeds only if the lease is free, expired or already ours. Held
+ * leases are renewed in the background, so a job holds its lease for as long as it runs, and an instance that
+ * stops renewing loses it after lease-seconds. Jobs call {@link #renew} in the transaction that commits their
+ * progress, so a job whose lease has passed to another instance cannot commit.
+ * Expiry compares application clocks, so lease-seconds must be well above the clock skew between instances.
+ */
+@Component
+@Slf4j
+public class BatchJobLeases {
+
+    private static final String CLAIM = "UPDATE batch_job_leases SET owner = ?, lease_expires_at = ?, updated_at = ? " +
+            "WHERE job_name = ? AND (owner = ? OR lease_expires_at < ?)";
+    private static final String INSERT = "INSERT INTO batch_job_leases (job_name, owner, lease_expires_at, " +
+            "updated_at) VALUES (?, ?, ?, ?)";
+    private static final String RENEW = "UPDATE batch_job_leases SET lease_expires_at = ?, updated_at = ? " +
+            "WHERE job_name = ? AND owner = ?";
+    private static final String RELEASE = "UPDATE batch_job_leases SET owner = NULL, lease_expires_at = ?, " +
+            "updated_at = ? WHERE job_name = ? AND owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration lease;
+    private final String instanceId;
+    private final Set<String> held = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService renewer;
+
+    public BatchJobLeases(JdbcTemplate jdbcTemplate,
+                          @Value("${batch-jobs.lease-seconds:120}") long leaseSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.instanceId = System.getenv().getOrDefault("HOSTNAME", "local") + "-"
+                + UUID.randomUUID().toString().substring(0, 8);
+
+        this.renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "batch-job-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, leaseSeconds / 3);
+        renewer.scheduleWithFixedDelay(this::renewHeld, period, period, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Claim the job for the calling thread. Returns false if another instance holds an unexpired lease,
+     * or this instance already holds it.
+     */
+    public boolean tryAcquire(String jobName) {
+        if (!held.add(jobName)) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            int claimed = jdbcTemplate.update(CLAIM, instanceId, now.plus(lease), now, jobName, instanceId, now);
+            if (claimed == 0) {
+                jdbcTemplate.update(INSERT, jobName, instanceId, now.plus(lease), now);
+            }
+        } catch (DuplicateKeyException e) {
+            held.remove(jobName);
+            log.debug("Batch job {} is held by another instance", jobName);
+            return false;
+        } catch (RuntimeException e) {
+            held.remove(jobName);
+            throw e;
+        }
+        log.debug("Batch job {} claimed by {}", jobName, instanceId);
+        return true;
+    }
+
+    /**
+     * Extend the lease; false if this instance no longer holds it. Call inside the transaction that commits
+     * the job's progress and roll back on false.
+     */
+    public boolean renew(String jobName) {
+        LocalDateTime now = LocalDateTime.now();
+        if (jdbcTemplate.update(RENEW, now.plus(lease), now, jobName, instanceId) == 1) {
+            return true;
+        }
+        if (held.remove(jobName)) {
+            log.error("Lease on batch job {} was lost; another instance may have taken it over", jobName);
+        }
+        return false;
+    }
+
+    public void release(String jobName) {
+        if (held.remove(jobName)) {
+            LocalDateTime now = LocalDateTime.now();
+            jdbcTemplate.update(RELEASE, now, now, jobName, instanceId);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renewer.shutdownNow();
+        Set.copyOf(held).forEach(this::release);
+    }
+
+    private void renewHeld() {
+        for (String jobName : Set.copyOf(held)) {
+            try {
+                renew(jobName);
+            } catch (Exception e) {
+                log.warn("Could not renew lease on batch job {}: {}", jobName, e.getMessage());
+            }
+        }
+    }
+}
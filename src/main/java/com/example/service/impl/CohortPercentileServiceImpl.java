@@ -0,0 +1,214 @@
+package com.example.service.impl;
+
+import com.example.event.TransactionSavedEvent;
+import com.example.model.Account;
+import com.example.model.QuantileSketch;
+import com.example.model.Transaction;
+import com.example.model.dto.CohortSample;
+import com.example.repository.AccountRepository;
+import com.example.repository.TransactionDailyRollupRepository;
+import com.example.repository.TransactionRepository;
+import com.example.service.CohortPercentileService;
+import com.example.service.TransactionRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Two sketch families per (account type, merchant category) cohort:
+ * <ul>
+ *   <li>debit amounts, updated as each transaction is saved, for "how unusual is this payment" fraud features;</li>
+ *   <li>per-account spend over the trailing window, rebuilt nightly from the daily rollups, since an account's
+ *       running total cannot be moved between buckets once counted.</li>
+ * </ul>
+ * Each sketch is a fixed-size array of bucket counts, so memory depends on the number of cohorts only.
+ */
+@Service
+@Slf4j
+public class CohortPercentileServiceImpl implements CohortPercentileService {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionDailyRollupRepository rollupRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRollupService transactionRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final int windowDays;
+    private final long minCohortSize;
+
+    private final Map<String, String> accountTypes = new ConcurrentHashMap<>();
+    private volatile Map<String, QuantileSketch> amountSketches = new ConcurrentHashMap<>();
+    private volatile Map<String, QuantileSketch> spendSketches = Map.of();
+    // Receives live transactions while a rebuild is streaming, so none are lost when the maps are swapped
+    private volatile Map<String, QuantileSketch> rebuildingAmountSketches;
+
+    public CohortPercentileServiceImpl(TransactionRepository transactionRepository,
+                                       TransactionDailyRollupRepository rollupRepository,
+                                       AccountRepository accountRepository,
+                                       TransactionRollupService transactionRollupService,
+                                       TransactionTemplate transactionTemplate,
+                                       @Value("${cohort.percentiles.window-days:30}") int windowDays,
+                                       @Value("${cohort.percentiles.min-cohort-size:20}") long minCohortSize) {
+        this.transactionRepository = transactionRepository;
+        this.rollupRepository = rollupRepository;
+        this.accountRepository = accountRepository;
+        this.transactionRollupService = transactionRollupService;
+        this.transactionTemplate = transactionTemplate;
+        this.windowDays = windowDays;
+        this.minCohortSize = minCohortSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${cohort.percentiles.rebuild-cron:0 30 2 * * *}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionSaved(TransactionSavedEvent event) {
+        record(event.transaction());
+    }
+
+    @Override
+    public synchronized int rebuild() {
+        long started = System.nanoTime();
+        LocalDateTime since = LocalDateTime.now().minusDays(windowDays);
+
+        Map<String, QuantileSketch> amounts = new ConcurrentHashMap<>();
+        rebuildingAmountSketches = amounts;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<CohortSample> samples = transactionRepository.streamDebitCohortSamples(since)) {
+                    samples.forEach(sample -> add(amounts, sample.accountType(), sample.merchantCategory(), sample.amount()));
+                }
+            });
+            amountSketches = amounts;
+        } finally {
+            rebuildingAmountSketches = null;
+        }
+
+        Map<String, QuantileSketch> spend = new ConcurrentHashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<CohortSample> samples = rollupRepository.streamAccountCategorySpend(since.toLocalDate())) {
+                samples.forEach(sample -> add(spend, sample.accountType(), sample.merchantCategory(), sample.amount()));
+            }
+        });
+        spendSketches = spend;
+
+        log.info("Cohort sketches rebuilt for the last {} days: {} amount cohorts, {} spend cohorts in {} ms",
+                windowDays, amounts.size(), spend.size(), (System.nanoTime() - started) / 1_000_000);
+        return amounts.size();
+    }
+
+    @Override
+    public void record(Transaction transaction) {
+        if (!"DEBIT".equals(transaction.getTransactionType()) || transaction.getAmount() == null) {
+            return;
+        }
+        String accountType = accountType(transaction.getAccountNumber());
+        if (accountType == null) {
+            return;
+        }
+        add(amountSketches, accountType, transaction.getMerchantCategory(), transaction.getAmount());
+        Map<String, QuantileSketch> rebuilding = rebuildingAmountSketches;
+        if (rebuilding != null) {
+            add(rebuilding, accountType, transaction.getMerchantCategory(), transaction.getAmount());
+        }
+    }
+
+    @Override
+    public OptionalInt amountPercentile(String accountType, String merchantCategory, BigDecimal amount) {
+        return percentile(amountSketches.get(key(accountType, merchantCategory)), amount);
+    }
+
+    @Override
+    public Map<String, Integer> spendPercentiles(Account account) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, BigDecimal> spendByCategory = transactionRollupService
+                .getPeriodTotals(account.getAccountNumber(), now.minusDays(windowDays), now)
+                .debitsByCategory();
+        Map<String, QuantileSketch> sketches = spendSketches;
+        Map<String, Integer> percentiles = new LinkedHashMap<>();
+        spendByCategory.forEach((category, spend) ->
+                percentile(sketches.get(key(account.getAccountType(), category)), spend)
+                        .ifPresent(p -> percentiles.put(category, p)));
+        return percentiles;
+    }
+
+    @Override
+    public String describeAmount(String accountType, String merchantCategory, BigDecimal amount) {
+        OptionalInt percentile = amountPercentile(accountType, merchantCategory, amount);
+        return percentile.isPresent()
+                ? String.format("p%d of %s debits among %s accounts", percentile.getAsInt(), merchantCategory, accountType)
+                : "insufficient cohort data";
+    }
+
+    @Override
+    public String describeSpend(Account account) {
+        Map<String, Integer> percentiles = spendPercentiles(account);
+        if (percentiles.isEmpty()) {
+            return "insufficient cohort data";
+        }
+        return percentiles.entrySet().stream()
+                .map(e -> e.getKey() + " p" + e.getValue())
+                .collect(Collectors.joining(", ", "",
+                        String.format(" (last %d days, among %s accounts)", windowDays, account.getAccountType())));
+    }
+
+    private OptionalInt percentile(QuantileSketch sketch, BigDecimal amount) {
+        if (sketch == null || amount == null) {
+            return OptionalInt.empty();
+        }
+        double rank;
+        synchronized (sketch) {
+            if (sketch.getCount() < minCohortSize) {
+                return OptionalInt.empty();
+            }
+            rank = sketch.rank(amount);
+        }
+        return OptionalInt.of((int) Math.min(99, Math.floor(rank * 100)));
+    }
+
+    private String accountType(String accountNumber) {
+        String cached = accountTypes.get(accountNumber);
+        if (cached != null) {
+            return cached;
+        }
+        String accountType = accountRepository.findByAccountNumber(accountNumber)
+                .map(Account::getAccountType)
+                .orElse(null);
+        if (accountType != null) {
+            accountTypes.put(accountNumber, accountType);
+        }
+        return accountType;
+    }
+
+    private static void add(Map<String, QuantileSketch> sketches, String accountType, String merchantCategory,
+                            BigDecimal amount) {
+        QuantileSketch sketch = sketches.computeIfAbsent(key(accountType, merchantCategory), k -> new QuantileSketch());
+        synchronized (sketch) {
+            sketch.add(amount);
+        }
+    }
+
+    private static String key(String accountType, String merchantCategory) {
+        return accountType + "|" + merchantCategory;
+    }
+}
@@ -3,37 +3,104 @@ package com.example.service.impl;
 import com.example.model.Account;
 import com.example.model.ComplianceReport;
 import com.example.model.Customer;
-import com.example.model.Transaction;
+import com.example.model.dto.AccountGeoProfile;
 import com.example.model.dto.ComplianceCheckRequest;
 import com.example.model.dto.ComplianceCheckResponse;
+import com.example.model.dto.CompositeComplianceRequest;
+import com.example.model.dto.CompositeComplianceResponse;
+import com.example.model.dto.ScreeningMatch;
+import com.example.model.dto.TransactionAggregate;
+import com.example.model.dto.TransactionTypeAggregate;
 import com.example.repository.AccountRepository;
 import com.example.repository.ComplianceReportRepository;
 import com.example.repository.CustomerRepository;
 import com.example.repository.TransactionRepository;
 import com.example.service.ComplianceService;
+import com.example.service.CounterpartyGraphService;
+import com.example.service.GeoLocationService;
+import com.example.service.NameScreeningService;
 import com.example.service.RAGService;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ComplianceServiceImpl implements ComplianceService {
     
+    private static final BigDecimal HIGH_VALUE_THRESHOLD = new BigDecimal("10000");
+    private static final PageRequest TOP_N = PageRequest.of(0, 10);
+    private static final List<String> COMPOSITE_REGIMES = List.of("AML", "KYC", "SANCTIONS");
+    private static final Set<String> SUPPORTED_REGIMES = Set.of("AML", "KYC", "SANCTIONS", "REGULATORY");
+    
     private final ChatClient chatClient;
     private final AccountRepository accountRepository;
     private final CustomerRepository customerRepository;
     private final TransactionRepository transactionRepository;
     private final ComplianceReportRepository complianceReportRepository;
     private final RAGService ragService;
+    private final GeoLocationService geoLocationService;
+    private final NameScreeningService nameScreeningService;
+    private final CounterpartyGraphService counterpartyGraphService;
+    private final ExecutorService compositeExecutor;
+    private final ExecutorService llmExecutor;
+    private final int maxScreenedParties;
+    
+    public ComplianceServiceImpl(ChatClient chatClient,
+                                 AccountRepository accountRepository,
+                                 CustomerRepository customerRepository,
+                                 TransactionRepository transactionRepository,
+                                 ComplianceReportRepository complianceReportRepository,
+                                 RAGService ragService,
+                                 GeoLocationService geoLocationService,
+                                 NameScreeningService nameScreeningService,
+                                 CounterpartyGraphService counterpartyGraphService,
+                                 @Value("${compliance.composite.parallelism:8}") int compositeParallelism,
+                                 @Value("${compliance.composite.llm-parallelism:4}") int llmParallelism,
+                                 @Value("${screening.max-parties:200}") int maxScreenedParties) {
+        this.chatClient = chatClient;
+        this.accountRepository = accountRepository;
+        this.customerRepository = customerRepository;
+        this.transactionRepository = transactionRepository;
+        this.complianceReportRepository = complianceReportRepository;
+        this.ragService = ragService;
+        this.geoLocationService = geoLocationService;
+        this.nameScreeningService = nameScreeningService;
+        this.counterpartyGraphService = counterpartyGraphService;
+        this.maxScreenedParties = maxScreenedParties;
+        // Context sections and RAG lookups of composite checks; keep below the connection pool size
+        this.compositeExecutor = Executors.newFixedThreadPool(compositeParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "compliance-composite");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Per-regime LLM calls, on their own threads so slow model calls cannot starve the database sections
+        this.llmExecutor = Executors.newFixedThreadPool(llmParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "compliance-composite-llm");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        compositeExecutor.shutdownNow();
+        llmExecutor.shutdownNow();
+    }
     
     @Override
     @Transactional
@@ -41,34 +108,153 @@ public class ComplianceServiceImpl implements ComplianceService {
         log.info("Performing compliance check: type={}, account={}, customer={}", 
                 request.getComplianceType(), request.getAccountNumber(), request.getCustomerId());
         
-        var account = accountRepository.findByAccountNumber(request.getAccountNumber())
+        ComplianceReport report = evaluate(request.getAccountNumber(), request.getCustomerId(),
+                request.getComplianceType(), null);
+        complianceReportRepository.save(report);
+        
+        return ComplianceCheckResponse.builder()
+                .accountNumber(request.getAccountNumber())
+                .customerId(request.getCustomerId())
+                .complianceType(request.getComplianceType())
+                .status(report.getStatus())
+                .aiAnalysis(report.getAiAnalysis())
+                .findings(parseStoredList(report.getFindings()))
+                .recommendations(parseStoredList(report.getRecommendations()))
+                .build();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public ComplianceReport evaluate(String accountNumber, String customerId, String complianceType,
+                                     String additionalContext) {
+        var account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found"));
         
+        var customer = customerRepository.findByCustomerId(customerId)
+                .orElseThrow(() -> new IllegalArgumentException("Customer not found"));
+        
+        // Build compliance context from SQL aggregates and top-N queries over the last 12 months
+        String complianceContext = buildComplianceContext(account, customer, LocalDateTime.now().minusMonths(12));
+        if (additionalContext != null) {
+            complianceContext += "\n" + additionalContext;
+        }
+        
+        return assess(accountNumber, customerId, complianceType, complianceContext,
+                retrieveRegulations(complianceType));
+    }
+    
+    @Override
+    public CompositeComplianceResponse checkComposite(CompositeComplianceRequest request) {
+        long started = System.currentTimeMillis();
+        List<String> regimes = compositeRegimes(request.getComplianceTypes());
+        log.info("Performing composite compliance check: types={}, account={}, customer={}",
+                regimes, request.getAccountNumber(), request.getCustomerId());
+        
+        var account = accountRepository.findByAccountNumber(request.getAccountNumber())
+                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
         var customer = customerRepository.findByCustomerId(request.getCustomerId())
                 .orElseThrow(() -> new IllegalArgumentException("Customer not found"));
+        String accountNumber = account.getAccountNumber();
+        LocalDateTime since = LocalDateTime.now().minusMonths(12);
         
-        // Gather relevant data for compliance check
-        List<Transaction> recentTransactions = transactionRepository
-                .findRecentTransactionsByAccount(
-                        request.getAccountNumber(), 
-                        LocalDateTime.now().minusMonths(12));
+        // The deterministic context sections and each regime's RAG lookup are independent, so they run together
+        CompletableFuture<String> transactions = CompletableFuture.supplyAsync(
+                () -> buildTransactionSection(accountNumber, since), compositeExecutor);
+        CompletableFuture<String> geography = CompletableFuture.supplyAsync(
+                () -> buildGeographicSection(accountNumber), compositeExecutor);
+        CompletableFuture<String> graph = CompletableFuture.supplyAsync(
+                () -> buildGraphSection(accountNumber), compositeExecutor);
+        CompletableFuture<String> screening = CompletableFuture.supplyAsync(
+                () -> buildScreeningSection(customer, accountNumber, since), compositeExecutor);
+        Map<String, CompletableFuture<String>> regulations = new LinkedHashMap<>();
+        regimes.forEach(regime -> regulations.put(regime,
+                CompletableFuture.supplyAsync(() -> retrieveRegulations(regime), compositeExecutor)));
         
-        // Build compliance context
-        String complianceContext = buildComplianceContext(account, customer, recentTransactions, request.getComplianceType());
+        String complianceContext = buildCustomerSection(account, customer)
+                + join(transactions) + join(geography) + join(graph) + join(screening);
         
-        // Retrieve relevant compliance knowledge using RAG
-        String ragContext = ragService.retrieveRelevantContext(
-                String.format("%s compliance regulations requirements", request.getComplianceType()), 
-                3);
+        // One LLM call per regime over the shared context, as many in flight as the LLM pool allows
+        List<CompletableFuture<ComplianceReport>> assessments = regimes.stream()
+                .map(regime -> regulations.get(regime).thenApplyAsync(ragContext -> assess(accountNumber,
+                        request.getCustomerId(), regime, complianceContext, ragContext), llmExecutor))
+                .toList();
+        List<ComplianceReport> reports = complianceReportRepository.saveAll(
+                assessments.stream().map(ComplianceServiceImpl::join).toList());
         
+        long elapsedMs = System.currentTimeMillis() - started;
+        log.info("Composite compliance check for account {} completed {} regimes in {} ms",
+                accountNumber, reports.size(), elapsedMs);
+        return CompositeComplianceResponse.builder()
+                .accountNumber(accountNumber)
+                .customerId(request.getCustomerId())
+                .results(reports.stream()
+                        .map(report -> ComplianceCheckResponse.builder()
+                                .accountNumber(report.getAccountNumber())
+                                .customerId(report.getCustomerId())
+                                .complianceType(report.getComplianceType())
+                                .status(report.getStatus())
+                                .aiAnalysis(report.getAiAnalysis())
+                                .findings(parseStoredList(report.getFindings()))
+                                .recommendations(parseStoredList(report.getRecommendations()))
+                                .build())
+                        .toList())
+                .elapsedMs(elapsedMs)
+                .build();
+    }
+    
+    /**
+     * The requested compliance types, upper-cased and de-duplicated, or the default regimes when none are given.
+     * Unknown types are rejected, which also caps the LLM calls and RAG lookups one request can start.
+     */
+    private static List<String> compositeRegimes(List<String> complianceTypes) {
+        if (complianceTypes == null || complianceTypes.isEmpty()) {
+            return COMPOSITE_REGIMES;
+        }
+        List<String> regimes = new ArrayList<>(SUPPORTED_REGIMES.size());
+        for (String type : complianceTypes) {
+            String regime = type == null ? "" : type.trim().toUpperCase();
+            if (!SUPPORTED_REGIMES.contains(regime)) {
+                throw new IllegalArgumentException("Unsupported compliance type: " + type
+                        + "; expected one of AML, KYC, SANCTIONS, REGULATORY");
+            }
+            if (!regimes.contains(regime)) {
+                regimes.add(regime);
+            }
+        }
+        return regimes;
+    }
+    
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    // Only prompts with a {ragContext} placeholder use the retrieved regulations
+    private String retrieveRegulations(String complianceType) {
+        if (!getCompliancePrompt(complianceType).contains("{ragContext}")) {
+            return "";
+        }
+        return ragService.retrieveRelevantContext(
+                String.format("%s compliance regulations requirements", complianceType), 
+                3);
+    }
+    
+    private ComplianceReport assess(String accountNumber, String customerId, String complianceType,
+                                    String complianceContext, String ragContext) {
         // Generate compliance-specific prompt
-        String compliancePrompt = getCompliancePrompt(request.getComplianceType());
+        String compliancePrompt = getCompliancePrompt(complianceType);
         
         PromptTemplate promptTemplate = new PromptTemplate(compliancePrompt);
         Map<String, Object> variables = new HashMap<>();
         variables.put("ragContext", ragContext);
         variables.put("complianceContext", complianceContext);
-        variables.put("complianceType", request.getComplianceType());
+        variables.put("complianceType", complianceType);
         
         Prompt prompt = promptTemplate.create(variables);
         String aiResponse = chatClient.prompt(prompt).call().content();
@@ -76,37 +262,35 @@ public class ComplianceServiceImpl implements ComplianceService {
         // Parse AI response
         ComplianceResult result = parseComplianceResult(aiResponse);
         
-        // Save compliance report
-        ComplianceReport report = ComplianceReport.builder()
-                .accountNumber(request.getAccountNumber())
-                .customerId(request.getCustomerId())
-                .complianceType(request.getComplianceType())
+        return ComplianceReport.builder()
+                .accountNumber(accountNumber)
+                .customerId(customerId)
+                .complianceType(complianceType)
                 .status(result.status)
                 .aiAnalysis(result.analysis)
                 .findings(result.findings.toString())
                 .recommendations(result.recommendations.toString())
                 .reportDate(LocalDateTime.now())
                 .build();
-        
-        complianceReportRepository.save(report);
-        
-        return ComplianceCheckResponse.builder()
-                .accountNumber(request.getAccountNumber())
-                .customerId(request.getCustomerId())
-                .complianceType(request.getComplianceType())
-                .status(result.status)
-                .aiAnalysis(result.analysis)
-                .findings(result.findings)
-                .recommendations(result.recommendations)
-                .build();
     }
     
-    private String buildComplianceContext(Account account, Customer customer, 
-                                         List<Transaction> transactions, 
-                                         String complianceType) {
-        StringBuilder context = new StringBuilder();
-        
-        context.append(String.format("""
+    // Lists are stored in List.toString() form: "[a, b]"
+    private static List<String> parseStoredList(String stored) {
+        String body = stored.startsWith("[") && stored.endsWith("]") ? stored.substring(1, stored.length() - 1) : stored;
+        return body.isBlank() ? List.of() : Arrays.stream(body.split(",")).map(String::trim).toList();
+    }
+    
+    private String buildComplianceContext(Account account, Customer customer, LocalDateTime since) {
+        String accountNumber = account.getAccountNumber();
+        return buildCustomerSection(account, customer)
+                + buildTransactionSection(accountNumber, since)
+                + buildGeographicSection(accountNumber)
+                + buildGraphSection(accountNumber)
+                + buildScreeningSection(customer, accountNumber, since);
+    }
+    
+    private String buildCustomerSection(Account account, Customer customer) {
+        return String.format("""
                 Customer Information:
                 - Customer ID: %s
                 - Name: %s %s
@@ -132,35 +316,118 @@ public class ComplianceServiceImpl implements ComplianceService {
                 account.getAccountType(),
                 account.getBalance(), account.getCurrency(),
                 account.getOpenedDate(),
-                account.getStatus()));
-        
-        if (!transactions.isEmpty()) {
-            context.append(String.format("Transaction History (Last 12 months): %d transactions\n", transactions.size()));
+                account.getStatus());
+    }
+    
+    private String buildTransactionSection(String accountNumber, LocalDateTime since) {
+        StringBuilder context = new StringBuilder();
+        List<TransactionTypeAggregate> byType = transactionRepository.aggregateByType(
+                accountNumber, since, LocalDateTime.now());
+        long transactionCount = byType.stream().mapToLong(TransactionTypeAggregate::count).sum();
+        if (transactionCount > 0) {
+            context.append(String.format("Transaction History (Last 12 months): %d transactions\n", transactionCount));
+            TransactionTypeAggregate debits = typeAggregate(byType, "DEBIT");
+            TransactionTypeAggregate credits = typeAggregate(byType, "CREDIT");
+            context.append(String.format("- Debits: %d totalling %s, Credits: %d totalling %s, Flagged: %d\n",
+                    debits.count(), debits.total(), credits.count(), credits.total(),
+                    transactionRepository.countByAccountNumberAndStatusAndTransactionDateAfter(
+                            accountNumber, "FRAUD_SUSPECTED", since)));
+            Map<String, Long> countsByCategory = new LinkedHashMap<>();
+            transactionRepository.aggregateByCategorySince(accountNumber, since)
+                    .forEach(category -> countsByCategory.put(category.merchantCategory(), category.count()));
+            context.append(String.format("- Category Distribution: %s\n", countsByCategory));
             
-            // Identify high-value transactions
-            transactions.stream()
-                    .filter(t -> t.getAmount().doubleValue() > 10000)
-                    .limit(10)
-                    .forEach(t -> context.append(String.format(
-                            "- High-value: %s %s %s at %s on %s\n",
-                            t.getTransactionType(), t.getAmount(), t.getCurrency(),
-                            t.getMerchantName(), t.getTransactionDate())));
+            // Largest high-value transactions, with totals over all of them
+            TransactionAggregate highValue = transactionRepository.aggregateAbove(
+                    accountNumber, since, HIGH_VALUE_THRESHOLD);
+            if (highValue.count() > 0) {
+                context.append(String.format("- High-value transactions: %d totalling %s\n",
+                        highValue.count(), highValue.total()));
+                transactionRepository.findLargestAbove(accountNumber, since, HIGH_VALUE_THRESHOLD, TOP_N)
+                        .forEach(t -> context.append(String.format(
+                                "- High-value: %s %s %s at %s on %s\n",
+                                t.getTransactionType(), t.getAmount(), t.getCurrency(),
+                                t.getMerchantName(), t.getTransactionDate())));
+            }
             
-            // Identify international transactions
-            transactions.stream()
-                    .filter(t -> t.getLocation() != null && 
-                            (t.getLocation().toLowerCase().contains("offshore") ||
-                             !t.getLocation().toLowerCase().contains("usa")))
-                    .limit(10)
-                    .forEach(t -> context.append(String.format(
-                            "- International: %s %s at %s (%s) on %s\n",
-                            t.getAmount(), t.getCurrency(),
-                            t.getMerchantName(), t.getLocation(), t.getTransactionDate())));
+            // Largest cross-border transactions; only the account's distinct locations are classified in Java.
+            // Missing locations are matched as "" and, being unverifiable, count as international.
+            List<String> internationalLocations = transactionRepository.findDistinctLocations(accountNumber, since)
+                    .stream()
+                    .map(location -> location != null ? location : "")
+                    .filter(geoLocationService::isInternational)
+                    .distinct()
+                    .toList();
+            if (!internationalLocations.isEmpty()) {
+                TransactionAggregate international = transactionRepository.aggregateInLocations(
+                        accountNumber, since, internationalLocations);
+                context.append(String.format("- International transactions: %d totalling %s\n",
+                        international.count(), international.total()));
+                transactionRepository.findLargestInLocations(accountNumber, since, internationalLocations, TOP_N)
+                        .forEach(t -> context.append(String.format(
+                                "- International: %s %s at %s (%s) on %s\n",
+                                t.getAmount(), t.getCurrency(),
+                                t.getMerchantName(), geoLocationService.normalize(t.getLocation()).label(),
+                                t.getTransactionDate())));
+            }
         }
-        
         return context.toString();
     }
     
+    // Precomputed geographic profile from the location index
+    private String buildGeographicSection(String accountNumber) {
+        AccountGeoProfile geoProfile = geoLocationService.getProfile(accountNumber);
+        if (geoProfile.getTotalTransactions() == 0) {
+            return "";
+        }
+        return String.format("""
+
+                Geographic Profile:
+                - Countries (first seen): %s
+                - International transactions: %d of %d (offshore: %d, unverified location: %d)
+                - Impossible travel events: %d
+                - Last location: %s
+                """,
+                geoProfile.getCountriesFirstSeen(),
+                geoProfile.getInternationalTransactions(), geoProfile.getTotalTransactions(),
+                geoProfile.getOffshoreTransactions(), geoProfile.getUnverifiedLocationTransactions(),
+                geoProfile.getImpossibleTravelEvents(),
+                geoProfile.getLastLocation() != null ? geoProfile.getLastLocation() : "N/A");
+    }
+    
+    // Layering signals from the in-memory counterparty graph
+    private String buildGraphSection(String accountNumber) {
+        return String.format("\nCounterparty Graph: %s\n",
+                counterpartyGraphService.features(accountNumber).describe());
+    }
+    
+    // Sanctions and PEP list screening of the customer, merchants and counterparty owners
+    private String buildScreeningSection(Customer customer, String accountNumber, LocalDateTime since) {
+        if (nameScreeningService.getEntryCount() == 0) {
+            return "\nSanctions/PEP Screening: no lists loaded\n";
+        }
+        PageRequest parties = PageRequest.of(0, maxScreenedParties);
+        List<ScreeningMatch> matches = nameScreeningService.screenParties(customer,
+                transactionRepository.findDistinctMerchantNames(accountNumber, since, parties),
+                transactionRepository.findDistinctCounterparties(accountNumber, since, parties));
+        StringBuilder context = new StringBuilder(String.format("\nSanctions/PEP Screening (%d list entries):\n",
+                nameScreeningService.getEntryCount()));
+        if (matches.isEmpty()) {
+            context.append("- No matches for customer, merchants or counterparties\n");
+        }
+        matches.stream()
+                .limit(10)
+                .forEach(match -> context.append("- ").append(match.describe()).append("\n"));
+        return context.toString();
+    }
+    
+    private static TransactionTypeAggregate typeAggregate(List<TransactionTypeAggregate> aggregates, String type) {
+        return aggregates.stream()
+                .filter(aggregate -> type.equals(aggregate.transactionType()))
+                .findFirst()
+                .orElse(new TransactionTypeAggregate(type, 0L, BigDecimal.ZERO, null, null, null, null));
+    }
+    
     private String getCompliancePrompt(String complianceType) {
         return switch (complianceType.toUpperCase()) {
             case "AML" -> """
@@ -178,6 +445,7 @@ public class ComplianceServiceImpl implements ComplianceService {
                     3. High-risk transactions
                     4. Structuring or smurfing patterns
                     5. Unusual geographic patterns
+                    6. Layering: rapid multi-hop fan-out or funds returning to the account (Counterparty Graph)
                     
                     Provide assessment in format:
                     STATUS: [COMPLIANT/NON_COMPLIANT/REQUIRES_REVIEW]
@@ -214,7 +482,7 @@ public class ComplianceServiceImpl implements ComplianceService {
                     {complianceContext}
                     
                     Check for:
-                    1. Sanctions list matches
+                    1. Sanctions list matches (only those in the screening results above)
                     2. PEP (Politically Exposed Person) status
                     3. High-risk jurisdictions
                     4. Sanctioned entities or individuals
@@ -0,0 +1,450 @@
+package com.example.service.impl;
+
+import com.example.config.InteractiveTrafficFilter;
+import com.example.model.BatchJobCheckpoint;
+import com.example.model.ComplianceReport;
+import com.example.model.dto.AmlSignals;
+import com.example.model.dto.ComplianceSweepStatus;
+import com.example.repository.BatchJobCheckpointRepository;
+import com.example.service.ComplianceService;
+import com.example.service.ComplianceSweepService;
+import com.example.service.GeoLocationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Walks every account in keyset pages. For each page one grouped SQL query computes the deterministic AML
+ * signals over the sweep window; accounts scoring below the threshold get a rule-based COMPLIANT report
+ * and the rest are reviewed by the LLM with at most {@code llm-parallelism} concurrent calls.
+ * A page's reports and the checkpoint are written in one transaction with a JDBC batch insert,
+ * so a restarted sweep resumes after the last committed page.
+ * A run first claims the job's lease, so with several replicas only one runs or resumes it at a time.
+ * International activity is counted by joining the location_resolutions table, which a new run rebuilds from
+ * the distinct locations in its window, so the query has a fixed number of parameters however many there are.
+ */
+@Service
+@Slf4j
+public class ComplianceSweepServiceImpl implements ComplianceSweepService {
+
+    static final String JOB_NAME = "compliance-sweep";
+    private static final String COMPLIANCE_TYPE = "AML";
+
+    private static final String SIGNALS_QUERY = """
+            SELECT a.account_number, a.customer_id,
+                   COUNT(t.id) AS transaction_count,
+                   COALESCE(SUM(CASE WHEN t.transaction_type = 'CREDIT' THEN t.amount END), 0) AS credit_total,
+                   COALESCE(SUM(CASE WHEN t.transaction_type = 'DEBIT' THEN t.amount END), 0) AS debit_total,
+                   COUNT(CASE WHEN t.transaction_type = 'CREDIT' AND t.amount >= ? AND t.amount < ? THEN 1 END)
+                       AS in_band_deposits,
+                   COUNT(CASE WHEN t.amount > ? THEN 1 END) AS high_value_count,
+                   COUNT(CASE WHEN t.status = 'FRAUD_SUSPECTED' THEN 1 END) AS flagged_count,
+                   COUNT(DISTINCT t.counterparty_account) AS counterparties,
+                   COUNT(CASE WHEN t.id IS NOT NULL AND l.location IS NULL THEN 1 END) AS international_count
+            FROM (SELECT account_number, customer_id FROM accounts
+                  WHERE account_number > ? ORDER BY account_number LIMIT ?) a
+            LEFT JOIN transactions t ON t.account_number = a.account_number AND t.transaction_date >= ?
+            LEFT JOIN location_resolutions l ON l.location = t.location AND l.international = FALSE
+            GROUP BY a.account_number, a.customer_id
+            ORDER BY a.account_number
+            """;
+
+    private static final String WINDOW_LOCATIONS_QUERY =
+            "SELECT DISTINCT location FROM transactions WHERE transaction_date >= ? AND location IS NOT NULL";
+    private static final String INSERT_RESOLUTION = "INSERT INTO location_resolutions (location, country_code, " +
+            "international, resolved_at) VALUES (?, ?, ?, ?)";
+    private static final int RESOLUTION_BATCH_SIZE = 1000;
+
+    private static final String INSERT_REPORT = "INSERT INTO compliance_reports (account_number, customer_id, " +
+            "compliance_type, status, ai_analysis, findings, recommendations, report_date, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final ComplianceService complianceService;
+    private final GeoLocationService geoLocationService;
+    private final BatchJobCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InteractiveTrafficFilter interactiveTraffic;
+    private final BatchJobLeases jobLeases;
+
+    private final int pageSize;
+    private final double signalThreshold;
+    private final long windowMonths;
+    private final BigDecimal bandLower;
+    private final BigDecimal bandUpper;
+    private final BigDecimal highValueThreshold;
+    private final int yieldWhenInFlight;
+    private final long yieldPauseMillis;
+
+    private final ExecutorService jobExecutor;
+    private final ExecutorService llmExecutor;
+    private final Semaphore llmSlots;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Counter cleared;
+    private final Counter escalated;
+    private final Counter failed;
+    private volatile long remaining;
+    private volatile double throughputPerMinute;
+
+    public ComplianceSweepServiceImpl(ComplianceService complianceService,
+                                      GeoLocationService geoLocationService,
+                                      BatchJobCheckpointRepository checkpointRepository,
+                                      JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      InteractiveTrafficFilter interactiveTraffic,
+                                      BatchJobLeases jobLeases,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${compliance-sweep.page-size:500}") int pageSize,
+                                      @Value("${compliance-sweep.signal-threshold:0.3}") double signalThreshold,
+                                      @Value("${compliance-sweep.window-months:12}") long windowMonths,
+                                      @Value("${aml.structuring.band-lower:8000}") BigDecimal bandLower,
+                                      @Value("${aml.structuring.band-upper:10000}") BigDecimal bandUpper,
+                                      @Value("${compliance-sweep.high-value-threshold:10000}") BigDecimal highValueThreshold,
+                                      @Value("${compliance-sweep.llm-parallelism:4}") int llmParallelism,
+                                      @Value("${compliance-sweep.yield-when-in-flight:1}") int yieldWhenInFlight,
+                                      @Value("${compliance-sweep.yield-pause-ms:500}") long yieldPauseMillis) {
+        this.complianceService = complianceService;
+        this.geoLocationService = geoLocationService;
+        this.checkpointRepository = checkpointRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.interactiveTraffic = interactiveTraffic;
+        this.jobLeases = jobLeases;
+        this.pageSize = pageSize;
+        this.signalThreshold = signalThreshold;
+        this.windowMonths = windowMonths;
+        this.bandLower = bandLower;
+        this.bandUpper = bandUpper;
+        this.highValueThreshold = highValueThreshold;
+        this.yieldWhenInFlight = yieldWhenInFlight;
+        this.yieldPauseMillis = yieldPauseMillis;
+
+        this.jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "compliance-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.llmExecutor = Executors.newFixedThreadPool(llmParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "compliance-sweep-llm");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        this.llmSlots = new Semaphore(llmParallelism);
+
+        this.cleared = meterRegistry.counter("compliance.sweep.accounts", "result", "cleared");
+        this.escalated = meterRegistry.counter("compliance.sweep.accounts", "result", "escalated");
+        this.failed = meterRegistry.counter("compliance.sweep.accounts", "result", "failed");
+        meterRegistry.gauge("compliance.sweep.remaining", this, service -> service.remaining);
+        meterRegistry.gauge("compliance.sweep.throughput.per.minute", this, service -> service.throughputPerMinute);
+    }
+
+    /**
+     * Resume a sweep that was interrupted by a restart. Checked at startup and then periodically, because the
+     * lease of an instance that stopped mid-sweep has to expire before another instance can take the sweep over.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${batch-jobs.resume-check-interval-ms:300000}",
+            fixedDelayString = "${batch-jobs.resume-check-interval-ms:300000}")
+    public void resumeInterruptedRun() {
+        if (running.get()) {
+            return;
+        }
+        checkpointRepository.findById(JOB_NAME)
+                .filter(checkpoint -> "RUNNING".equals(checkpoint.getStatus()))
+                .ifPresent(checkpoint -> {
+                    log.info("Resuming compliance sweep after account {}", checkpoint.getLastKey());
+                    start();
+                });
+    }
+
+    @Scheduled(cron = "${compliance-sweep.cron:0 0 1 * * SUN}")
+    public void scheduledRun() {
+        start();
+    }
+
+    @Override
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Compliance sweep already running");
+            return false;
+        }
+        if (!jobLeases.tryAcquire(JOB_NAME)) {
+            running.set(false);
+            log.info("Compliance sweep is running on another instance");
+            return false;
+        }
+        jobExecutor.execute(() -> {
+            try {
+                execute();
+            } catch (Exception e) {
+                log.error("Compliance sweep failed; it will resume from the last checkpoint", e);
+            } finally {
+                jobLeases.release(JOB_NAME);
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public ComplianceSweepStatus getStatus() {
+        ComplianceSweepStatus.ComplianceSweepStatusBuilder status = ComplianceSweepStatus.builder()
+                .running(running.get())
+                .escalated((long) escalated.count())
+                .remaining(remaining)
+                .throughputPerMinute(throughputPerMinute)
+                .etaSeconds(etaSeconds());
+        checkpointRepository.findById(JOB_NAME).ifPresentOrElse(checkpoint -> status
+                        .status(checkpoint.getStatus())
+                        .lastAccountNumber(checkpoint.getLastKey())
+                        .processed(checkpoint.getProcessed())
+                        .failed(checkpoint.getFailed())
+                        .runStartedAt(checkpoint.getRunStartedAt())
+                        .completedAt(checkpoint.getCompletedAt()),
+                () -> status.status("NEVER_RUN"));
+        return status.build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobExecutor.shutdownNow();
+        llmExecutor.shutdownNow();
+    }
+
+    private void execute() throws InterruptedException {
+        BatchJobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME)
+                .filter(existing -> "RUNNING".equals(existing.getStatus()))
+                .orElseGet(() -> saveCheckpoint(BatchJobCheckpoint.builder()
+                        .jobName(JOB_NAME)
+                        .status("RUNNING")
+                        .phase(1)
+                        .lastKey("")
+                        .runStartedAt(LocalDateTime.now())
+                        .build()));
+        // Anchored to the run start so a resumed sweep uses the same window
+        LocalDateTime since = checkpoint.getRunStartedAt().minusMonths(windowMonths);
+        if (checkpoint.getLastKey().isEmpty()) {
+            resolveLocations(since);
+        }
+        remaining = countRemaining(checkpoint.getLastKey());
+        log.info("Compliance sweep started: {} accounts to review", remaining);
+
+        long started = System.nanoTime();
+        long processedThisRun = 0;
+        while (true) {
+            List<AmlSignals> page = loadSignals(checkpoint.getLastKey(), since);
+            if (page.isEmpty()) {
+                break;
+            }
+
+            List<ComplianceReport> reports = review(page);
+            checkpoint = commitPage(checkpoint, page, reports);
+
+            processedThisRun += page.size();
+            remaining = Math.max(0, remaining - page.size());
+            double minutes = (System.nanoTime() - started) / 60e9;
+            throughputPerMinute = minutes > 0 ? processedThisRun / minutes : 0.0;
+            log.info("Compliance sweep through {}: {} processed, {} failed, {} remaining, ETA {}s",
+                    checkpoint.getLastKey(), checkpoint.getProcessed(), checkpoint.getFailed(),
+                    remaining, etaSeconds());
+        }
+
+        checkpoint.setStatus("COMPLETED");
+        checkpoint.setCompletedAt(LocalDateTime.now());
+        saveCheckpoint(checkpoint);
+        remaining = 0;
+        log.info("Compliance sweep completed: {} reviewed, {} failed",
+                checkpoint.getProcessed(), checkpoint.getFailed());
+    }
+
+    /**
+     * Replace location_resolutions with the distinct raw locations in the window, streamed and inserted in
+     * batches. Runs before the first page is committed, so a resumed sweep keeps the resolutions it started
+     * with. Transactions at locations not in the table, which includes null locations and those first seen
+     * after this point, count as international in SQL, as do unresolvable ones.
+     */
+    private void resolveLocations(LocalDateTime since) {
+        LocalDateTime now = LocalDateTime.now();
+        int[] counts = new int[2];
+        transactionTemplate.executeWithoutResult(status -> {
+            requireLease();
+            jdbcTemplate.update("DELETE FROM location_resolutions");
+            List<Object[]> batch = new ArrayList<>(RESOLUTION_BATCH_SIZE);
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(WINDOW_LOCATIONS_QUERY);
+                statement.setFetchSize(RESOLUTION_BATCH_SIZE);
+                statement.setObject(1, since);
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                String location = rs.getString(1);
+                boolean international = geoLocationService.isInternational(location);
+                batch.add(new Object[]{location, geoLocationService.normalize(location).countryCode(),
+                        international, now});
+                counts[0]++;
+                if (!international) {
+                    counts[1]++;
+                }
+                if (batch.size() >= RESOLUTION_BATCH_SIZE) {
+                    jdbcTemplate.batchUpdate(INSERT_RESOLUTION, batch);
+                    batch.clear();
+                }
+            });
+            jdbcTemplate.batchUpdate(INSERT_RESOLUTION, batch);
+        });
+        log.info("Compliance sweep resolved {} location spellings, {} domestic", counts[0], counts[1]);
+    }
+
+    private List<AmlSignals> loadSignals(String after, LocalDateTime since) {
+        return jdbcTemplate.query(SIGNALS_QUERY, (rs, rowNum) -> new AmlSignals(
+                rs.getString("account_number"),
+                rs.getString("customer_id"),
+                rs.getLong("transaction_count"),
+                rs.getBigDecimal("credit_total"),
+                rs.getBigDecimal("debit_total"),
+                rs.getLong("in_band_deposits"),
+                rs.getLong("high_value_count"),
+                rs.getLong("flagged_count"),
+                rs.getLong("counterparties"),
+                rs.getLong("international_count")),
+                bandLower, bandUpper, highValueThreshold, after, pageSize, since);
+    }
+
+    private long countRemaining(String after) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM accounts WHERE account_number > ?", Long.class, after);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Rule-based reports for accounts below the threshold, LLM reviews for the rest.
+     * Failed reviews get no report and are picked up by the next sweep.
+     */
+    private List<ComplianceReport> review(List<AmlSignals> page) throws InterruptedException {
+        List<ComplianceReport> reports = new ArrayList<>(page.size());
+        List<AmlSignals> escalations = new ArrayList<>();
+        List<Future<ComplianceReport>> futures = new ArrayList<>();
+        for (AmlSignals signals : page) {
+            if (signals.score() < signalThreshold) {
+                reports.add(ruleBasedReport(signals));
+                cleared.increment();
+                continue;
+            }
+            yieldToInteractiveTraffic();
+            llmSlots.acquire();
+            escalations.add(signals);
+            futures.add(llmExecutor.submit(() -> {
+                try {
+                    return complianceService.evaluate(signals.accountNumber(), signals.customerId(),
+                            COMPLIANCE_TYPE, signals.describe());
+                } finally {
+                    llmSlots.release();
+                }
+            }));
+        }
+
+        int reviewed = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                reports.add(futures.get(i).get());
+                escalated.increment();
+                reviewed++;
+            } catch (ExecutionException e) {
+                failed.increment();
+                log.warn("Compliance sweep review failed for account {}: {}",
+                        escalations.get(i).accountNumber(), e.getCause().getMessage());
+            }
+        }
+        if (!futures.isEmpty() && reviewed == 0) {
+            // Most likely the LLM is unavailable; stop without advancing so the next run retries this page
+            throw new IllegalStateException("All " + futures.size() + " LLM reviews in page after "
+                    + page.get(0).accountNumber() + " failed");
+        }
+        return reports;
+    }
+
+    private ComplianceReport ruleBasedReport(AmlSignals signals) {
+        List<String> findings = signals.findings();
+        return ComplianceReport.builder()
+                .accountNumber(signals.accountNumber())
+                .customerId(signals.customerId())
+                .complianceType(COMPLIANCE_TYPE)
+                .status("COMPLIANT")
+                .aiAnalysis(String.format("Rule-based AML sweep: signal score %.2f is below the review threshold %.2f.%n%s",
+                        signals.score(), signalThreshold, signals.describe()))
+                .findings((findings.isEmpty() ? List.of("No AML signals") : findings).toString())
+                .recommendations(List.of("Continue routine monitoring").toString())
+                .reportDate(LocalDateTime.now())
+                .build();
+    }
+
+    private BatchJobCheckpoint commitPage(BatchJobCheckpoint checkpoint, List<AmlSignals> page,
+                                          List<ComplianceReport> reports) {
+        checkpoint.setLastKey(page.get(page.size() - 1).accountNumber());
+        checkpoint.setProcessed(checkpoint.getProcessed() + reports.size());
+        checkpoint.setFailed(checkpoint.getFailed() + page.size() - reports.size());
+        return transactionTemplate.execute(status -> {
+            requireLease();
+            LocalDateTime now = LocalDateTime.now();
+            jdbcTemplate.batchUpdate(INSERT_REPORT, reports, reports.size(), (ps, report) -> {
+                ps.setString(1, report.getAccountNumber());
+                ps.setString(2, report.getCustomerId());
+                ps.setString(3, report.getComplianceType());
+                ps.setString(4, report.getStatus());
+                ps.setString(5, report.getAiAnalysis());
+                ps.setString(6, report.getFindings());
+                ps.setString(7, report.getRecommendations());
+                ps.setObject(8, report.getReportDate());
+                ps.setObject(9, now);
+            });
+            return checkpointRepository.save(checkpoint);
+        });
+    }
+
+    // Checkpoint writes are fenced by the lease, so an instance that lost it cannot overwrite the new owner's progress
+    private BatchJobCheckpoint saveCheckpoint(BatchJobCheckpoint checkpoint) {
+        return transactionTemplate.execute(status -> {
+            requireLease();
+            return checkpointRepository.save(checkpoint);
+        });
+    }
+
+    private void requireLease() {
+        if (!jobLeases.renew(JOB_NAME)) {
+            throw new IllegalStateException("Lease on " + JOB_NAME + " was lost to another instance");
+        }
+    }
+
+    private void yieldToInteractiveTraffic() throws InterruptedException {
+        while (interactiveTraffic.getInFlight() >= yieldWhenInFlight) {
+            TimeUnit.MILLISECONDS.sleep(yieldPauseMillis);
+        }
+    }
+
+    private Long etaSeconds() {
+        return throughputPerMinute > 0 ? Math.round(remaining / throughputPerMinute * 60) : null;
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.service.impl;
+
+import com.example.event.TransactionSavedEvent;
+import com.example.model.Money;
+import com.example.model.Transaction;
+import com.example.model.TransactionGraph;
+import com.example.model.dto.CounterpartyGraphFeatures;
+import com.example.model.dto.CounterpartyMovement;
+import com.example.repository.TransactionRepository;
+import com.example.service.CounterpartyGraphService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Keeps counterparty transactions of the last lookback plus one window in a {@link TransactionGraph}.
+ * A debit or transfer is an edge from the account to its counterparty and a credit an edge from the
+ * counterparty to the account; a transfer booked on both sides is added once.
+ *
+ * Local saves are added as they commit. Transactions saved by other instances are picked up by a periodic
+ * refresh that reads rows created since the watermark minus an overlap, which covers commit lag and clock
+ * skew. Ids inside the overlap window are remembered so no transaction is added twice.
+ */
+@Service
+@Slf4j
+public class CounterpartyGraphServiceImpl implements CounterpartyGraphService {
+
+    private final TransactionRepository transactionRepository;
+
+    private final long windowSeconds;
+    private final long lookbackSeconds;
+    private final int fanOutHops;
+    private final int maxCycleHops;
+    private final int maxCycles;
+    private final int cycleEdgeBudget;
+    private final Duration refreshOverlap;
+
+    private final TransactionGraph graph = new TransactionGraph();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by the write lock: ids of added transactions created within the overlap before the watermark
+    private final Map<Long, LocalDateTime> recentIds = new HashMap<>();
+    private volatile LocalDateTime watermark;
+
+    public CounterpartyGraphServiceImpl(
+            TransactionRepository transactionRepository,
+            MeterRegistry meterRegistry,
+            @Value("${aml.graph.window-hours:72}") long windowHours,
+            @Value("${aml.graph.lookback-days:7}") long lookbackDays,
+            @Value("${aml.graph.fan-out-hops:3}") int fanOutHops,
+            @Value("${aml.graph.max-cycle-hops:4}") int maxCycleHops,
+            @Value("${aml.graph.max-cycles:20}") int maxCycles,
+            @Value("${aml.graph.cycle-edge-budget:100000}") int cycleEdgeBudget,
+            @Value("${aml.graph.refresh-overlap-seconds:300}") long refreshOverlapSeconds) {
+        this.transactionRepository = transactionRepository;
+        this.windowSeconds = windowHours * 3600;
+        this.lookbackSeconds = lookbackDays * 86400;
+        this.fanOutHops = fanOutHops;
+        this.maxCycleHops = maxCycleHops;
+        this.maxCycles = maxCycles;
+        this.cycleEdgeBudget = cycleEdgeBudget;
+        this.refreshOverlap = Duration.ofSeconds(refreshOverlapSeconds);
+        meterRegistry.gauge("aml.graph.edges", this, service -> service.graph.getEdgeCount());
+        meterRegistry.gauge("aml.graph.accounts", this, service -> service.graph.getNodeCount());
+    }
+
+    /**
+     * Load counterparty transactions still inside the retention from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = startedAt.minusSeconds(lookbackSeconds + windowSeconds);
+        LocalDateTime overlapStart = startedAt.minus(refreshOverlap);
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try (Stream<CounterpartyMovement> movements = transactionRepository.streamCounterpartyMovements(since)) {
+            movements.forEach(movement -> {
+                // Only rows the first refresh reads again need to be remembered
+                if (movement.createdAt() != null && !movement.createdAt().isBefore(overlapStart)) {
+                    recentIds.put(movement.id(), movement.createdAt());
+                }
+                add(movement);
+            });
+            watermark = startedAt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Counterparty graph warmed up with {} edges between {} accounts since {} in {} ms",
+                graph.getEdgeCount(), graph.getNodeCount(), since, System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionSaved(TransactionSavedEvent event) {
+        record(event.transaction());
+    }
+
+    @Override
+    public void record(Transaction transaction) {
+        if ("FAILED".equals(transaction.getStatus())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (transaction.getId() != null && recentIds.putIfAbsent(transaction.getId(),
+                    transaction.getCreatedAt() != null ? transaction.getCreatedAt() : LocalDateTime.now()) != null) {
+                return; // already added by a refresh
+            }
+            add(transaction.getAccountNumber(), transaction.getCounterpartyAccount(),
+                    transaction.getTransactionType(), transaction.getAmount(), transaction.getTransactionDate());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add transactions created since the watermark minus the overlap that are not in the graph yet, which
+     * includes those saved by other instances, then advance the watermark.
+     */
+    @Scheduled(initialDelayString = "${aml.graph.refresh-interval-ms:30000}",
+            fixedDelayString = "${aml.graph.refresh-interval-ms:30000}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        LocalDateTime from = watermark;
+        if (from == null) {
+            return; // not warmed up yet
+        }
+        LocalDateTime since = LocalDateTime.now().minusSeconds(lookbackSeconds + windowSeconds);
+        List<CounterpartyMovement> movements =
+                transactionRepository.findCounterpartyMovementsCreatedSince(from.minus(refreshOverlap), since);
+        int added = 0;
+        lock.writeLock().lock();
+        try {
+            LocalDateTime latest = watermark;
+            for (CounterpartyMovement movement : movements) {
+                if (movement.createdAt().isAfter(latest)) {
+                    latest = movement.createdAt();
+                }
+                if (recentIds.putIfAbsent(movement.id(), movement.createdAt()) == null) {
+                    add(movement);
+                    added++;
+                }
+            }
+            watermark = latest;
+            LocalDateTime windowStart = latest.minus(refreshOverlap);
+            recentIds.values().removeIf(createdAt -> createdAt.isBefore(windowStart));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (added > 0) {
+            log.debug("Counterparty graph refresh added {} transactions created since {}", added, from);
+        }
+    }
+
+    @Override
+    public CounterpartyGraphFeatures features(String accountNumber) {
+        long since = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC) - lookbackSeconds;
+        TransactionGraph.FanOut fanOut;
+        int senders;
+        List<TransactionGraph.Cycle> cycles;
+        lock.readLock().lock();
+        try {
+            fanOut = graph.fanOut(accountNumber, fanOutHops, since, windowSeconds);
+            senders = graph.distinctSenders(accountNumber, since);
+            cycles = graph.cycles(accountNumber, maxCycleHops, since, windowSeconds, maxCycles, cycleEdgeBudget);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        TransactionGraph.Cycle fastest = cycles.stream()
+                .min(Comparator.comparingLong(cycle -> cycle.endEpochSecond() - cycle.startEpochSecond()))
+                .orElse(null);
+        return new CounterpartyGraphFeatures(
+                accountNumber,
+                windowSeconds / 3600,
+                fanOut.directCounterparties(),
+                senders,
+                Money.toBigDecimal(fanOut.directOutflowCents()),
+                Arrays.stream(fanOut.accountsPerHop()).boxed().toList(),
+                cycles.size(),
+                cycles.stream().map(TransactionGraph.Cycle::hops).min(Integer::compare).orElse(null),
+                fastest != null ? (fastest.endEpochSecond() - fastest.startEpochSecond()) / 3600.0 : null,
+                cycles.stream().map(TransactionGraph.Cycle::returnedCents).max(Long::compare)
+                        .map(Money::toBigDecimal).orElse(null),
+                fastest != null ? fastest.path() : List.of());
+    }
+
+    /**
+     * Drop edges too old to start or complete a path within the lookback.
+     */
+    @Scheduled(fixedDelayString = "${aml.graph.eviction-interval-ms:600000}")
+    void evictExpiredEdges() {
+        long cutoff = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC) - lookbackSeconds - windowSeconds;
+        long removed;
+        lock.writeLock().lock();
+        try {
+            removed = graph.evictBefore(cutoff);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (removed > 0) {
+            log.debug("Evicted {} expired edges from the counterparty graph", removed);
+        }
+    }
+
+    private void add(CounterpartyMovement movement) {
+        add(movement.accountNumber(), movement.counterpartyAccount(), movement.transactionType(),
+                movement.amount(), movement.transactionDate());
+    }
+
+    private void add(String accountNumber, String counterparty, String transactionType,
+                     BigDecimal amount, LocalDateTime transactionDate) {
+        if (counterparty == null || counterparty.isBlank() || amount == null || transactionDate == null) {
+            return;
+        }
+        long time = transactionDate.toEpochSecond(ZoneOffset.UTC);
+        long cents = Money.toMinorUnits(amount.abs());
+        if ("CREDIT".equals(transactionType)) {
+            graph.addEdge(counterparty, accountNumber, time, cents);
+        } else {
+            graph.addEdge(accountNumber, counterparty, time, cents);
+        }
+    }
+}
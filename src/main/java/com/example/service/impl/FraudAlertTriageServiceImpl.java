@@ -0,0 +1,119 @@
+package com.example.service.impl;
+
+import com.example.exception.InvalidCursorException;
+import com.example.model.FraudAlert;
+import com.example.model.dto.FraudAlertPage;
+import com.example.model.dto.FraudAlertSummary;
+import com.example.repository.FraudAlertRepository;
+import com.example.service.FraudAlertTriageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FraudAlertTriageServiceImpl implements FraudAlertTriageService {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final FraudAlertRepository fraudAlertRepository;
+
+    private record Cursor<K>(K sortKey, Long id) {}
+
+    @Override
+    @Transactional(readOnly = true)
+    public FraudAlertPage getAlerts(String status, String severity, String sortBy, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+        boolean byRisk = "riskScore".equalsIgnoreCase(sortBy);
+
+        List<FraudAlertSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = byRisk
+                    ? fraudAlertRepository.findTriageByRiskScore(status, severity, limit)
+                    : fraudAlertRepository.findTriageByDetectedAt(status, severity, limit);
+        } else {
+            if (byRisk) {
+                Cursor<Double> after = decodeCursor(cursor, Double::valueOf);
+                rows = fraudAlertRepository.findTriageByRiskScoreAfter(
+                        status, severity, after.sortKey(), after.id(), limit);
+            } else {
+                Cursor<LocalDateTime> after = decodeCursor(cursor, LocalDateTime::parse);
+                rows = fraudAlertRepository.findTriageByDetectedAtAfter(
+                        status, severity, after.sortKey(), after.id(), limit);
+            }
+        }
+
+        return toPage(rows, pageSize, byRisk);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public FraudAlertPage getAlertsForAccount(String accountNumber, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+        List<FraudAlertSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = fraudAlertRepository.findSummariesByAccountNumber(accountNumber, limit);
+        } else {
+            Cursor<LocalDateTime> after = decodeCursor(cursor, LocalDateTime::parse);
+            rows = fraudAlertRepository.findSummariesByAccountNumberAfter(
+                    accountNumber, after.sortKey(), after.id(), limit);
+        }
+        return toPage(rows, pageSize, false);
+    }
+
+    // rows holds up to pageSize + 1 summaries; the extra one only signals that another page exists
+    private FraudAlertPage toPage(List<FraudAlertSummary> rows, int pageSize, boolean byRisk) {
+        boolean hasMore = rows.size() > pageSize;
+        List<FraudAlertSummary> alerts = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            FraudAlertSummary last = alerts.get(alerts.size() - 1);
+            nextCursor = encodeCursor(byRisk ? last.riskScore().toString() : last.detectedAt().toString(), last.id());
+        }
+
+        return FraudAlertPage.builder()
+                .alerts(alerts)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public FraudAlert getAlert(Long id) {
+        return fraudAlertRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Fraud alert not found: " + id));
+    }
+
+    private String encodeCursor(String sortKey, Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((sortKey + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Tampered, truncated or stale cursors are the client's error, so every parse failure becomes a 400
+    private <K> Cursor<K> decodeCursor(String cursor, Function<String, K> sortKeyParser) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] keys = decoded.split("\\|", 2);
+            if (keys.length != 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new Cursor<>(sortKeyParser.apply(keys[0]), Long.valueOf(keys[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(cursor, e);
+        }
+    }
+}
@@ -1,19 +1,26 @@
 package com.example.service.impl;
 
+import com.example.event.TransactionSavedEvent;
 import com.example.model.FraudAlert;
 import com.example.model.Transaction;
 import com.example.model.dto.FraudDetectionRequest;
 import com.example.model.dto.FraudDetectionResponse;
+import com.example.model.dto.GeoFeatures;
 import com.example.repository.AccountRepository;
 import com.example.repository.FraudAlertRepository;
 import com.example.repository.TransactionRepository;
+import com.example.service.CohortPercentileService;
+import com.example.service.CounterpartyGraphService;
 import com.example.service.FraudDetectionService;
+import com.example.service.FraudScoringService;
+import com.example.service.GeoLocationService;
 import com.example.service.RAGService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,6 +40,11 @@ public class FraudDetectionServiceImpl implements FraudDetectionService {
     private final AccountRepository accountRepository;
     private final FraudAlertRepository fraudAlertRepository;
     private final RAGService ragService;
+    private final FraudScoringService fraudScoringService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GeoLocationService geoLocationService;
+    private final CohortPercentileService cohortPercentileService;
+    private final CounterpartyGraphService counterpartyGraphService;
     
     @Override
     @Transactional
@@ -48,6 +60,61 @@ public class FraudDetectionServiceImpl implements FraudDetectionService {
                 .findRecentTransactionsByAccount(request.getAccountNumber(), 
                         LocalDateTime.now().minusDays(30));
         
+        // Score locally first; only the uncertain band is sent to the LLM
+        double modelScore = fraudScoringService.score(request, account, recentTransactions);
+        FraudScoringService.ScoreBand band = fraudScoringService.classify(modelScore);
+        FraudAnalysisResult analysisResult = band == FraudScoringService.ScoreBand.UNCERTAIN
+                ? analyzeWithAI(request, account, recentTransactions)
+                : modelDecision(modelScore, band);
+        
+        // Save transaction
+        Transaction transaction = Transaction.builder()
+                .accountNumber(request.getAccountNumber())
+                .transactionType(request.getTransactionType())
+                .amount(request.getAmount())
+                .currency(request.getCurrency())
+                .merchantName(request.getMerchantName())
+                .merchantCategory(request.getMerchantCategory())
+                .location(request.getLocation())
+                .transactionDate(request.getTransactionDate())
+                .status(analysisResult.recommendation.equals("BLOCK") ? "FRAUD_SUSPECTED" : "PENDING")
+                .description(request.getDescription())
+                .counterpartyAccount(request.getCounterpartyAccount())
+                .build();
+        
+        Transaction savedTransaction = transactionRepository.save(transaction);
+        eventPublisher.publishEvent(new TransactionSavedEvent(savedTransaction));
+        
+        // Create fraud alert if risk is medium or higher
+        if (analysisResult.riskScore >= 0.5) {
+            FraudAlert fraudAlert = FraudAlert.builder()
+                    .transactionId(savedTransaction.getId())
+                    .accountNumber(request.getAccountNumber())
+                    .severity(analysisResult.severity)
+                    .aiAnalysis(analysisResult.analysis)
+                    .riskFactors(String.join(", ", analysisResult.riskFactors))
+                    .riskScore(analysisResult.riskScore)
+                    .status("PENDING")
+                    .build();
+            
+            fraudAlertRepository.save(fraudAlert);
+        }
+        
+        return FraudDetectionResponse.builder()
+                .transactionId(savedTransaction.getId())
+                .accountNumber(request.getAccountNumber())
+                .severity(analysisResult.severity)
+                .aiAnalysis(analysisResult.analysis)
+                .riskFactors(analysisResult.riskFactors.toString())
+                .riskScore(analysisResult.riskScore)
+                .recommendation(analysisResult.recommendation)
+                .isFraudulent(analysisResult.riskScore >= 0.7)
+                .build();
+    }
+    
+    private FraudAnalysisResult analyzeWithAI(FraudDetectionRequest request,
+                                              com.example.model.Account account,
+                                              List<Transaction> recentTransactions) {
         // Build context for AI analysis
         String transactionContext = buildTransactionContext(request, account, recentTransactions);
         
@@ -107,71 +174,54 @@ public class FraudDetectionServiceImpl implements FraudDetectionService {
         String aiResponse = chatClient.prompt(prompt).call().content();
         
         // Parse AI response
-        FraudAnalysisResult analysisResult = parseFraudAnalysis(aiResponse);
-        
-        // Save transaction
-        Transaction transaction = Transaction.builder()
-                .accountNumber(request.getAccountNumber())
-                .transactionType(request.getTransactionType())
-                .amount(request.getAmount())
-                .currency(request.getCurrency())
-                .merchantName(request.getMerchantName())
-                .merchantCategory(request.getMerchantCategory())
-                .location(request.getLocation())
-                .transactionDate(request.getTransactionDate())
-                .status(analysisResult.recommendation.equals("BLOCK") ? "FRAUD_SUSPECTED" : "PENDING")
-                .description(request.getDescription())
-                .counterpartyAccount(request.getCounterpartyAccount())
-                .build();
-        
-        Transaction savedTransaction = transactionRepository.save(transaction);
-        
-        // Create fraud alert if risk is medium or higher
-        if (analysisResult.riskScore >= 0.5) {
-            FraudAlert fraudAlert = FraudAlert.builder()
-                    .transactionId(savedTransaction.getId())
-                    .accountNumber(request.getAccountNumber())
-                    .severity(analysisResult.severity)
-                    .aiAnalysis(analysisResult.analysis)
-                    .riskFactors(String.join(", ", analysisResult.riskFactors))
-                    .riskScore(analysisResult.riskScore)
-                    .status("PENDING")
-                    .build();
-            
-            fraudAlertRepository.save(fraudAlert);
-        }
-        
-        return FraudDetectionResponse.builder()
-                .transactionId(savedTransaction.getId())
-                .accountNumber(request.getAccountNumber())
-                .severity(analysisResult.severity)
-                .aiAnalysis(analysisResult.analysis)
-                .riskFactors(analysisResult.riskFactors.toString())
-                .riskScore(analysisResult.riskScore)
-                .recommendation(analysisResult.recommendation)
-                .isFraudulent(analysisResult.riskScore >= 0.7)
-                .build();
+        return parseFraudAnalysis(aiResponse);
+    }
+    
+    private FraudAnalysisResult modelDecision(double modelScore, FraudScoringService.ScoreBand band) {
+        log.debug("Fraud model {} decided without AI: score={}, band={}",
+                fraudScoringService.getModelVersion(), modelScore, band);
+        boolean high = band == FraudScoringService.ScoreBand.HIGH;
+        String analysis = String.format(
+                "Scored by embedded fraud model %s with risk score %.3f; outside the uncertain band, AI analysis skipped.",
+                fraudScoringService.getModelVersion(), modelScore);
+        return new FraudAnalysisResult(
+                modelScore,
+                high ? (modelScore >= 0.95 ? "CRITICAL" : "HIGH") : "LOW",
+                analysis,
+                List.of(high ? "High fraud model score" : "Low fraud model score"),
+                high ? "BLOCK" : "APPROVE");
     }
     
     private String buildTransactionContext(FraudDetectionRequest request, 
                                           com.example.model.Account account, 
                                           List<Transaction> recentTransactions) {
+        GeoFeatures geoFeatures = geoLocationService.features(
+                request.getAccountNumber(), request.getLocation(), request.getTransactionDate());
         return String.format("""
                 Type: %s
                 Amount: %s %s
+                Amount Percentile: %s
                 Merchant: %s (%s)
                 Location: %s
+                Geo Signals: %s
                 Date: %s
                 Description: %s
                 Counterparty: %s
+                Counterparty Graph: %s
                 """, 
                 request.getTransactionType(),
                 request.getAmount(), request.getCurrency(),
+                "DEBIT".equals(request.getTransactionType())
+                        ? cohortPercentileService.describeAmount(account.getAccountType(),
+                                request.getMerchantCategory(), request.getAmount())
+                        : "N/A",
                 request.getMerchantName(), request.getMerchantCategory(),
                 request.getLocation(),
+                geoFeatures.describe(),
                 request.getTransactionDate(),
                 request.getDescription() != null ? request.getDescription() : "N/A",
-                request.getCounterpartyAccount() != null ? request.getCounterpartyAccount() : "N/A");
+                request.getCounterpartyAccount() != null ? request.getCounterpartyAccount() : "N/A",
+                counterpartyGraphService.features(request.getAccountNumber()).describe());
     }
     
     private String formatTransactionHistory(List<Transaction> transactions) {
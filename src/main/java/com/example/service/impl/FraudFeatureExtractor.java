@@ -0,0 +1,104 @@
+package com.example.service.impl;
+
+import com.example.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Transaction feature extraction shared by the fraud model trainer and the online scorer.
+ * Writes into a caller-supplied array so inference does not allocate.
+ */
+public final class FraudFeatureExtractor {
+
+    public static final String[] FEATURE_NAMES = {
+            "logAmount",
+            "amountToBalance",
+            "amountToRecentMean",
+            "logRecentCount",
+            "night",
+            "newMerchant",
+            "newLocation",
+            "transfer",
+            "counterparty",
+            "logDailyVelocity"
+    };
+
+    public static final int FEATURE_COUNT = FEATURE_NAMES.length;
+
+    private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private FraudFeatureExtractor() {
+    }
+
+    /**
+     * Extract features for a candidate transaction.
+     *
+     * @param out                 destination array of at least {@link #FEATURE_COUNT} elements
+     * @param recentTransactions  the account's transactions in the look-back window preceding the candidate
+     * @param excludeId           id of the candidate itself when it is already persisted (training), otherwise null
+     */
+    public static void extract(double[] out,
+                               BigDecimal amount,
+                               BigDecimal balance,
+                               String transactionType,
+                               String merchantName,
+                               String location,
+                               LocalDateTime transactionDate,
+                               String counterpartyAccount,
+                               List<Transaction> recentTransactions,
+                               Long excludeId) {
+        double value = amount != null ? amount.doubleValue() : 0.0;
+        double balanceValue = balance != null ? balance.doubleValue() : 0.0;
+
+        int recentCount = 0;
+        int dailyCount = 0;
+        double debitSum = 0.0;
+        int debitCount = 0;
+        boolean knownMerchant = false;
+        boolean knownLocation = false;
+        long candidateEpoch = transactionDate != null ? transactionDate.toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE;
+
+        // Indexed loop avoids iterator allocation on the hot path
+        int size = recentTransactions != null ? recentTransactions.size() : 0;
+        for (int i = 0; i < size; i++) {
+            Transaction t = recentTransactions.get(i);
+            if (excludeId != null && excludeId.equals(t.getId())) {
+                continue;
+            }
+            recentCount++;
+            if ("DEBIT".equals(t.getTransactionType()) && t.getAmount() != null) {
+                debitSum += t.getAmount().doubleValue();
+                debitCount++;
+            }
+            if (!knownMerchant && merchantName != null && merchantName.equalsIgnoreCase(t.getMerchantName())) {
+                knownMerchant = true;
+            }
+            if (!knownLocation && location != null && location.equalsIgnoreCase(t.getLocation())) {
+                knownLocation = true;
+            }
+            if (transactionDate != null && t.getTransactionDate() != null) {
+                long delta = candidateEpoch - t.getTransactionDate().toEpochSecond(ZoneOffset.UTC);
+                if (delta >= 0 && delta <= SECONDS_PER_DAY) {
+                    dailyCount++;
+                }
+            }
+        }
+
+        double recentMean = debitCount > 0 ? debitSum / debitCount : 0.0;
+        int hour = transactionDate != null ? transactionDate.getHour() : 12;
+
+        out[0] = Math.log1p(Math.max(value, 0.0));
+        out[1] = Math.min(value / Math.max(balanceValue, 1.0), 10.0);
+        out[2] = recentMean > 0 ? Math.min(value / recentMean, 20.0) : 1.0;
+        out[3] = Math.log1p(recentCount);
+        out[4] = hour < 6 ? 1.0 : 0.0;
+        out[5] = recentCount > 0 && !knownMerchant ? 1.0 : 0.0;
+        out[6] = recentCount > 0 && !knownLocation ? 1.0 : 0.0;
+        out[7] = "TRANSFER".equals(transactionType) ? 1.0 : 0.0;
+        out[8] = counterpartyAccount != null && !counterpartyAccount.isBlank() ? 1.0 : 0.0;
+        out[9] = Math.log1p(dailyCount);
+    }
+}
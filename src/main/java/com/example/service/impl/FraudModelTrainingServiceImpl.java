@@ -0,0 +1,183 @@
+package com.example.service.impl;
+
+import com.example.model.Account;
+import com.example.model.Transaction;
+import com.example.model.dto.FraudAlertSummary;
+import com.example.model.dto.FraudModelTrainingResponse;
+import com.example.repository.AccountRepository;
+import com.example.repository.FraudAlertRepository;
+import com.example.repository.TransactionRepository;
+import com.example.service.FraudModelTrainingService;
+import com.example.service.FraudScoringService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Trains the embedded fraud model from analyst-reviewed alerts.
+ * RESOLVED alerts are treated as confirmed fraud, FALSE_POSITIVE alerts as legitimate.
+ */
+@Service
+@Slf4j
+public class FraudModelTrainingServiceImpl implements FraudModelTrainingService {
+
+    private static final String CONFIRMED_FRAUD = "RESOLVED";
+    private static final String FALSE_POSITIVE = "FALSE_POSITIVE";
+    private static final int MIN_SAMPLES = 20;
+    private static final int EPOCHS = 500;
+    private static final double LEARNING_RATE = 0.1;
+    private static final double L2_PENALTY = 0.001;
+
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final FraudAlertRepository fraudAlertRepository;
+    private final FraudScoringService fraudScoringService;
+    private final Path modelPath;
+
+    public FraudModelTrainingServiceImpl(TransactionRepository transactionRepository,
+                                         AccountRepository accountRepository,
+                                         FraudAlertRepository fraudAlertRepository,
+                                         FraudScoringService fraudScoringService,
+                                         @Value("${fraud.model.path:models/fraud-model.properties}") String modelPath) {
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.fraudAlertRepository = fraudAlertRepository;
+        this.fraudScoringService = fraudScoringService;
+        this.modelPath = Paths.get(modelPath);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public FraudModelTrainingResponse trainModel() {
+        List<FraudAlertSummary> reviewedAlerts = fraudAlertRepository
+                .findSummariesByStatusIn(List.of(CONFIRMED_FRAUD, FALSE_POSITIVE));
+
+        Map<Long, Double> labels = new HashMap<>();
+        for (FraudAlertSummary alert : reviewedAlerts) {
+            labels.put(alert.transactionId(), CONFIRMED_FRAUD.equals(alert.status()) ? 1.0 : 0.0);
+        }
+
+        List<Transaction> transactions = transactionRepository.findAllById(labels.keySet());
+        Map<String, BigDecimal> balances = new HashMap<>();
+
+        double[][] x = new double[transactions.size()][FraudFeatureExtractor.FEATURE_COUNT];
+        double[] y = new double[transactions.size()];
+        int positives = 0;
+
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction t = transactions.get(i);
+            BigDecimal balance = balances.computeIfAbsent(t.getAccountNumber(), accountNumber ->
+                    accountRepository.findByAccountNumber(accountNumber)
+                            .map(Account::getBalance)
+                            .orElse(BigDecimal.ZERO));
+            List<Transaction> history = transactionRepository.findByAccountNumberAndTransactionDateBetween(
+                    t.getAccountNumber(), t.getTransactionDate().minusDays(30), t.getTransactionDate());
+
+            FraudFeatureExtractor.extract(x[i],
+                    t.getAmount(), balance, t.getTransactionType(), t.getMerchantName(),
+                    t.getLocation(), t.getTransactionDate(), t.getCounterpartyAccount(),
+                    history, t.getId());
+            y[i] = labels.get(t.getId());
+            if (y[i] > 0.5) {
+                positives++;
+            }
+        }
+
+        int negatives = transactions.size() - positives;
+        if (transactions.size() < MIN_SAMPLES || positives == 0 || negatives == 0) {
+            throw new IllegalStateException(String.format(
+                    "Not enough reviewed alerts to train fraud model: %d samples (%d fraud, %d false positive), need %d with both labels",
+                    transactions.size(), positives, negatives, MIN_SAMPLES));
+        }
+
+        log.info("Training fraud model on {} samples ({} fraud, {} false positive)",
+                transactions.size(), positives, negatives);
+
+        int n = x.length;
+        int d = FraudFeatureExtractor.FEATURE_COUNT;
+        double[] mean = new double[d];
+        double[] std = new double[d];
+        for (double[] row : x) {
+            for (int j = 0; j < d; j++) {
+                mean[j] += row[j] / n;
+            }
+        }
+        for (double[] row : x) {
+            for (int j = 0; j < d; j++) {
+                std[j] += (row[j] - mean[j]) * (row[j] - mean[j]) / n;
+            }
+        }
+        for (int j = 0; j < d; j++) {
+            std[j] = std[j] > 0 ? Math.sqrt(std[j]) : 1.0;
+        }
+
+        // Full-batch gradient descent on standardised features
+        double[] weights = new double[d];
+        double bias = 0.0;
+        double[] gradient = new double[d];
+        for (int epoch = 0; epoch < EPOCHS; epoch++) {
+            Arrays.fill(gradient, 0.0);
+            double biasGradient = 0.0;
+            for (int i = 0; i < n; i++) {
+                double error = predict(x[i], weights, bias, mean, std) - y[i];
+                for (int j = 0; j < d; j++) {
+                    gradient[j] += error * (x[i][j] - mean[j]) / std[j];
+                }
+                biasGradient += error;
+            }
+            for (int j = 0; j < d; j++) {
+                weights[j] -= LEARNING_RATE * (gradient[j] / n + L2_PENALTY * weights[j]);
+            }
+            bias -= LEARNING_RATE * biasGradient / n;
+        }
+
+        double loss = 0.0;
+        int correct = 0;
+        for (int i = 0; i < n; i++) {
+            double p = Math.min(Math.max(predict(x[i], weights, bias, mean, std), 1e-9), 1 - 1e-9);
+            loss -= y[i] * Math.log(p) + (1 - y[i]) * Math.log(1 - p);
+            if ((p >= 0.5) == (y[i] > 0.5)) {
+                correct++;
+            }
+        }
+
+        String version = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss"));
+        FraudScoringModel model = new FraudScoringModel(version, bias, weights, mean, std, n);
+        try {
+            model.write(modelPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write fraud model to " + modelPath, e);
+        }
+        fraudScoringService.reloadModel();
+
+        log.info("Fraud model {} written to {}: loss={}, accuracy={}", version, modelPath, loss / n, (double) correct / n);
+
+        return FraudModelTrainingResponse.builder()
+                .modelVersion(version)
+                .modelPath(modelPath.toAbsolutePath().toString())
+                .samples(n)
+                .positives(positives)
+                .negatives(negatives)
+                .trainingLoss(loss / n)
+                .trainingAccuracy((double) correct / n)
+                .build();
+    }
+
+    private double predict(double[] row, double[] weights, double bias, double[] mean, double[] std) {
+        double z = bias;
+        for (int j = 0; j < weights.length; j++) {
+            z += weights[j] * (row[j] - mean[j]) / std[j];
+        }
+        return 1.0 / (1.0 + Math.exp(-z));
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.service.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+/**
+ * Logistic regression fraud model.
+ *
+ * The model file is a plain properties file:
+ * <pre>
+ * version=20241018T120000
+ * features=logAmount,amountToBalance,...
+ * bias=-2.31
+ * weights=0.42,1.10,...
+ * mean=5.12,0.33,...
+ * std=1.70,0.81,...
+ * samples=1250
+ * </pre>
+ * Standardisation is folded into the weights at load time so scoring is a single dot product.
+ */
+public final class FraudScoringModel {
+
+    private final String version;
+    private final double bias;
+    private final double[] weights;
+    private final double[] mean;
+    private final double[] std;
+    private final int samples;
+
+    private final double foldedBias;
+    private final double[] foldedWeights;
+
+    public FraudScoringModel(String version, double bias, double[] weights, double[] mean, double[] std, int samples) {
+        if (weights.length != FraudFeatureExtractor.FEATURE_COUNT
+                || mean.length != weights.length || std.length != weights.length) {
+            throw new IllegalArgumentException("Model dimension does not match feature count "
+                    + FraudFeatureExtractor.FEATURE_COUNT);
+        }
+        this.version = version;
+        this.bias = bias;
+        this.weights = weights.clone();
+        this.mean = mean.clone();
+        this.std = std.clone();
+        this.samples = samples;
+
+        this.foldedWeights = new double[weights.length];
+        double b = bias;
+        for (int i = 0; i < weights.length; i++) {
+            double s = std[i] > 0 ? std[i] : 1.0;
+            foldedWeights[i] = weights[i] / s;
+            b -= weights[i] * mean[i] / s;
+        }
+        this.foldedBias = b;
+    }
+
+    /**
+     * Probability that the transaction described by {@code features} is fraudulent.
+     */
+    public double score(double[] features) {
+        double z = foldedBias;
+        for (int i = 0; i < foldedWeights.length; i++) {
+            z += foldedWeights[i] * features[i];
+        }
+        return 1.0 / (1.0 + Math.exp(-z));
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    public static FraudScoringModel load(Path path) throws IOException {
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            props.load(reader);
+        }
+
+        String features = props.getProperty("features", "");
+        if (!features.equals(String.join(",", FraudFeatureExtractor.FEATURE_NAMES))) {
+            throw new IOException("Model features [" + features + "] do not match extractor features");
+        }
+
+        return new FraudScoringModel(
+                props.getProperty("version", "unknown"),
+                Double.parseDouble(props.getProperty("bias", "0")),
+                parseVector(props.getProperty("weights")),
+                parseVector(props.getProperty("mean")),
+                parseVector(props.getProperty("std")),
+                Integer.parseInt(props.getProperty("samples", "0")));
+    }
+
+    /**
+     * Write the model next to {@code path} and atomically move it into place,
+     * so a concurrent hot reload never observes a partial file.
+     */
+    public void write(Path path) throws IOException {
+        Properties props = new Properties();
+        props.setProperty("version", version);
+        props.setProperty("features", String.join(",", FraudFeatureExtractor.FEATURE_NAMES));
+        props.setProperty("bias", Double.toString(bias));
+        props.setProperty("weights", formatVector(weights));
+        props.setProperty("mean", formatVector(mean));
+        props.setProperty("std", formatVector(std));
+        props.setProperty("samples", Integer.toString(samples));
+
+        Path absolute = path.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path tmp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            props.store(writer, "Fraud scoring model (logistic regression)");
+        }
+        Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static double[] parseVector(String value) throws IOException {
+        if (value == null || value.isBlank()) {
+            throw new IOException("Missing vector in model file");
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .mapToDouble(Double::parseDouble)
+                .toArray();
+    }
+
+    private static String formatVector(double[] vector) {
+        return Arrays.stream(vector)
+                .mapToObj(Double::toString)
+                .collect(Collectors.joining(","));
+    }
+}
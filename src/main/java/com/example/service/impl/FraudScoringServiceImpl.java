@@ -0,0 +1,121 @@
+package com.example.service.impl;
+
+import com.example.model.Account;
+import com.example.model.Transaction;
+import com.example.model.dto.FraudDetectionRequest;
+import com.example.service.FraudScoringService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+@Service
+@Slf4j
+public class FraudScoringServiceImpl implements FraudScoringService {
+
+    // Reused per thread so scoring does not allocate a feature vector per request
+    private static final ThreadLocal<double[]> FEATURE_BUFFER =
+            ThreadLocal.withInitial(() -> new double[FraudFeatureExtractor.FEATURE_COUNT]);
+
+    private final Path modelPath;
+    private final double lowerThreshold;
+    private final double upperThreshold;
+
+    private volatile FraudScoringModel model;
+    private volatile FileTime loadedModifiedTime;
+
+    public FraudScoringServiceImpl(
+            @Value("${fraud.model.path:models/fraud-model.properties}") String modelPath,
+            @Value("${fraud.model.lower-threshold:0.2}") double lowerThreshold,
+            @Value("${fraud.model.upper-threshold:0.85}") double upperThreshold) {
+        this.modelPath = Paths.get(modelPath);
+        this.lowerThreshold = lowerThreshold;
+        this.upperThreshold = upperThreshold;
+    }
+
+    @PostConstruct
+    void init() {
+        reloadModel();
+    }
+
+    @Override
+    public double score(FraudDetectionRequest request, Account account, List<Transaction> recentTransactions) {
+        FraudScoringModel current = model;
+        if (current == null) {
+            return Double.NaN;
+        }
+        double[] features = FEATURE_BUFFER.get();
+        FraudFeatureExtractor.extract(features,
+                request.getAmount(),
+                account.getBalance(),
+                request.getTransactionType(),
+                request.getMerchantName(),
+                request.getLocation(),
+                request.getTransactionDate(),
+                request.getCounterpartyAccount(),
+                recentTransactions,
+                null);
+        return current.score(features);
+    }
+
+    @Override
+    public ScoreBand classify(double score) {
+        if (Double.isNaN(score)) {
+            return ScoreBand.UNCERTAIN;
+        }
+        if (score < lowerThreshold) {
+            return ScoreBand.LOW;
+        }
+        if (score >= upperThreshold) {
+            return ScoreBand.HIGH;
+        }
+        return ScoreBand.UNCERTAIN;
+    }
+
+    @Override
+    public String getModelVersion() {
+        FraudScoringModel current = model;
+        return current != null ? current.getVersion() : "none";
+    }
+
+    @Override
+    public synchronized void reloadModel() {
+        if (!Files.exists(modelPath)) {
+            log.info("No fraud model found at {}, all transactions will be sent for AI analysis", modelPath);
+            return;
+        }
+        try {
+            FileTime modifiedTime = Files.getLastModifiedTime(modelPath);
+            FraudScoringModel loaded = FraudScoringModel.load(modelPath);
+            model = loaded;
+            loadedModifiedTime = modifiedTime;
+            log.info("Loaded fraud model version {} ({} training samples) from {}",
+                    loaded.getVersion(), loaded.getSamples(), modelPath);
+        } catch (Exception e) {
+            log.error("Failed to load fraud model from {}, keeping previous model", modelPath, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${fraud.model.reload-interval-ms:30000}")
+    void reloadIfChanged() {
+        try {
+            if (!Files.exists(modelPath)) {
+                return;
+            }
+            FileTime modifiedTime = Files.getLastModifiedTime(modelPath);
+            if (!modifiedTime.equals(loadedModifiedTime)) {
+                log.info("Fraud model file changed, reloading");
+                reloadModel();
+            }
+        } catch (Exception e) {
+            log.warn("Error checking fraud model file for changes", e);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.service.impl;
+
+import com.example.event.TransactionSavedEvent;
+import com.example.model.Transaction;
+import com.example.model.dto.AccountGeoProfile;
+import com.example.model.dto.GeoFeatures;
+import com.example.model.dto.GeoLocation;
+import com.example.model.dto.TransactionLocation;
+import com.example.repository.TransactionRepository;
+import com.example.service.GeoLocationService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Resolves free-text locations against a city/country dictionary and keeps a per-account
+ * location index (first-seen timestamps and last position), so geographic features are
+ * served from memory instead of rescanning transaction history.
+ */
+@Service
+@Slf4j
+public class GeoLocationServiceImpl implements GeoLocationService {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final int MAX_CACHED_LOCATIONS = 100_000;
+    private static final Set<String> US_STATES = Set.of(
+            "al", "ak", "az", "ar", "ca", "co", "ct", "de", "fl", "ga", "hi", "id", "il", "in", "ia",
+            "ks", "ky", "la", "me", "md", "ma", "mi", "mn", "ms", "mo", "mt", "ne", "nv", "nh", "nj",
+            "nm", "ny", "nc", "nd", "oh", "ok", "or", "pa", "ri", "sc", "sd", "tn", "tx", "ut", "vt",
+            "va", "wa", "wv", "wi", "wy", "dc");
+
+    private final TransactionRepository transactionRepository;
+    private final String homeCountry;
+    private final double maxTravelSpeedKmh;
+    private final double minImpossibleDistanceKm;
+    private final int lookbackDays;
+
+    private final Map<String, GeoLocation> dictionary = new HashMap<>();
+    private final Map<String, GeoLocation> normalizedCache = new ConcurrentHashMap<>();
+    private final Map<String, AccountGeoState> accounts = new ConcurrentHashMap<>();
+
+    public GeoLocationServiceImpl(
+            TransactionRepository transactionRepository,
+            @Value("${geo.home-country:US}") String homeCountry,
+            @Value("${geo.max-travel-speed-kmh:900}") double maxTravelSpeedKmh,
+            @Value("${geo.min-impossible-distance-km:500}") double minImpossibleDistanceKm,
+            @Value("${geo.index.lookback-days:365}") int lookbackDays) {
+        this.transactionRepository = transactionRepository;
+        this.homeCountry = homeCountry;
+        this.maxTravelSpeedKmh = maxTravelSpeedKmh;
+        this.minImpossibleDistanceKm = minImpossibleDistanceKm;
+        this.lookbackDays = lookbackDays;
+    }
+
+    @PostConstruct
+    void loadDictionary() {
+        ClassPathResource resource = new ClassPathResource("geo/locations.csv");
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(",", -1);
+                String city = parts[1].isBlank() ? null : parts[1];
+                dictionary.put(parts[0].trim(), new GeoLocation(city, parts[2].trim(),
+                        Double.parseDouble(parts[3]), Double.parseDouble(parts[4]), false));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load geo dictionary", e);
+        }
+        log.info("Loaded geo dictionary with {} entries", dictionary.size());
+    }
+
+    /**
+     * Rebuild the per-account index from the look-back window in transaction date order.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        long count = 0;
+        try (Stream<TransactionLocation> history = transactionRepository
+                .streamLocationsSince(LocalDateTime.now().minusDays(lookbackDays))) {
+            // Rows are DTO projections, so nothing accumulates in the persistence context while streaming
+            Iterator<TransactionLocation> rows = history.iterator();
+            while (rows.hasNext()) {
+                TransactionLocation t = rows.next();
+                update(t.accountNumber(), t.location(), t.transactionDate());
+                count++;
+            }
+        }
+        log.info("Geo location index built for {} accounts from {} transactions", accounts.size(), count);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionSaved(TransactionSavedEvent event) {
+        record(event.transaction());
+    }
+
+    @Override
+    public GeoLocation normalize(String location) {
+        if (location == null || location.isBlank()) {
+            return GeoLocation.UNKNOWN;
+        }
+        GeoLocation cached = normalizedCache.get(location);
+        if (cached != null) {
+            return cached;
+        }
+        GeoLocation resolved = resolve(location);
+        if (normalizedCache.size() < MAX_CACHED_LOCATIONS) {
+            normalizedCache.put(location, resolved);
+        }
+        return resolved;
+    }
+
+    @Override
+    public boolean isInternational(String location) {
+        return isInternational(normalize(location));
+    }
+
+    @Override
+    public GeoFeatures features(String accountNumber, String location, LocalDateTime transactionDate) {
+        GeoLocation geo = normalize(location);
+        boolean international = isInternational(geo);
+        AccountGeoState state = accounts.get(accountNumber);
+        if (state == null) {
+            return new GeoFeatures(geo, international, geo.countryCode() != null, geo.city() != null,
+                    null, null, false, 0, 0);
+        }
+        synchronized (state) {
+            Double distance = null;
+            Double speed = null;
+            boolean impossible = false;
+            if (geo.isPrecise() && state.hasLastPosition()) {
+                distance = haversineKm(state.lastLatitude, state.lastLongitude, geo.latitude(), geo.longitude());
+                speed = impliedSpeedKmh(distance, state.lastEpochSecond, transactionDate);
+                impossible = isImpossible(distance, speed);
+            }
+            return new GeoFeatures(geo, international,
+                    geo.countryCode() != null && !state.countriesFirstSeen.containsKey(geo.countryCode()),
+                    geo.city() != null && !state.citiesFirstSeen.containsKey(geo.label()),
+                    distance, speed, impossible,
+                    state.countriesFirstSeen.size(), state.impossibleTravelEvents);
+        }
+    }
+
+    @Override
+    public void record(Transaction transaction) {
+        update(transaction.getAccountNumber(), transaction.getLocation(), transaction.getTransactionDate());
+    }
+
+    @Override
+    public AccountGeoProfile getProfile(String accountNumber) {
+        AccountGeoState state = accounts.get(accountNumber);
+        if (state == null) {
+            return AccountGeoProfile.builder()
+                    .accountNumber(accountNumber)
+                    .countriesFirstSeen(Map.of())
+                    .citiesFirstSeen(Map.of())
+                    .totalTransactions(0)
+                    .internationalTransactions(0)
+                    .offshoreTransactions(0)
+                    .unverifiedLocationTransactions(0)
+                    .impossibleTravelEvents(0)
+                    .build();
+        }
+        synchronized (state) {
+            return AccountGeoProfile.builder()
+                    .accountNumber(accountNumber)
+                    .countriesFirstSeen(new TreeMap<>(state.countriesFirstSeen))
+                    .citiesFirstSeen(new TreeMap<>(state.citiesFirstSeen))
+                    .totalTransactions(state.total)
+                    .internationalTransactions(state.international)
+                    .offshoreTransactions(state.offshore)
+                    .unverifiedLocationTransactions(state.unverified)
+                    .impossibleTravelEvents(state.impossibleTravelEvents)
+                    .lastLocation(state.lastLabel)
+                    .lastSeen(state.lastSeen)
+                    .build();
+        }
+    }
+
+    private void update(String accountNumber, String location, LocalDateTime transactionDate) {
+        if (accountNumber == null || transactionDate == null) {
+            return;
+        }
+        GeoLocation geo = normalize(location);
+        AccountGeoState state = accounts.computeIfAbsent(accountNumber, k -> new AccountGeoState());
+        synchronized (state) {
+            state.total++;
+            if (geo.offshore()) {
+                state.offshore++;
+            }
+            if (!geo.isKnown()) {
+                state.unverified++;
+            }
+            if (isInternational(geo)) {
+                state.international++;
+            }
+            if (geo.countryCode() != null) {
+                state.countriesFirstSeen.merge(geo.countryCode(), transactionDate,
+                        (existing, candidate) -> candidate.isBefore(existing) ? candidate : existing);
+            }
+            if (geo.city() != null) {
+                state.citiesFirstSeen.merge(geo.label(), transactionDate,
+                        (existing, candidate) -> candidate.isBefore(existing) ? candidate : existing);
+            }
+            if (geo.isPrecise()) {
+                if (state.hasLastPosition()) {
+                    double distance = haversineKm(state.lastLatitude, state.lastLongitude,
+                            geo.latitude(), geo.longitude());
+                    if (isImpossible(distance, impliedSpeedKmh(distance, state.lastEpochSecond, transactionDate))) {
+                        state.impossibleTravelEvents++;
+                    }
+                }
+                long epoch = transactionDate.toEpochSecond(ZoneOffset.UTC);
+                // Only move the last position forward in time; late events still count towards first-seen
+                if (epoch >= state.lastEpochSecond) {
+                    state.lastLatitude = geo.latitude();
+                    state.lastLongitude = geo.longitude();
+                    state.lastEpochSecond = epoch;
+                    state.lastLabel = geo.label();
+                    state.lastSeen = transactionDate;
+                }
+            }
+        }
+    }
+
+    private GeoLocation resolve(String location) {
+        String normalized = location.toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z,\\s]", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+        if (normalized.contains("offshore")) {
+            return new GeoLocation(null, null, null, null, true);
+        }
+        GeoLocation exact = dictionary.get(normalized);
+        if (exact != null) {
+            return exact;
+        }
+
+        GeoLocation city = null;
+        GeoLocation country = null;
+        for (String token : normalized.split(",")) {
+            String key = token.trim();
+            if (key.isEmpty()) {
+                continue;
+            }
+            GeoLocation match = dictionary.get(key);
+            if (match != null) {
+                if (match.city() != null && city == null) {
+                    city = match;
+                } else if (match.city() == null && country == null) {
+                    country = match;
+                }
+            } else if (US_STATES.contains(key) && country == null) {
+                country = dictionary.get("usa");
+            }
+        }
+        if (city != null && (country == null || country.countryCode().equals(city.countryCode()))) {
+            return city;
+        }
+        return country != null ? country : GeoLocation.UNKNOWN;
+    }
+
+    // Locations that cannot be resolved fail closed: they cannot be shown to be domestic
+    private boolean isInternational(GeoLocation geo) {
+        return !geo.isKnown() || geo.offshore() || !homeCountry.equals(geo.countryCode());
+    }
+
+    private double impliedSpeedKmh(double distanceKm, long previousEpochSecond, LocalDateTime transactionDate) {
+        long seconds = Math.abs(transactionDate.toEpochSecond(ZoneOffset.UTC) - previousEpochSecond);
+        // Treat near-simultaneous transactions as one minute apart to avoid division by zero
+        double hours = Math.max(seconds, 60) / 3600.0;
+        return distanceKm / hours;
+    }
+
+    private boolean isImpossible(double distanceKm, double speedKmh) {
+        return distanceKm >= minImpossibleDistanceKm && speedKmh > maxTravelSpeedKmh;
+    }
+
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+
+    private static final class AccountGeoState {
+        private final Map<String, LocalDateTime> countriesFirstSeen = new HashMap<>();
+        private final Map<String, LocalDateTime> citiesFirstSeen = new HashMap<>();
+        private double lastLatitude;
+        private double lastLongitude;
+        private long lastEpochSecond = Long.MIN_VALUE;
+        private String lastLabel;
+        private LocalDateTime lastSeen;
+        private int total;
+        private int international;
+        private int offshore;
+        private int unverified;
+        private int impossibleTravelEvents;
+
+        boolean hasLastPosition() {
+            return lastEpochSecond != Long.MIN_VALUE;
+        }
+    }
+}
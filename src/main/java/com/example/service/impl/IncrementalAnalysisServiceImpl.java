@@ -0,0 +1,345 @@
+package com.example.service.impl;
+
+import com.example.model.Account;
+import com.example.model.AccountAnalysisState;
+import com.example.model.Money;
+import com.example.model.Transaction;
+import com.example.model.TransactionStatistics;
+import com.example.model.dto.IncrementalAnalysisResponse;
+import com.example.repository.AccountAnalysisStateRepository;
+import com.example.repository.AccountRepository;
+import com.example.repository.TransactionRepository;
+import com.example.service.IncrementalAnalysisService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Delta analysis: each run streams only transactions created since the stored watermark,
+ * merges their totals into the persisted per-account state and asks the LLM to update the
+ * previous insights with what changed.
+ *
+ * Neither ids nor created_at are assigned in commit order, so a transaction can become visible after
+ * a later one has advanced the watermark. Each run rereads the overlap window before the watermark and
+ * skips the ids already folded in; the window must exceed the longest time a transaction stays uncommitted.
+ * The nightly run pages through active accounts by account number under a batch job lease, so with several
+ * replicas only one of them analyses the book.
+ */
+@Service
+@Slf4j
+public class IncrementalAnalysisServiceImpl implements IncrementalAnalysisService {
+
+    static final String JOB_NAME = "incremental-analysis";
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final ChatClient chatClient;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountAnalysisStateRepository stateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchJobLeases jobLeases;
+    private final Duration overlap;
+    private final int pageSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public IncrementalAnalysisServiceImpl(
+            ChatClient chatClient,
+            AccountRepository accountRepository,
+            TransactionRepository transactionRepository,
+            AccountAnalysisStateRepository stateRepository,
+            TransactionTemplate transactionTemplate,
+            BatchJobLeases jobLeases,
+            @Value("${transaction-analysis.incremental.overlap-seconds:300}") long overlapSeconds,
+            @Value("${transaction-analysis.incremental.page-size:500}") int pageSize) {
+        this.chatClient = chatClient;
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.stateRepository = stateRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jobLeases = jobLeases;
+        this.overlap = Duration.ofSeconds(overlapSeconds);
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public IncrementalAnalysisResponse analyzeIncrementally(String accountNumber) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + accountNumber));
+
+        AccountAnalysisState state = stateRepository.findByAccountNumber(accountNumber)
+                .orElseGet(() -> AccountAnalysisState.builder().accountNumber(accountNumber).build());
+        if (state.getWatermarkCreatedAt() == null) {
+            // New state, or one kept under the former id watermark: fold every transaction from scratch
+            reset(state);
+        }
+        LocalDateTime previousAnalyzedAt = state.getLastAnalyzedAt();
+
+        TransactionStatistics delta = streamDelta(state);
+
+        if (delta.getCount() == 0) {
+            log.debug("No new transactions for account {} since {}", accountNumber, state.getWatermarkCreatedAt());
+            return IncrementalAnalysisResponse.builder()
+                    .accountNumber(accountNumber)
+                    .newTransactions(0L)
+                    .lastTransactionId(state.getLastTransactionId())
+                    .deltaStatistics(Map.of())
+                    .cumulativeStatistics(cumulativeStatistics(state))
+                    .aiInsights(state.getLastInsights() != null
+                            ? state.getLastInsights()
+                            : "No transactions found for this account.")
+                    .llmCalled(false)
+                    .previousAnalyzedAt(previousAnalyzedAt)
+                    .analyzedAt(previousAnalyzedAt)
+                    .build();
+        }
+
+        merge(state, delta);
+        Map<String, Object> deltaStatistics = deltaStatistics(delta);
+        Map<String, Object> cumulativeStatistics = cumulativeStatistics(state);
+
+        String insights = generateDeltaInsights(account, state.getLastInsights(), previousAnalyzedAt,
+                deltaStatistics, cumulativeStatistics);
+
+        LocalDateTime analyzedAt = LocalDateTime.now();
+        state.setLastInsights(insights);
+        state.setLastAnalyzedAt(analyzedAt);
+        // Optimistic locking rejects a concurrent run that folded the same delta
+        stateRepository.save(state);
+
+        log.info("Incremental analysis for account {}: {} new transactions created up to {}",
+                accountNumber, delta.getCount(), state.getWatermarkCreatedAt());
+
+        return IncrementalAnalysisResponse.builder()
+                .accountNumber(accountNumber)
+                .newTransactions(delta.getCount())
+                .lastTransactionId(state.getLastTransactionId())
+                .deltaStatistics(deltaStatistics)
+                .cumulativeStatistics(cumulativeStatistics)
+                .aiInsights(insights)
+                .llmCalled(true)
+                .previousAnalyzedAt(previousAnalyzedAt)
+                .analyzedAt(analyzedAt)
+                .build();
+    }
+
+    @Override
+    @Scheduled(cron = "${transaction-analysis.incremental.cron:0 0 2 * * *}")
+    public int analyzeActiveAccounts() {
+        if (!jobLeases.tryAcquire(JOB_NAME)) {
+            log.info("Incremental analysis is running on another instance");
+            return -1;
+        }
+        try {
+            return analyzeActivePages();
+        } finally {
+            jobLeases.release(JOB_NAME);
+        }
+    }
+
+    // Keyset pages of account numbers, so memory is bounded by the page size however many accounts are active
+    private int analyzeActivePages() {
+        PageRequest page = PageRequest.of(0, pageSize);
+        String after = "";
+        int accounts = 0;
+        int changed = 0;
+        while (true) {
+            requireLease();
+            List<String> accountNumbers = accountRepository.findActiveAccountNumbersAfter(after, page);
+            if (accountNumbers.isEmpty()) {
+                break;
+            }
+            for (String accountNumber : accountNumbers) {
+                try {
+                    if (analyzeIncrementally(accountNumber).getLlmCalled()) {
+                        changed++;
+                    }
+                } catch (Exception e) {
+                    log.warn("Incremental analysis failed for account {}", accountNumber, e);
+                }
+            }
+            accounts += accountNumbers.size();
+            after = accountNumbers.get(accountNumbers.size() - 1);
+        }
+        log.info("Incremental analysis run complete: {} of {} active accounts had new activity", changed, accounts);
+        return changed;
+    }
+
+    // Checked before each page; state rows are optimistically locked, so a run that lost the lease mid-page
+    // cannot fold a delta twice and only repeats LLM calls for the rest of that page
+    private void requireLease() {
+        if (!jobLeases.renew(JOB_NAME)) {
+            throw new IllegalStateException("Lease on " + JOB_NAME + " was lost to another instance");
+        }
+    }
+
+    private void reset(AccountAnalysisState state) {
+        state.setLastTransactionId(0L);
+        state.setWatermarkCreatedAt(EPOCH);
+        state.getRecentTransactions().clear();
+        state.setTransactionCount(0L);
+        state.setDebitCount(0L);
+        state.setCreditCount(0L);
+        state.setDebitTotalCents(0L);
+        state.setCreditTotalCents(0L);
+        state.getCategoryDebitCents().clear();
+        state.setFirstTransactionAt(null);
+        state.setLastTransactionAt(null);
+    }
+
+    /**
+     * Stream transactions created since the watermark minus the overlap, fold in those not seen before and
+     * advance the watermark. Rows arrive in created_at order, so the watermark only moves forward: an id is
+     * remembered only if it is inside the overlap window of the current watermark, and ids that fall out of
+     * the window are dropped as it advances. Memory is bounded by the rows in one overlap window, not the delta.
+     */
+    private TransactionStatistics streamDelta(AccountAnalysisState state) {
+        TransactionStatistics delta = new TransactionStatistics();
+        Map<Long, LocalDateTime> recent = state.getRecentTransactions();
+        LocalDateTime since = state.getWatermarkCreatedAt().minus(overlap);
+        // Remembered ids in created_at order, oldest first
+        Deque<Map.Entry<Long, LocalDateTime>> remembered = new ArrayDeque<>(recent.size());
+        recent.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .forEach(e -> remembered.addLast(Map.entry(e.getKey(), e.getValue())));
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Transaction> transactions = transactionRepository
+                    .streamByAccountNumberCreatedSince(state.getAccountNumber(), since)) {
+                transactions.forEach(transaction -> {
+                    LocalDateTime createdAt = transaction.getCreatedAt();
+                    if (createdAt.isAfter(state.getWatermarkCreatedAt())) {
+                        state.setWatermarkCreatedAt(createdAt);
+                    }
+                    LocalDateTime windowStart = state.getWatermarkCreatedAt().minus(overlap);
+                    // Each row is streamed once, so only ids from earlier runs can be seen here
+                    if (!recent.containsKey(transaction.getId())) {
+                        delta.accept(transaction);
+                        if (!createdAt.isBefore(windowStart)) {
+                            recent.put(transaction.getId(), createdAt);
+                            remembered.addLast(Map.entry(transaction.getId(), createdAt));
+                        }
+                    }
+                    while (!remembered.isEmpty() && remembered.peekFirst().getValue().isBefore(windowStart)) {
+                        recent.remove(remembered.pollFirst().getKey());
+                    }
+                    entityManager.detach(transaction);
+                });
+            }
+        });
+        LocalDateTime windowStart = state.getWatermarkCreatedAt().minus(overlap);
+        while (!remembered.isEmpty() && remembered.peekFirst().getValue().isBefore(windowStart)) {
+            recent.remove(remembered.pollFirst().getKey());
+        }
+        return delta;
+    }
+
+    private void merge(AccountAnalysisState state, TransactionStatistics delta) {
+        if (delta.getCount() == 0) {
+            return;
+        }
+        state.setLastTransactionId(Math.max(state.getLastTransactionId(), delta.getMaxTransactionId()));
+        state.setTransactionCount(state.getTransactionCount() + delta.getCount());
+        state.setDebitCount(state.getDebitCount() + delta.getDebitCount());
+        state.setCreditCount(state.getCreditCount() + delta.getCreditCount());
+        state.setDebitTotalCents(Math.addExact(state.getDebitTotalCents(), delta.getDebitCents()));
+        state.setCreditTotalCents(Math.addExact(state.getCreditTotalCents(), delta.getCreditCents()));
+        delta.getDebitCentsByCategory().forEach((category, cents) ->
+                state.getCategoryDebitCents().merge(category, cents, Math::addExact));
+        if (state.getFirstTransactionAt() == null || delta.getFirstDate().isBefore(state.getFirstTransactionAt())) {
+            state.setFirstTransactionAt(delta.getFirstDate());
+        }
+        if (state.getLastTransactionAt() == null || delta.getLastDate().isAfter(state.getLastTransactionAt())) {
+            state.setLastTransactionAt(delta.getLastDate());
+        }
+    }
+
+    private Map<String, Object> deltaStatistics(TransactionStatistics delta) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("newTransactions", delta.getCount());
+        stats.putAll(delta.toStatistics());
+        stats.put("newDebits", delta.getDebitTotal());
+        stats.put("newCredits", delta.getCreditTotal());
+        stats.put("newDebitsByCategory", toAmounts(delta.getDebitCentsByCategory()));
+        return stats;
+    }
+
+    private Map<String, Object> cumulativeStatistics(AccountAnalysisState state) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalTransactions", state.getTransactionCount());
+        stats.put("debitCount", state.getDebitCount());
+        stats.put("creditCount", state.getCreditCount());
+        stats.put("totalDebits", Money.toBigDecimal(state.getDebitTotalCents()));
+        stats.put("totalCredits", Money.toBigDecimal(state.getCreditTotalCents()));
+        stats.put("debitsByCategory", toAmounts(state.getCategoryDebitCents()));
+        stats.put("periodStart", state.getFirstTransactionAt());
+        stats.put("periodEnd", state.getLastTransactionAt());
+        return stats;
+    }
+
+    private Map<String, Object> toAmounts(Map<String, Long> centsByCategory) {
+        Map<String, Object> amounts = new LinkedHashMap<>();
+        centsByCategory.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(e -> amounts.put(e.getKey(), Money.toBigDecimal(e.getValue())));
+        return amounts;
+    }
+
+    private String generateDeltaInsights(Account account, String previousInsights, LocalDateTime previousAnalyzedAt,
+                                         Map<String, Object> deltaStatistics,
+                                         Map<String, Object> cumulativeStatistics) {
+        String promptTemplate = """
+                You are a financial analyst for a banking institution. Update the previous analysis of this account
+                with the transactions that arrived since it was written. Keep conclusions that still hold, revise
+                those the new activity changes and call out what is new.
+                
+                Account Information:
+                - Account Number: {accountNumber}
+                - Account Type: {accountType}
+                - Current Balance: {balance}
+                
+                Previous Analysis ({previousAnalyzedAt}):
+                {previousInsights}
+                
+                Changes Since Previous Analysis:
+                {delta}
+                
+                Cumulative Statistics:
+                {cumulative}
+                
+                Format your response clearly with sections for INSIGHTS, FINDINGS, and RECOMMENDATIONS.
+                """;
+
+        PromptTemplate template = new PromptTemplate(promptTemplate);
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("accountNumber", account.getAccountNumber());
+        variables.put("accountType", account.getAccountType());
+        variables.put("balance", account.getBalance());
+        variables.put("previousAnalyzedAt", previousAnalyzedAt != null ? previousAnalyzedAt : "none");
+        variables.put("previousInsights", previousInsights != null ? previousInsights : "No previous analysis.");
+        variables.put("delta", format(deltaStatistics));
+        variables.put("cumulative", format(cumulativeStatistics));
+
+        Prompt prompt = template.create(variables);
+        return chatClient.prompt(prompt).call().content();
+    }
+
+    private String format(Map<String, Object> statistics) {
+        StringBuilder sb = new StringBuilder();
+        statistics.forEach((key, value) -> sb.append(String.format("- %s: %s\n", key, value)));
+        return sb.toString();
+    }
+}
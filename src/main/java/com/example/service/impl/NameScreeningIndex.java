@@ -0,0 +1,391 @@
+package com.example.service.impl;
+
+import com.example.model.dto.ScreeningListEntry;
+import com.example.model.dto.ScreeningMatch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable name-screening index over sanctions and PEP list entries.
+ *
+ * Every primary name and alias is normalised (accents, case and punctuation removed, honorifics and legal
+ * suffixes dropped, tokens sorted so "DOE, John" and "John Doe" agree) and indexed three ways:
+ * <ul>
+ *   <li>exact normalised key, scored 1.0</li>
+ *   <li>phonetic key of per-token Soundex codes, scored at least {@link #PHONETIC_SCORE}</li>
+ *   <li>padded token trigrams in primitive posting lists, scored by Dice similarity</li>
+ * </ul>
+ * A query touches only the posting lists of its own trigrams, so screening a name against tens of
+ * thousands of entries takes microseconds.
+ *
+ * List files are CSV. The OFAC SDN export ({@code ent_num,SDN_Name,SDN_Type,Program,...}, no header, "-0-" for
+ * empty) and its alternate-names file ({@code ent_num,alt_num,alt_type,alt_name,alt_remarks}) are read as is;
+ * any other file needs a header with {@code id,name} and optional {@code type,program,aliases} columns,
+ * aliases separated by ';'.
+ */
+public final class NameScreeningIndex {
+
+    static final double PHONETIC_SCORE = 0.9;
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^A-Z0-9]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Set<String> NOISE_TOKENS = Set.of(
+            "MR", "MRS", "MS", "MISS", "DR", "PROF", "SIR", "THE", "AND", "OF",
+            "LTD", "LLC", "INC", "CO", "CORP", "CORPORATION", "COMPANY", "LIMITED", "PLC", "SA", "AG", "GMBH");
+    private static final int ALPHABET = 37; // pad, A-Z, 0-9
+    private static final int[] NO_POSTINGS = new int[0];
+
+    // Per-thread scratch space for counting shared trigrams per indexed name
+    private final ThreadLocal<int[]> sharedCounts;
+
+    private final List<ScreeningListEntry> entries;
+    private final int[] nameEntry;        // name id -> entry index
+    private final String[] names;         // name id -> original spelling
+    private final int[] nameTrigramCount; // name id -> number of distinct trigrams
+    private final int[][] postings;       // trigram code -> ascending name ids
+    private final Map<String, int[]> exactKeys;
+    private final Map<String, int[]> phoneticKeys;
+
+    public NameScreeningIndex(List<ScreeningListEntry> entries) {
+        this.entries = List.copyOf(entries);
+
+        List<Integer> owners = new ArrayList<>();
+        List<String> allNames = new ArrayList<>();
+        for (int e = 0; e < this.entries.size(); e++) {
+            ScreeningListEntry entry = this.entries.get(e);
+            owners.add(e);
+            allNames.add(entry.name());
+            for (String alias : entry.aliases()) {
+                owners.add(e);
+                allNames.add(alias);
+            }
+        }
+
+        int count = allNames.size();
+        this.nameEntry = new int[count];
+        this.names = allNames.toArray(new String[0]);
+        this.nameTrigramCount = new int[count];
+        int[] postingSizes = new int[ALPHABET * ALPHABET * ALPHABET];
+        int[][] nameTrigrams = new int[count][];
+        Map<String, List<Integer>> exact = new HashMap<>();
+        Map<String, List<Integer>> phonetic = new HashMap<>();
+
+        for (int id = 0; id < count; id++) {
+            nameEntry[id] = owners.get(id);
+            String[] tokens = tokens(names[id]);
+            if (tokens.length == 0) {
+                nameTrigrams[id] = NO_POSTINGS;
+                continue;
+            }
+            exact.computeIfAbsent(String.join(" ", tokens), k -> new ArrayList<>()).add(id);
+            phonetic.computeIfAbsent(phoneticKey(tokens), k -> new ArrayList<>()).add(id);
+            nameTrigrams[id] = trigrams(tokens);
+            nameTrigramCount[id] = nameTrigrams[id].length;
+            for (int trigram : nameTrigrams[id]) {
+                postingSizes[trigram]++;
+            }
+        }
+
+        this.postings = new int[postingSizes.length][];
+        int[] fill = new int[postingSizes.length];
+        for (int trigram = 0; trigram < postingSizes.length; trigram++) {
+            postings[trigram] = postingSizes[trigram] == 0 ? NO_POSTINGS : new int[postingSizes[trigram]];
+        }
+        for (int id = 0; id < count; id++) {
+            for (int trigram : nameTrigrams[id]) {
+                postings[trigram][fill[trigram]++] = id;
+            }
+        }
+
+        this.exactKeys = toArrays(exact);
+        this.phoneticKeys = toArrays(phonetic);
+        this.sharedCounts = ThreadLocal.withInitial(() -> new int[count]);
+    }
+
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+    public int getNameCount() {
+        return names.length;
+    }
+
+    /**
+     * Best match per list entry scoring at least {@code minScore}, highest score first.
+     */
+    public List<ScreeningMatch> search(String subject, String name, double minScore, int limit) {
+        String[] tokens = tokens(name);
+        if (tokens.length == 0 || names.length == 0) {
+            return List.of();
+        }
+
+        Map<Integer, ScreeningMatch> best = new HashMap<>();
+        for (int id : exactKeys.getOrDefault(String.join(" ", tokens), NO_POSTINGS)) {
+            offer(best, subject, name, id, 1.0, "EXACT");
+        }
+
+        int[] queryTrigrams = trigrams(tokens);
+        int[] shared = sharedCounts.get();
+        int[] touched = new int[64];
+        int touchedCount = 0;
+        for (int trigram : queryTrigrams) {
+            for (int id : postings[trigram]) {
+                if (shared[id]++ == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = id;
+                }
+            }
+        }
+        for (int i = 0; i < touchedCount; i++) {
+            int id = touched[i];
+            double dice = 2.0 * shared[id] / (queryTrigrams.length + nameTrigramCount[id]);
+            shared[id] = 0;
+            if (dice >= minScore) {
+                offer(best, subject, name, id, dice, "FUZZY");
+            }
+        }
+
+        if (PHONETIC_SCORE >= minScore) {
+            for (int id : phoneticKeys.getOrDefault(phoneticKey(tokens), NO_POSTINGS)) {
+                offer(best, subject, name, id, PHONETIC_SCORE, "PHONETIC");
+            }
+        }
+
+        return best.values().stream()
+                .sorted(Comparator.comparingDouble(ScreeningMatch::score).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private void offer(Map<Integer, ScreeningMatch> best, String subject, String screenedName,
+                       int nameId, double score, String matchType) {
+        int entryIndex = nameEntry[nameId];
+        ScreeningMatch current = best.get(entryIndex);
+        if (current != null && current.score() >= score) {
+            return;
+        }
+        ScreeningListEntry entry = entries.get(entryIndex);
+        best.put(entryIndex, new ScreeningMatch(subject, screenedName, entry.listName(), entry.id(), entry.name(),
+                names[nameId], entry.type(), entry.programs(), Math.min(1.0, score), matchType));
+    }
+
+    /**
+     * Normalised, de-noised tokens in sorted order.
+     */
+    static String[] tokens(String name) {
+        if (name == null) {
+            return new String[0];
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFKD)).replaceAll("");
+        String[] tokens = NON_ALPHANUMERIC.split(folded.toUpperCase(Locale.ROOT).trim());
+        return Arrays.stream(tokens)
+                .filter(token -> !token.isEmpty() && !NOISE_TOKENS.contains(token))
+                .sorted()
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Distinct trigram codes of each token padded with one leading and one trailing blank.
+     */
+    private static int[] trigrams(String[] tokens) {
+        int[] codes = new int[16];
+        int size = 0;
+        for (String token : tokens) {
+            int previous2 = 0;
+            int previous1 = 0;
+            for (int i = 0; i <= token.length(); i++) {
+                int current = i < token.length() ? charCode(token.charAt(i)) : 0;
+                if (i > 0 || token.length() == 1) {
+                    if (size == codes.length) {
+                        codes = Arrays.copyOf(codes, size * 2);
+                    }
+                    codes[size++] = (previous2 * ALPHABET + previous1) * ALPHABET + current;
+                }
+                previous2 = previous1;
+                previous1 = current;
+            }
+        }
+        return Arrays.stream(codes, 0, size).distinct().toArray();
+    }
+
+    private static int charCode(char c) {
+        return c >= 'A' && c <= 'Z' ? c - 'A' + 1 : c - '0' + 27;
+    }
+
+    private static String phoneticKey(String[] tokens) {
+        String[] codes = new String[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            codes[i] = soundex(tokens[i]);
+        }
+        Arrays.sort(codes);
+        return String.join(" ", codes);
+    }
+
+    /**
+     * American Soundex; tokens containing digits are kept verbatim.
+     */
+    static String soundex(String token) {
+        if (!token.chars().allMatch(c -> c >= 'A' && c <= 'Z')) {
+            return token;
+        }
+        StringBuilder code = new StringBuilder(4).append(token.charAt(0));
+        char last = soundexDigit(token.charAt(0));
+        for (int i = 1; i < token.length() && code.length() < 4; i++) {
+            char c = token.charAt(i);
+            char digit = soundexDigit(c);
+            if (digit != '0' && digit != last) {
+                code.append(digit);
+            }
+            // H and W do not separate letters with the same code; vowels do
+            if (c != 'H' && c != 'W') {
+                last = digit;
+            }
+        }
+        while (code.length() < 4) {
+            code.append('0');
+        }
+        return code.toString();
+    }
+
+    private static char soundexDigit(char c) {
+        return switch (c) {
+            case 'B', 'F', 'P', 'V' -> '1';
+            case 'C', 'G', 'J', 'K', 'Q', 'S', 'X', 'Z' -> '2';
+            case 'D', 'T' -> '3';
+            case 'L' -> '4';
+            case 'M', 'N' -> '5';
+            case 'R' -> '6';
+            default -> '0';
+        };
+    }
+
+    private static Map<String, int[]> toArrays(Map<String, List<Integer>> keys) {
+        Map<String, int[]> arrays = new HashMap<>(keys.size() * 2);
+        keys.forEach((key, ids) -> arrays.put(key, ids.stream().mapToInt(Integer::intValue).toArray()));
+        return arrays;
+    }
+
+    /**
+     * Read one list file into {@code entries} (pass a LinkedHashMap to keep file order), keyed by list name and entry id so an OFAC alternate-names
+     * file adds aliases to the entries of the SDN file loaded under the same list name.
+     */
+    public static void load(String listName, Path path, Map<String, ScreeningListEntry> entries) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line == null) {
+                return;
+            }
+            List<String> first = parseCsvLine(line);
+            Map<String, Integer> header = null;
+            if (first.stream().anyMatch(column -> column.trim().equalsIgnoreCase("name"))) {
+                header = new HashMap<>();
+                for (int i = 0; i < first.size(); i++) {
+                    header.put(first.get(i).trim().toLowerCase(Locale.ROOT), i);
+                }
+                line = reader.readLine();
+            }
+
+            for (; line != null; line = reader.readLine()) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> row = parseCsvLine(line);
+                if (header != null) {
+                    addHeaderRow(listName, header, row, entries);
+                } else if (row.size() == 5) {
+                    addOfacAlternateName(listName, row, entries);
+                } else if (row.size() >= 4) {
+                    String id = value(row, 0);
+                    ScreeningListEntry existing = entries.get(listName + ":" + id);
+                    entries.put(listName + ":" + id, new ScreeningListEntry(listName, id, value(row, 1),
+                            value(row, 2) != null ? value(row, 2).toLowerCase(Locale.ROOT) : "entity",
+                            value(row, 3), existing != null ? existing.aliases() : new ArrayList<>()));
+                }
+            }
+        }
+    }
+
+    private static void addHeaderRow(String listName, Map<String, Integer> header, List<String> row,
+                                     Map<String, ScreeningListEntry> entries) {
+        String name = column(row, header, "name");
+        if (name == null) {
+            return;
+        }
+        String id = column(row, header, "id");
+        if (id == null) {
+            id = Integer.toString(entries.size() + 1);
+        }
+        List<String> aliases = new ArrayList<>();
+        String aliasColumn = column(row, header, "aliases");
+        if (aliasColumn != null) {
+            Arrays.stream(aliasColumn.split(";")).map(String::trim).filter(alias -> !alias.isEmpty()).forEach(aliases::add);
+        }
+        String type = column(row, header, "type");
+        entries.put(listName + ":" + id, new ScreeningListEntry(listName, id, name,
+                type != null ? type.toLowerCase(Locale.ROOT) : "individual", column(row, header, "program"), aliases));
+    }
+
+    private static void addOfacAlternateName(String listName, List<String> row, Map<String, ScreeningListEntry> entries) {
+        String id = value(row, 0);
+        String alias = value(row, 3);
+        if (id == null || alias == null) {
+            return;
+        }
+        entries.computeIfAbsent(listName + ":" + id,
+                key -> new ScreeningListEntry(listName, id, alias, "entity", null, new ArrayList<>()))
+                .aliases().add(alias);
+    }
+
+    private static String column(List<String> row, Map<String, Integer> header, String name) {
+        Integer index = header.get(name);
+        return index != null ? value(row, index) : null;
+    }
+
+    private static String value(List<String> row, int index) {
+        if (index >= row.size()) {
+            return null;
+        }
+        String value = row.get(index).trim();
+        return value.isEmpty() || "-0-".equals(value) ? null : value;
+    }
+
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
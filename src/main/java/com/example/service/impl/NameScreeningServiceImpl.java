@@ -0,0 +1,230 @@
+package com.example.service.impl;
+
+import com.example.model.Account;
+import com.example.model.Customer;
+import com.example.model.dto.ScreeningListEntry;
+import com.example.model.dto.ScreeningMatch;
+import com.example.repository.AccountRepository;
+import com.example.repository.CustomerRepository;
+import com.example.service.NameScreeningService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the current {@link NameScreeningIndex} built from the configured list files and swaps in a new one
+ * when any file's modification time changes, so screening never waits for a reload.
+ * A reload that finds a configured file missing, or far fewer entries than the current index, is rejected
+ * and the current index stays in use: screening against a partial list would silently clear sanctioned names.
+ */
+@Service
+@Slf4j
+public class NameScreeningServiceImpl implements NameScreeningService {
+
+    private final AccountRepository accountRepository;
+    private final CustomerRepository customerRepository;
+    private final Map<Path, String> lists = new LinkedHashMap<>(); // file -> list name
+    private final double minScore;
+    private final int maxMatchesPerName;
+    private final int maxParties;
+    private final double maxEntryDrop;
+    private final Timer screeningTimer;
+    private final Counter rejectedMissingFile;
+    private final Counter rejectedEntryDrop;
+    private final Counter rejectedLoadError;
+
+    private volatile NameScreeningIndex index = new NameScreeningIndex(List.of());
+    private volatile Map<Path, FileTime> loadedModifiedTimes = Map.of();
+    // Files as they were at the last rejected reload, so an unchanged rejected state is not reloaded on every check
+    private volatile Map<Path, FileTime> rejectedModifiedTimes = Map.of();
+
+    public NameScreeningServiceImpl(AccountRepository accountRepository,
+                                    CustomerRepository customerRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${screening.lists:}") String lists,
+                                    @Value("${screening.min-score:0.8}") double minScore,
+                                    @Value("${screening.max-matches-per-name:3}") int maxMatchesPerName,
+                                    @Value("${screening.max-parties:200}") int maxParties,
+                                    @Value("${screening.max-entry-drop:0.2}") double maxEntryDrop) {
+        this.accountRepository = accountRepository;
+        this.customerRepository = customerRepository;
+        // "LIST_NAME:path" pairs; files sharing a list name (e.g. OFAC SDN and its alternate names) are merged
+        for (String list : lists.split(",")) {
+            String trimmed = list.trim();
+            int separator = trimmed.indexOf(':');
+            if (separator > 0) {
+                this.lists.put(Paths.get(trimmed.substring(separator + 1).trim()), trimmed.substring(0, separator).trim());
+            } else if (!trimmed.isEmpty()) {
+                Path path = Paths.get(trimmed);
+                this.lists.put(path, path.getFileName().toString().replaceFirst("\\.[^.]*$", "").toUpperCase());
+            }
+        }
+        this.minScore = minScore;
+        this.maxMatchesPerName = maxMatchesPerName;
+        this.maxParties = maxParties;
+        this.maxEntryDrop = maxEntryDrop;
+        this.screeningTimer = meterRegistry.timer("screening.name.latency");
+        this.rejectedMissingFile = meterRegistry.counter("screening.reload.rejected", "reason", "missing_file");
+        this.rejectedEntryDrop = meterRegistry.counter("screening.reload.rejected", "reason", "entry_drop");
+        this.rejectedLoadError = meterRegistry.counter("screening.reload.rejected", "reason", "load_error");
+        meterRegistry.gauge("screening.list.entries", this, service -> service.index.getEntryCount());
+    }
+
+    @PostConstruct
+    void init() {
+        reload();
+    }
+
+    @Override
+    public List<ScreeningMatch> screen(String subject, String name) {
+        long started = System.nanoTime();
+        try {
+            return index.search(subject, name, minScore, maxMatchesPerName);
+        } finally {
+            screeningTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public List<ScreeningMatch> screenParties(Customer customer, Collection<String> merchantNames,
+                                              Collection<String> counterpartyAccounts) {
+        if (index.getEntryCount() == 0) {
+            return List.of();
+        }
+        List<ScreeningMatch> matches = new ArrayList<>(
+                screen("customer", customer.getFirstName() + " " + customer.getLastName()));
+        merchantNames.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .limit(maxParties)
+                .forEach(merchant -> matches.addAll(screen("merchant", merchant)));
+        Set<String> counterparties = counterpartyAccounts.stream()
+                .filter(counterparty -> counterparty != null && !counterparty.isBlank())
+                .limit(maxParties)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        for (String owner : counterpartyOwners(counterparties)) {
+            matches.addAll(screen("counterparty", owner));
+        }
+
+        matches.sort(Comparator.comparingDouble(ScreeningMatch::score).reversed());
+        return matches;
+    }
+
+    @Override
+    public int getEntryCount() {
+        return index.getEntryCount();
+    }
+
+    @Override
+    public synchronized void reload() {
+        if (lists.isEmpty()) {
+            log.info("No sanctions or PEP lists configured in screening.lists, name screening is disabled");
+            return;
+        }
+        long started = System.nanoTime();
+        NameScreeningIndex current = index;
+        Map<String, ScreeningListEntry> entries = new LinkedHashMap<>();
+        Map<Path, FileTime> modifiedTimes = new HashMap<>();
+        try {
+            for (Map.Entry<Path, String> list : lists.entrySet()) {
+                Path path = list.getKey();
+                if (!Files.exists(path)) {
+                    if (current.getEntryCount() > 0) {
+                        rejectedMissingFile.increment();
+                        rejectedModifiedTimes = currentModifiedTimes();
+                        log.error("Screening list {} not found at {}, keeping previous index of {} entries",
+                                list.getValue(), path, current.getEntryCount());
+                        return;
+                    }
+                    log.error("Screening list {} not found at {}", list.getValue(), path);
+                    continue;
+                }
+                modifiedTimes.put(path, Files.getLastModifiedTime(path));
+                NameScreeningIndex.load(list.getValue(), path, entries);
+            }
+            NameScreeningIndex loaded = new NameScreeningIndex(new ArrayList<>(entries.values()));
+            if (loaded.getEntryCount() < current.getEntryCount() * (1 - maxEntryDrop)) {
+                rejectedEntryDrop.increment();
+                rejectedModifiedTimes = modifiedTimes;
+                log.error("Screening lists {} have {} entries, down from {}; keeping previous index. "
+                                + "Restart to accept a legitimately smaller list or raise screening.max-entry-drop",
+                        lists.keySet(), loaded.getEntryCount(), current.getEntryCount());
+                return;
+            }
+            index = loaded;
+            loadedModifiedTimes = modifiedTimes;
+            rejectedModifiedTimes = Map.of();
+            log.info("Loaded {} screening entries ({} names) from {} in {} ms", loaded.getEntryCount(),
+                    loaded.getNameCount(), lists.keySet(), (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            rejectedLoadError.increment();
+            log.error("Failed to load screening lists from {}, keeping previous index", lists.keySet(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${screening.reload-interval-ms:60000}")
+    void reloadIfChanged() {
+        try {
+            Map<Path, FileTime> modifiedTimes = currentModifiedTimes();
+            if (modifiedTimes.equals(loadedModifiedTimes) || modifiedTimes.equals(rejectedModifiedTimes)) {
+                return;
+            }
+            log.info("Screening lists {} changed, reloading", lists.keySet());
+            reload();
+        } catch (Exception e) {
+            log.warn("Error checking screening lists for changes", e);
+        }
+    }
+
+    private Map<Path, FileTime> currentModifiedTimes() throws IOException {
+        Map<Path, FileTime> modifiedTimes = new HashMap<>();
+        for (Path path : lists.keySet()) {
+            if (Files.exists(path)) {
+                modifiedTimes.put(path, Files.getLastModifiedTime(path));
+            }
+        }
+        return modifiedTimes;
+    }
+
+    /**
+     * Names of the customers owning internal counterparty accounts; external accounts have no name to screen.
+     */
+    private List<String> counterpartyOwners(Set<String> counterparties) {
+        if (counterparties.isEmpty()) {
+            return List.of();
+        }
+        Set<String> customerIds = accountRepository.findByAccountNumberIn(counterparties).stream()
+                .map(Account::getCustomerId)
+                .collect(Collectors.toSet());
+        if (customerIds.isEmpty()) {
+            return List.of();
+        }
+        return customerRepository.findByCustomerIdIn(customerIds).stream()
+                .map(owner -> owner.getFirstName() + " " + owner.getLastName())
+                .distinct()
+                .toList();
+    }
+}
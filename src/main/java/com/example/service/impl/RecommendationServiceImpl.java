@@ -3,6 +3,7 @@ package com.example.service.impl;
 import com.example.model.Account;
 import com.example.model.Customer;
 import com.example.model.Transaction;
+import com.example.model.TransactionStatistics;
 import com.example.model.dto.RecommendationRequest;
 import com.example.model.dto.RecommendationResponse;
 import com.example.repository.AccountRepository;
@@ -209,12 +210,12 @@ public class RecommendationServiceImpl implements RecommendationService {
             return "No transaction history";
         }
 
-        Map<String, Long> categoryCount = transactions.stream()
-                .collect(Collectors.groupingBy(Transaction::getMerchantCategory, Collectors.counting()));
+        TransactionStatistics stats = transactions.stream().collect(TransactionStatistics.collector());
 
         StringBuilder pattern = new StringBuilder("Transaction patterns: ");
-        categoryCount.forEach((category, count) ->
+        stats.getCountsByCategory().forEach((category, count) ->
                 pattern.append(String.format("%s (%d), ", category, count)));
+        pattern.append(String.format("Debits: %s, Credits: %s", stats.getDebitTotal(), stats.getCreditTotal()));
 
         return pattern.toString();
     }
@@ -0,0 +1,125 @@
+package com.example.service.impl;
+
+import com.example.event.TransactionSavedEvent;
+import com.example.model.RiskAssessment;
+import com.example.repository.RiskAssessmentRepository;
+import com.example.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-through cache of the latest risk assessment per account, backed by the risk_assessments table.
+ * An assessment is reused only while it is inside the freshness window, was made for the same customer,
+ * and carries the same context signature (account status, customer KYC status and risk profile, and
+ * whether transaction history was included). A saved transaction evicts the account's entry on this instance;
+ * every lookup, hit or not, also checks for transactions created since the assessment's context was read, which
+ * catches those saved through other replicas whose events this instance never sees, and those saved while the
+ * assessment was being made.
+ */
+@Component
+@Slf4j
+public class RiskAssessmentCache {
+
+    private final RiskAssessmentRepository riskAssessmentRepository;
+    private final TransactionRepository transactionRepository;
+    private final boolean enabled;
+    private final Duration freshness;
+    private final Map<String, RiskAssessment> latest = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+
+    public RiskAssessmentCache(RiskAssessmentRepository riskAssessmentRepository,
+                               TransactionRepository transactionRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${risk-assessment.cache.enabled:true}") boolean enabled,
+                               @Value("${risk-assessment.cache.freshness-minutes:1440}") long freshnessMinutes) {
+        this.riskAssessmentRepository = riskAssessmentRepository;
+        this.transactionRepository = transactionRepository;
+        this.enabled = enabled;
+        this.freshness = Duration.ofMinutes(freshnessMinutes);
+
+        this.hits = meterRegistry.counter("risk.assessment.cache", "result", "hit");
+        this.misses = meterRegistry.counter("risk.assessment.cache", "result", "miss");
+        this.invalidations = meterRegistry.counter("risk.assessment.cache.invalidations");
+        meterRegistry.gauge("risk.assessment.cache.size", latest, Map::size);
+    }
+
+    /**
+     * The latest assessment for the account if it can be served without re-assessing.
+     */
+    public Optional<RiskAssessment> getFresh(String accountNumber, String customerId, String contextSignature) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        RiskAssessment assessment = latest.get(accountNumber);
+        if (assessment == null) {
+            assessment = riskAssessmentRepository.findFirstByAccountNumberOrderByAssessmentDateDesc(accountNumber)
+                    .filter(this::isFresh)
+                    .orElse(null);
+            if (assessment == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+            latest.put(accountNumber, assessment);
+        }
+
+        if (!isFresh(assessment)
+                || !customerId.equals(assessment.getCustomerId())
+                || !contextSignature.equals(assessment.getContextSignature())
+                // Eviction events are local to this instance; an indexed existence check covers the rest
+                || transactionRepository.existsByAccountNumberAndCreatedAtAfter(
+                        accountNumber, contextAsOf(assessment))) {
+            invalidate(accountNumber);
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(assessment);
+    }
+
+    public void put(RiskAssessment assessment) {
+        if (enabled) {
+            latest.put(assessment.getAccountNumber(), assessment);
+        }
+    }
+
+    public void invalidate(String accountNumber) {
+        if (latest.remove(accountNumber) != null) {
+            invalidations.increment();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionSaved(TransactionSavedEvent event) {
+        invalidate(event.transaction().getAccountNumber());
+    }
+
+    /**
+     * Drop entries that have aged out of the freshness window.
+     */
+    @Scheduled(fixedDelayString = "${risk-assessment.cache.cleanup-interval-ms:600000}")
+    void evictExpired() {
+        latest.values().removeIf(assessment -> !isFresh(assessment));
+    }
+
+    private static LocalDateTime contextAsOf(RiskAssessment assessment) {
+        return assessment.getContextAsOf() != null ? assessment.getContextAsOf() : assessment.getAssessmentDate();
+    }
+
+    private boolean isFresh(RiskAssessment assessment) {
+        return assessment.getAssessmentDate().isAfter(LocalDateTime.now().minus(freshness));
+    }
+}
@@ -4,13 +4,20 @@ import com.example.model.Account;
 import com.example.model.Customer;
 import com.example.model.RiskAssessment;
 import com.example.model.Transaction;
+import com.example.model.TransactionStatistics;
 import com.example.model.dto.RiskAssessmentRequest;
 import com.example.model.dto.RiskAssessmentResponse;
+import com.example.model.dto.RiskFeatureVector;
 import com.example.repository.AccountRepository;
 import com.example.repository.CustomerRepository;
 import com.example.repository.RiskAssessmentRepository;
 import com.example.repository.TransactionRepository;
+import com.example.service.CohortPercentileService;
 import com.example.service.RiskAssessmentService;
+import com.example.service.RiskScoreHistoryService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
@@ -28,11 +35,26 @@ import java.util.stream.Collectors;
 @Slf4j
 public class RiskAssessmentServiceImpl implements RiskAssessmentService {
     
+    private static final String RESPONSE_FORMAT = """
+            Provide your assessment in the following format:
+            OVERALL_RISK_LEVEL: [LOW/MEDIUM/HIGH/CRITICAL]
+            OVERALL_RISK_SCORE: [0.0 to 1.0]
+            ANALYSIS: [Detailed risk analysis]
+            RISK_FACTORS: [Comma-separated list of identified risk factors]
+            RECOMMENDATIONS: [Comma-separated list of risk mitigation recommendations]
+            """;
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {};
+    
     private final ChatClient chatClient;
     private final AccountRepository accountRepository;
     private final CustomerRepository customerRepository;
     private final TransactionRepository transactionRepository;
     private final RiskAssessmentRepository riskAssessmentRepository;
+    private final CohortPercentileService cohortPercentileService;
+    private final RiskAssessmentCache riskAssessmentCache;
+    private final RiskChangeGate riskChangeGate;
+    private final RiskScoreHistoryService riskScoreHistoryService;
+    private final ObjectMapper objectMapper;
     
     @Override
     @Transactional
@@ -40,17 +62,105 @@ public class RiskAssessmentServiceImpl implements RiskAssessmentService {
         log.info("Assessing risk for account: {}, customer: {}", 
                 request.getAccountNumber(), request.getCustomerId());
         
+        // Before any data is read, so transactions saved while the assessment is made invalidate it
+        LocalDateTime contextAsOf = LocalDateTime.now();
         var account = accountRepository.findByAccountNumber(request.getAccountNumber())
                 .orElseThrow(() -> new IllegalArgumentException("Account not found"));
         
         var customer = customerRepository.findByCustomerId(request.getCustomerId())
                 .orElseThrow(() -> new IllegalArgumentException("Customer not found"));
         
+        // Reuse the latest assessment while it is fresh and nothing it was based on has changed
+        boolean includeHistory = Boolean.TRUE.equals(request.getIncludeTransactionHistory());
+        String contextSignature = contextSignature(account, customer, includeHistory);
+        if (!Boolean.TRUE.equals(request.getForceRefresh())) {
+            Optional<RiskAssessment> cached = riskAssessmentCache.getFresh(
+                    request.getAccountNumber(), request.getCustomerId(), contextSignature);
+            if (cached.isPresent()) {
+                log.info("Serving cached risk assessment for account {} from {}",
+                        request.getAccountNumber(), cached.get().getAssessmentDate());
+                return toResponse(cached.get(), true);
+            }
+        }
+        
+        RiskAssessment riskAssessment = evaluate(account, customer, includeHistory, contextSignature, contextAsOf);
+        RiskAssessment saved = riskAssessmentRepository.save(riskAssessment);
+        riskAssessmentCache.put(saved);
+        riskScoreHistoryService.record(saved);
+        
+        return toResponse(riskAssessment, false);
+    }
+    
+    @Override
+    public RiskAssessment evaluate(String accountNumber) {
+        LocalDateTime contextAsOf = LocalDateTime.now();
+        var account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + accountNumber));
+        var customer = customerRepository.findByCustomerId(account.getCustomerId())
+                .orElseThrow(() -> new IllegalArgumentException("Customer not found: " + account.getCustomerId()));
+        return evaluate(account, customer, true, contextSignature(account, customer, true), contextAsOf);
+    }
+    
+    private RiskAssessment evaluate(Account account, Customer customer, boolean includeHistory,
+                                    String contextSignature, LocalDateTime contextAsOf) {
+        // Skip the LLM when nothing material has changed since the previous assessment
+        RiskFeatureVector features = riskChangeGate.features(account, customer);
+        RiskAssessment previous = riskAssessmentRepository
+                .findFirstByAccountNumberOrderByAssessmentDateDesc(account.getAccountNumber())
+                .orElse(null);
+        RiskChangeGate.Decision decision = riskChangeGate.decide(previous, features, contextSignature);
+        if (decision.reuse()) {
+            log.info("Risk features for account {} moved {} since the previous assessment; reusing its result",
+                    account.getAccountNumber(), String.format("%.3f", decision.distance()));
+            return RiskAssessment.builder()
+                    .accountNumber(account.getAccountNumber())
+                    .customerId(customer.getCustomerId())
+                    .overallRiskLevel(previous.getOverallRiskLevel())
+                    .overallRiskScore(previous.getOverallRiskScore())
+                    .aiAnalysis(previous.getAiAnalysis())
+                    .riskFactors(previous.getRiskFactors())
+                    .recommendations(previous.getRecommendations())
+                    .assessmentDate(LocalDateTime.now())
+                    .contextAsOf(contextAsOf)
+                    .contextSignature(contextSignature)
+                    // Keep comparing against the features the LLM saw, so small drifts cannot accumulate unnoticed
+                    .featureVector(previous.getFeatureVector())
+                    .featureDistance(decision.distance())
+                    .basedOnAssessmentId(previous.getBasedOnAssessmentId() != null
+                            ? previous.getBasedOnAssessmentId() : previous.getId())
+                    .build();
+        }
+        
+        // With a comparable previous assessment, send only what changed; otherwise the full context
+        Prompt prompt = decision.previousFeatures() != null
+                ? buildChangePrompt(previous, features.describeChanges(decision.previousFeatures()))
+                : buildFullPrompt(account, customer, includeHistory);
+        String aiResponse = chatClient.prompt(prompt).call().content();
+        
+        // Parse AI response
+        RiskAssessmentResult result = parseRiskAssessment(aiResponse);
+        
+        return RiskAssessment.builder()
+                .accountNumber(account.getAccountNumber())
+                .customerId(customer.getCustomerId())
+                .overallRiskLevel(result.riskLevel)
+                .overallRiskScore(result.riskScore)
+                .aiAnalysis(result.analysis)
+                .riskFactors(toJson(result.riskFactors))
+                .recommendations(toJson(result.recommendations))
+                .assessmentDate(LocalDateTime.now())
+                .contextAsOf(contextAsOf)
+                .contextSignature(contextSignature)
+                .featureVector(riskChangeGate.serialize(features))
+                .featureDistance(decision.distance())
+                .build();
+    }
+    
+    private Prompt buildFullPrompt(Account account, Customer customer, boolean includeHistory) {
         // Gather comprehensive data for risk assessment
-        List<Transaction> transactionHistory = request.getIncludeTransactionHistory() != null && 
-                request.getIncludeTransactionHistory()
+        List<Transaction> transactionHistory = includeHistory
                 ? transactionRepository.findRecentTransactionsByAccount(
-                        request.getAccountNumber(), LocalDateTime.now().minusMonths(6))
+                        account.getAccountNumber(), LocalDateTime.now().minusMonths(6))
                 : Collections.emptyList();
         
         // Build risk assessment context
@@ -70,49 +180,84 @@ public class RiskAssessmentServiceImpl implements RiskAssessmentService {
                 4. Compliance and regulatory considerations
                 5. Financial stability indicators
                 
-                Provide your assessment in the following format:
-                OVERALL_RISK_LEVEL: [LOW/MEDIUM/HIGH/CRITICAL]
-                OVERALL_RISK_SCORE: [0.0 to 1.0]
-                ANALYSIS: [Detailed risk analysis]
-                RISK_FACTORS: [Comma-separated list of identified risk factors]
-                RECOMMENDATIONS: [Comma-separated list of risk mitigation recommendations]
-                """;
+                """ + RESPONSE_FORMAT;
         
         PromptTemplate promptTemplate = new PromptTemplate(riskAssessmentPrompt);
         Map<String, Object> variables = new HashMap<>();
         variables.put("riskContext", riskContext);
+        return promptTemplate.create(variables);
+    }
+    
+    private Prompt buildChangePrompt(RiskAssessment previous, List<String> changes) {
+        String changePrompt = """
+                You are a senior risk analyst for a banking institution.
+                Update the previous risk assessment of this account given only what has changed since it was made.
+                
+                Previous Assessment ({previousDate}):
+                - Overall Risk Level: {previousLevel}
+                - Overall Risk Score: {previousScore}
+                - Risk Factors: {previousFactors}
+                - Recommendations: {previousRecommendations}
+                
+                Changes Since Then:
+                {changes}
+                
+                Keep the previous level and factors unless the changes justify revising them.
+                
+                """ + RESPONSE_FORMAT;
         
-        Prompt prompt = promptTemplate.create(variables);
-        String aiResponse = chatClient.prompt(prompt).call().content();
-        
-        // Parse AI response
-        RiskAssessmentResult result = parseRiskAssessment(aiResponse);
-        
-        // Save risk assessment
-        RiskAssessment riskAssessment = RiskAssessment.builder()
-                .accountNumber(request.getAccountNumber())
-                .customerId(request.getCustomerId())
-                .overallRiskLevel(result.riskLevel)
-                .overallRiskScore(result.riskScore)
-                .aiAnalysis(result.analysis)
-                .riskFactors(result.riskFactors.toString())
-                .recommendations(result.recommendations.toString())
-                .assessmentDate(LocalDateTime.now())
-                .build();
-        
-        riskAssessmentRepository.save(riskAssessment);
-        
+        PromptTemplate promptTemplate = new PromptTemplate(changePrompt);
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("previousDate", previous.getAssessmentDate());
+        variables.put("previousLevel", previous.getOverallRiskLevel());
+        variables.put("previousScore", previous.getOverallRiskScore());
+        variables.put("previousFactors", String.join("; ", parseStoredList(previous.getRiskFactors())));
+        variables.put("previousRecommendations", String.join("; ", parseStoredList(previous.getRecommendations())));
+        variables.put("changes", changes.isEmpty() ? "- No material changes"
+                : changes.stream().map(change -> "- " + change).collect(Collectors.joining("\n")));
+        return promptTemplate.create(variables);
+    }
+    
+    private static String contextSignature(Account account, Customer customer, boolean includeHistory) {
+        return String.join("|", account.getStatus(), customer.getKycStatus(), customer.getRiskProfile(),
+                "history=" + includeHistory);
+    }
+    
+    private RiskAssessmentResponse toResponse(RiskAssessment assessment, boolean cached) {
         return RiskAssessmentResponse.builder()
-                .accountNumber(request.getAccountNumber())
-                .customerId(request.getCustomerId())
-                .overallRiskLevel(result.riskLevel)
-                .overallRiskScore(result.riskScore)
-                .aiAnalysis(result.analysis)
-                .riskFactors(result.riskFactors)
-                .recommendations(result.recommendations)
+                .accountNumber(assessment.getAccountNumber())
+                .customerId(assessment.getCustomerId())
+                .overallRiskLevel(assessment.getOverallRiskLevel())
+                .overallRiskScore(assessment.getOverallRiskScore())
+                .aiAnalysis(assessment.getAiAnalysis())
+                .riskFactors(parseStoredList(assessment.getRiskFactors()))
+                .recommendations(parseStoredList(assessment.getRecommendations()))
+                .assessmentDate(assessment.getAssessmentDate())
+                .cached(cached)
+                .featureDistance(assessment.getFeatureDistance())
+                .llmSkipped(assessment.getBasedOnAssessmentId() != null)
                 .build();
     }
     
+    // Lists are stored as JSON arrays, so items keep any commas or brackets they contain
+    private String toJson(List<String> items) {
+        try {
+            return objectMapper.writeValueAsString(items);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialise risk assessment list", e);
+        }
+    }
+    
+    private List<String> parseStoredList(String stored) {
+        try {
+            return objectMapper.readValue(stored, STRING_LIST);
+        } catch (JsonProcessingException e) {
+            // Rows written before JSON storage hold List.toString() form: "[a, b]"
+            String body = stored.startsWith("[") && stored.endsWith("]") ? stored.substring(1, stored.length() - 1) : stored;
+            return body.isBlank() ? List.of() : Arrays.stream(body.split(",")).map(String::trim).toList();
+        }
+    }
+    
     private String buildRiskContext(Account account, Customer customer, List<Transaction> transactions) {
         StringBuilder context = new StringBuilder();
         
@@ -145,26 +290,21 @@ public class RiskAssessmentServiceImpl implements RiskAssessmentService {
         if (!transactions.isEmpty()) {
             context.append("Transaction History (Last 6 months):\n");
             
-            // Calculate transaction statistics
-            long totalTransactions = transactions.size();
-            long debitCount = transactions.stream()
-                    .filter(t -> "DEBIT".equals(t.getTransactionType()))
-                    .count();
-            long creditCount = transactions.stream()
-                    .filter(t -> "CREDIT".equals(t.getTransactionType()))
-                    .count();
-            
-            // Category distribution
-            Map<String, Long> categoryCount = transactions.stream()
-                    .collect(Collectors.groupingBy(Transaction::getMerchantCategory, Collectors.counting()));
+            // Counts, totals and category distribution in a single pass
+            TransactionStatistics stats = transactions.stream().collect(TransactionStatistics.collector());
             
             context.append(String.format("""
                     - Total Transactions: %d
-                    - Debits: %d
-                    - Credits: %d
+                    - Debits: %d (total %s)
+                    - Credits: %d (total %s)
+                    - Flagged: %d, Pending: %d
                     - Category Distribution: %s
+                    - Cohort Spend Percentiles: %s
                     
-                    """, totalTransactions, debitCount, creditCount, categoryCount));
+                    """, stats.getCount(), stats.getDebitCount(), stats.getDebitTotal(),
+                    stats.getCreditCount(), stats.getCreditTotal(),
+                    stats.getFlaggedCount(), stats.getPendingCount(), stats.getCountsByCategory(),
+                    cohortPercentileService.describeSpend(account)));
             
             // Recent unusual transactions
             List<Transaction> unusualTransactions = transactions.stream()
@@ -0,0 +1,112 @@
+package com.example.service.impl;
+
+import com.example.model.Account;
+import com.example.model.Customer;
+import com.example.model.RiskAssessment;
+import com.example.model.dto.RiskFeatureVector;
+import com.example.model.dto.TransactionPeriodTotals;
+import com.example.repository.TransactionRepository;
+import com.example.service.TransactionRollupService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Decides whether a risk reassessment needs the LLM. Features come from the daily rollups and one indexed
+ * count, so computing them costs far less than the prompt they can save. The previous assessment is reused
+ * when the feature distance stays below the threshold and it was made from the same context.
+ */
+@Component
+@Slf4j
+public class RiskChangeGate {
+
+    private final TransactionRollupService transactionRollupService;
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final double threshold;
+
+    private final Counter skipped;
+    private final Counter called;
+
+    public RiskChangeGate(TransactionRollupService transactionRollupService,
+                          TransactionRepository transactionRepository,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${risk-assessment.change-gate.enabled:true}") boolean enabled,
+                          @Value("${risk-assessment.change-gate.threshold:0.15}") double threshold) {
+        this.transactionRollupService = transactionRollupService;
+        this.transactionRepository = transactionRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.skipped = meterRegistry.counter("risk.assessment.llm", "result", "skipped");
+        this.called = meterRegistry.counter("risk.assessment.llm", "result", "called");
+    }
+
+    /**
+     * Outcome of comparing the current features with the previous assessment's.
+     *
+     * @param previousFeatures features of the previous assessment, or null when there is nothing to compare to
+     * @param distance         distance from the previous features, 1.0 when there are none
+     * @param reuse            whether the previous result can be reused without an LLM call
+     */
+    public record Decision(RiskFeatureVector previousFeatures, double distance, boolean reuse) {}
+
+    public RiskFeatureVector features(Account account, Customer customer) {
+        LocalDateTime now = LocalDateTime.now();
+        TransactionPeriodTotals recent = transactionRollupService
+                .getPeriodTotals(account.getAccountNumber(), now.minusDays(30), now);
+        long flagged = transactionRepository.countByAccountNumberAndStatusAndTransactionDateAfter(
+                account.getAccountNumber(), "FRAUD_SUSPECTED", now.minusMonths(6));
+
+        Map<String, Double> mix = new LinkedHashMap<>();
+        if (recent.debitTotal().signum() > 0) {
+            recent.debitsByCategory().forEach((category, spend) -> mix.put(category,
+                    spend.divide(recent.debitTotal(), 3, RoundingMode.HALF_UP).doubleValue()));
+        }
+        return new RiskFeatureVector(account.getBalance(), recent.transactionCount(), flagged, mix,
+                account.getStatus(), customer.getKycStatus(), customer.getRiskProfile());
+    }
+
+    public Decision decide(RiskAssessment previous, RiskFeatureVector current, String contextSignature) {
+        RiskFeatureVector previousFeatures = previous != null ? parse(previous.getFeatureVector()) : null;
+        if (previousFeatures == null) {
+            called.increment();
+            return new Decision(null, 1.0, false);
+        }
+        double distance = current.distance(previousFeatures);
+        boolean reuse = enabled && distance < threshold && contextSignature.equals(previous.getContextSignature());
+        (reuse ? skipped : called).increment();
+        return new Decision(previousFeatures, distance, reuse);
+    }
+
+    public String serialize(RiskFeatureVector features) {
+        try {
+            return objectMapper.writeValueAsString(features);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialise risk features", e);
+        }
+    }
+
+    private RiskFeatureVector parse(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, RiskFeatureVector.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable stored risk features: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.example.service.impl;
+
+import com.example.config.InteractiveTrafficFilter;
+import com.example.model.BatchJobCheckpoint;
+import com.example.model.RiskAssessment;
+import com.example.model.dto.RiskRecomputationStatus;
+import com.example.repository.AccountRepository;
+import com.example.repository.BatchJobCheckpointRepository;
+import com.example.service.RiskAssessmentService;
+import com.example.service.RiskRecomputationService;
+import com.example.service.RiskScoreHistoryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Walks ACTIVE accounts in keyset chunks: first those with transactions since their latest assessment,
+ * then those whose latest assessment is older than the staleness window or missing. Each chunk is assessed
+ * with at most {@code llm-parallelism} concurrent LLM calls, and its results and the checkpoint are written
+ * in one transaction with a JDBC batch insert, so a restarted job resumes after the last committed chunk.
+ * Before each LLM call the job waits while API requests are in flight, so interactive traffic keeps priority.
+ * A run first claims the job's lease, so with several replicas only one runs or resumes it at a time.
+ */
+@Service
+@Slf4j
+public class RiskRecomputationServiceImpl implements RiskRecomputationService {
+
+    static final String JOB_NAME = "risk-recomputation";
+    private static final int PHASE_NEW_ACTIVITY = 1;
+    private static final int PHASE_STALE = 2;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final String INSERT_ASSESSMENT = "INSERT INTO risk_assessments (account_number, customer_id, " +
+            "overall_risk_level, overall_risk_score, ai_analysis, risk_factors, recommendations, assessment_date, " +
+            "context_signature, feature_vector, feature_distance, based_on_assessment_id, context_as_of, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final RiskAssessmentService riskAssessmentService;
+    private final RiskAssessmentCache riskAssessmentCache;
+    private final RiskScoreHistoryService riskScoreHistoryService;
+    private final AccountRepository accountRepository;
+    private final BatchJobCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InteractiveTrafficFilter interactiveTraffic;
+    private final BatchJobLeases jobLeases;
+
+    private final int chunkSize;
+    private final long staleAfterDays;
+    private final int yieldWhenInFlight;
+    private final long yieldPauseMillis;
+
+    private final ExecutorService jobExecutor;
+    private final ExecutorService llmExecutor;
+    private final Semaphore llmSlots;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Counter assessed;
+    private final Counter failed;
+    private final Counter yields;
+    private volatile long remaining;
+    private volatile double throughputPerMinute;
+
+    public RiskRecomputationServiceImpl(RiskAssessmentService riskAssessmentService,
+                                        RiskAssessmentCache riskAssessmentCache,
+                                        RiskScoreHistoryService riskScoreHistoryService,
+                                        AccountRepository accountRepository,
+                                        BatchJobCheckpointRepository checkpointRepository,
+                                        JdbcTemplate jdbcTemplate,
+                                        TransactionTemplate transactionTemplate,
+                                        InteractiveTrafficFilter interactiveTraffic,
+                                        BatchJobLeases jobLeases,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${risk-recompute.chunk-size:50}") int chunkSize,
+                                        @Value("${risk-recompute.llm-parallelism:4}") int llmParallelism,
+                                        @Value("${risk-recompute.stale-after-days:7}") long staleAfterDays,
+                                        @Value("${risk-recompute.yield-when-in-flight:1}") int yieldWhenInFlight,
+                                        @Value("${risk-recompute.yield-pause-ms:500}") long yieldPauseMillis) {
+        this.riskAssessmentService = riskAssessmentService;
+        this.riskAssessmentCache = riskAssessmentCache;
+        this.riskScoreHistoryService = riskScoreHistoryService;
+        this.accountRepository = accountRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.interactiveTraffic = interactiveTraffic;
+        this.jobLeases = jobLeases;
+        this.chunkSize = chunkSize;
+        this.staleAfterDays = staleAfterDays;
+        this.yieldWhenInFlight = yieldWhenInFlight;
+        this.yieldPauseMillis = yieldPauseMillis;
+
+        this.jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "risk-recompute");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.llmExecutor = Executors.newFixedThreadPool(llmParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "risk-recompute-llm");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        this.llmSlots = new Semaphore(llmParallelism);
+
+        this.assessed = meterRegistry.counter("risk.recompute.accounts", "result", "assessed");
+        this.failed = meterRegistry.counter("risk.recompute.accounts", "result", "failed");
+        this.yields = meterRegistry.counter("risk.recompute.yields");
+        meterRegistry.gauge("risk.recompute.remaining", this, service -> service.remaining);
+        meterRegistry.gauge("risk.recompute.throughput.per.minute", this, service -> service.throughputPerMinute);
+        meterRegistry.gauge("risk.recompute.eta.seconds", this, service -> {
+            Long eta = service.etaSeconds();
+            return eta != null ? eta : Double.NaN;
+        });
+    }
+
+    /**
+     * Resume a run that was interrupted by a restart. Checked at startup and then periodically, because the
+     * lease of an instance that stopped mid-run has to expire before another instance can take the run over.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${batch-jobs.resume-check-interval-ms:300000}",
+            fixedDelayString = "${batch-jobs.resume-check-interval-ms:300000}")
+    public void resumeInterruptedRun() {
+        if (running.get()) {
+            return;
+        }
+        checkpointRepository.findById(JOB_NAME)
+                .filter(checkpoint -> "RUNNING".equals(checkpoint.getStatus()))
+                .ifPresent(checkpoint -> {
+                    log.info("Resuming risk recomputation from phase {} after account {}",
+                            checkpoint.getPhase(), checkpoint.getLastKey());
+                    start();
+                });
+    }
+
+    @Scheduled(cron = "${risk-recompute.cron:0 0 3 * * *}")
+    public void scheduledRun() {
+        start();
+    }
+
+    @Override
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Risk recomputation already running");
+            return false;
+        }
+        if (!jobLeases.tryAcquire(JOB_NAME)) {
+            running.set(false);
+            log.info("Risk recomputation is running on another instance");
+            return false;
+        }
+        jobExecutor.execute(() -> {
+            try {
+                execute();
+            } catch (Exception e) {
+                log.error("Risk recomputation failed; it will resume from the last checkpoint", e);
+            } finally {
+                jobLeases.release(JOB_NAME);
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public RiskRecomputationStatus getStatus() {
+        RiskRecomputationStatus.RiskRecomputationStatusBuilder status = RiskRecomputationStatus.builder()
+                .running(running.get())
+                .remaining(remaining)
+                .throughputPerMinute(throughputPerMinute)
+                .etaSeconds(etaSeconds());
+        checkpointRepository.findById(JOB_NAME).ifPresentOrElse(checkpoint -> status
+                        .status(checkpoint.getStatus())
+                        .phase(checkpoint.getPhase())
+                        .lastAccountNumber(checkpoint.getLastKey())
+                        .processed(checkpoint.getProcessed())
+                        .failed(checkpoint.getFailed())
+                        .runStartedAt(checkpoint.getRunStartedAt())
+                        .completedAt(checkpoint.getCompletedAt()),
+                () -> status.status("NEVER_RUN"));
+        return status.build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobExecutor.shutdownNow();
+        llmExecutor.shutdownNow();
+    }
+
+    private void execute() throws InterruptedException {
+        BatchJobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME)
+                .filter(existing -> "RUNNING".equals(existing.getStatus()))
+                .orElseGet(() -> saveCheckpoint(BatchJobCheckpoint.builder()
+                        .jobName(JOB_NAME)
+                        .status("RUNNING")
+                        .phase(PHASE_NEW_ACTIVITY)
+                        .lastKey("")
+                        .runStartedAt(LocalDateTime.now())
+                        .build()));
+        // Anchored to the run start so a resumed run selects the same stale accounts
+        LocalDateTime assessedSince = checkpoint.getRunStartedAt().minusDays(staleAfterDays);
+        remaining = countRemaining(checkpoint, assessedSince);
+        log.info("Risk recomputation started: {} accounts to assess", remaining);
+
+        long started = System.nanoTime();
+        long processedThisRun = 0;
+        while (checkpoint.getPhase() <= PHASE_STALE) {
+            List<String> chunk = nextChunk(checkpoint, assessedSince);
+            if (chunk.isEmpty()) {
+                checkpoint.setPhase(checkpoint.getPhase() + 1);
+                checkpoint.setLastKey("");
+                checkpoint = saveCheckpoint(checkpoint);
+                continue;
+            }
+
+            List<RiskAssessment> results = assessChunk(chunk);
+            if (results.isEmpty()) {
+                // Most likely the LLM is unavailable; stop without advancing so the next run retries this chunk
+                throw new IllegalStateException("All " + chunk.size() + " assessments in chunk after "
+                        + checkpoint.getLastKey() + " failed");
+            }
+            checkpoint = commitChunk(checkpoint, chunk, results);
+            results.forEach(result -> riskAssessmentCache.invalidate(result.getAccountNumber()));
+
+            processedThisRun += chunk.size();
+            remaining = Math.max(0, remaining - chunk.size());
+            double minutes = (System.nanoTime() - started) / 60e9;
+            throughputPerMinute = minutes > 0 ? processedThisRun / minutes : 0.0;
+            log.info("Risk recomputation phase {} through {}: {} processed, {} failed, {} remaining, ETA {}s",
+                    checkpoint.getPhase(), checkpoint.getLastKey(), checkpoint.getProcessed(),
+                    checkpoint.getFailed(), remaining, etaSeconds());
+        }
+
+        checkpoint.setStatus("COMPLETED");
+        checkpoint.setCompletedAt(LocalDateTime.now());
+        saveCheckpoint(checkpoint);
+        remaining = 0;
+        log.info("Risk recomputation completed: {} assessed, {} failed",
+                checkpoint.getProcessed(), checkpoint.getFailed());
+    }
+
+    private List<String> nextChunk(BatchJobCheckpoint checkpoint, LocalDateTime assessedSince) {
+        PageRequest page = PageRequest.of(0, chunkSize);
+        return checkpoint.getPhase() == PHASE_NEW_ACTIVITY
+                ? accountRepository.findActiveWithNewActivity(checkpoint.getLastKey(), EPOCH, page)
+                : accountRepository.findActiveWithoutAssessmentSince(checkpoint.getLastKey(), assessedSince, page);
+    }
+
+    private long countRemaining(BatchJobCheckpoint checkpoint, LocalDateTime assessedSince) {
+        if (checkpoint.getPhase() == PHASE_NEW_ACTIVITY) {
+            // Accounts with new activity are assessed in this phase and drop out of the stale selection
+            return accountRepository.countActiveWithNewActivity(checkpoint.getLastKey(), EPOCH)
+                    + accountRepository.countActiveStaleWithoutNewActivity("", assessedSince, EPOCH);
+        }
+        return accountRepository.countActiveWithoutAssessmentSince(checkpoint.getLastKey(), assessedSince);
+    }
+
+    private List<RiskAssessment> assessChunk(List<String> chunk) throws InterruptedException {
+        List<Future<RiskAssessment>> futures = new ArrayList<>(chunk.size());
+        for (String accountNumber : chunk) {
+            yieldToInteractiveTraffic();
+            llmSlots.acquire();
+            futures.add(llmExecutor.submit(() -> {
+                try {
+                    return riskAssessmentService.evaluate(accountNumber);
+                } finally {
+                    llmSlots.release();
+                }
+            }));
+        }
+
+        List<RiskAssessment> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+                assessed.increment();
+            } catch (ExecutionException e) {
+                failed.increment();
+                log.warn("Risk recomputation failed for account {}: {}", chunk.get(i), e.getCause().getMessage());
+            }
+        }
+        return results;
+    }
+
+    private void yieldToInteractiveTraffic() throws InterruptedException {
+        while (interactiveTraffic.getInFlight() >= yieldWhenInFlight) {
+            yields.increment();
+            TimeUnit.MILLISECONDS.sleep(yieldPauseMillis);
+        }
+    }
+
+    private BatchJobCheckpoint commitChunk(BatchJobCheckpoint checkpoint, List<String> chunk,
+                                           List<RiskAssessment> results) {
+        checkpoint.setLastKey(chunk.get(chunk.size() - 1));
+        checkpoint.setProcessed(checkpoint.getProcessed() + results.size());
+        checkpoint.setFailed(checkpoint.getFailed() + chunk.size() - results.size());
+        return transactionTemplate.execute(status -> {
+            requireLease();
+            LocalDateTime now = LocalDateTime.now();
+            jdbcTemplate.batchUpdate(INSERT_ASSESSMENT, results, results.size(), (ps, assessment) -> {
+                ps.setString(1, assessment.getAccountNumber());
+                ps.setString(2, assessment.getCustomerId());
+                ps.setString(3, assessment.getOverallRiskLevel());
+                ps.setDouble(4, assessment.getOverallRiskScore());
+                ps.setString(5, assessment.getAiAnalysis());
+                ps.setString(6, assessment.getRiskFactors());
+                ps.setString(7, assessment.getRecommendations());
+                ps.setObject(8, assessment.getAssessmentDate());
+                ps.setString(9, assessment.getContextSignature());
+                ps.setString(10, assessment.getFeatureVector());
+                ps.setObject(11, assessment.getFeatureDistance());
+                ps.setObject(12, assessment.getBasedOnAssessmentId());
+                ps.setObject(13, assessment.getContextAsOf());
+                ps.setObject(14, now);
+            });
+            riskScoreHistoryService.recordAll(results);
+            return checkpointRepository.save(checkpoint);
+        });
+    }
+
+    // Checkpoint writes are fenced by the lease, so an instance that lost it cannot overwrite the new owner's progress
+    private BatchJobCheckpoint saveCheckpoint(BatchJobCheckpoint checkpoint) {
+        return transactionTemplate.execute(status -> {
+            requireLease();
+            return checkpointRepository.save(checkpoint);
+        });
+    }
+
+    private void requireLease() {
+        if (!jobLeases.renew(JOB_NAME)) {
+            throw new IllegalStateException("Lease on " + JOB_NAME + " was lost to another instance");
+        }
+    }
+
+    private Long etaSeconds() {
+        return throughputPerMinute > 0 ? Math.round(remaining / throughputPerMinute * 60) : null;
+    }
+}
@@ -0,0 +1,375 @@
+package com.example.service.impl;
+
+import com.example.model.RiskAssessment;
+import com.example.model.RiskScorePoint;
+import com.example.model.dto.RiskTrendRequest;
+import com.example.model.dto.RiskTrendResponse;
+import com.example.model.dto.RiskTrendSeries;
+import com.example.repository.RiskScorePointRepository;
+import com.example.service.RiskScoreHistoryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Risk scores are written as narrow RAW rows next to each assessment. A nightly job folds RAW rows older than
+ * the raw retention into one DAY row per account and day, and DAY rows older than the daily retention into
+ * WEEK rows, so long histories stay a few hundred rows per account. Trends for many accounts are read with
+ * one indexed range query per chunk of accounts and resampled in memory onto a shared slot grid.
+ * The startup backfill and the downsampling run under one batch job lease, so with several replicas only one
+ * instance rewrites points at a time.
+ */
+@Service
+@Slf4j
+public class RiskScoreHistoryServiceImpl implements RiskScoreHistoryService {
+
+    static final String JOB_NAME = "risk-score-history";
+
+    private static final String RAW = "RAW";
+    private static final String DAY = "DAY";
+    private static final String WEEK = "WEEK";
+    private static final List<String> LEVELS = List.of("LOW", "MEDIUM", "HIGH", "CRITICAL");
+    private static final int QUERY_CHUNK = 1000;
+    private static final int INSERT_BATCH = 1000;
+
+    private static final String INSERT_POINT = "INSERT INTO risk_score_points (account_number, bucket_start, " +
+            "resolution, score, max_score, level, sample_count) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String BACKFILL = "INSERT INTO risk_score_points (account_number, bucket_start, " +
+            "resolution, score, max_score, level, sample_count) SELECT account_number, assessment_date, 'RAW', " +
+            "overall_risk_score, overall_risk_score, COALESCE(overall_risk_level, 'UNKNOWN'), 1 FROM risk_assessments " +
+            "WHERE assessment_date IS NOT NULL AND overall_risk_score IS NOT NULL";
+
+    private final RiskScorePointRepository riskScorePointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchJobLeases jobLeases;
+
+    private final long rawRetentionDays;
+    private final long dailyRetentionDays;
+    private final int maxAccounts;
+    private final int maxPoints;
+
+    public RiskScoreHistoryServiceImpl(RiskScorePointRepository riskScorePointRepository,
+                                       JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       BatchJobLeases jobLeases,
+                                       @Value("${risk-history.raw-retention-days:30}") long rawRetentionDays,
+                                       @Value("${risk-history.daily-retention-days:365}") long dailyRetentionDays,
+                                       @Value("${risk-history.trends.max-accounts:5000}") int maxAccounts,
+                                       @Value("${risk-history.trends.max-points:366}") int maxPoints) {
+        this.riskScorePointRepository = riskScorePointRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.jobLeases = jobLeases;
+        this.rawRetentionDays = rawRetentionDays;
+        this.dailyRetentionDays = dailyRetentionDays;
+        this.maxAccounts = maxAccounts;
+        this.maxPoints = maxPoints;
+    }
+
+    /**
+     * Seed the history from stored assessments the first time the table is created. The emptiness check runs
+     * under the lease, so an instance that starts while another is backfilling skips, and one that starts later
+     * sees the points.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!jobLeases.tryAcquire(JOB_NAME)) {
+            log.info("Risk score history is being backfilled or downsampled by another instance");
+            return;
+        }
+        try {
+            Integer inserted = transactionTemplate.execute(status -> {
+                requireLease();
+                return riskScorePointRepository.count() > 0 ? 0 : jdbcTemplate.update(BACKFILL);
+            });
+            if (inserted != null && inserted > 0) {
+                log.info("Backfilled {} risk score points from stored assessments", inserted);
+                compactAll();
+            }
+        } finally {
+            jobLeases.release(JOB_NAME);
+        }
+    }
+
+    @Scheduled(cron = "${risk-history.downsample-cron:0 15 4 * * *}")
+    public void scheduledDownsample() {
+        downsample();
+    }
+
+    @Override
+    @Transactional
+    public void record(RiskAssessment assessment) {
+        if (assessment.getOverallRiskScore() == null) {
+            return;
+        }
+        riskScorePointRepository.save(toPoint(assessment));
+    }
+
+    @Override
+    public void recordAll(List<RiskAssessment> assessments) {
+        List<RiskScorePoint> points = assessments.stream()
+                .filter(assessment -> assessment.getOverallRiskScore() != null)
+                .map(this::toPoint)
+                .toList();
+        insert(points);
+    }
+
+    @Override
+    public int downsample() {
+        if (!jobLeases.tryAcquire(JOB_NAME)) {
+            log.info("Risk score history is being backfilled or downsampled by another instance; skipping");
+            return 0;
+        }
+        try {
+            return compactAll();
+        } finally {
+            jobLeases.release(JOB_NAME);
+        }
+    }
+
+    private int compactAll() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime dayCutoff = now.minusDays(rawRetentionDays).truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime weekCutoff = startOfWeek(now.minusDays(dailyRetentionDays));
+
+        int removed = compact(RAW, DAY, dayCutoff, time -> time.truncatedTo(ChronoUnit.DAYS));
+        removed += compact(DAY, WEEK, weekCutoff, RiskScoreHistoryServiceImpl::startOfWeek);
+        return removed;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RiskTrendResponse getTrends(RiskTrendRequest request) {
+        List<String> accountNumbers = request.getAccountNumbers() == null ? List.of()
+                : new ArrayList<>(new LinkedHashSet<>(request.getAccountNumbers()));
+        if (accountNumbers.isEmpty()) {
+            throw new IllegalArgumentException("At least one account number is required");
+        }
+        if (accountNumbers.size() > maxAccounts) {
+            throw new IllegalArgumentException("At most " + maxAccounts + " accounts per trend request");
+        }
+        int days = request.getDays() != null ? request.getDays() : 90;
+        int points = request.getPoints() != null ? request.getPoints() : 30;
+        if (days < 1 || points < 1 || points > maxPoints) {
+            throw new IllegalArgumentException("days must be positive and points between 1 and " + maxPoints);
+        }
+
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.minusDays(days);
+        long slotSeconds = Math.max(1, Duration.between(from, to).getSeconds() / points);
+        List<LocalDateTime> slotStarts = new ArrayList<>(points);
+        for (int i = 0; i < points; i++) {
+            slotStarts.add(from.plusSeconds(i * slotSeconds));
+        }
+
+        Map<String, RiskTrendSeries> series = new LinkedHashMap<>();
+        for (int offset = 0; offset < accountNumbers.size(); offset += QUERY_CHUNK) {
+            List<String> chunk = accountNumbers.subList(offset, Math.min(offset + QUERY_CHUNK, accountNumbers.size()));
+
+            Map<String, RiskScorePoint> seeds = new HashMap<>();
+            for (RiskScorePoint seed : riskScorePointRepository.findLatestBefore(chunk, from)) {
+                seeds.merge(seed.getAccountNumber(), seed,
+                        (a, b) -> a.getBucketStart().isAfter(b.getBucketStart()) ? a : b);
+            }
+
+            Map<String, List<RiskScorePoint>> byAccount = new HashMap<>();
+            for (RiskScorePoint point : riskScorePointRepository.findSeries(chunk, from)) {
+                byAccount.computeIfAbsent(point.getAccountNumber(), k -> new ArrayList<>()).add(point);
+            }
+
+            for (String accountNumber : chunk) {
+                RiskTrendSeries trend = resample(seeds.get(accountNumber),
+                        byAccount.getOrDefault(accountNumber, List.of()), from, slotSeconds, points);
+                if (trend != null) {
+                    series.put(accountNumber, trend);
+                }
+            }
+        }
+
+        return RiskTrendResponse.builder()
+                .from(from)
+                .to(to)
+                .slotStarts(slotStarts)
+                .series(series)
+                .build();
+    }
+
+    /**
+     * Slot values are the sample-weighted mean of the points inside the slot, carried forward across empty slots.
+     */
+    private RiskTrendSeries resample(RiskScorePoint seed, List<RiskScorePoint> window,
+                                     LocalDateTime from, long slotSeconds, int points) {
+        if (seed == null && window.isEmpty()) {
+            return null;
+        }
+        double[] sums = new double[points];
+        long[] weights = new long[points];
+        String worstLevel = null;
+        for (RiskScorePoint point : window) {
+            long offset = Duration.between(from, point.getBucketStart()).getSeconds();
+            int slot = (int) Math.min(points - 1, Math.max(0, offset / slotSeconds));
+            sums[slot] += point.getScore() * point.getSampleCount();
+            weights[slot] += point.getSampleCount();
+            worstLevel = worse(worstLevel, point.getLevel());
+        }
+
+        Double[] scores = new Double[points];
+        Double current = seed != null ? seed.getScore() : null;
+        for (int i = 0; i < points; i++) {
+            if (weights[i] > 0) {
+                current = Math.round(sums[i] / weights[i] * 1000) / 1000.0;
+            }
+            scores[i] = current;
+        }
+
+        RiskScorePoint latest = window.isEmpty() ? seed : window.get(window.size() - 1);
+        return new RiskTrendSeries(Arrays.asList(scores), latest.getScore(), latest.getLevel(),
+                worstLevel != null ? worstLevel : latest.getLevel());
+    }
+
+    /**
+     * Replace every {@code source} point before the cutoff with one {@code target} point per account and bucket.
+     * Runs in one transaction, so a failure leaves the source points in place.
+     */
+    private int compact(String source, String target, LocalDateTime cutoff,
+                        UnaryOperator<LocalDateTime> bucketOf) {
+        long started = System.nanoTime();
+        Integer removed = transactionTemplate.execute(status -> {
+            requireLease();
+            List<RiskScorePoint> pending = new ArrayList<>(INSERT_BATCH);
+            Bucket bucket = null;
+            try (Stream<RiskScorePoint> stream = riskScorePointRepository.streamForDownsampling(source, cutoff)) {
+                for (RiskScorePoint point : (Iterable<RiskScorePoint>) stream::iterator) {
+                    LocalDateTime start = bucketOf.apply(point.getBucketStart());
+                    if (bucket == null || !bucket.accountNumber.equals(point.getAccountNumber())
+                            || !bucket.start.equals(start)) {
+                        if (bucket != null) {
+                            pending.add(bucket.toPoint(target));
+                            if (pending.size() == INSERT_BATCH) {
+                                insert(pending);
+                                pending.clear();
+                            }
+                        }
+                        bucket = new Bucket(point.getAccountNumber(), start);
+                    }
+                    bucket.add(point);
+                }
+            }
+            if (bucket != null) {
+                pending.add(bucket.toPoint(target));
+            }
+            insert(pending);
+            return riskScorePointRepository.deleteByResolutionBefore(source, cutoff);
+        });
+        int count = removed != null ? removed : 0;
+        if (count > 0) {
+            log.info("Downsampled {} {} risk score points before {} into {} buckets in {} ms",
+                    count, source, cutoff, target, (System.nanoTime() - started) / 1_000_000);
+        }
+        return count;
+    }
+
+    // Fences each rewrite, so an instance whose lease expired mid-run rolls back instead of duplicating buckets
+    private void requireLease() {
+        if (!jobLeases.renew(JOB_NAME)) {
+            throw new IllegalStateException("Lease on " + JOB_NAME + " was lost to another instance");
+        }
+    }
+
+    private void insert(List<RiskScorePoint> points) {
+        if (points.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_POINT, points, points.size(), (ps, point) -> {
+            ps.setString(1, point.getAccountNumber());
+            ps.setObject(2, point.getBucketStart());
+            ps.setString(3, point.getResolution());
+            ps.setDouble(4, point.getScore());
+            ps.setDouble(5, point.getMaxScore());
+            ps.setString(6, point.getLevel());
+            ps.setInt(7, point.getSampleCount());
+        });
+    }
+
+    private RiskScorePoint toPoint(RiskAssessment assessment) {
+        return RiskScorePoint.builder()
+                .accountNumber(assessment.getAccountNumber())
+                .bucketStart(assessment.getAssessmentDate() != null ? assessment.getAssessmentDate() : LocalDateTime.now())
+                .resolution(RAW)
+                .score(assessment.getOverallRiskScore())
+                .maxScore(assessment.getOverallRiskScore())
+                .level(assessment.getOverallRiskLevel() != null ? assessment.getOverallRiskLevel() : "UNKNOWN")
+                .sampleCount(1)
+                .build();
+    }
+
+    private static LocalDateTime startOfWeek(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static String worse(String a, String b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return LEVELS.indexOf(b.toUpperCase()) > LEVELS.indexOf(a.toUpperCase()) ? b : a;
+    }
+
+    private static final class Bucket {
+        private final String accountNumber;
+        private final LocalDateTime start;
+        private double weightedSum;
+        private double max = Double.NEGATIVE_INFINITY;
+        private int samples;
+        private String level;
+
+        Bucket(String accountNumber, LocalDateTime start) {
+            this.accountNumber = accountNumber;
+            this.start = start;
+        }
+
+        void add(RiskScorePoint point) {
+            weightedSum += point.getScore() * point.getSampleCount();
+            samples += point.getSampleCount();
+            max = Math.max(max, point.getMaxScore());
+            level = worse(level, point.getLevel());
+        }
+
+        RiskScorePoint toPoint(String resolution) {
+            return RiskScorePoint.builder()
+                    .accountNumber(accountNumber)
+                    .bucketStart(start)
+                    .resolution(resolution)
+                    .score(weightedSum / samples)
+                    .maxScore(max)
+                    .level(level != null ? level : "UNKNOWN")
+                    .sampleCount(samples)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.example.service.impl;
+
+import com.example.event.TransactionSavedEvent;
+import com.example.model.FraudAlert;
+import com.example.model.Money;
+import com.example.model.Transaction;
+import com.example.repository.FraudAlertRepository;
+import com.example.repository.TransactionRepository;
+import com.example.service.StructuringDetectionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps per-account and per-counterparty rolling sums of in-band deposits.
+ * Only deposits inside the band are stored, so each update touches a handful of entries
+ * and the detector keeps up with the full transaction stream on a single core.
+ *
+ * Local saves are folded in as they commit. Deposits saved by other instances are picked up by a periodic
+ * refresh that reads rows created since the watermark minus an overlap; ids inside the overlap window are
+ * remembered so no deposit is counted twice. Before an alert is saved the database is checked for a
+ * structuring alert on the account within the window, so instances that both complete the pattern
+ * normally raise it once.
+ */
+@Service
+@Slf4j
+public class StructuringDetectionServiceImpl implements StructuringDetectionService {
+
+    private static final String DETECTOR = "STRUCTURING";
+
+    private final TransactionRepository transactionRepository;
+    private final FraudAlertRepository fraudAlertRepository;
+
+    private final String currency;
+    private final long bandLowerCents;
+    private final long bandUpperCents;
+    private final long reportingThresholdCents;
+    private final int minCount;
+    private final long windowSeconds;
+    private final Duration refreshOverlap;
+
+    private final Map<String, RollingWindow> accountWindows = new ConcurrentHashMap<>();
+    private final Map<String, RollingWindow> counterpartyWindows = new ConcurrentHashMap<>();
+    // Ids of deposits already folded in that a refresh may read again, with their creation time
+    private final Map<Long, LocalDateTime> recentIds = new ConcurrentHashMap<>();
+    private volatile LocalDateTime watermark;
+
+    public StructuringDetectionServiceImpl(
+            TransactionRepository transactionRepository,
+            FraudAlertRepository fraudAlertRepository,
+            @Value("${aml.structuring.band-lower:8000}") BigDecimal bandLower,
+            @Value("${aml.structuring.band-upper:10000}") BigDecimal bandUpper,
+            @Value("${aml.structuring.reporting-threshold:10000}") BigDecimal reportingThreshold,
+            @Value("${aml.structuring.min-count:2}") int minCount,
+            @Value("${aml.structuring.window-hours:72}") long windowHours,
+            @Value("${aml.structuring.refresh-overlap-seconds:300}") long refreshOverlapSeconds,
+            @Value("${aml.structuring.currency:USD}") String currency) {
+        this.transactionRepository = transactionRepository;
+        this.fraudAlertRepository = fraudAlertRepository;
+        this.currency = currency;
+        this.bandLowerCents = toCents(bandLower);
+        this.bandUpperCents = toCents(bandUpper);
+        this.reportingThresholdCents = toCents(reportingThreshold);
+        this.minCount = minCount;
+        this.windowSeconds = windowHours * 3600;
+        this.refreshOverlap = Duration.ofSeconds(refreshOverlapSeconds);
+    }
+
+    /**
+     * Rebuild the windows from recent in-band deposits, without raising alerts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = startedAt.minusSeconds(windowSeconds);
+        LocalDateTime overlapStart = startedAt.minus(refreshOverlap);
+        List<Transaction> deposits = transactionRepository.findDepositsInAmountBand(
+                since, fromCents(bandLowerCents), fromCents(bandUpperCents));
+        for (Transaction deposit : deposits) {
+            // Only rows the first refresh reads again need to be remembered
+            if (deposit.getCreatedAt() != null && !deposit.getCreatedAt().isBefore(overlapStart)) {
+                recentIds.put(deposit.getId(), deposit.getCreatedAt());
+            }
+            fold(deposit);
+        }
+        watermark = startedAt;
+        log.info("Structuring detector warmed up with {} in-band deposits since {}", deposits.size(), since);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onTransactionSaved(TransactionSavedEvent event) {
+        record(event.transaction());
+    }
+
+    @Override
+    public Optional<FraudAlert> record(Transaction transaction) {
+        return raiseAlert(transaction, update(transaction));
+    }
+
+    /**
+     * Fold in-band deposits created since the watermark minus the overlap that are not in the windows yet,
+     * which includes those saved by other instances, then advance the watermark.
+     */
+    @Scheduled(initialDelayString = "${aml.structuring.refresh-interval-ms:30000}",
+            fixedDelayString = "${aml.structuring.refresh-interval-ms:30000}")
+    @Transactional
+    public void refresh() {
+        LocalDateTime from = watermark;
+        if (from == null) {
+            return; // not warmed up yet
+        }
+        LocalDateTime since = LocalDateTime.now().minusSeconds(windowSeconds);
+        List<Transaction> deposits = transactionRepository.findDepositsInAmountBandCreatedSince(
+                from.minus(refreshOverlap), since, fromCents(bandLowerCents), fromCents(bandUpperCents));
+        LocalDateTime latest = from;
+        for (Transaction deposit : deposits) {
+            if (deposit.getCreatedAt().isAfter(latest)) {
+                latest = deposit.getCreatedAt();
+            }
+            raiseAlert(deposit, update(deposit));
+        }
+        watermark = latest;
+        LocalDateTime windowStart = latest.minus(refreshOverlap);
+        recentIds.values().removeIf(createdAt -> createdAt.isBefore(windowStart));
+    }
+
+    private Optional<FraudAlert> raiseAlert(Transaction transaction, List<String> findings) {
+        if (findings.isEmpty()) {
+            return Optional.empty();
+        }
+        LocalDateTime windowStart = LocalDateTime.now().minusSeconds(windowSeconds);
+        if (fraudAlertRepository.existsByAccountNumberAndDetectorAndDetectedAtAfter(
+                transaction.getAccountNumber(), DETECTOR, windowStart)) {
+            log.debug("Structuring pattern for account {} already alerted within the window",
+                    transaction.getAccountNumber());
+            return Optional.empty();
+        }
+
+        log.warn("Structuring pattern detected for account {}: {}", transaction.getAccountNumber(), findings);
+        FraudAlert alert = FraudAlert.builder()
+                .transactionId(transaction.getId())
+                .accountNumber(transaction.getAccountNumber())
+                .severity("HIGH")
+                .aiAnalysis("Rule-based structuring detection: " + String.join("; ", findings))
+                .riskFactors("Structuring, Deposits below reporting threshold")
+                .riskScore(0.8)
+                .status("PENDING")
+                .detector(DETECTOR)
+                .build();
+        return Optional.of(fraudAlertRepository.save(alert));
+    }
+
+    /**
+     * Drop windows that have had no in-band activity for a full window.
+     */
+    @Scheduled(fixedDelayString = "${aml.structuring.cleanup-interval-ms:600000}")
+    void evictIdleWindows() {
+        long cutoff = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC) - windowSeconds;
+        accountWindows.values().removeIf(window -> window.isIdleSince(cutoff));
+        counterpartyWindows.values().removeIf(window -> window.isIdleSince(cutoff));
+    }
+
+    /**
+     * Fold a deposit into its windows once, whichever of the local event and the refresh sees it first,
+     * and return the findings of windows that now exceed the threshold.
+     */
+    List<String> update(Transaction transaction) {
+        if (!isInBandDeposit(transaction)) {
+            return List.of();
+        }
+        if (transaction.getId() != null && recentIds.putIfAbsent(transaction.getId(),
+                transaction.getCreatedAt() != null ? transaction.getCreatedAt() : LocalDateTime.now()) != null) {
+            return List.of();
+        }
+        return fold(transaction);
+    }
+
+    private boolean isInBandDeposit(Transaction transaction) {
+        // The band is in the configured currency, and sums in the windows must not mix currencies
+        if (!"CREDIT".equals(transaction.getTransactionType()) || !currency.equals(transaction.getCurrency())
+                || transaction.getAmount() == null || transaction.getTransactionDate() == null) {
+            return false;
+        }
+        long cents = toCents(transaction.getAmount());
+        return cents >= bandLowerCents && cents < bandUpperCents;
+    }
+
+    private List<String> fold(Transaction transaction) {
+        if (!isInBandDeposit(transaction)) {
+            return List.of();
+        }
+        long cents = toCents(transaction.getAmount());
+        long time = transaction.getTransactionDate().toEpochSecond(ZoneOffset.UTC);
+        List<String> findings = new ArrayList<>(2);
+
+        RollingWindow accountWindow = accountWindows.computeIfAbsent(
+                transaction.getAccountNumber(), k -> new RollingWindow());
+        String accountFinding = accountWindow.add(time, cents, "account " + transaction.getAccountNumber());
+        if (accountFinding != null) {
+            findings.add(accountFinding);
+        }
+
+        String counterparty = transaction.getCounterpartyAccount();
+        if (counterparty != null && !counterparty.isBlank()) {
+            RollingWindow counterpartyWindow = counterpartyWindows.computeIfAbsent(
+                    counterparty, k -> new RollingWindow());
+            String counterpartyFinding = counterpartyWindow.add(time, cents, "counterparty " + counterparty);
+            if (counterpartyFinding != null) {
+                findings.add(counterpartyFinding);
+            }
+        }
+        return findings;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return Money.toMinorUnits(amount);
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return Money.toBigDecimal(cents);
+    }
+
+    /**
+     * Time-ordered ring buffer of in-band deposits with a running sum. Backdated deposits are inserted in
+     * time order, so eviction from the head stays correct.
+     */
+    private final class RollingWindow {
+        private long[] times = new long[4];
+        private long[] amounts = new long[4];
+        private int head;
+        private int size;
+        private long sum;
+        private long latest = Long.MIN_VALUE;
+        private boolean alerted;
+        private long lastAlertAt;
+
+        synchronized String add(long time, long cents, String subject) {
+            latest = Math.max(latest, time);
+            long cutoff = latest - windowSeconds;
+            evictBefore(cutoff);
+            if (time < cutoff) {
+                return null; // backdated beyond the window
+            }
+            if (size == times.length) {
+                grow();
+            }
+            int position = size;
+            while (position > 0 && times[(head + position - 1) % times.length] > time) {
+                int from = (head + position - 1) % times.length;
+                int to = (head + position) % times.length;
+                times[to] = times[from];
+                amounts[to] = amounts[from];
+                position--;
+            }
+            int slot = (head + position) % times.length;
+            times[slot] = time;
+            amounts[slot] = cents;
+            size++;
+            sum += cents;
+
+            if (size >= minCount && sum >= reportingThresholdCents
+                    && (!alerted || latest - lastAlertAt >= windowSeconds)) {
+                alerted = true;
+                lastAlertAt = latest;
+                return String.format("%s received %d deposits between %s and %s totalling %s within %d hours",
+                        subject, size, fromCents(bandLowerCents), fromCents(bandUpperCents),
+                        fromCents(sum), windowSeconds / 3600);
+            }
+            return null;
+        }
+
+        synchronized boolean isIdleSince(long cutoff) {
+            evictBefore(cutoff);
+            return size == 0 && latest < cutoff;
+        }
+
+        private void evictBefore(long cutoff) {
+            while (size > 0 && times[head] < cutoff) {
+                sum -= amounts[head];
+                head = (head + 1) % times.length;
+                size--;
+            }
+        }
+
+        private void grow() {
+            long[] newTimes = new long[times.length * 2];
+            long[] newAmounts = new long[amounts.length * 2];
+            for (int i = 0; i < size; i++) {
+                newTimes[i] = times[(head + i) % times.length];
+                newAmounts[i] = amounts[(head + i) % amounts.length];
+            }
+            times = newTimes;
+            amounts = newAmounts;
+            head = 0;
+        }
+    }
+}
@@ -1,31 +1,78 @@
 package com.example.service.impl;
 
+import com.example.model.Account;
 import com.example.model.Transaction;
+import com.example.model.TransactionStatistics;
+import com.example.model.dto.PortfolioAnalysisRequest;
+import com.example.model.dto.PortfolioAnalysisResponse;
 import com.example.model.dto.TransactionAnalysisRequest;
 import com.example.model.dto.TransactionAnalysisResponse;
+import com.example.model.dto.TransactionPeriodTotals;
 import com.example.repository.AccountRepository;
 import com.example.repository.TransactionRepository;
+import com.example.service.CohortPercentileService;
 import com.example.service.TransactionAnalysisService;
-import lombok.RequiredArgsConstructor;
+import com.example.service.TransactionRollupService;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class TransactionAnalysisServiceImpl implements TransactionAnalysisService {
     
+    private static final Set<String> ROW_LEVEL_ANALYSIS_TYPES = Set.of("TRENDS", "ANOMALIES");
+    private static final int MAX_PORTFOLIO_ACCOUNTS_IN_PROMPT = 20;
+    
     private final ChatClient chatClient;
+    private final TransactionRollupService transactionRollupService;
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionInsightsCache insightsCache;
+    private final CohortPercentileService cohortPercentileService;
+    private final ForkJoinPool portfolioPool;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    public TransactionAnalysisServiceImpl(ChatClient chatClient,
+                                          TransactionRollupService transactionRollupService,
+                                          TransactionRepository transactionRepository,
+                                          AccountRepository accountRepository,
+                                          TransactionTemplate transactionTemplate,
+                                          TransactionInsightsCache insightsCache,
+                                          CohortPercentileService cohortPercentileService,
+                                          @Value("${transaction-analysis.portfolio.parallelism:8}") int portfolioParallelism) {
+        this.chatClient = chatClient;
+        this.transactionRollupService = transactionRollupService;
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.insightsCache = insightsCache;
+        this.cohortPercentileService = cohortPercentileService;
+        // Dedicated pool so blocking database calls never occupy the common pool; keep below the connection pool size
+        this.portfolioPool = new ForkJoinPool(portfolioParallelism);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        portfolioPool.shutdownNow();
+    }
     
     @Override
     public TransactionAnalysisResponse analyzeTransactions(TransactionAnalysisRequest request) {
@@ -41,11 +88,10 @@ public class TransactionAnalysisServiceImpl implements TransactionAnalysisServic
                 ? request.getEndDate() 
                 : LocalDateTime.now();
         
-        List<Transaction> transactions = transactionRepository
-                .findByAccountNumberAndTransactionDateBetween(
-                        request.getAccountNumber(), startDate, endDate);
+        TransactionPeriodTotals totals = transactionRollupService
+                .getPeriodTotals(request.getAccountNumber(), startDate, endDate);
         
-        if (transactions.isEmpty()) {
+        if (totals.isEmpty()) {
             return TransactionAnalysisResponse.builder()
                     .accountNumber(request.getAccountNumber())
                     .analysisType(request.getAnalysisType() != null ? request.getAnalysisType() : "SPENDING_PATTERNS")
@@ -58,15 +104,34 @@ public class TransactionAnalysisServiceImpl implements TransactionAnalysisServic
         }
         
         // Calculate statistics
-        Map<String, Object> statistics = calculateStatistics(transactions);
-        Map<String, BigDecimal> categoryBreakdown = calculateCategoryBreakdown(transactions);
+        Map<String, Object> statistics = calculateStatistics(totals);
+        Map<String, BigDecimal> categoryBreakdown = totals.debitsByCategory();
         
-        // Generate AI insights
         String analysisType = request.getAnalysisType() != null 
                 ? request.getAnalysisType() 
                 : "SPENDING_PATTERNS";
         
-        String aiInsights = generateAIInsights(transactions, account, statistics, categoryBreakdown, analysisType);
+        // Where the account sits among accounts of the same type, per category, over the cohort window
+        Map<String, Integer> cohortPercentiles = cohortPercentileService.spendPercentiles(account);
+        if (!cohortPercentiles.isEmpty()) {
+            statistics.put("cohortSpendPercentiles", cohortPercentiles);
+        }
+        
+        // Trend and anomaly analyses need row-level activity patterns the rollup does not hold
+        if (ROW_LEVEL_ANALYSIS_TYPES.contains(analysisType.toUpperCase())) {
+            statistics.putAll(streamStatistics(request.getAccountNumber(), startDate, endDate).toStatistics());
+        }
+        
+        // Generate AI insights
+        
+        // Keyed by the requested period (not the resolved default dates) and validated against the data
+        String cacheKey = TransactionInsightsCache.key(request.getAccountNumber(),
+                request.getStartDate(), request.getEndDate(), analysisType.toUpperCase());
+        String fingerprint = TransactionInsightsCache.fingerprint(String.join("|",
+                String.valueOf(account.getBalance()), account.getAccountType(),
+                new TreeMap<>(statistics).toString(), categoryBreakdown.toString()));
+        String aiInsights = insightsCache.get(cacheKey, fingerprint,
+                () -> generateAIInsights(account, statistics, categoryBreakdown, analysisType));
         
         // Extract key findings and recommendations from AI response
         List<String> keyFindings = extractKeyFindings(aiInsights);
@@ -83,22 +148,168 @@ public class TransactionAnalysisServiceImpl implements TransactionAnalysisServic
                 .build();
     }
     
-    private Map<String, Object> calculateStatistics(List<Transaction> transactions) {
-        BigDecimal totalDebits = transactions.stream()
-                .filter(t -> "DEBIT".equals(t.getTransactionType()))
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    @Override
+    public PortfolioAnalysisResponse analyzePortfolio(PortfolioAnalysisRequest request) {
+        List<String> accountNumbers = resolvePortfolioAccounts(request);
+        log.info("Analyzing portfolio of {} accounts (customer: {})", accountNumbers.size(), request.getCustomerId());
+        
+        LocalDateTime startDate = request.getStartDate() != null 
+                ? request.getStartDate() 
+                : LocalDateTime.now().minusMonths(1);
+        LocalDateTime endDate = request.getEndDate() != null 
+                ? request.getEndDate() 
+                : LocalDateTime.now();
+        String analysisType = request.getAnalysisType() != null 
+                ? request.getAnalysisType() 
+                : "SPENDING_PATTERNS";
         
-        BigDecimal totalCredits = transactions.stream()
-                .filter(t -> "CREDIT".equals(t.getTransactionType()))
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Fork-join fan-out: each leaf computes one account's totals, partial results merge on join
+        long started = System.nanoTime();
+        PortfolioPartial result = portfolioPool.invoke(
+                new PortfolioTask(accountNumbers, 0, accountNumbers.size(), startDate, endDate));
+        long wallNanos = System.nanoTime() - started;
         
+        Map<String, Map<String, Object>> accountStatistics = new LinkedHashMap<>();
+        result.byAccount().entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<String, TransactionPeriodTotals> e) -> e.getValue().debitTotal())
+                        .reversed())
+                .forEach(e -> accountStatistics.put(e.getKey(), e.getValue().isEmpty()
+                        ? Map.of("totalTransactions", 0L)
+                        : calculateStatistics(e.getValue())));
+        
+        PortfolioAnalysisResponse.PortfolioAnalysisResponseBuilder response = PortfolioAnalysisResponse.builder()
+                .customerId(request.getCustomerId())
+                .accountNumbers(accountNumbers)
+                .analysisType(analysisType)
+                .accountStatistics(accountStatistics)
+                .parallelism(portfolioPool.getParallelism())
+                .computeTimeMs(wallNanos / 1_000_000)
+                .summedTaskTimeMs(result.taskNanos() / 1_000_000);
+        
+        if (result.totals().isEmpty()) {
+            return response
+                    .aiInsights("No transactions found for the specified period.")
+                    .statistics(Map.of())
+                    .categoryBreakdown(Map.of())
+                    .keyFindings(List.of())
+                    .recommendations(List.of())
+                    .build();
+        }
+        
+        Map<String, Object> statistics = calculateStatistics(result.totals());
+        statistics.put("accountCount", accountNumbers.size());
+        
+        // One summarising LLM call for the whole portfolio instead of one per account
+        String aiInsights = generatePortfolioInsights(statistics, result.totals().debitsByCategory(),
+                accountStatistics, analysisType);
+        
+        return response
+                .aiInsights(aiInsights)
+                .statistics(statistics)
+                .categoryBreakdown(result.totals().debitsByCategory())
+                .keyFindings(extractKeyFindings(aiInsights))
+                .recommendations(extractRecommendations(aiInsights))
+                .build();
+    }
+    
+    private List<String> resolvePortfolioAccounts(PortfolioAnalysisRequest request) {
+        Set<String> accountNumbers = new LinkedHashSet<>();
+        if (request.getCustomerId() != null && !request.getCustomerId().isBlank()) {
+            List<Account> accounts = accountRepository.findByCustomerId(request.getCustomerId());
+            if (accounts.isEmpty()) {
+                throw new IllegalArgumentException("No accounts found for customer: " + request.getCustomerId());
+            }
+            accounts.forEach(account -> accountNumbers.add(account.getAccountNumber()));
+        }
+        if (request.getAccountNumbers() != null) {
+            accountNumbers.addAll(request.getAccountNumbers());
+        }
+        if (accountNumbers.isEmpty()) {
+            throw new IllegalArgumentException("Either customerId or accountNumbers is required");
+        }
+        return new ArrayList<>(accountNumbers);
+    }
+    
+    private String generatePortfolioInsights(Map<String, Object> statistics,
+                                             Map<String, BigDecimal> categoryBreakdown,
+                                             Map<String, Map<String, Object>> accountStatistics,
+                                             String analysisType) {
+        String promptTemplate = """
+                You are a financial analyst for a banking institution. Analyze the following portfolio of accounts
+                held by one customer or relationship and provide insights across the portfolio as a whole.
+                
+                Portfolio Statistics:
+                {statistics}
+                
+                Category Breakdown:
+                {categoryBreakdown}
+                
+                Accounts (largest spend first):
+                {accounts}
+                
+                Analysis Type Requested: {analysisType}
+                
+                Please provide:
+                1. Key insights about spending patterns, concentration and differences between accounts
+                2. Notable findings (e.g., accounts with unusual activity, category trends)
+                3. Actionable recommendations for the relationship manager
+                
+                Format your response clearly with sections for INSIGHTS, FINDINGS, and RECOMMENDATIONS.
+                """;
+        
+        StringBuilder accounts = new StringBuilder();
+        int listed = 0;
+        for (Map.Entry<String, Map<String, Object>> entry : accountStatistics.entrySet()) {
+            if (listed++ == MAX_PORTFOLIO_ACCOUNTS_IN_PROMPT) {
+                accounts.append(String.format("- ... and %d more accounts\n",
+                        accountStatistics.size() - MAX_PORTFOLIO_ACCOUNTS_IN_PROMPT));
+                break;
+            }
+            Map<String, Object> stats = entry.getValue();
+            accounts.append(String.format("- %s: %s transactions, debits %s, credits %s\n",
+                    entry.getKey(), stats.get("totalTransactions"),
+                    stats.getOrDefault("totalDebits", BigDecimal.ZERO),
+                    stats.getOrDefault("totalCredits", BigDecimal.ZERO)));
+        }
+        
+        PromptTemplate template = new PromptTemplate(promptTemplate);
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("statistics", formatStatistics(statistics));
+        variables.put("categoryBreakdown", formatCategoryBreakdown(categoryBreakdown));
+        variables.put("accounts", accounts.toString());
+        variables.put("analysisType", analysisType);
+        
+        Prompt prompt = template.create(variables);
+        return chatClient.prompt(prompt).call().content();
+    }
+    
+    /**
+     * Single pass over a cursor of the period's transactions. Each entity is detached after it is counted,
+     * so the persistence context stays empty and memory is bounded by the fetch size rather than the history length.
+     */
+    TransactionStatistics streamStatistics(String accountNumber, LocalDateTime startDate,
+                                           LocalDateTime endDate) {
+        TransactionStatistics stats = new TransactionStatistics();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Transaction> transactions = transactionRepository
+                    .streamByAccountNumberAndTransactionDateBetween(accountNumber, startDate, endDate)) {
+                transactions.forEach(transaction -> {
+                    stats.accept(transaction);
+                    entityManager.detach(transaction);
+                });
+            }
+        });
+        return stats;
+    }
+    
+    private Map<String, Object> calculateStatistics(TransactionPeriodTotals totals) {
+        BigDecimal totalDebits = totals.debitTotal();
+        BigDecimal totalCredits = totals.creditTotal();
         BigDecimal netAmount = totalCredits.subtract(totalDebits);
         
-        long transactionCount = transactions.size();
-        BigDecimal averageTransaction = transactionCount > 0 
-                ? totalDebits.divide(BigDecimal.valueOf(transactionCount), 2, java.math.RoundingMode.HALF_UP)
+        long transactionCount = totals.transactionCount();
+        BigDecimal averageTransaction = totals.debitCount() > 0 
+                ? totalDebits.divide(BigDecimal.valueOf(totals.debitCount()), 2, java.math.RoundingMode.HALF_UP)
                 : BigDecimal.ZERO;
         
         Map<String, Object> stats = new HashMap<>();
@@ -107,29 +318,16 @@ public class TransactionAnalysisServiceImpl implements TransactionAnalysisServic
         stats.put("totalCredits", totalCredits);
         stats.put("netAmount", netAmount);
         stats.put("averageTransactionAmount", averageTransaction);
-        stats.put("periodStart", transactions.stream()
-                .map(Transaction::getTransactionDate)
-                .min(LocalDateTime::compareTo)
-                .orElse(LocalDateTime.now()));
-        stats.put("periodEnd", transactions.stream()
-                .map(Transaction::getTransactionDate)
-                .max(LocalDateTime::compareTo)
-                .orElse(LocalDateTime.now()));
+        if (totals.currency() != null) {
+            stats.put("currency", totals.currency());
+        }
+        stats.put("periodStart", totals.firstTransactionAt() != null ? totals.firstTransactionAt() : LocalDateTime.now());
+        stats.put("periodEnd", totals.lastTransactionAt() != null ? totals.lastTransactionAt() : LocalDateTime.now());
         
         return stats;
     }
     
-    private Map<String, BigDecimal> calculateCategoryBreakdown(List<Transaction> transactions) {
-        return transactions.stream()
-                .filter(t -> "DEBIT".equals(t.getTransactionType()))
-                .collect(Collectors.groupingBy(
-                        Transaction::getMerchantCategory,
-                        Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)
-                ));
-    }
-    
-    private String generateAIInsights(List<Transaction> transactions, 
-                                     com.example.model.Account account,
+    private String generateAIInsights(Account account,
                                      Map<String, Object> statistics,
                                      Map<String, BigDecimal> categoryBreakdown,
                                      String analysisType) {
@@ -225,5 +423,49 @@ public class TransactionAnalysisServiceImpl implements TransactionAnalysisServic
         
         return recommendations.isEmpty() ? List.of("Continue monitoring account activity.") : recommendations;
     }
+    
+    private record PortfolioPartial(TransactionPeriodTotals totals,
+                                    Map<String, TransactionPeriodTotals> byAccount,
+                                    long taskNanos) {}
+    
+    /**
+     * Splits the account range in halves until single accounts remain, then merges partial totals on join.
+     */
+    private final class PortfolioTask extends RecursiveTask<PortfolioPartial> {
+        private final List<String> accountNumbers;
+        private final int from;
+        private final int to;
+        private final LocalDateTime startDate;
+        private final LocalDateTime endDate;
+        
+        PortfolioTask(List<String> accountNumbers, int from, int to, LocalDateTime startDate, LocalDateTime endDate) {
+            this.accountNumbers = accountNumbers;
+            this.from = from;
+            this.to = to;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+        
+        @Override
+        protected PortfolioPartial compute() {
+            if (to - from == 1) {
+                String accountNumber = accountNumbers.get(from);
+                long started = System.nanoTime();
+                TransactionPeriodTotals totals = transactionRollupService
+                        .getPeriodTotals(accountNumber, startDate, endDate);
+                return new PortfolioPartial(totals, Map.of(accountNumber, totals), System.nanoTime() - started);
+            }
+            int mid = (from + to) >>> 1;
+            PortfolioTask left = new PortfolioTask(accountNumbers, from, mid, startDate, endDate);
+            PortfolioTask right = new PortfolioTask(accountNumbers, mid, to, startDate, endDate);
+            left.fork();
+            PortfolioPartial rightResult = right.compute();
+            PortfolioPartial leftResult = left.join();
+            
+            Map<String, TransactionPeriodTotals> byAccount = new HashMap<>(leftResult.byAccount());
+            byAccount.putAll(rightResult.byAccount());
+            return new PortfolioPartial(leftResult.totals().merge(rightResult.totals()), byAccount,
+                    leftResult.taskNanos() + rightResult.taskNanos());
+        }
+    }
 }
-
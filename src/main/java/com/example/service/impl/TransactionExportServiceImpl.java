@@ -0,0 +1,274 @@
+package com.example.service.impl;
+
+import com.example.model.dto.TransactionExportRequest;
+import com.example.service.TransactionExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams rows from a forward-only JDBC cursor straight into the response. Rows are read as plain column values
+ * rather than entities, so nothing accumulates in a persistence context, and output goes through fixed-size
+ * buffers, so memory stays constant however many rows match.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionExportServiceImpl implements TransactionExportService {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String[] COLUMNS = {
+            "id", "account_number", "transaction_type", "amount", "currency", "merchant_name",
+            "merchant_category", "location", "transaction_date", "status", "description", "counterparty_account"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Format validate(TransactionExportRequest request) {
+        boolean hasAccount = request.getAccountNumber() != null && !request.getAccountNumber().isBlank();
+        boolean hasRange = request.getStartDate() != null && request.getEndDate() != null;
+        if (!hasAccount && !hasRange) {
+            throw new IllegalArgumentException("Export requires an account number or both startDate and endDate");
+        }
+        if (hasRange && request.getStartDate().isAfter(request.getEndDate())) {
+            throw new IllegalArgumentException("startDate must not be after endDate");
+        }
+        if (request.getFormat() == null || request.getFormat().isBlank()) {
+            return Format.CSV;
+        }
+        try {
+            return Format.valueOf(request.getFormat().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + request.getFormat());
+        }
+    }
+
+    @Override
+    public long export(TransactionExportRequest request, OutputStream out) throws IOException {
+        Format format = validate(request);
+        List<Object> parameters = new ArrayList<>(3);
+        String sql = buildQuery(request, parameters);
+
+        long started = System.nanoTime();
+        GZIPOutputStream gzip = request.isGzip() ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(gzip != null ? gzip : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+
+        long rows;
+        try {
+            rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                // PostgreSQL only honours the fetch size with a server-side cursor, which needs autocommit off
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try (PreparedStatement statement = connection.prepareStatement(
+                        sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    statement.setFetchSize(FETCH_SIZE);
+                    for (int i = 0; i < parameters.size(); i++) {
+                        statement.setObject(i + 1, parameters.get(i));
+                    }
+                    try (ResultSet rs = statement.executeQuery()) {
+                        rowWriter.writeHeader();
+                        long count = 0;
+                        while (rs.next()) {
+                            rowWriter.writeRow(rs);
+                            count++;
+                        }
+                        return count;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    connection.rollback();
+                    connection.setAutoCommit(autoCommit);
+                }
+            });
+            rowWriter.flush();
+            writer.flush();
+            if (gzip != null) {
+                gzip.finish();
+            }
+        } catch (UncheckedIOException e) {
+            // Typically the client disconnecting; the cursor has already been closed
+            log.warn("Transaction export aborted: {}", e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        log.info("Exported {} transactions as {}{} (account={}, from={}, to={}) in {} ms",
+                rows, format, request.isGzip() ? "+gzip" : "", request.getAccountNumber(),
+                request.getStartDate(), request.getEndDate(), (System.nanoTime() - started) / 1_000_000);
+        return rows;
+    }
+
+    private static String buildQuery(TransactionExportRequest request, List<Object> parameters) {
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(String.join(", ", COLUMNS))
+                .append(" FROM transactions WHERE 1 = 1");
+        if (request.getAccountNumber() != null && !request.getAccountNumber().isBlank()) {
+            sql.append(" AND account_number = ?");
+            parameters.add(request.getAccountNumber());
+        }
+        if (request.getStartDate() != null) {
+            sql.append(" AND transaction_date >= ?");
+            parameters.add(request.getStartDate());
+        }
+        if (request.getEndDate() != null) {
+            sql.append(" AND transaction_date <= ?");
+            parameters.add(request.getEndDate());
+        }
+        return sql.append(" ORDER BY transaction_date, id").toString();
+    }
+
+    private interface RowWriter {
+        void writeHeader() throws IOException;
+
+        void writeRow(ResultSet rs) throws IOException, SQLException;
+
+        void flush() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        // Leading characters that make Excel, LibreOffice and Google Sheets treat a cell as a formula
+        private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+        }
+
+        @Override
+        public void writeRow(ResultSet rs) throws IOException, SQLException {
+            writer.write(Long.toString(rs.getLong(1)));
+            for (int column = 2; column <= COLUMNS.length; column++) {
+                writer.write(',');
+                writeValue(rs, column);
+            }
+            writer.write('\n');
+        }
+
+        private void writeValue(ResultSet rs, int column) throws IOException, SQLException {
+            switch (COLUMNS[column - 1]) {
+                case "amount" -> {
+                    BigDecimal amount = rs.getBigDecimal(column);
+                    if (amount != null) {
+                        writer.write(amount.toPlainString());
+                    }
+                }
+                case "transaction_date" -> {
+                    LocalDateTime date = rs.getObject(column, LocalDateTime.class);
+                    if (date != null) {
+                        writer.write(date.toString());
+                    }
+                }
+                default -> writeEscaped(rs.getString(column));
+            }
+        }
+
+        /**
+         * RFC 4180 quoting, plus a leading apostrophe on text that a spreadsheet would evaluate as a formula
+         * (OWASP CSV injection guidance); such cells are always quoted.
+         */
+        private void writeEscaped(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean formula = !value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0;
+            boolean quote = formula;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            if (formula) {
+                writer.write('\'');
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() {
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Rows are newline-terminated below, so drop the default space between root-level values
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void writeHeader() {
+        }
+
+        @Override
+        public void writeRow(ResultSet rs) throws IOException, SQLException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", rs.getLong("id"));
+            generator.writeStringField("accountNumber", rs.getString("account_number"));
+            generator.writeStringField("transactionType", rs.getString("transaction_type"));
+            generator.writeNumberField("amount", rs.getBigDecimal("amount"));
+            generator.writeStringField("currency", rs.getString("currency"));
+            generator.writeStringField("merchantName", rs.getString("merchant_name"));
+            generator.writeStringField("merchantCategory", rs.getString("merchant_category"));
+            generator.writeStringField("location", rs.getString("location"));
+            LocalDateTime date = rs.getObject("transaction_date", LocalDateTime.class);
+            generator.writeStringField("transactionDate", date != null ? date.toString() : null);
+            generator.writeStringField("status", rs.getString("status"));
+            generator.writeStringField("description", rs.getString("description"));
+            generator.writeStringField("counterpartyAccount", rs.getString("counterparty_account"));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of generated transaction insight narratives.
+ * Entries are keyed by account, period and analysis type and carry a fingerprint of the data the
+ * narrative was generated from; a fingerprint mismatch (for example a new transaction in the period)
+ * makes the entry stale. Stale entries are regenerated synchronously, or, when stale-while-revalidate
+ * is enabled, served immediately while a single background regeneration runs.
+ */
+@Component
+@Slf4j
+public class TransactionInsightsCache {
+
+    private final boolean enabled;
+    private final boolean staleWhileRevalidate;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final ExecutorService refreshExecutor;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter staleServed;
+    private final Counter invalidations;
+
+    public TransactionInsightsCache(MeterRegistry meterRegistry,
+                                    @Value("${transaction-analysis.insights-cache.enabled:true}") boolean enabled,
+                                    @Value("${transaction-analysis.insights-cache.max-entries:10000}") int maxEntries,
+                                    @Value("${transaction-analysis.insights-cache.ttl-minutes:1440}") long ttlMinutes,
+                                    @Value("${transaction-analysis.insights-cache.stale-while-revalidate:false}") boolean staleWhileRevalidate,
+                                    @Value("${transaction-analysis.insights-cache.refresh-threads:2}") int refreshThreads) {
+        this.enabled = enabled;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.ttlMillis = Duration.ofMinutes(ttlMinutes).toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.refreshExecutor = Executors.newFixedThreadPool(refreshThreads, runnable -> {
+            Thread thread = new Thread(runnable, "insights-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.hits = meterRegistry.counter("transaction.insights.cache", "result", "hit");
+        this.misses = meterRegistry.counter("transaction.insights.cache", "result", "miss");
+        this.staleServed = meterRegistry.counter("transaction.insights.cache", "result", "stale");
+        this.invalidations = meterRegistry.counter("transaction.insights.cache.invalidations");
+        meterRegistry.gauge("transaction.insights.cache.size", this, TransactionInsightsCache::size);
+        meterRegistry.gauge("transaction.insights.cache.hit.ratio", this, TransactionInsightsCache::hitRatio);
+    }
+
+    /**
+     * Return the cached narrative for the key if it was generated from the same data, otherwise generate it.
+     */
+    public String get(String key, String fingerprint, Supplier<String> generator) {
+        if (!enabled) {
+            return generator.get();
+        }
+        long now = System.currentTimeMillis();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        if (entry != null && entry.fingerprint().equals(fingerprint) && now - entry.createdAt() < ttlMillis) {
+            hits.increment();
+            return entry.insights();
+        }
+
+        if (entry != null) {
+            invalidations.increment();
+            if (staleWhileRevalidate) {
+                staleServed.increment();
+                refreshInBackground(key, fingerprint, generator);
+                return entry.insights();
+            }
+        }
+
+        misses.increment();
+        String insights = generator.get();
+        put(key, fingerprint, insights);
+        return insights;
+    }
+
+    public static String key(String accountNumber, Object periodStart, Object periodEnd, String analysisType) {
+        return accountNumber + "|" + periodStart + "|" + periodEnd + "|" + analysisType;
+    }
+
+    public static String fingerprint(String data) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(data.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private void refreshInBackground(String key, String fingerprint, Supplier<String> generator) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            try {
+                put(key, fingerprint, generator.get());
+            } catch (Exception e) {
+                log.warn("Background refresh of transaction insights failed for {}", key, e);
+            } finally {
+                refreshing.remove(key);
+            }
+        });
+    }
+
+    private void put(String key, String fingerprint, String insights) {
+        synchronized (entries) {
+            entries.put(key, new Entry(fingerprint, insights, System.currentTimeMillis()));
+        }
+    }
+
+    private double size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private double hitRatio() {
+        double served = hits.count() + staleServed.count();
+        double total = served + misses.count();
+        return total > 0 ? served / total : 0.0;
+    }
+
+    private record Entry(String fingerprint, String insights, long createdAt) {}
+}
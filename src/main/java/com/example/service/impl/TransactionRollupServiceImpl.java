@@ -0,0 +1,251 @@
+package com.example.service.impl;
+
+import com.example.event.TransactionSavedEvent;
+import com.example.model.Money;
+import com.example.model.MoneyAccumulator;
+import com.example.model.Transaction;
+import com.example.model.TransactionDailyRollup;
+import com.example.model.dto.DailyCategoryTotals;
+import com.example.model.dto.TransactionPeriodTotals;
+import com.example.repository.TransactionDailyRollupRepository;
+import com.example.repository.TransactionRepository;
+import com.example.service.TransactionRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Maintains the transaction_daily_rollup read model and answers period queries from it.
+ * Whole days come from rollup rows; partial days at either end of the period are aggregated
+ * from raw transactions, so results match a full scan while touching at most two days of raw data.
+ * Backfills run under a batch job lease, so with several replicas only one rebuilds the rollup at a time.
+ */
+@Service
+@Slf4j
+public class TransactionRollupServiceImpl implements TransactionRollupService {
+
+    static final String JOB_NAME = "transaction-rollup-backfill";
+    private static final int MAX_UPSERT_ATTEMPTS = 2;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionDailyRollupRepository rollupRepository;
+    private final TransactionTemplate requiresNew;
+    private final BatchJobLeases jobLeases;
+
+    public TransactionRollupServiceImpl(TransactionRepository transactionRepository,
+                                        TransactionDailyRollupRepository rollupRepository,
+                                        PlatformTransactionManager transactionManager,
+                                        BatchJobLeases jobLeases) {
+        this.transactionRepository = transactionRepository;
+        this.rollupRepository = rollupRepository;
+        this.jobLeases = jobLeases;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Populate the rollup on first start, including seed data saved before the listener was active. The
+     * emptiness check runs under the lease, so an instance that starts while another is backfilling skips,
+     * and one that starts later sees the rows.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!jobLeases.tryAcquire(JOB_NAME)) {
+            log.info("Daily rollup is being backfilled by another instance");
+            return;
+        }
+        try {
+            if (rollupRepository.count() == 0) {
+                rebuild();
+            }
+        } finally {
+            jobLeases.release(JOB_NAME);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionSaved(TransactionSavedEvent event) {
+        apply(event.transaction());
+    }
+
+    @Override
+    public void apply(Transaction transaction) {
+        LocalDateTime at = transaction.getTransactionDate();
+        LocalDate day = at.toLocalDate();
+        long debitCount = "DEBIT".equals(transaction.getTransactionType()) ? 1 : 0;
+        BigDecimal debit = debitCount == 1 ? transaction.getAmount() : BigDecimal.ZERO;
+        BigDecimal credit = "CREDIT".equals(transaction.getTransactionType()) ? transaction.getAmount() : BigDecimal.ZERO;
+
+        // Update-then-insert; a concurrent insert of the same key fails the unique constraint and is retried as an update
+        for (int attempt = 1; ; attempt++) {
+            try {
+                requiresNew.executeWithoutResult(status -> {
+                    int updated = rollupRepository.increment(
+                            transaction.getAccountNumber(), day, transaction.getMerchantCategory(),
+                            transaction.getCurrency(), debitCount, debit, credit, at);
+                    if (updated == 0) {
+                        rollupRepository.saveAndFlush(TransactionDailyRollup.builder()
+                                .accountNumber(transaction.getAccountNumber())
+                                .rollupDate(day)
+                                .merchantCategory(transaction.getMerchantCategory())
+                                .currency(transaction.getCurrency())
+                                .transactionCount(1L)
+                                .debitCount(debitCount)
+                                .debitTotal(debit)
+                                .creditTotal(credit)
+                                .firstTransactionAt(at)
+                                .lastTransactionAt(at)
+                                .build());
+                    }
+                });
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_UPSERT_ATTEMPTS) {
+                    log.error("Failed to update daily rollup for transaction {}; run the rollup backfill to repair",
+                            transaction.getId(), e);
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int backfill() {
+        if (!jobLeases.tryAcquire(JOB_NAME)) {
+            log.info("Daily rollup is being backfilled by another instance");
+            return -1;
+        }
+        try {
+            return rebuild();
+        } finally {
+            jobLeases.release(JOB_NAME);
+        }
+    }
+
+    private int rebuild() {
+        List<String> accountNumbers = transactionRepository.findDistinctAccountNumbers();
+        LocalDateTime from = LocalDateTime.of(1970, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.now().plusYears(100);
+        long rows = 0;
+        for (String accountNumber : accountNumbers) {
+            // One short transaction per account so a large backfill never holds a long-running lock
+            Integer written = requiresNew.execute(status -> {
+                requireLease();
+                rollupRepository.deleteByAccountNumber(accountNumber);
+                List<DailyCategoryTotals> totals = transactionRepository
+                        .aggregateDailyByCategory(accountNumber, from, to);
+                List<TransactionDailyRollup> entities = new ArrayList<>(totals.size());
+                for (DailyCategoryTotals t : totals) {
+                    entities.add(TransactionDailyRollup.builder()
+                            .accountNumber(accountNumber)
+                            .rollupDate(t.day())
+                            .merchantCategory(t.merchantCategory())
+                            .currency(t.currency())
+                            .transactionCount(t.count())
+                            .debitCount(t.debitCount())
+                            .debitTotal(t.debitTotal())
+                            .creditTotal(t.creditTotal())
+                            .firstTransactionAt(t.firstTransactionAt())
+                            .lastTransactionAt(t.lastTransactionAt())
+                            .build());
+                }
+                rollupRepository.saveAll(entities);
+                return entities.size();
+            });
+            rows += written != null ? written : 0;
+        }
+        log.info("Daily rollup backfilled: {} accounts, {} rows", accountNumbers.size(), rows);
+        return accountNumbers.size();
+    }
+
+    // Each account is rebuilt in a transaction fenced by the lease, so an instance that lost it stops writing
+    private void requireLease() {
+        if (!jobLeases.renew(JOB_NAME)) {
+            throw new IllegalStateException("Lease on " + JOB_NAME + " was lost to another instance");
+        }
+    }
+
+    @Override
+    public TransactionPeriodTotals getPeriodTotals(String accountNumber, LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDate firstFullDay = startDate.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? startDate.toLocalDate()
+                : startDate.toLocalDate().plusDays(1);
+        LocalDate lastFullDay = endDate.toLocalTime().equals(LocalTime.MAX)
+                ? endDate.toLocalDate()
+                : endDate.toLocalDate().minusDays(1);
+
+        List<DailyCategoryTotals> rows = new ArrayList<>();
+        if (firstFullDay.isAfter(lastFullDay)) {
+            rows.addAll(transactionRepository.aggregateDailyByCategory(accountNumber, startDate, endDate));
+        } else {
+            LocalDateTime fullStart = firstFullDay.atStartOfDay();
+            LocalDateTime fullEnd = lastFullDay.plusDays(1).atStartOfDay();
+            if (startDate.isBefore(fullStart)) {
+                rows.addAll(transactionRepository.aggregateDailyByCategory(
+                        accountNumber, startDate, fullStart.minus(1, ChronoUnit.MICROS)));
+            }
+            rows.addAll(rollupRepository.findTotals(accountNumber, firstFullDay, lastFullDay));
+            if (!endDate.isBefore(fullEnd)) {
+                rows.addAll(transactionRepository.aggregateDailyByCategory(accountNumber, fullEnd, endDate));
+            }
+        }
+        return fold(rows);
+    }
+
+    // Every sum is tagged with the row's currency, so a period that mixes currencies is rejected, not added up
+    private TransactionPeriodTotals fold(List<DailyCategoryTotals> rows) {
+        long count = 0;
+        long debitCount = 0;
+        MoneyAccumulator debits = new MoneyAccumulator();
+        MoneyAccumulator credits = new MoneyAccumulator();
+        LocalDateTime first = null;
+        LocalDateTime last = null;
+        Map<String, MoneyAccumulator> byCategory = new HashMap<>();
+        SortedMap<LocalDate, MoneyAccumulator> daily = new TreeMap<>();
+
+        for (DailyCategoryTotals row : rows) {
+            long rowDebitCents = Money.toMinorUnits(row.debitTotal());
+            count += row.count();
+            debitCount += row.debitCount();
+            debits.add(rowDebitCents, row.currency());
+            credits.add(row.creditTotal(), row.currency());
+            if (first == null || row.firstTransactionAt().isBefore(first)) {
+                first = row.firstTransactionAt();
+            }
+            if (last == null || row.lastTransactionAt().isAfter(last)) {
+                last = row.lastTransactionAt();
+            }
+            if (rowDebitCents != 0) {
+                byCategory.computeIfAbsent(row.merchantCategory(), k -> new MoneyAccumulator())
+                        .add(rowDebitCents, row.currency());
+                daily.computeIfAbsent(row.day(), k -> new MoneyAccumulator()).add(rowDebitCents, row.currency());
+            }
+        }
+
+        // Convert back to BigDecimal once per category and day, at the boundary
+        Map<String, BigDecimal> sortedCategories = new LinkedHashMap<>();
+        byCategory.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, MoneyAccumulator> e) -> e.getValue().getSumMinorUnits()).reversed())
+                .forEach(e -> sortedCategories.put(e.getKey(), e.getValue().getSum()));
+        SortedMap<LocalDate, BigDecimal> dailyDebits = new TreeMap<>();
+        daily.forEach((day, total) -> dailyDebits.put(day, total.getSum()));
+
+        return new TransactionPeriodTotals(count, debitCount, debits.getSum(), credits.getSum(),
+                Money.combineCurrency(debits.getCurrency(), credits.getCurrency()),
+                first, last, sortedCategories, dailyDebits);
+    }
+}
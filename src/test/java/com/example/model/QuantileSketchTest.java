@@ -0,0 +1,39 @@
+package com.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTest {
+
+	@Test
+	void quantilesStayWithinRelativeAccuracyAndMergeLosslessly() {
+		Random random = new Random(42);
+		long[] values = new long[100_000];
+		QuantileSketch left = new QuantileSketch();
+		QuantileSketch right = new QuantileSketch();
+		for (int i = 0; i < values.length; i++) {
+			// Log-normal spend amounts around 50.00, spanning a few cents to tens of thousands
+			values[i] = Math.max(1, Math.round(Math.exp(Math.log(5_000) + 1.5 * random.nextGaussian())));
+			(i % 2 == 0 ? left : right).add(values[i]);
+		}
+		QuantileSketch merged = left.copy().merge(right);
+		Arrays.sort(values);
+
+		assertEquals(values.length, merged.getCount());
+		for (double q : new double[] {0.1, 0.5, 0.9, 0.97, 0.99}) {
+			long exact = values[(int) Math.ceil(q * values.length) - 1];
+			double estimate = merged.quantile(q).movePointRight(2).doubleValue();
+			assertTrue(Math.abs(estimate - exact) <= exact * QuantileSketch.DEFAULT_RELATIVE_ACCURACY + 1,
+					"q=" + q + " exact=" + exact + " estimate=" + estimate);
+		}
+
+		double rank = merged.rank(BigDecimal.valueOf(values[values.length / 2], 2));
+		assertTrue(Math.abs(rank - 0.5) < 0.02, "rank of median was " + rank);
+	}
+}
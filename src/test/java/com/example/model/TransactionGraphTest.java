@@ -0,0 +1,80 @@
+package com.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionGraphTest {
+
+	private static final long HOUR = 3600;
+	private static final long WINDOW = 72 * HOUR;
+
+	@Test
+	void findsFundsReturningWithinWindowAlongTimeRespectingPaths() {
+		TransactionGraph graph = new TransactionGraph();
+		// A -> B -> C -> A within 30 hours
+		graph.addEdge("A", "B", 0, 900_000);
+		graph.addEdge("B", "C", 10 * HOUR, 880_000);
+		graph.addEdge("C", "A", 30 * HOUR, 850_000);
+		// A -> D -> A, but the return happens before the outgoing payment
+		graph.addEdge("D", "A", 1 * HOUR, 50_000);
+		graph.addEdge("A", "D", 2 * HOUR, 50_000);
+		// A -> E -> A, returned after the window
+		graph.addEdge("A", "E", 3 * HOUR, 70_000);
+		graph.addEdge("E", "A", 3 * HOUR + WINDOW + 1, 70_000);
+
+		List<TransactionGraph.Cycle> cycles = graph.cycles("A", 4, 0, WINDOW, 10, 10_000);
+
+		assertEquals(1, cycles.size());
+		TransactionGraph.Cycle cycle = cycles.get(0);
+		assertEquals(List.of("A", "B", "C", "A"), cycle.path());
+		assertEquals(3, cycle.hops());
+		assertEquals(30 * HOUR, cycle.endEpochSecond() - cycle.startEpochSecond());
+		assertEquals(850_000, cycle.returnedCents());
+		assertTrue(graph.cycles("A", 2, 0, WINDOW, 10, 10_000).isEmpty());
+	}
+
+	@Test
+	void countsAccountsReachedPerHopAndIgnoresDuplicateBookings() {
+		TransactionGraph graph = new TransactionGraph();
+		graph.addEdge("A", "B", 100, 1_000);
+		graph.addEdge("A", "C", 100, 2_000);
+		// The same transfer booked on the receiving account is not a second edge
+		assertFalse(graph.addEdge("A", "C", 100, 2_000));
+		graph.addEdge("B", "D", 200, 900);
+		graph.addEdge("C", "D", 300, 1_900);
+		graph.addEdge("D", "E", 400, 2_700);
+		// Paid out before B received anything, so not part of a path from A
+		graph.addEdge("B", "F", 50, 500);
+
+		TransactionGraph.FanOut fanOut = graph.fanOut("A", 3, 0, WINDOW);
+
+		assertArrayEquals(new int[] {2, 1, 1}, fanOut.accountsPerHop());
+		assertEquals(4, fanOut.reachable());
+		assertEquals(3_000, fanOut.directOutflowCents());
+		// Arrivals from the previous query do not carry over
+		assertArrayEquals(new int[] {2, 1, 1}, graph.fanOut("A", 3, 0, WINDOW).accountsPerHop());
+		assertArrayEquals(new int[] {2, 1}, graph.fanOut("B", 2, 0, WINDOW).accountsPerHop());
+		assertEquals(2, graph.distinctSenders("D", 0));
+		assertEquals(6, graph.getEdgeCount());
+	}
+
+	@Test
+	void evictsEdgesOlderThanCutoff() {
+		TransactionGraph graph = new TransactionGraph();
+		graph.addEdge("A", "B", 10, 100);
+		graph.addEdge("B", "A", 20, 100);
+		graph.addEdge("A", "C", 30, 100);
+
+		assertEquals(2, graph.evictBefore(25));
+
+		assertEquals(1, graph.getEdgeCount());
+		assertEquals(0, graph.distinctSenders("A", 0));
+		assertArrayEquals(new int[] {1, 0}, graph.fanOut("A", 2, 0, WINDOW).accountsPerHop());
+	}
+}
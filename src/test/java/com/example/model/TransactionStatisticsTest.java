@@ -0,0 +1,106 @@
+package com.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Accumulator-level checks on generated transactions. The database cursor, fetch size and per-entity detach
+ * are covered separately by TransactionAnalysisStreamingTest.
+ */
+class TransactionStatisticsTest {
+
+	private static final int ROWS = 5_000_000;
+	private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+	@Test
+	void accumulatesFiveMillionRowsWithoutRetainingThem() {
+		TransactionStatistics stats = new TransactionStatistics();
+		long expectedDebitCents = 0;
+		long expectedCreditCents = 0;
+		for (int i = 0; i < ROWS; i++) {
+			long cents = 100 + (i % 100_000);
+			if (i % 3 == 0) {
+				expectedCreditCents += cents;
+			} else {
+				expectedDebitCents += cents;
+			}
+		}
+
+		IntStream.range(0, ROWS)
+				.mapToObj(TransactionStatisticsTest::transaction)
+				.forEach(stats);
+
+		assertEquals(ROWS, stats.getCount());
+		assertEquals(ROWS - stats.getCreditCount(), stats.getDebitCount());
+		assertEquals(BigDecimal.valueOf(expectedDebitCents, 2), stats.getDebitTotal());
+		assertEquals(BigDecimal.valueOf(expectedCreditCents, 2), stats.getCreditTotal());
+		assertEquals(new BigDecimal("1.00"), stats.getMinAmount());
+		assertEquals(new BigDecimal("1000.99"), stats.getMaxAmount());
+		assertEquals(START, stats.getFirstDate());
+		assertEquals(START.plusMinutes(ROWS - 1), stats.getLastDate());
+		assertTrue(stats.getNightShare() > 0.24 && stats.getNightShare() < 0.26);
+	}
+
+	@Test
+	void parallelCollectMatchesSequentialPass() {
+		TransactionStatistics sequential = new TransactionStatistics();
+		IntStream.range(0, 200_000)
+				.mapToObj(TransactionStatisticsTest::transaction)
+				.forEach(sequential);
+
+		TransactionStatistics parallel = IntStream.range(0, 200_000)
+				.parallel()
+				.mapToObj(TransactionStatisticsTest::transaction)
+				.collect(TransactionStatistics.collector());
+
+		assertEquals(sequential.getCount(), parallel.getCount());
+		assertEquals(sequential.getDebitCents(), parallel.getDebitCents());
+		assertEquals(sequential.getCreditCents(), parallel.getCreditCents());
+		assertEquals(sequential.getDebitCentsByCategory(), parallel.getDebitCentsByCategory());
+		assertEquals(sequential.getCountsByCategory(), parallel.getCountsByCategory());
+		assertEquals(sequential.getMaxTransactionId(), parallel.getMaxTransactionId());
+		assertEquals(sequential.getFirstDate(), parallel.getFirstDate());
+		assertEquals(sequential.getLastDate(), parallel.getLastDate());
+		assertEquals(sequential.toStatistics(), parallel.toStatistics());
+	}
+
+	@Test
+	void rejectsAmountsInAnotherCurrency() {
+		TransactionStatistics stats = new TransactionStatistics();
+		stats.accept(transaction(1));
+		Transaction euros = transaction(2);
+		euros.setCurrency("EUR");
+
+		assertThrows(IllegalArgumentException.class, () -> stats.accept(euros));
+
+		TransactionStatistics other = new TransactionStatistics();
+		other.accept(transaction(4));
+		other.accept(transaction(5));
+		TransactionStatistics inEuros = new TransactionStatistics();
+		inEuros.accept(euros);
+		assertEquals("USD", stats.merge(other).getCurrency());
+		assertThrows(IllegalArgumentException.class, () -> stats.merge(inEuros));
+	}
+
+	private static Transaction transaction(int i) {
+		return Transaction.builder()
+				.id((long) i)
+				.accountNumber("CORP001")
+				.transactionType(i % 3 == 0 ? "CREDIT" : "DEBIT")
+				.amount(BigDecimal.valueOf(100 + (i % 100_000), 2))
+				.currency("USD")
+				.merchantName("Merchant " + (i % 50))
+				.merchantCategory("CATEGORY_" + (i % 8))
+				.location("New York, NY")
+				.transactionDate(START.plusMinutes(i))
+				.status("COMPLETED")
+				.build();
+	}
+}
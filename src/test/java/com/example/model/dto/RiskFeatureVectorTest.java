@@ -0,0 +1,85 @@
+package com.example.model.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RiskFeatureVectorTest {
+
+	private static RiskFeatureVector vector(String balance, long transactions30d, long flagged6m,
+											Map<String, Double> categoryMix) {
+		return new RiskFeatureVector(new BigDecimal(balance), transactions30d, flagged6m, categoryMix,
+				"ACTIVE", "VERIFIED", "LOW");
+	}
+
+	private static final RiskFeatureVector BASE = vector("5000.00", 20, 1, Map.of("Groceries", 0.6, "Dining", 0.4));
+
+	@Test
+	void identicalVectorsHaveNoDistanceAndNoChanges() {
+		RiskFeatureVector same = vector("5000.00", 20, 1, Map.of("Dining", 0.4, "Groceries", 0.6));
+
+		assertEquals(0.0, same.distance(BASE));
+		assertTrue(same.describeChanges(BASE).isEmpty());
+	}
+
+	@Test
+	void statusKycProfileChangesAndNewFlagsAreAFullChange() {
+		Map<String, Double> mix = BASE.categoryMix();
+		assertEquals(1.0, new RiskFeatureVector(BASE.balance(), 20, 1, mix, "FROZEN", "VERIFIED", "LOW").distance(BASE));
+		assertEquals(1.0, new RiskFeatureVector(BASE.balance(), 20, 1, mix, "ACTIVE", "PENDING", "LOW").distance(BASE));
+		assertEquals(1.0, new RiskFeatureVector(BASE.balance(), 20, 1, mix, "ACTIVE", "VERIFIED", "HIGH").distance(BASE));
+		assertEquals(1.0, vector("5000.00", 20, 2, mix).distance(BASE));
+		// A flag ageing out of the six-month window is not a change on its own
+		assertEquals(0.0, vector("5000.00", 20, 0, mix).distance(BASE));
+	}
+
+	@Test
+	void velocityChangeExactlyAtTheThresholdIsMeasuredExactly() {
+		// 3 of max(20, 17) transactions: the default gate threshold of 0.15, which does not allow reuse
+		assertEquals(0.15, vector("5000.00", 17, 1, BASE.categoryMix()).distance(BASE));
+		// Below the velocity floor of 10 the change is divided by the floor
+		RiskFeatureVector quiet = vector("5000.00", 2, 1, BASE.categoryMix());
+		assertEquals(0.1, vector("5000.00", 3, 1, BASE.categoryMix()).distance(quiet), 1e-12);
+	}
+
+	@Test
+	void categoryMixUsesTotalVariationOverTheUnionOfCategories() {
+		assertEquals(1.0, vector("5000.00", 20, 1, Map.of("Travel", 0.7, "Gambling", 0.3)).distance(BASE), 1e-12);
+		// Groceries -0.2, Dining -0.4, Travel +0.6: half the L1 distance
+		assertEquals(0.6, vector("5000.00", 20, 1, Map.of("Groceries", 0.4, "Travel", 0.6)).distance(BASE), 1e-12);
+		// No spend in the window on either side
+		RiskFeatureVector empty = vector("5000.00", 20, 1, Map.of());
+		assertEquals(0.0, vector("5000.00", 20, 1, Map.of()).distance(empty));
+	}
+
+	@Test
+	void smallBalancesAreComparedAgainstTheFloor() {
+		RiskFeatureVector small = vector("100.00", 20, 1, BASE.categoryMix());
+		// 500 of a 1000 floor rather than of 600
+		assertEquals(0.5, vector("600.00", 20, 1, BASE.categoryMix()).distance(small), 1e-12);
+		assertEquals(0.1, vector("0.00", 20, 1, BASE.categoryMix()).distance(small), 1e-12);
+		// Above the floor the larger balance is the scale
+		assertEquals(0.2, vector("4000.00", 20, 1, BASE.categoryMix()).distance(BASE), 1e-12);
+	}
+
+	@Test
+	void describeChangesListsWhatMovedAndSkipsSmallMixShifts() {
+		RiskFeatureVector current = new RiskFeatureVector(new BigDecimal("4000.00"), 25, 2,
+				Map.of("Groceries", 0.57, "Dining", 0.33, "Travel", 0.1), "ACTIVE", "PENDING", "LOW");
+
+		List<String> changes = current.describeChanges(BASE);
+
+		assertEquals(List.of(
+				"KYC status: VERIFIED -> PENDING",
+				"Balance: 5000.00 -> 4000.00",
+				"Transactions in last 30 days: 20 -> 25",
+				"Fraud-flagged transactions in last 6 months: 1 -> 2",
+				"Dining share of spend: 40% -> 33%",
+				"Travel share of spend: 0% -> 10%"), changes);
+	}
+}
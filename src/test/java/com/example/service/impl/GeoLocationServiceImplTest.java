@@ -0,0 +1,49 @@
+package com.example.service.impl;
+
+import com.example.model.Transaction;
+import com.example.model.dto.AccountGeoProfile;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoLocationServiceImplTest {
+
+	private GeoLocationServiceImpl service() {
+		GeoLocationServiceImpl service = new GeoLocationServiceImpl(null, "US", 900, 500, 365);
+		service.loadDictionary();
+		return service;
+	}
+
+	@Test
+	void unresolvableLocationsCountAsInternational() {
+		GeoLocationServiceImpl service = service();
+
+		assertFalse(service.isInternational("New York, NY"));
+		assertTrue(service.isInternational("Cayman Islands Offshore"));
+		assertTrue(service.isInternational("Unknown Location"));
+		assertTrue(service.isInternational("Xyzzy Free Zone"));
+		assertTrue(service.isInternational(null));
+		assertTrue(service.features("ACC001", "Unknown Location", LocalDateTime.now()).international());
+	}
+
+	@Test
+	void profileCountsUnverifiedLocationsSeparately() {
+		GeoLocationServiceImpl service = service();
+		LocalDateTime now = LocalDateTime.now();
+		service.record(Transaction.builder().accountNumber("ACC001").location("New York, NY")
+				.transactionDate(now.minusHours(2)).build());
+		service.record(Transaction.builder().accountNumber("ACC001").location("Unknown Location")
+				.transactionDate(now.minusHours(1)).build());
+
+		AccountGeoProfile profile = service.getProfile("ACC001");
+
+		assertEquals(2, profile.getTotalTransactions());
+		assertEquals(1, profile.getInternationalTransactions());
+		assertEquals(1, profile.getUnverifiedLocationTransactions());
+		assertEquals(0, profile.getOffshoreTransactions());
+	}
+}
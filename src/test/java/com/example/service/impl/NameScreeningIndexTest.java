@@ -0,0 +1,69 @@
+package com.example.service.impl;
+
+import com.example.model.dto.ScreeningListEntry;
+import com.example.model.dto.ScreeningMatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NameScreeningIndexTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void matchesReorderedAccentedPhoneticAndMisspelledNames() throws IOException {
+		NameScreeningIndex index = new NameScreeningIndex(List.of(
+				new ScreeningListEntry("SDN", "1", "DOE, John", "individual", "SDGT", List.of("Johnny DOE")),
+				new ScreeningListEntry("SDN", "2", "ACME TRADING CO LTD", "entity", "IRAN", List.of()),
+				new ScreeningListEntry("PEP", "3", "José Müller", "pep", null, List.of())));
+
+		ScreeningMatch exact = index.search("customer", "john doe", 0.8, 3).get(0);
+		assertEquals("1", exact.entryId());
+		assertEquals("EXACT", exact.matchType());
+		assertEquals(1.0, exact.score());
+
+		assertEquals("EXACT", index.search("merchant", "Acme Trading", 0.8, 3).get(0).matchType());
+		assertEquals("EXACT", index.search("customer", "Jose Muller", 0.8, 3).get(0).matchType());
+		assertEquals("PHONETIC", index.search("customer", "Jon Do", 0.8, 3).get(0).matchType());
+
+		List<ScreeningMatch> fuzzy = index.search("customer", "Johnny Doee", 0.6, 3);
+		assertEquals("1", fuzzy.get(0).entryId());
+		assertTrue(fuzzy.get(0).score() < 1.0);
+
+		assertTrue(index.search("customer", "Alice Smith", 0.8, 3).isEmpty());
+	}
+
+	@Test
+	void loadsOfacSdnWithAlternateNamesAndHeaderedLists() throws IOException {
+		Path sdn = Files.writeString(dir.resolve("sdn.csv"),
+				"36,\"AEROCARIBBEAN AIRLINES\",-0- ,\"CUBA\",-0- ,-0- ,-0- ,-0- ,-0- ,-0- ,-0- ,\"Havana, Cuba.\"\n");
+		Path alt = Files.writeString(dir.resolve("alt.csv"), "36,12,\"aka\",\"AERO-CARIBBEAN\",-0-\n");
+		Path pep = Files.writeString(dir.resolve("pep.csv"),
+				"id,name,type,program,aliases\nP1,Jane Roe,pep,Minister,J. Roe;Janet Roe\n");
+
+		Map<String, ScreeningListEntry> entries = new LinkedHashMap<>();
+		NameScreeningIndex.load("OFAC_SDN", sdn, entries);
+		NameScreeningIndex.load("OFAC_SDN", alt, entries);
+		NameScreeningIndex.load("PEP", pep, entries);
+		NameScreeningIndex index = new NameScreeningIndex(new ArrayList<>(entries.values()));
+
+		assertEquals(2, index.getEntryCount());
+		assertEquals(5, index.getNameCount());
+		ScreeningMatch viaAlias = index.search("merchant", "Aero Caribbean", 0.8, 3).get(0);
+		assertEquals("AEROCARIBBEAN AIRLINES", viaAlias.entryName());
+		assertEquals("AERO-CARIBBEAN", viaAlias.matchedName());
+		assertEquals("CUBA", viaAlias.programs());
+		assertEquals("P1", index.search("counterparty", "Janet Roe", 0.8, 3).get(0).entryId());
+	}
+}
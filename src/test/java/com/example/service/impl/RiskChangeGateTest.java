@@ -0,0 +1,52 @@
+package com.example.service.impl;
+
+import com.example.model.RiskAssessment;
+import com.example.model.dto.RiskFeatureVector;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RiskChangeGateTest {
+
+	private static final String SIGNATURE = "ACTIVE|VERIFIED|LOW|true";
+
+	private final RiskChangeGate gate = new RiskChangeGate(null, null, new ObjectMapper(), new SimpleMeterRegistry(),
+			true, 0.15);
+
+	private static RiskFeatureVector vector(long transactions30d) {
+		return new RiskFeatureVector(new BigDecimal("5000.00"), transactions30d, 0, Map.of("Groceries", 1.0),
+				"ACTIVE", "VERIFIED", "LOW");
+	}
+
+	private RiskAssessment previous(RiskFeatureVector features) {
+		return RiskAssessment.builder().featureVector(gate.serialize(features)).contextSignature(SIGNATURE).build();
+	}
+
+	@Test
+	void reusesOnlyBelowTheThreshold() {
+		RiskAssessment previous = previous(vector(20));
+
+		// 2 of 20 transactions: 0.10
+		assertTrue(gate.decide(previous, vector(18), SIGNATURE).reuse());
+		// 3 of 20: exactly the threshold, which calls the LLM
+		RiskChangeGate.Decision atThreshold = gate.decide(previous, vector(17), SIGNATURE);
+		assertEquals(0.15, atThreshold.distance());
+		assertFalse(atThreshold.reuse());
+	}
+
+	@Test
+	void differentContextOrNoStoredFeaturesCallTheLlm() {
+		assertFalse(gate.decide(previous(vector(20)), vector(20), "ACTIVE|VERIFIED|LOW|false").reuse());
+
+		RiskChangeGate.Decision noFeatures = gate.decide(RiskAssessment.builder().build(), vector(20), SIGNATURE);
+		assertEquals(1.0, noFeatures.distance());
+		assertFalse(noFeatures.reuse());
+	}
+}
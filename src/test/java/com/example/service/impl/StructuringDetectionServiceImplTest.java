@@ -0,0 +1,85 @@
+package com.example.service.impl;
+
+import com.example.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StructuringDetectionServiceImplTest {
+
+	private static final LocalDateTime START = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+	// Band [8000, 10000), alert when at least two deposits reach 10000 within 72 hours
+	private StructuringDetectionServiceImpl detector() {
+		return new StructuringDetectionServiceImpl(null, null, new BigDecimal("8000"), new BigDecimal("10000"),
+				new BigDecimal("10000"), 2, 72, 300, "USD");
+	}
+
+	private static Transaction deposit(long id, String amount, LocalDateTime date) {
+		return deposit(id, amount, "USD", date);
+	}
+
+	private static Transaction deposit(long id, String amount, String currency, LocalDateTime date) {
+		return Transaction.builder().id(id).accountNumber("ACC001").transactionType("CREDIT")
+				.amount(new BigDecimal(amount)).currency(currency).transactionDate(date).createdAt(date).build();
+	}
+
+	@Test
+	void alertsOnSecondInBandDepositAndStaysQuietDuringCoolDown() {
+		StructuringDetectionServiceImpl detector = detector();
+
+		assertTrue(detector.update(deposit(1, "9500.00", START)).isEmpty());
+		List<String> findings = detector.update(deposit(2, "9600.00", START.plusHours(5)));
+		assertEquals(1, findings.size());
+		assertTrue(findings.get(0).contains("account ACC001 received 2 deposits"), findings.get(0));
+
+		// Still inside the window of the first alert
+		assertTrue(detector.update(deposit(3, "9700.00", START.plusHours(10))).isEmpty());
+		// A full window after the first alert the pattern is reported again
+		assertEquals(1, detector.update(deposit(4, "9800.00", START.plusHours(78))).size());
+	}
+
+	@Test
+	void sameDepositSeenTwiceCountsOnce() {
+		StructuringDetectionServiceImpl detector = detector();
+		Transaction first = deposit(1, "9500.00", START);
+
+		assertTrue(detector.update(first).isEmpty());
+		// e.g. the local save event and the database refresh both deliver it
+		assertTrue(detector.update(first).isEmpty());
+	}
+
+	@Test
+	void backdatedDepositsKeepTheWindowInTimeOrder() {
+		StructuringDetectionServiceImpl detector = detector();
+
+		assertTrue(detector.update(deposit(1, "9000.00", START.plusHours(100))).isEmpty());
+		// Older than the window before the latest deposit, so ignored rather than counted
+		assertTrue(detector.update(deposit(2, "9000.00", START)).isEmpty());
+		// Backdated but inside the window: pairs with the first deposit
+		assertEquals(1, detector.update(deposit(3, "9000.00", START.plusHours(90))).size());
+	}
+
+	@Test
+	void depositsOutsideTheBandAreIgnored() {
+		StructuringDetectionServiceImpl detector = detector();
+
+		assertTrue(detector.update(deposit(1, "10000.00", START)).isEmpty());
+		assertTrue(detector.update(deposit(2, "7999.99", START.plusHours(1))).isEmpty());
+		assertTrue(detector.update(deposit(3, "9999.99", START.plusHours(2))).isEmpty());
+	}
+
+	@Test
+	void depositsInOtherCurrenciesAreNotAddedToTheWindow() {
+		StructuringDetectionServiceImpl detector = detector();
+
+		assertTrue(detector.update(deposit(1, "9500.00", START)).isEmpty());
+		assertTrue(detector.update(deposit(2, "9500.00", "EUR", START.plusHours(1))).isEmpty());
+		assertEquals(1, detector.update(deposit(3, "9500.00", START.plusHours(2))).size());
+	}
+}
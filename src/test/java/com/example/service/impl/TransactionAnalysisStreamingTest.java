@@ -0,0 +1,96 @@
+package com.example.service.impl;
+
+import com.example.model.TransactionStatistics;
+import com.example.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Streams 5M rows through the real repository cursor under the fixed heap of the bounded-heap surefire
+ * execution (-Xmx384m). The rows are kept in a file-backed H2 database with a 16 MB page cache, so they are
+ * not in the heap; 5M managed entities would need several GB, so the pass only completes if the cursor,
+ * fetch size and per-entity detach keep the persistence context empty.
+ */
+@Tag("bounded-heap")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:file:./target/h2/streaming-test;CACHE_SIZE=16384")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionAnalysisStreamingTest {
+
+	private static final int ROWS = 5_000_000;
+	private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void streamsRepositoryCursorWithoutRetainingEntities() {
+		long expectedDebitCents = insertTransactions();
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		TransactionAnalysisServiceImpl service = new TransactionAnalysisServiceImpl(
+				null, null, transactionRepository, null, transactionTemplate, null, null, 1);
+		ReflectionTestUtils.setField(service, "entityManager", entityManager);
+
+		// Run inside an outer transaction so the shared persistence context can be inspected afterwards
+		transactionTemplate.executeWithoutResult(status -> {
+			TransactionStatistics stats = service.streamStatistics("CORP001", START, START.plusMinutes(ROWS));
+
+			assertEquals(ROWS, stats.getCount());
+			assertEquals(expectedDebitCents, stats.getDebitCents());
+			assertEquals(START.plusMinutes(ROWS - 1), stats.getLastDate());
+			assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+		});
+	}
+
+	private long insertTransactions() {
+		String sql = "INSERT INTO transactions (account_number, transaction_type, amount, currency, merchant_name, "
+				+ "merchant_category, location, transaction_date, status, created_at) "
+				+ "VALUES ('CORP001', ?, ?, 'USD', 'Merchant', 'RETAIL', 'New York, NY', ?, 'COMPLETED', ?)";
+		long debitCents = 0;
+		List<Object[]> batch = new ArrayList<>(10_000);
+		for (int i = 0; i < ROWS; i++) {
+			long cents = 100 + (i % 100_000);
+			boolean credit = i % 3 == 0;
+			if (!credit) {
+				debitCents += cents;
+			}
+			Timestamp date = Timestamp.valueOf(START.plusMinutes(i));
+			batch.add(new Object[] {credit ? "CREDIT" : "DEBIT", BigDecimal.valueOf(cents, 2), date, date});
+			if (batch.size() == 10_000) {
+				jdbcTemplate.batchUpdate(sql, batch);
+				batch.clear();
+			}
+		}
+		return debitCents;
+	}
+}